@@ -178,7 +178,14 @@ public class Block extends AbstractNamedBean implements PhysicalLocationReporter
         return false;
     }
 
+    /**
+     * Set the sensor, firing an "OccupancySensorChange" property change if it
+     * is a different one.
+     *
+     * @param s the handle of the Sensor, or null for none
+     */
     public void setNamedSensor(NamedBeanHandle<Sensor> s) {
+        NamedBeanHandle<Sensor> old = _namedSensor;
         if (_namedSensor != null) {
             if (_sensorListener != null) {
                 getSensor().removePropertyChangeListener(_sensorListener);
@@ -195,6 +202,9 @@ public class Block extends AbstractNamedBean implements PhysicalLocationReporter
         } else {
             _current = UNDETECTED;
         }
+        if (old != s) {
+            firePropertyChange("OccupancySensorChange", old, s);
+        }
     }
 
     public Sensor getSensor() {
@@ -7,6 +7,7 @@ import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.TreeMap;
 import jmri.InstanceManager;
 import jmri.jmrit.XmlFile;
 import jmri.jmrit.revhistory.FileHistory;
@@ -560,7 +561,10 @@ public class ConfigXmlManager extends jmri.jmrit.XmlFile
      * Handles problems locally to the extent that it can, by routing them to
      * the creationErrorEncountered method.
      * <p>
-     * Always processes on Swing thread
+     * The file is read and validated on the calling thread, then its items are
+     * always processed on the Swing thread, in order of
+     * {@link XmlAdapter#loadOrder()}. The time taken by each adapter is
+     * logged, and available from {@link #getLoadTimes()}.
      *
      * @param url              URL of file to load
      * @param registerDeferred true to register objects to defer
@@ -572,18 +576,34 @@ public class ConfigXmlManager extends jmri.jmrit.XmlFile
     @Override
     public boolean load(URL url, boolean registerDeferred) throws JmriConfigureXmlException {
         log.trace("starting load({}, {})", url, registerDeferred);
-        
+
+        // read and validate the file on this thread, so that the Swing thread
+        // is not held while a large file is parsed
+        long start = System.nanoTime();
+        Element root = null;
+        Exception readError = null;
+        try {
+            root = rootFromURL(url);
+        } catch (org.jdom2.JDOMException | java.io.IOException e) {
+            readError = e;  // reported with any other load problem
+        }
+        long readTime = System.nanoTime() - start;
+        Element readRoot = root;
+        Exception readException = readError;
+
         // we do the actual load on the Swing thread in case it changes visible windows
         Boolean retval = jmri.util.ThreadingUtil.runOnGUIwithReturn(() -> {
             try { 
-                Boolean ret = loadOnSwingThread(url, registerDeferred);
+                Boolean ret = loadOnSwingThread(url, readRoot, readException, registerDeferred);
                 return ret;
             } catch (Exception e) {
                 log.trace("  ending load() via JmriConfigureXmlException");
                 throw new RuntimeException(e);
             }
         });
-        
+
+        log.info("Loaded {} in {} ms, reading {} ms; {}", url.getFile(),
+                (System.nanoTime() - start) / 1000000, readTime / 1000000, formatLoadTimes());  // NOI18N
         log.trace("  ending load({}, {} with {})", url, registerDeferred, retval);
         return retval;
     }
@@ -602,19 +622,60 @@ public class ConfigXmlManager extends jmri.jmrit.XmlFile
         return validate;
     }
 
+    // adapter class name to total nanoseconds in the last load and deferred load
+    private final Map<String, Long> loadTimes = Collections.synchronizedMap(new LinkedHashMap<>());
+
+    /**
+     * Get the time each adapter took in the last load, including the deferred
+     * load that followed it, if any.
+     *
+     * @return adapter class names to milliseconds, slowest first
+     */
+    public Map<String, Long> getLoadTimes() {
+        List<Map.Entry<String, Long>> list;
+        synchronized (loadTimes) {
+            list = new ArrayList<>(loadTimes.entrySet());
+        }
+        list.sort(Map.Entry.<String, Long>comparingByValue().reversed());
+        Map<String, Long> result = new LinkedHashMap<>();
+        for (Map.Entry<String, Long> entry : list) {
+            result.put(entry.getKey(), entry.getValue() / 1000000);
+        }
+        return result;
+    }
+
+    private void addLoadTime(String adapterName, long time) {
+        loadTimes.merge(adapterName, time, Long::sum);
+    }
+
+    private String formatLoadTimes() {
+        if (loadTimes.isEmpty()) {
+            return "no adapters";  // NOI18N
+        }
+        StringBuilder sb = new StringBuilder("by adapter:");  // NOI18N
+        getLoadTimes().forEach((name, ms) -> sb.append(' ').append(name.substring(name.lastIndexOf('.') + 1))
+                .append(' ').append(ms).append(" ms,"));  // NOI18N
+        sb.setLength(sb.length() - 1);
+        return sb.toString();
+    }
+
     // must run on GUI thread only; that's ensured at the using level.
-    private Boolean loadOnSwingThread(URL url, boolean registerDeferred) throws JmriConfigureXmlException {
+    private Boolean loadOnSwingThread(URL url, Element root, Exception readError, boolean registerDeferred) throws JmriConfigureXmlException {
         boolean result = true;
-        Element root = null;
-        /* We will put all the elements into a load list, along with the load order
-         As XML files prior to 2.13.1 had no order to the store, beans would be stored/loaded
-         before beans that they were dependant upon had been stored/loaded
+        loadTimes.clear();
+        /* We will put all the elements into tiers by load order, along with
+         their adapters. As XML files prior to 2.13.1 had no order to the store,
+         beans would be stored/loaded before beans that they were dependant
+         upon had been stored/loaded
          */
-        Map<Element, Integer> loadlist = Collections.synchronizedMap(new LinkedHashMap<>());
+        Map<Integer, Map<Element, XmlAdapter>> tiers = new TreeMap<>();
 
         try {
-            setValidate(validate);
-            root = super.rootFromURL(url);
+            if (readError instanceof org.jdom2.JDOMException) {
+                throw (org.jdom2.JDOMException) readError;
+            } else if (readError instanceof java.io.IOException) {
+                throw (java.io.IOException) readError;
+            }
             // get the objects to load
             List<Element> items = root.getChildren();
             for (Element item : items) {
@@ -631,45 +692,43 @@ public class ConfigXmlManager extends jmri.jmrit.XmlFile
                 XmlAdapter adapter = (XmlAdapter) Class.forName(adapterName).getDeclaredConstructor().newInstance();
                 int order = adapter.loadOrder();
                 log.debug("add {} to load list with order id of {}", item, order);
-                loadlist.put(item, order);
+                tiers.computeIfAbsent(order, o -> new LinkedHashMap<>()).put(item, adapter);
             }
 
-            List<Map.Entry<Element, Integer>> l = new ArrayList<>(loadlist.entrySet());
-            Collections.sort(l, (Map.Entry<Element, Integer> o1, Map.Entry<Element, Integer> o2) -> o1.getValue().compareTo(o2.getValue()));
-
-            for (Map.Entry<Element, Integer> elementIntegerEntry : l) {
-                Element item = elementIntegerEntry.getKey();
-                String adapterName = item.getAttribute("class").getValue();
-                adapterName = currentClassName(adapterName);
-                log.debug("load {} via {}", item, adapterName);
-                XmlAdapter adapter = null;
-                try {
-                    adapter = (XmlAdapter) Class.forName(adapterName).getDeclaredConstructor().newInstance();
-
-                    // get version info
-                    // loadVersion(root, adapter);
-                    // and do it
-                    if (adapter.loadDeferred() && registerDeferred) {
-                        // register in the list for deferred load
-                        loadDeferredList.add(item);
-                        log.debug("deferred load registered for {} {}", item, adapterName);
-                    } else {
-                        boolean loadStatus = adapter.load(item, item);
-                        log.debug("load status for {} {} is {}", item, adapterName, loadStatus);
-
-                        // if any adaptor load fails, then the entire load has failed
-                        if (!loadStatus) {
-                            result = false;
+            for (Map<Element, XmlAdapter> tier : tiers.values()) {
+                for (Map.Entry<Element, XmlAdapter> entry : tier.entrySet()) {
+                    Element item = entry.getKey();
+                    XmlAdapter adapter = entry.getValue();
+                    String adapterName = adapter.getClass().getName();
+                    log.debug("load {} via {}", item, adapterName);
+                    long start = System.nanoTime();
+                    try {
+                        // get version info
+                        // loadVersion(root, adapter);
+                        // and do it
+                        if (adapter.loadDeferred() && registerDeferred) {
+                            // register in the list for deferred load
+                            loadDeferredList.add(item);
+                            log.debug("deferred load registered for {} {}", item, adapterName);
+                        } else {
+                            boolean loadStatus = adapter.load(item, item);
+                            log.debug("load status for {} {} is {}", item, adapterName, loadStatus);
+
+                            // if any adaptor load fails, then the entire load has failed
+                            if (!loadStatus) {
+                                result = false;
+                            }
                         }
-                    }
-                } catch (Exception e) {
-                    creationErrorEncountered(adapter, "load(" + url.getFile() + ")", "Unexpected error (Exception)", null, null, e);
+                    } catch (Exception e) {
+                        creationErrorEncountered(adapter, "load(" + url.getFile() + ")", "Unexpected error (Exception)", null, null, e);
 
-                    result = false;  // keep going, but return false to signal problem
-                } catch (Throwable et) {
-                    creationErrorEncountered(adapter, "in load(" + url.getFile() + ")", "Unexpected error (Throwable)", null, null, et);
+                        result = false;  // keep going, but return false to signal problem
+                    } catch (Throwable et) {
+                        creationErrorEncountered(adapter, "in load(" + url.getFile() + ")", "Unexpected error (Throwable)", null, null, et);
 
-                    result = false;  // keep going, but return false to signal problem
+                        result = false;  // keep going, but return false to signal problem
+                    }
+                    addLoadTime(adapterName, System.nanoTime() - start);
                 }
             }
 
@@ -739,6 +798,7 @@ public class ConfigXmlManager extends jmri.jmrit.XmlFile
     @Override
     public boolean loadDeferred(URL url) {
         boolean result = true;
+        long deferredStart = System.nanoTime();
         // Now process the load-later list
         log.debug("Start processing deferred load list (size): {}", loadDeferredList.size());
         if (!loadDeferredList.isEmpty()) {
@@ -746,6 +806,7 @@ public class ConfigXmlManager extends jmri.jmrit.XmlFile
                 String adapterName = item.getAttribute("class").getValue();
                 log.debug("deferred load via {}", adapterName);
                 XmlAdapter adapter = null;
+                long start = System.nanoTime();
                 try {
                     adapter = (XmlAdapter) Class.forName(adapterName).getDeclaredConstructor().newInstance();
                     boolean loadStatus = adapter.load(item, item);
@@ -764,9 +825,14 @@ public class ConfigXmlManager extends jmri.jmrit.XmlFile
                             "Unexpected error (Throwable)", null, null, et);
                     result = false;  // keep going, but return false to signal problem
                 }
+                addLoadTime(adapterName, System.nanoTime() - start);
             }
         }
         log.debug("Done processing deferred load list with result: {}", result);
+        if (!loadDeferredList.isEmpty()) {
+            log.info("Loaded deferred items from {} in {} ms; {}", url.getFile(),
+                    (System.nanoTime() - deferredStart) / 1000000, formatLoadTimes());  // NOI18N
+        }
         return result;
     }
 
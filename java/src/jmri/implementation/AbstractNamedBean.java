@@ -1,7 +1,6 @@
 package jmri.implementation;
 
 import java.beans.PropertyChangeListener;
-import java.beans.PropertyChangeSupport;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Objects;
@@ -11,7 +10,6 @@ import javax.annotation.Nonnull;
 import javax.annotation.CheckForNull;
 import javax.annotation.OverridingMethodsMustInvokeSuper;
 import jmri.NamedBean;
-import jmri.beans.BeanUtil;
 
 /**
  * Abstract base for the NamedBean interface.
@@ -129,80 +127,90 @@ public abstract class AbstractNamedBean implements NamedBean {
     //             Object oldValue,
     //      Object newValue)
     // _once_ if anything has changed state
-    // since we can't do a "super(this)" in the ctor to inherit from PropertyChangeSupport, we'll
-    // reflect to it
-    private final PropertyChangeSupport pcs = new PropertyChangeSupport(this);
+    // Listeners are held in a copy-on-write registry, so firing takes no lock;
+    // the reference maps below are guarded by the registry, not this bean.
+    private final PropertyChangeRegistry pcs = new PropertyChangeRegistry(this);
     protected final HashMap<PropertyChangeListener, String> register = new HashMap<>();
     protected final HashMap<PropertyChangeListener, String> listenerRefs = new HashMap<>();
 
     @Override
     @OverridingMethodsMustInvokeSuper
-    public synchronized void addPropertyChangeListener(@Nonnull PropertyChangeListener l,
-                                                       String beanRef, String listenerRef) {
-        pcs.addPropertyChangeListener(l);
-        if (beanRef != null) {
-            register.put(l, beanRef);
-        }
-        if (listenerRef != null) {
-            listenerRefs.put(l, listenerRef);
+    public void addPropertyChangeListener(@Nonnull PropertyChangeListener l,
+                                          String beanRef, String listenerRef) {
+        synchronized (pcs) {
+            pcs.addPropertyChangeListener(l);
+            if (beanRef != null) {
+                register.put(l, beanRef);
+            }
+            if (listenerRef != null) {
+                listenerRefs.put(l, listenerRef);
+            }
         }
     }
 
     @Override
     @OverridingMethodsMustInvokeSuper
-    public synchronized void addPropertyChangeListener(@Nonnull String propertyName,
-                                                       @Nonnull PropertyChangeListener l, String beanRef, String listenerRef) {
-        pcs.addPropertyChangeListener(propertyName, l);
-        if (beanRef != null) {
-            register.put(l, beanRef);
-        }
-        if (listenerRef != null) {
-            listenerRefs.put(l, listenerRef);
+    public void addPropertyChangeListener(@Nonnull String propertyName,
+                                          @Nonnull PropertyChangeListener l, String beanRef, String listenerRef) {
+        synchronized (pcs) {
+            pcs.addPropertyChangeListener(propertyName, l);
+            if (beanRef != null) {
+                register.put(l, beanRef);
+            }
+            if (listenerRef != null) {
+                listenerRefs.put(l, listenerRef);
+            }
         }
     }
 
     @Override
     @OverridingMethodsMustInvokeSuper
-    public synchronized void addPropertyChangeListener(PropertyChangeListener listener) {
+    public void addPropertyChangeListener(PropertyChangeListener listener) {
         pcs.addPropertyChangeListener(listener);
     }
 
     @Override
     @OverridingMethodsMustInvokeSuper
-    public synchronized void addPropertyChangeListener(String propertyName, PropertyChangeListener listener) {
+    public void addPropertyChangeListener(String propertyName, PropertyChangeListener listener) {
         pcs.addPropertyChangeListener(propertyName, listener);
     }
 
     @Override
     @OverridingMethodsMustInvokeSuper
-    public synchronized void removePropertyChangeListener(PropertyChangeListener listener) {
-        pcs.removePropertyChangeListener(listener);
-        if (listener != null && !BeanUtil.contains(pcs.getPropertyChangeListeners(), listener)) {
-            register.remove(listener);
-            listenerRefs.remove(listener);
+    public void removePropertyChangeListener(PropertyChangeListener listener) {
+        synchronized (pcs) {
+            pcs.removePropertyChangeListener(listener);
+            if (listener != null && !pcs.contains(listener)) {
+                register.remove(listener);
+                listenerRefs.remove(listener);
+            }
         }
     }
 
     @Override
     @OverridingMethodsMustInvokeSuper
-    public synchronized void removePropertyChangeListener(String propertyName, PropertyChangeListener listener) {
-        pcs.removePropertyChangeListener(propertyName, listener);
-        if (listener != null && !BeanUtil.contains(pcs.getPropertyChangeListeners(), listener)) {
-            register.remove(listener);
-            listenerRefs.remove(listener);
+    public void removePropertyChangeListener(String propertyName, PropertyChangeListener listener) {
+        synchronized (pcs) {
+            pcs.removePropertyChangeListener(propertyName, listener);
+            if (listener != null && !pcs.contains(listener)) {
+                register.remove(listener);
+                listenerRefs.remove(listener);
+            }
         }
     }
 
     @Override
     @Nonnull
-    public synchronized PropertyChangeListener[] getPropertyChangeListenersByReference(@Nonnull String name) {
+    public PropertyChangeListener[] getPropertyChangeListenersByReference(@Nonnull String name) {
         ArrayList<PropertyChangeListener> list = new ArrayList<>();
-        register.entrySet().forEach((entry) -> {
-            PropertyChangeListener l = entry.getKey();
-            if (entry.getValue().equals(name)) {
-                list.add(l);
-            }
-        });
+        synchronized (pcs) {
+            register.entrySet().forEach((entry) -> {
+                PropertyChangeListener l = entry.getKey();
+                if (entry.getValue().equals(name)) {
+                    list.add(l);
+                }
+            });
+        }
         return list.toArray(new PropertyChangeListener[list.size()]);
     }
 
@@ -212,21 +220,27 @@ public abstract class AbstractNamedBean implements NamedBean {
      * @return ArrayList of the listeners
      */
     @Override
-    public synchronized ArrayList<String> getListenerRefs() {
-        return new ArrayList<>(listenerRefs.values());
+    public ArrayList<String> getListenerRefs() {
+        synchronized (pcs) {
+            return new ArrayList<>(listenerRefs.values());
+        }
     }
 
     @Override
     @OverridingMethodsMustInvokeSuper
-    public synchronized void updateListenerRef(PropertyChangeListener l, String newName) {
-        if (listenerRefs.containsKey(l)) {
-            listenerRefs.put(l, newName);
+    public void updateListenerRef(PropertyChangeListener l, String newName) {
+        synchronized (pcs) {
+            if (listenerRefs.containsKey(l)) {
+                listenerRefs.put(l, newName);
+            }
         }
     }
 
     @Override
-    public synchronized String getListenerRef(PropertyChangeListener l) {
-        return listenerRefs.get(l);
+    public String getListenerRef(PropertyChangeListener l) {
+        synchronized (pcs) {
+            return listenerRefs.get(l);
+        }
     }
 
     /**
@@ -235,19 +249,19 @@ public abstract class AbstractNamedBean implements NamedBean {
      * @return -1 if the information is not available for some reason.
      */
     @Override
-    public synchronized int getNumPropertyChangeListeners() {
-        return pcs.getPropertyChangeListeners().length;
+    public int getNumPropertyChangeListeners() {
+        return pcs.size();
     }
 
     @Override
     @Nonnull
-    public synchronized PropertyChangeListener[] getPropertyChangeListeners() {
+    public PropertyChangeListener[] getPropertyChangeListeners() {
         return pcs.getPropertyChangeListeners();
     }
 
     @Override
     @Nonnull
-    public synchronized PropertyChangeListener[] getPropertyChangeListeners(String propertyName) {
+    public PropertyChangeListener[] getPropertyChangeListeners(String propertyName) {
         return pcs.getPropertyChangeListeners(propertyName);
     }
 
@@ -302,11 +316,10 @@ public abstract class AbstractNamedBean implements NamedBean {
     @Override
     @OverridingMethodsMustInvokeSuper
     public void dispose() {
-        PropertyChangeListener[] listeners = pcs.getPropertyChangeListeners();
-        for (PropertyChangeListener l : listeners) {
-            pcs.removePropertyChangeListener(l);
-            register.remove(l);
-            listenerRefs.remove(l);
+        synchronized (pcs) {
+            pcs.clear();
+            register.clear();
+            listenerRefs.clear();
         }
     }
 
@@ -84,6 +84,9 @@ public class DefaultConditional extends AbstractNamedBean
 
     private int _currentState = NamedBean.UNKNOWN;
     private boolean _triggerActionsOnChange = true;
+    // MIXED antecedent compiled for the current variables, or why it could not be
+    private Program _program = null;
+    private Exception _programError = null;
 
     public static int getIndexInTable(int[] table, int entry) {
         for (int i = 0; i < table.length; i++) {
@@ -122,6 +125,7 @@ public class DefaultConditional extends AbstractNamedBean
     public void setLogicType(Conditional.AntecedentOperator type, String antecedent) {
         _logicType = type;
         _antecedent = antecedent; // non-localised (universal) string description
+        compileAntecedent();
         setState(NamedBean.UNKNOWN);
     }
 
@@ -146,6 +150,28 @@ public class DefaultConditional extends AbstractNamedBean
         log.debug("Conditional \"{}\" ({}) updated ConditionalVariable list.",
                 getUserName(), getSystemName());  // NOI18N
         _variableList = arrayList;
+        compileAntecedent();
+    }
+
+    /**
+     * Compile a MIXED antecedent, so it is parsed once rather than on every
+     * calculation. An antecedent that does not parse is reported by
+     * {@link #calculate(boolean, PropertyChangeEvent)} each time it is
+     * called.
+     */
+    private void compileAntecedent() {
+        _program = null;
+        _programError = null;
+        if (_logicType != Conditional.AntecedentOperator.MIXED) {
+            return;
+        }
+        try {
+            Program program = new Program();
+            parseCalculate(normalizeAntecedent(_antecedent), _variableList, program);
+            _program = program;
+        } catch (NumberFormatException | IndexOutOfBoundsException | JmriException e) {
+            _programError = e;
+        }
     }
 
     /**
@@ -249,24 +275,17 @@ public class DefaultConditional extends AbstractNamedBean
                 }
                 break;
             case MIXED:
-                char[] ch = _antecedent.toCharArray();
-                int n = 0;
-                for (int j = 0; j < ch.length; j++) {
-                    if (ch[j] != ' ') {
-                        if (ch[j] == '{' || ch[j] == '[') {
-                            ch[j] = '(';
-                        } else if (ch[j] == '}' || ch[j] == ']') {
-                            ch[j] = ')';
-                        }
-                        ch[n++] = ch[j];
+                Exception error = _programError;
+                if (error == null) {
+                    try {
+                        result = _program.evaluate(_variableList);
+                    } catch (NumberFormatException | IndexOutOfBoundsException e) {
+                        error = e;
                     }
                 }
-                try {
-                    DataPair dp = parseCalculate(new String(ch, 0, n), _variableList);
-                    result = dp.result;
-                } catch (NumberFormatException | IndexOutOfBoundsException | JmriException e) {
+                if (error != null) {
                     result = false;
-                    log.error("{} parseCalculation error antecedent= {}, ex= {}", getDisplayName(), _antecedent, e,e);  // NOI18N
+                    log.error("{} parseCalculation error antecedent= {}, ex= {}", getDisplayName(), _antecedent, error, error);  // NOI18N
                 }
                 break;
             default:
@@ -332,20 +351,70 @@ public class DefaultConditional extends AbstractNamedBean
     }
 
     static class DataPair {
-        boolean result = false;
         int indexCount = 0;         // index reached when parsing completed
         BitSet argsUsed = null;     // error detection for missing arguments
     }
 
     /**
-     * Check that an antecedent is well formed.
+     * A MIXED antecedent compiled to postfix. A non-negative entry pushes the
+     * value of the variable with that index; the others replace the top one
+     * or two values with the result of an operator. As when the antecedent
+     * was parsed on each calculation, every variable is evaluated, from left
+     * to right.
+     */
+    static final class Program {
+
+        static final int NOT = -1;
+        static final int AND = -2;
+        static final int OR = -3;
+
+        private int[] _ops = new int[8];
+        private int _size = 0;
+        private int _depth = 0;
+        private int _maxDepth = 0;
+
+        void add(int op) {
+            if (_size == _ops.length) {
+                _ops = java.util.Arrays.copyOf(_ops, _size * 2);
+            }
+            _ops[_size++] = op;
+            if (op >= 0) {
+                _maxDepth = Math.max(_maxDepth, ++_depth);
+            } else if (op != NOT) {
+                _depth--;
+            }
+        }
+
+        boolean evaluate(List<ConditionalVariable> variableList) {
+            boolean[] stack = new boolean[_maxDepth];
+            int top = -1;
+            for (int i = 0; i < _size; i++) {
+                int op = _ops[i];
+                if (op >= 0) {
+                    ConditionalVariable variable = variableList.get(op);
+                    boolean value = variable.evaluate();
+                    stack[++top] = variable.isNegated() ? !value : value;
+                } else if (op == NOT) {
+                    stack[top] = !stack[top];
+                } else if (op == AND) {
+                    top--;
+                    stack[top] = stack[top] && stack[top + 1];
+                } else {
+                    top--;
+                    stack[top] = stack[top] || stack[top + 1];
+                }
+            }
+            return stack[0];
+        }
+    }
+
+    /**
+     * Remove blanks and make all brackets parentheses.
      *
      * @param ant the antecedent string description
-     * @param variableList arraylist of existing Conditional variables
-     * @return error message string if not well formed
+     * @return the antecedent as parsed
      */
-    @Override
-    public String validateAntecedent(String ant, List<ConditionalVariable> variableList) {
+    private static String normalizeAntecedent(String ant) {
         char[] ch = ant.toCharArray();
         int n = 0;
         for (int j = 0; j < ch.length; j++) {
@@ -358,6 +427,20 @@ public class DefaultConditional extends AbstractNamedBean
                 ch[n++] = ch[j];
             }
         }
+        return new String(ch, 0, n);
+    }
+
+    /**
+     * Check that an antecedent is well formed.
+     *
+     * @param ant the antecedent string description
+     * @param variableList arraylist of existing Conditional variables
+     * @return error message string if not well formed
+     */
+    @Override
+    public String validateAntecedent(String ant, List<ConditionalVariable> variableList) {
+        char[] ch = normalizeAntecedent(ant).toCharArray();
+        int n = ch.length;
         int count = 0;
         for (int j = 0; j < n; j++) {
             if (ch[j] == '(') {
@@ -376,7 +459,7 @@ public class DefaultConditional extends AbstractNamedBean
                     rbx.getString("ParseError7"), new Object[]{'('});  // NOI18N
         }
         try {
-            DataPair dp = parseCalculate(new String(ch, 0, n), variableList);
+            DataPair dp = parseCalculate(new String(ch, 0, n), variableList, new Program());
             if (n != dp.indexCount) {
                 return java.text.MessageFormat.format(
                         rbx.getString("ParseError4"), new Object[]{ch[dp.indexCount - 1]});  // NOI18N
@@ -394,7 +477,7 @@ public class DefaultConditional extends AbstractNamedBean
     }
 
     /**
-     * Parses and computes one parenthesis level of a boolean statement.
+     * Parses and compiles one parenthesis level of a boolean statement.
      * <p>
      * Recursively calls inner parentheses levels. Note that all logic operators
      * are detected by the parsing, therefore the internal negation of a
@@ -402,28 +485,24 @@ public class DefaultConditional extends AbstractNamedBean
      *
      * @param s            The expression to be parsed
      * @param variableList ConditionalVariables for R1, R2, etc
-     * @return a data pair consisting of the truth value of the level a count of
-     *         the indices consumed to parse the level and a bitmap of the
-     *         variable indices used.
-     * @throws jmri.JmriException if unable to compute the logic
+     * @param program      the program the level is compiled to the end of
+     * @return a data pair consisting of a count of the indices consumed to
+     *         parse the level and a bitmap of the variable indices used.
+     * @throws jmri.JmriException if unable to compile the logic
      */
-    DataPair parseCalculate(String s, List<ConditionalVariable> variableList)
+    DataPair parseCalculate(String s, List<ConditionalVariable> variableList, Program program)
             throws JmriException {
 
         // for simplicity, we force the string to upper case before scanning
         s = s.toUpperCase();
 
-        BitSet argsUsed = new BitSet(_variableList.size());
+        BitSet argsUsed = new BitSet(variableList.size());
         DataPair dp = null;
-        boolean leftArg = false;
-        boolean rightArg = false;
         int oper = OPERATOR_NONE;
         int k = -1;
         int i = 0;      // index of String s
-        //int numArgs = 0;
         if (s.charAt(i) == '(') {
-            dp = parseCalculate(s.substring(++i), variableList);
-            leftArg = dp.result;
+            dp = parseCalculate(s.substring(++i), variableList, program);
             i += dp.indexCount;
             argsUsed.or(dp.argsUsed);
         } else // cannot be '('.  must be either leftArg or notleftArg
@@ -435,10 +514,8 @@ public class DefaultConditional extends AbstractNamedBean
                 } catch (NumberFormatException | IndexOutOfBoundsException nfe) {
                     k = Integer.parseInt(String.valueOf(s.charAt(++i)));
                 }
-                leftArg = variableList.get(k - 1).evaluate();
-                if (variableList.get(k - 1).isNegated()) {
-                    leftArg = !leftArg;
-                }
+                variableList.get(k - 1); // check the variable exists
+                program.add(k - 1);
                 i++;
                 argsUsed.set(k - 1);
             } else if ("NOT".equals(s.substring(i, i + 3))) {  // NOI18N
@@ -446,8 +523,7 @@ public class DefaultConditional extends AbstractNamedBean
 
                 // not leftArg
                 if (s.charAt(i) == '(') {
-                    dp = parseCalculate(s.substring(++i), variableList);
-                    leftArg = dp.result;
+                    dp = parseCalculate(s.substring(++i), variableList, program);
                     i += dp.indexCount;
                     argsUsed.or(dp.argsUsed);
                 } else if (s.charAt(i) == 'R') {  // NOI18N
@@ -457,17 +533,15 @@ public class DefaultConditional extends AbstractNamedBean
                     } catch (NumberFormatException | IndexOutOfBoundsException nfe) {
                         k = Integer.parseInt(String.valueOf(s.charAt(++i)));
                     }
-                    leftArg = variableList.get(k - 1).evaluate();
-                    if (variableList.get(k - 1).isNegated()) {
-                        leftArg = !leftArg;
-                    }
+                    variableList.get(k - 1); // check the variable exists
+                    program.add(k - 1);
                     i++;
                     argsUsed.set(k - 1);
                 } else {
                     throw new JmriException(java.text.MessageFormat.format(
                             rbx.getString("ParseError1"), new Object[]{s.substring(i)}));  // NOI18N
                 }
-                leftArg = !leftArg;
+                program.add(Program.NOT);
             } else {
                 throw new JmriException(java.text.MessageFormat.format(
                         rbx.getString("ParseError9"), new Object[]{s}));  // NOI18N
@@ -488,8 +562,7 @@ public class DefaultConditional extends AbstractNamedBean
                             rbx.getString("ParseError2"), new Object[]{s.substring(i)}));  // NOI18N
                 }
                 if (s.charAt(i) == '(') {
-                    dp = parseCalculate(s.substring(++i), variableList);
-                    rightArg = dp.result;
+                    dp = parseCalculate(s.substring(++i), variableList, program);
                     i += dp.indexCount;
                     argsUsed.or(dp.argsUsed);
                 } else // cannot be '('.  must be either rightArg or notRightArg
@@ -501,18 +574,15 @@ public class DefaultConditional extends AbstractNamedBean
                         } catch (NumberFormatException | IndexOutOfBoundsException nfe) {
                             k = Integer.parseInt(String.valueOf(s.charAt(++i)));
                         }
-                        rightArg = variableList.get(k - 1).evaluate();
-                        if (variableList.get(k - 1).isNegated()) {
-                            rightArg = !rightArg;
-                        }
+                        variableList.get(k - 1); // check the variable exists
+                        program.add(k - 1);
                         i++;
                         argsUsed.set(k - 1);
                     } else if ("NOT".equals(s.substring(i, i + 3))) {  // NOI18N
                         i += 3;
                         // not rightArg
                         if (s.charAt(i) == '(') {
-                            dp = parseCalculate(s.substring(++i), variableList);
-                            rightArg = dp.result;
+                            dp = parseCalculate(s.substring(++i), variableList, program);
                             i += dp.indexCount;
                             argsUsed.or(dp.argsUsed);
                         } else if (s.charAt(i) == 'R') {  // NOI18N
@@ -522,26 +592,24 @@ public class DefaultConditional extends AbstractNamedBean
                             } catch (NumberFormatException | IndexOutOfBoundsException nfe) {
                                 k = Integer.parseInt(String.valueOf(s.charAt(++i)));
                             }
-                            rightArg = variableList.get(k - 1).evaluate();
-                            if (variableList.get(k - 1).isNegated()) {
-                                rightArg = !rightArg;
-                            }
+                            variableList.get(k - 1); // check the variable exists
+                            program.add(k - 1);
                             i++;
                             argsUsed.set(k - 1);
                         } else {
                             throw new JmriException(java.text.MessageFormat.format(
                                     rbx.getString("ParseError3"), new Object[]{s.substring(i)}));  // NOI18N
                         }
-                        rightArg = !rightArg;
+                        program.add(Program.NOT);
                     } else {
                         throw new JmriException(java.text.MessageFormat.format(
                                 rbx.getString("ParseError9"), new Object[]{s.substring(i)}));  // NOI18N
                     }
                 }
                 if (oper == OPERATOR_AND) {
-                    leftArg = (leftArg && rightArg);
+                    program.add(Program.AND);
                 } else if (oper == OPERATOR_OR) {
-                    leftArg = (leftArg || rightArg);
+                    program.add(Program.OR);
                 }
             } else {  // This level done, pop recursion
                 i++;
@@ -549,7 +617,6 @@ public class DefaultConditional extends AbstractNamedBean
             }
         }
         dp = new DataPair();
-        dp.result = leftArg;
         dp.indexCount = i;
         dp.argsUsed = argsUsed;
         return dp;
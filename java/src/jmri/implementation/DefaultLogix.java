@@ -184,6 +184,48 @@ public class DefaultLogix extends AbstractNamedBean
         return mEnabled;
     }
 
+    private long _evaluationCount = 0;
+    private long _evaluationTime = 0;
+
+    /**
+     * Record a Conditional of this Logix being calculated because a bean it
+     * watches changed.
+     *
+     * @param nanos the time the calculation and its actions took
+     */
+    synchronized void addEvaluation(long nanos) {
+        _evaluationCount++;
+        _evaluationTime += nanos;
+    }
+
+    /**
+     * Get the number of times Conditionals of this Logix have been calculated
+     * because a bean they watch changed.
+     *
+     * @return the number of calculations since the count was last reset
+     */
+    public synchronized long getEvaluationCount() {
+        return _evaluationCount;
+    }
+
+    /**
+     * Get the time spent calculating Conditionals of this Logix, and taking
+     * their actions, because a bean they watch changed.
+     *
+     * @return the time in nanoseconds since the count was last reset
+     */
+    public synchronized long getEvaluationTime() {
+        return _evaluationTime;
+    }
+
+    /**
+     * Reset the evaluation count and time to zero.
+     */
+    public synchronized void resetEvaluationStatistics() {
+        _evaluationCount = 0;
+        _evaluationTime = 0;
+    }
+
     /**
      * Delete a Conditional and remove it from this Logix
      * <p>
@@ -809,6 +851,7 @@ public class DefaultLogix extends AbstractNamedBean
         switch (listener.getType()) {
             case LISTENER_TYPE_FASTCLOCK:
                 Timebase tb = InstanceManager.getDefault(jmri.Timebase.class);
+                InstanceManager.getDefault(LogixEvaluationScheduler.class).register(this, listener);
                 tb.addMinuteChangeListener(listener);
                 return;
             default:
@@ -851,6 +894,7 @@ public class DefaultLogix extends AbstractNamedBean
                     break;
                 }
                 nb = namedBeanHandle.getBean();
+                InstanceManager.getDefault(LogixEvaluationScheduler.class).register(this, listener);
                 nb.addPropertyChangeListener(listener, namedBeanHandle.getName(),
                         "Logix " + getDisplayName());  // NOI18N
                 return;
@@ -866,6 +910,9 @@ public class DefaultLogix extends AbstractNamedBean
         String msg = null;
         NamedBean nb;
         NamedBeanHandle<?> namedBeanHandle;
+        if (listener._scheduler != null) {
+            listener._scheduler.unregister(listener);
+        }
         try {
             switch (listener.getType()) {
                 case LISTENER_TYPE_FASTCLOCK:
@@ -769,36 +769,15 @@ public class DefaultSignalMastLogic extends AbstractNamedBean implements jmri.Si
         return destList.get(destination).getMinimumSpeed();
     }
 
-    volatile boolean inWait = false;
-
     /**
-     * Before going active or checking that we can go active, wait 500ms
-     * for things to settle down to help prevent a race condition.
+     * Set the source mast aspect once things have settled down, to help
+     * prevent a race condition.
+     *
+     * @see SignalMastLogicEvaluationScheduler
      */
-    synchronized void setSignalAppearance() {
+    void setSignalAppearance() {
         log.debug("setMastAppearance (Aspect) called for {}", source.getDisplayName());
-        if (inWait) {
-            log.debug("setMastAppearance (Aspect) called with inWait set, returning");
-            return;
-        }
-        inWait = true;
-
-        // The next line forces a single initialization of jmri.InstanceManager.getDefault(SignalSpeedMap.class)
-        // before launching parallel threads
-        jmri.InstanceManager.getDefault(SignalSpeedMap.class);
-
-        // The next line forces a single initialization of InstanceManager.getDefault(jmri.SignalMastLogicManager.class)
-        // before launching delay
-        int tempDelay = InstanceManager.getDefault(jmri.SignalMastLogicManager.class).getSignalLogicDelay() / 2;
-        log.debug("SignalMastLogicManager started (delay)");
-        jmri.util.ThreadingUtil.runOnLayoutDelayed(
-                () -> {
-                    setMastAppearance();
-                    inWait = false;
-                },
-                tempDelay
-        );
-
+        InstanceManager.getDefault(SignalMastLogicEvaluationScheduler.class).mark(this);
     }
 
     /**
@@ -79,7 +79,7 @@ public class JmriClockPropertyListener extends JmriSimplePropertyListener {
      */
     @SuppressWarnings("deprecation")
     @Override
-    public void propertyChange(PropertyChangeEvent evt) {
+    void dispatch(PropertyChangeEvent evt) {
         Date currentTime = _fastClock.getTime();
         //int oldMinutes = _currentMinutes;
         _currentMinutes = (currentTime.getHours() * 60) + currentTime.getMinutes();
@@ -108,7 +108,7 @@ public class JmriClockPropertyListener extends JmriSimplePropertyListener {
         for (int i = 0; i < numRanges; i++) {
             if (_rangeList[i] != newRangeList[i]) {
                 _rangeList = newRangeList;
-                super.propertyChange(evt);
+                super.dispatch(evt);
             }
         }
     }
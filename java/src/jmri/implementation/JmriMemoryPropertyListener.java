@@ -34,7 +34,7 @@ public class JmriMemoryPropertyListener extends JmriSimplePropertyListener {
     }
 
     @Override
-    public void propertyChange(PropertyChangeEvent evt) {
+    void dispatch(PropertyChangeEvent evt) {
         log.debug("\"{}\" sent PropertyChangeEvent {}, old value =\"{}\", new value =\"{}, enabled = {}", _varName, evt.getPropertyName(), evt.getOldValue(), evt.getNewValue(), _enabled);
         if (getPropertyName().equals(evt.getPropertyName())) {
             String newValue = (String) evt.getNewValue();
@@ -47,7 +47,7 @@ public class JmriMemoryPropertyListener extends JmriSimplePropertyListener {
             }
             if (newValue.equals(_data) || oldValue.equals(_data)) {
                 // property has changed to/from the watched state, calculate
-                super.propertyChange(evt);
+                super.dispatch(evt);
             }
         }
     }
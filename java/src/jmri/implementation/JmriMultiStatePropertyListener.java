@@ -49,7 +49,7 @@ public class JmriMultiStatePropertyListener extends JmriSimplePropertyListener {
     }
 
     @Override
-    public void propertyChange(PropertyChangeEvent evt) {
+    void dispatch(PropertyChangeEvent evt) {
         log.debug("\"{}\" sent PropertyChangeEvent {}, old value =\"{}\", new value =\"{}, enabled = {}", _varName, evt.getPropertyName(), evt.getOldValue(), evt.getNewValue(), _enabled);
         if (getPropertyName().equals(evt.getPropertyName())) {
             int newState = ((Number) evt.getNewValue()).intValue();
@@ -33,6 +33,11 @@ public class JmriSimplePropertyListener implements PropertyChangeListener {
     ArrayList<Conditional> _clients;
     boolean _enabled;
     NamedBeanHandle<?> _namedBean;
+    // set while registered with a LogixEvaluationScheduler
+    LogixEvaluationScheduler _scheduler;
+    DefaultLogix _logix;
+    NamedBean _source;
+    PropertyChangeEvent _lastEvent;
 
     JmriSimplePropertyListener(String propName, int type, String varName, Conditional.Type varType, Conditional client) {
         _propertyName = propName;
@@ -93,7 +98,12 @@ public class JmriSimplePropertyListener implements PropertyChangeListener {
     }
 
     public void calculateClient(int idx, PropertyChangeEvent evt) {
-        _clients.get(idx).calculate(_enabled, evt);
+        LogixEvaluationScheduler scheduler = _scheduler;
+        if (scheduler != null) {
+            scheduler.schedule(this, _clients.get(idx), evt);
+        } else {
+            _clients.get(idx).calculate(_enabled, evt);
+        }
     }
 
     /**
@@ -101,9 +111,28 @@ public class JmriSimplePropertyListener implements PropertyChangeListener {
      * the conditional, but will not trigger its actions. When _enabled is true,
      * Conditional.calculates its state and trigger its actions if its state has
      * changed.
+     * <p>
+     * When registered with a {@link LogixEvaluationScheduler}, the change is
+     * passed to it, which calculates each Conditional depending on the bean
+     * once.
      */
     @Override
     public void propertyChange(PropertyChangeEvent evt) {
+        LogixEvaluationScheduler scheduler = _scheduler;
+        if (scheduler != null) {
+            scheduler.propertyChange(this, evt);
+        } else {
+            dispatch(evt);
+        }
+    }
+
+    /**
+     * Calculate, or queue for calculation, the Conditionals affected by a
+     * change.
+     *
+     * @param evt the change
+     */
+    void dispatch(PropertyChangeEvent evt) {
         //log.debug("\""+_varName+"\" sent PropertyChangeEvent "+evt.getPropertyName()+
         //    ", old value =\""+evt.getOldValue()+"\", new value =\""+evt.getNewValue()+
         //    ", enabled = "+_enabled);
@@ -112,7 +141,7 @@ public class JmriSimplePropertyListener implements PropertyChangeListener {
             return;
         }
         for (int i = 0; i < _clients.size(); i++) {
-            _clients.get(i).calculate(_enabled, evt);
+            calculateClient(i, evt);
         }
     }
 }
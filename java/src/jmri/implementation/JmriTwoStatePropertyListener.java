@@ -37,19 +37,19 @@ public class JmriTwoStatePropertyListener extends JmriSimplePropertyListener {
     }
 
     @Override
-    public void propertyChange(PropertyChangeEvent evt) {
+    void dispatch(PropertyChangeEvent evt) {
         if (log.isDebugEnabled()) {
             log.debug("\"{}\" sent PropertyChangeEvent \"{}\", old value =\"{}\", new value =\"{}, enabled = {}", _varName, evt.getPropertyName(), evt.getOldValue(), evt.getNewValue(), _enabled);
         }
         if (getPropertyName().equals(evt.getPropertyName())) {
-            super.propertyChange(evt);
+            super.dispatch(evt);
         }
         /*
          int newState = ((Number) evt.getNewValue()).intValue();
          int oldState = ((Number) evt.getOldValue()).intValue();
          if (newState != oldState)  {
          // property has changed to/from the watched state, calculate
-         super.propertyChange(evt);
+         super.dispatch(evt);
          }
          */
     }
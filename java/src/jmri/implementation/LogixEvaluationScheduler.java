@@ -0,0 +1,300 @@
+package jmri.implementation;
+
+import java.beans.PropertyChangeEvent;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+import jmri.Conditional;
+import jmri.InstanceManagerAutoDefault;
+import jmri.Logix;
+import jmri.NamedBean;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Evaluates the Conditionals of active Logixes when the beans they watch
+ * change.
+ * <p>
+ * The listeners of every active Logix are registered here by the bean they
+ * watch, giving a map from each bean to the Conditionals that depend on it.
+ * When a bean changes, the first of its Logix listeners to hear about it
+ * queues every dependent Conditional, from all Logixes, and the later ones
+ * ignore the event. Changes made by Conditional actions while the queue is
+ * being worked through are added to the same queue, so a Conditional is
+ * calculated once for a burst of changes rather than once per change.
+ * <p>
+ * Queued Conditionals are calculated in dependency order: a Conditional that
+ * uses the state of another Conditional as a variable is calculated after it.
+ * Conditionals that depend on each other in a loop are ordered as they were
+ * registered.
+ * <p>
+ * Everything is done on the thread that reported the change, before the
+ * change returns, as it was when each listener calculated its Conditionals
+ * itself.
+ */
+public class LogixEvaluationScheduler implements InstanceManagerAutoDefault {
+
+    /**
+     * Most Conditional calculations for one change. A Conditional is taken
+     * off the queue before it is calculated, so its own actions can queue it
+     * again in the same pass, and Logixes that trigger each other never empty
+     * the queue.
+     */
+    static final int MAX_EVALUATIONS = 10000;
+
+    private final Map<NamedBean, List<JmriSimplePropertyListener>> _dependents = new HashMap<>();
+    private Map<Conditional, Integer> _ranks = null;
+    private final ThreadLocal<Pass> _pass = ThreadLocal.withInitial(Pass::new);
+
+    /**
+     * Start sending the changes heard by a Logix listener here.
+     *
+     * @param logix    the Logix the listener belongs to
+     * @param listener the listener
+     */
+    public synchronized void register(DefaultLogix logix, JmriSimplePropertyListener listener) {
+        listener._logix = logix;
+        listener._scheduler = this;
+        NamedBean bean = listener.getBean();
+        if (bean != null) {
+            List<JmriSimplePropertyListener> list = new ArrayList<>(
+                    _dependents.getOrDefault(bean, Collections.emptyList()));
+            list.add(listener);
+            _dependents.put(bean, list);
+            listener._source = bean;
+        }
+        _ranks = null;
+    }
+
+    /**
+     * Stop sending the changes heard by a Logix listener here.
+     *
+     * @param listener the listener
+     */
+    public synchronized void unregister(JmriSimplePropertyListener listener) {
+        NamedBean bean = listener._source;
+        if (bean != null) {
+            List<JmriSimplePropertyListener> list = _dependents.get(bean);
+            if (list != null) {
+                list = new ArrayList<>(list);
+                list.remove(listener);
+                if (list.isEmpty()) {
+                    _dependents.remove(bean);
+                } else {
+                    _dependents.put(bean, list);
+                }
+            }
+            listener._source = null;
+        }
+        listener._scheduler = null;
+        _ranks = null;
+    }
+
+    /**
+     * Get the Logix listeners watching a bean.
+     *
+     * @param bean the bean
+     * @return the listeners, empty if none
+     */
+    public synchronized List<JmriSimplePropertyListener> getDependents(NamedBean bean) {
+        return Collections.unmodifiableList(_dependents.getOrDefault(bean, Collections.emptyList()));
+    }
+
+    /**
+     * Handle a change heard by a Logix listener, calculating the
+     * Conditionals that depend on it unless this is a change made by a
+     * Conditional action being taken.
+     *
+     * @param listener the listener that heard the change
+     * @param evt      the change
+     */
+    void propertyChange(JmriSimplePropertyListener listener, PropertyChangeEvent evt) {
+        if (listener._lastEvent == evt) {
+            return; // already queued with the other dependents of the bean
+        }
+        List<JmriSimplePropertyListener> dependents;
+        synchronized (this) {
+            dependents = _dependents.get(evt.getSource());
+        }
+        if (dependents == null || !dependents.contains(listener)) {
+            dependents = Collections.singletonList(listener);
+        }
+        for (JmriSimplePropertyListener dependent : dependents) {
+            if (dependent._lastEvent != evt) {
+                dependent._lastEvent = evt;
+                dependent.dispatch(evt);
+            }
+        }
+        Pass pass = _pass.get();
+        if (!pass.running) {
+            pass.run();
+        }
+    }
+
+    /**
+     * Queue a Conditional to be calculated.
+     *
+     * @param listener the listener that heard the change
+     * @param client   the Conditional
+     * @param evt      the change
+     */
+    void schedule(JmriSimplePropertyListener listener, Conditional client, PropertyChangeEvent evt) {
+        Pass pass = _pass.get();
+        Pending pending = pass.queued.get(client);
+        if (pending == null) {
+            pass.queued.put(client, new Pending(listener, client, evt, getRank(client), pass.sequence++));
+            pass.queue.add(pass.queued.get(client));
+            return;
+        }
+        // calculate once, triggering actions if any of the changes would
+        pending.enabled |= listener._enabled;
+        if (!(client instanceof DefaultConditional) || !(pending.evt.getSource() instanceof NamedBean)
+                || !((DefaultConditional) client).wantsToTrigger(pending.evt)) {
+            pending.evt = evt;
+        }
+    }
+
+    private synchronized int getRank(Conditional conditional) {
+        if (_ranks == null) {
+            _ranks = rank();
+        }
+        return _ranks.getOrDefault(conditional, 0);
+    }
+
+    /**
+     * Rank the Conditionals so that each comes after those whose state it
+     * uses.
+     */
+    private Map<Conditional, Integer> rank() {
+        Map<Conditional, Set<Conditional>> users = new HashMap<>();
+        Map<Conditional, Integer> uses = new HashMap<>();
+        Set<Conditional> all = new LinkedHashSet<>();
+        for (List<JmriSimplePropertyListener> list : _dependents.values()) {
+            for (JmriSimplePropertyListener listener : list) {
+                all.addAll(listener._clients);
+                if (listener.getType() == Logix.LISTENER_TYPE_CONDITIONAL
+                        && listener.getBean() instanceof Conditional) {
+                    Conditional used = (Conditional) listener.getBean();
+                    all.add(used);
+                    Set<Conditional> set = users.computeIfAbsent(used, k -> new LinkedHashSet<>());
+                    for (Conditional client : listener._clients) {
+                        if (client != used && set.add(client)) {
+                            uses.merge(client, 1, Integer::sum);
+                        }
+                    }
+                }
+            }
+        }
+        Map<Conditional, Integer> ranks = new HashMap<>();
+        Deque<Conditional> ready = new ArrayDeque<>();
+        for (Conditional c : all) {
+            if (!uses.containsKey(c)) {
+                ready.add(c);
+            }
+        }
+        int rank = 0;
+        while (ranks.size() < all.size()) {
+            if (ready.isEmpty()) {
+                // break a loop at the first Conditional left
+                for (Conditional c : all) {
+                    if (!ranks.containsKey(c)) {
+                        log.debug("Conditional {} is in a loop", c.getSystemName());
+                        uses.remove(c);
+                        ready.add(c);
+                        break;
+                    }
+                }
+            }
+            Conditional c = ready.remove();
+            if (ranks.containsKey(c)) {
+                continue;
+            }
+            ranks.put(c, rank++);
+            for (Conditional user : users.getOrDefault(c, Collections.emptySet())) {
+                if (!ranks.containsKey(user) && uses.merge(user, -1, Integer::sum) == 0) {
+                    ready.add(user);
+                }
+            }
+        }
+        return ranks;
+    }
+
+    /**
+     * A Conditional waiting to be calculated.
+     */
+    private static class Pending implements Comparable<Pending> {
+
+        final JmriSimplePropertyListener listener;
+        final Conditional client;
+        final int rank;
+        final long sequence;
+        boolean enabled;
+        PropertyChangeEvent evt;
+
+        Pending(JmriSimplePropertyListener listener, Conditional client, PropertyChangeEvent evt,
+                int rank, long sequence) {
+            this.listener = listener;
+            this.client = client;
+            this.evt = evt;
+            this.rank = rank;
+            this.sequence = sequence;
+            enabled = listener._enabled;
+        }
+
+        @Override
+        public int compareTo(Pending o) {
+            if (rank != o.rank) {
+                return Integer.compare(rank, o.rank);
+            }
+            return Long.compare(sequence, o.sequence);
+        }
+    }
+
+    /**
+     * The Conditionals queued on one thread.
+     */
+    private static class Pass {
+
+        final PriorityQueue<Pending> queue = new PriorityQueue<>();
+        final Map<Conditional, Pending> queued = new HashMap<>();
+        long sequence = 0;
+        boolean running = false;
+
+        void run() {
+            running = true;
+            int count = 0;
+            try {
+                while (!queue.isEmpty()) {
+                    Pending pending = queue.remove();
+                    queued.remove(pending.client);
+                    if (++count > MAX_EVALUATIONS) {
+                        log.error("Stopped calculating Conditionals after {} calculations, starting with {}; Logixes may be triggering each other in a loop",
+                                MAX_EVALUATIONS, pending.client.getSystemName());  // NOI18N
+                        break;
+                    }
+                    long start = System.nanoTime();
+                    pending.client.calculate(pending.enabled, pending.evt);
+                    DefaultLogix logix = pending.listener._logix;
+                    if (logix != null) {
+                        logix.addEvaluation(System.nanoTime() - start);
+                    }
+                }
+            } finally {
+                queue.clear();
+                queued.clear();
+                running = false;
+            }
+        }
+    }
+
+    private final static Logger log = LoggerFactory.getLogger(LogixEvaluationScheduler.class);
+}
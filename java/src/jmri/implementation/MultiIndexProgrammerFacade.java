@@ -1,5 +1,6 @@
 package jmri.implementation;
 
+import javax.annotation.Nonnull;
 import jmri.ProgListener;
 import jmri.Programmer;
 import jmri.jmrix.AbstractProgrammerFacade;
@@ -202,6 +203,35 @@ public class MultiIndexProgrammerFacade extends AbstractProgrammerFacade impleme
         }
     }
 
+    /**
+     * Get the index CV writes this facade makes before accessing a CV. Reads
+     * and writes with the same index writes in sequence can skip rewriting the
+     * index CVs, if skipDupIndexWrite is set.
+     *
+     * @param cv the CV name, in the form used by this facade
+     * @return "CV=value" for the PI and then the SI CV, as used; empty for a
+     *         CV accessed directly
+     */
+    @Nonnull
+    public String[] getIndexWrites(@Nonnull String cv) {
+        if (!cv.contains(".")) {
+            return new String[0];
+        }
+        String[] splits = cv.split("\\.");
+        int first = cvFirst ? 1 : 0;
+        int count = Math.min(splits.length - 1, 2);
+        String[] writes = new String[count];
+        for (int i = 0; i < count; i++) {
+            String part = splits[first + i];
+            if (hasAlternateAddress(part)) {
+                writes[i] = getAlternateAddress(part) + "=" + getAlternateValue(part);
+            } else {
+                writes[i] = (i == 0 ? defaultIndexPI : defaultIndexSI) + "=" + Integer.parseInt(part);
+            }
+        }
+        return writes;
+    }
+
     boolean hasAlternateAddress(String cv) {
         return cv.contains("=");
     }
@@ -0,0 +1,277 @@
+package jmri.implementation;
+
+import java.beans.PropertyChangeEvent;
+import java.beans.PropertyChangeListener;
+import java.beans.PropertyChangeListenerProxy;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import javax.annotation.CheckForNull;
+import javax.annotation.Nonnull;
+
+/**
+ * Property change listeners of a {@link jmri.NamedBean}.
+ * <p>
+ * This replaces {@link java.beans.PropertyChangeSupport} for the busiest
+ * beans in JMRI, with the same listener semantics: a listener may be added
+ * more than once and is then notified once per registration, listeners for
+ * all properties are notified before listeners for the named property, and
+ * nothing is fired when the old and new values are equal and not null.
+ * <p>
+ * The registry is copy-on-write. Adding or removing a listener builds new
+ * arrays under the registry's own lock, while firing reads two volatile
+ * fields and walks arrays that no other thread can change, so it takes no
+ * lock and copies nothing. No {@link PropertyChangeEvent} is created unless
+ * someone is listening for the property.
+ */
+public class PropertyChangeRegistry {
+
+    private static final PropertyChangeListener[] EMPTY = new PropertyChangeListener[0];
+
+    private final Object source;
+    private volatile PropertyChangeListener[] listeners = EMPTY;
+    private volatile Map<String, PropertyChangeListener[]> named = Collections.emptyMap();
+
+    /**
+     * @param source the bean given as the source of fired events
+     */
+    public PropertyChangeRegistry(@Nonnull Object source) {
+        this.source = source;
+    }
+
+    /**
+     * Add a listener for all properties. A
+     * {@link PropertyChangeListenerProxy} is added for its property only.
+     *
+     * @param listener the listener; null is ignored
+     */
+    public synchronized void addPropertyChangeListener(@CheckForNull PropertyChangeListener listener) {
+        if (listener instanceof PropertyChangeListenerProxy) {
+            PropertyChangeListenerProxy proxy = (PropertyChangeListenerProxy) listener;
+            addPropertyChangeListener(proxy.getPropertyName(), proxy.getListener());
+        } else if (listener != null) {
+            listeners = append(listeners, listener);
+        }
+    }
+
+    /**
+     * Add a listener for one property.
+     *
+     * @param propertyName the property; null is ignored
+     * @param listener     the listener; null is ignored
+     */
+    public synchronized void addPropertyChangeListener(@CheckForNull String propertyName,
+            @CheckForNull PropertyChangeListener listener) {
+        listener = unwrap(listener);
+        if (propertyName == null || listener == null) {
+            return;
+        }
+        Map<String, PropertyChangeListener[]> map = new HashMap<>(named);
+        map.put(propertyName, append(map.getOrDefault(propertyName, EMPTY), listener));
+        named = map;
+    }
+
+    /**
+     * Remove one registration of a listener for all properties. A
+     * {@link PropertyChangeListenerProxy} is removed from its property.
+     *
+     * @param listener the listener
+     */
+    public synchronized void removePropertyChangeListener(@CheckForNull PropertyChangeListener listener) {
+        if (listener instanceof PropertyChangeListenerProxy) {
+            PropertyChangeListenerProxy proxy = (PropertyChangeListenerProxy) listener;
+            removePropertyChangeListener(proxy.getPropertyName(), proxy.getListener());
+        } else if (listener != null) {
+            listeners = remove(listeners, listener);
+        }
+    }
+
+    /**
+     * Remove one registration of a listener for one property.
+     *
+     * @param propertyName the property
+     * @param listener     the listener
+     */
+    public synchronized void removePropertyChangeListener(@CheckForNull String propertyName,
+            @CheckForNull PropertyChangeListener listener) {
+        listener = unwrap(listener);
+        if (propertyName == null || listener == null) {
+            return;
+        }
+        PropertyChangeListener[] array = named.get(propertyName);
+        if (array == null) {
+            return;
+        }
+        PropertyChangeListener[] result = remove(array, listener);
+        if (result != array) {
+            Map<String, PropertyChangeListener[]> map = new HashMap<>(named);
+            if (result.length == 0) {
+                map.remove(propertyName);
+            } else {
+                map.put(propertyName, result);
+            }
+            named = map.isEmpty() ? Collections.emptyMap() : map;
+        }
+    }
+
+    /**
+     * Remove every listener.
+     *
+     * @return the listeners that were registered, as from
+     *         {@link #getPropertyChangeListeners()}
+     */
+    @Nonnull
+    public synchronized PropertyChangeListener[] clear() {
+        PropertyChangeListener[] result = getPropertyChangeListeners();
+        listeners = EMPTY;
+        named = Collections.emptyMap();
+        return result;
+    }
+
+    /**
+     * Get all registered listeners. Listeners for a single property are
+     * returned wrapped in a {@link PropertyChangeListenerProxy}.
+     *
+     * @return a new array of listeners
+     */
+    @Nonnull
+    public PropertyChangeListener[] getPropertyChangeListeners() {
+        PropertyChangeListener[] common = listeners;
+        Map<String, PropertyChangeListener[]> map = named;
+        if (map.isEmpty()) {
+            return common.clone();
+        }
+        PropertyChangeListener[] result = Arrays.copyOf(common, size(common, map));
+        int i = common.length;
+        for (Map.Entry<String, PropertyChangeListener[]> entry : map.entrySet()) {
+            for (PropertyChangeListener l : entry.getValue()) {
+                result[i++] = new PropertyChangeListenerProxy(entry.getKey(), l);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Get the listeners for a single property.
+     *
+     * @param propertyName the property
+     * @return a new array of listeners, not including those for all
+     *         properties
+     */
+    @Nonnull
+    public PropertyChangeListener[] getPropertyChangeListeners(@CheckForNull String propertyName) {
+        PropertyChangeListener[] array = propertyName != null ? named.get(propertyName) : null;
+        return array != null ? array.clone() : EMPTY;
+    }
+
+    /**
+     * @return the number of registrations, for all and for single properties
+     */
+    public int size() {
+        return size(listeners, named);
+    }
+
+    /**
+     * @param listener the listener
+     * @return true if the listener is registered for any property
+     */
+    public boolean contains(@CheckForNull PropertyChangeListener listener) {
+        listener = unwrap(listener);
+        if (listener == null) {
+            return false;
+        }
+        if (indexOf(listeners, listener) >= 0) {
+            return true;
+        }
+        for (PropertyChangeListener[] array : named.values()) {
+            if (indexOf(array, listener) >= 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @param propertyName the property, or null for all properties
+     * @return true if a change to the property would notify anyone
+     */
+    public boolean hasListeners(@CheckForNull String propertyName) {
+        return listeners.length > 0 || (propertyName != null && named.containsKey(propertyName));
+    }
+
+    /**
+     * Notify listeners of a property change. Nothing is fired if both values
+     * are equal and not null, or if no one is listening.
+     *
+     * @param propertyName the property
+     * @param oldValue     the old value
+     * @param newValue     the new value
+     */
+    public void firePropertyChange(@CheckForNull String propertyName,
+            @CheckForNull Object oldValue, @CheckForNull Object newValue) {
+        if (oldValue != null && newValue != null && oldValue.equals(newValue)) {
+            return;
+        }
+        PropertyChangeListener[] common = listeners;
+        Map<String, PropertyChangeListener[]> map = named;
+        PropertyChangeListener[] specific = (propertyName != null && !map.isEmpty()) ? map.get(propertyName) : null;
+        if (common.length == 0 && specific == null) {
+            return;
+        }
+        PropertyChangeEvent evt = new PropertyChangeEvent(source, propertyName, oldValue, newValue);
+        for (PropertyChangeListener l : common) {
+            l.propertyChange(evt);
+        }
+        if (specific != null) {
+            for (PropertyChangeListener l : specific) {
+                l.propertyChange(evt);
+            }
+        }
+    }
+
+    private static int size(PropertyChangeListener[] common, Map<String, PropertyChangeListener[]> map) {
+        int size = common.length;
+        for (PropertyChangeListener[] array : map.values()) {
+            size += array.length;
+        }
+        return size;
+    }
+
+    private static PropertyChangeListener unwrap(PropertyChangeListener listener) {
+        while (listener instanceof PropertyChangeListenerProxy) {
+            listener = ((PropertyChangeListenerProxy) listener).getListener();
+        }
+        return listener;
+    }
+
+    private static int indexOf(PropertyChangeListener[] array, PropertyChangeListener listener) {
+        for (int i = 0; i < array.length; i++) {
+            if (listener.equals(array[i])) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static PropertyChangeListener[] append(PropertyChangeListener[] array, PropertyChangeListener listener) {
+        PropertyChangeListener[] result = Arrays.copyOf(array, array.length + 1);
+        result[array.length] = listener;
+        return result;
+    }
+
+    // returns the same array if the listener was not present
+    private static PropertyChangeListener[] remove(PropertyChangeListener[] array, PropertyChangeListener listener) {
+        int i = indexOf(array, listener);
+        if (i < 0) {
+            return array;
+        }
+        if (array.length == 1) {
+            return EMPTY;
+        }
+        PropertyChangeListener[] result = new PropertyChangeListener[array.length - 1];
+        System.arraycopy(array, 0, result, 0, i);
+        System.arraycopy(array, i + 1, result, i, array.length - i - 1);
+        return result;
+    }
+}
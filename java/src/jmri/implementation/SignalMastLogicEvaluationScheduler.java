@@ -0,0 +1,212 @@
+package jmri.implementation;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+
+import jmri.InstanceManager;
+import jmri.InstanceManagerAutoDefault;
+import jmri.SignalMast;
+import jmri.SignalMastLogicManager;
+import jmri.util.ThreadingUtil;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Sets the aspects of source masts when the state of their Signal Mast Logic
+ * changes.
+ * <p>
+ * A logic whose destination mast, route or held state changes is marked
+ * dirty here. Half the signal logic delay after the first mark, to let
+ * things settle, every dirty logic has its source mast aspect set on the
+ * layout thread, each exactly once. A logic is set after the logic that sets
+ * its destination mast, so a change works back from the destination through
+ * each approach mast. The aspect change of a mast marks its approach logics
+ * dirty, and they are set in the same pass rather than each waiting another
+ * delay. A logic marked again after it was set in a pass is set in the next
+ * pass. If that happens in more than {@link #MAX_REPEATS} passes in a row, the
+ * logic is dropped, as its mast is taken to be in a loop with the masts
+ * ahead. It is set again when it is next marked from outside a pass.
+ * <p>
+ * The number of times the aspect of each source mast was set, and the time
+ * from the change that started the pass until it was set, are recorded.
+ */
+public class SignalMastLogicEvaluationScheduler implements InstanceManagerAutoDefault {
+
+    /**
+     * Most passes in a row in which a logic can be marked again after it was
+     * set.
+     */
+    static final int MAX_REPEATS = 100;
+
+    private final Map<DefaultSignalMastLogic, Long> _dirty = new LinkedHashMap<>(); // to time marked
+    private final Set<DefaultSignalMastLogic> _done = new HashSet<>();
+    private final Map<DefaultSignalMastLogic, Integer> _repeats = new HashMap<>(); // to passes in a row marked again
+    private final Map<SignalMast, Statistics> _statistics = new WeakHashMap<>();
+    private boolean _scheduled = false;
+    private boolean _running = false;
+    private long _passStart = 0;
+
+    /**
+     * Mark the source mast aspect of a logic as needing to be set.
+     *
+     * @param logic the logic
+     */
+    public synchronized void mark(DefaultSignalMastLogic logic) {
+        if (_dirty.containsKey(logic)) {
+            return;
+        }
+        // changes made during a pass are part of the change that started it
+        _dirty.put(logic, _running && !_done.contains(logic) ? _passStart : System.nanoTime());
+        if (!_scheduled && !_running) {
+            schedule();
+        }
+    }
+
+    // call holding the lock
+    private void schedule() {
+        _scheduled = true;
+        // The next line forces a single initialization of jmri.InstanceManager.getDefault(SignalSpeedMap.class)
+        // before launching parallel threads
+        InstanceManager.getDefault(SignalSpeedMap.class);
+        int delay = InstanceManager.getDefault(SignalMastLogicManager.class).getSignalLogicDelay() / 2;
+        ThreadingUtil.runOnLayoutDelayed(this::run, delay);
+    }
+
+    /**
+     * Set the source mast aspects of all dirty logics.
+     */
+    private void run() {
+        synchronized (this) {
+            _scheduled = false;
+            _running = true;
+            _passStart = _dirty.values().stream().min(Long::compare).orElse(System.nanoTime());
+        }
+        try {
+            DefaultSignalMastLogic logic;
+            while ((logic = next()) != null) {
+                long marked;
+                synchronized (this) {
+                    marked = _dirty.remove(logic);
+                    _done.add(logic);
+                }
+                if (!logic.disposing) {
+                    logic.setMastAppearance();
+                    record(logic.getSourceMast(), System.nanoTime() - marked);
+                }
+            }
+        } finally {
+            synchronized (this) {
+                _running = false;
+                for (DefaultSignalMastLogic logic : _done) {
+                    if (!_dirty.containsKey(logic)) {
+                        _repeats.remove(logic);
+                    } else if (_repeats.merge(logic, 1, Integer::sum) > MAX_REPEATS) {
+                        log.error("Stopped setting Signal Mast Logic for {} after {} passes in a row; masts may be changing each other in a loop",
+                                logic.getSourceMast().getDisplayName(), MAX_REPEATS);  // NOI18N
+                        _dirty.remove(logic);
+                        _repeats.remove(logic);
+                    }
+                }
+                _done.clear();
+                if (!_dirty.isEmpty()) {
+                    schedule();
+                }
+            }
+        }
+    }
+
+    /**
+     * Get the next logic to set: a dirty logic not yet set in this pass, after
+     * the logic that sets its destination mast if that is waiting too.
+     */
+    private synchronized DefaultSignalMastLogic next() {
+        Map<SignalMast, DefaultSignalMastLogic> bySource = new HashMap<>();
+        DefaultSignalMastLogic first = null;
+        for (DefaultSignalMastLogic logic : _dirty.keySet()) {
+            if (!_done.contains(logic)) {
+                bySource.putIfAbsent(logic.getSourceMast(), logic);
+                if (first == null) {
+                    first = logic;
+                }
+            }
+        }
+        if (first == null) {
+            return null;
+        }
+        // follow destinations while they are waiting; stop on a loop
+        Set<DefaultSignalMastLogic> seen = new HashSet<>();
+        DefaultSignalMastLogic logic = first;
+        while (seen.add(logic)) {
+            DefaultSignalMastLogic downstream = logic.destination != null ? bySource.get(logic.destination) : null;
+            if (downstream == null || seen.contains(downstream)) {
+                break;
+            }
+            logic = downstream;
+        }
+        return logic;
+    }
+
+    private synchronized void record(SignalMast mast, long latency) {
+        Statistics s = _statistics.computeIfAbsent(mast, m -> new Statistics());
+        s.count++;
+        s.lastLatency = latency;
+        s.maxLatency = Math.max(s.maxLatency, latency);
+    }
+
+    /**
+     * Get the number of times the aspect of a source mast was set by its
+     * logic.
+     *
+     * @param mast the source mast
+     * @return the number of times set
+     */
+    public synchronized int getEvaluationCount(SignalMast mast) {
+        Statistics s = _statistics.get(mast);
+        return s != null ? s.count : 0;
+    }
+
+    /**
+     * Get the time from the change that started a pass until the aspect of a
+     * source mast was set, the last time it was set.
+     *
+     * @param mast the source mast
+     * @return the time in nanoseconds, or 0 if never set
+     */
+    public synchronized long getLastLatency(SignalMast mast) {
+        Statistics s = _statistics.get(mast);
+        return s != null ? s.lastLatency : 0;
+    }
+
+    /**
+     * Get the longest time from the change that started a pass until the
+     * aspect of a source mast was set.
+     *
+     * @param mast the source mast
+     * @return the time in nanoseconds, or 0 if never set
+     */
+    public synchronized long getMaxLatency(SignalMast mast) {
+        Statistics s = _statistics.get(mast);
+        return s != null ? s.maxLatency : 0;
+    }
+
+    /**
+     * Clear the recorded counts and times.
+     */
+    public synchronized void resetStatistics() {
+        _statistics.clear();
+    }
+
+    private static class Statistics {
+
+        int count = 0;
+        long lastLatency = 0;
+        long maxLatency = 0;
+    }
+
+    private final static Logger log = LoggerFactory.getLogger(SignalMastLogicEvaluationScheduler.class);
+}
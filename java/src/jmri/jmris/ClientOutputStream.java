@@ -0,0 +1,203 @@
+package jmri.jmris;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.annotation.Nonnull;
+import jmri.util.ThreadingUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The output to a client of a {@link JmriServer}.
+ * <p>
+ * Writes to this stream do not block on the network: bytes are added to a
+ * buffer and a shared sender thread writes them to the client, so everything
+ * written while a previous write was in progress goes out as a single write.
+ * This keeps a slow client from holding up the thread that is reporting a
+ * change, which is often the layout thread.
+ * <p>
+ * If a client falls more than a set number of bytes behind, it is not keeping
+ * up with the layout and is disconnected: the stream fails, the failure
+ * handler is called (the server closes the socket), and any later write throws
+ * an IOException.
+ */
+public class ClientOutputStream extends OutputStream {
+
+    /**
+     * The default number of bytes that may be waiting to be sent to a client.
+     */
+    public static final int DEFAULT_LIMIT = 1024 * 1024;
+
+    private static ExecutorService senders = null;
+
+    private final OutputStream out;
+    private final int limit;
+    private final Runnable onFailure;
+    private byte[] buffer = new byte[256];
+    private byte[] sending = new byte[256];
+    private int count = 0;
+    private boolean running = false;
+    private boolean closed = false;
+    private String failure = null;
+
+    /**
+     * Create a stream.
+     *
+     * @param out       the stream to the client
+     * @param limit     the number of bytes that may be waiting to be sent
+     * @param onFailure called once, on a new thread, if the client is too
+     *                  slow or the stream to the client fails
+     */
+    public ClientOutputStream(@Nonnull OutputStream out, int limit, @Nonnull Runnable onFailure) {
+        this.out = out;
+        this.limit = limit;
+        this.onFailure = onFailure;
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        boolean start;
+        synchronized (this) {
+            reserve(1);
+            buffer[count++] = (byte) b;
+            start = !running;
+            running = true;
+        }
+        if (start) {
+            getSenders().execute(this::send);
+        }
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        boolean start;
+        synchronized (this) {
+            reserve(len);
+            System.arraycopy(b, off, buffer, count, len);
+            count += len;
+            start = !running;
+            running = true;
+        }
+        if (start) {
+            getSenders().execute(this::send);
+        }
+    }
+
+    // call holding the lock; ensure len more bytes can be buffered
+    private void reserve(int len) throws IOException {
+        if (failure != null) {
+            throw new IOException(failure);
+        }
+        if (closed) {
+            throw new IOException("Stream closed"); // NOI18N
+        }
+        if (count + len > limit) {
+            log.warn("Disconnecting client more than {} bytes behind", limit);
+            fail("Client too slow"); // NOI18N
+            throw new IOException(failure);
+        }
+        if (count + len > buffer.length) {
+            byte[] larger = new byte[Math.max(buffer.length * 2, count + len)];
+            System.arraycopy(buffer, 0, larger, 0, count);
+            buffer = larger;
+        }
+    }
+
+    /**
+     * Does not wait for buffered bytes to be sent; they are sent as soon as
+     * the client can take them.
+     */
+    @Override
+    public void flush() {
+        // nothing to do
+    }
+
+    /**
+     * Wait up to a second for buffered bytes to be sent, and close the stream
+     * to the client.
+     *
+     * @throws IOException if the stream to the client can not be closed
+     */
+    @Override
+    public void close() throws IOException {
+        synchronized (this) {
+            closed = true;
+            long end = System.currentTimeMillis() + 1000;
+            while (running && failure == null && System.currentTimeMillis() < end) {
+                try {
+                    wait(end - System.currentTimeMillis());
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+        }
+        out.close();
+    }
+
+    /**
+     * @return the number of bytes waiting to be sent
+     */
+    public synchronized int getPending() {
+        return count;
+    }
+
+    private void send() {
+        while (true) {
+            int length;
+            synchronized (this) {
+                if (count == 0 || failure != null) {
+                    running = false;
+                    notifyAll();
+                    return;
+                }
+                // swap buffers so writers can continue while this is sent
+                byte[] swap = sending;
+                sending = buffer;
+                buffer = swap;
+                length = count;
+                count = 0;
+            }
+            try {
+                out.write(sending, 0, length);
+                out.flush();
+            } catch (IOException ex) {
+                log.debug("Unable to write to client", ex);
+                synchronized (this) {
+                    fail(ex.getMessage() != null ? ex.getMessage() : "Write failed"); // NOI18N
+                    running = false;
+                    notifyAll();
+                }
+                return;
+            }
+        }
+    }
+
+    // call holding the lock
+    private void fail(String message) {
+        if (failure == null) {
+            failure = message;
+            count = 0;
+            ThreadingUtil.newThread(onFailure, "Client Output Failure").start();
+        }
+    }
+
+    private static synchronized ExecutorService getSenders() {
+        if (senders == null) {
+            AtomicInteger count = new AtomicInteger();
+            senders = new ThreadPoolExecutor(0, Integer.MAX_VALUE, 10, TimeUnit.SECONDS, new SynchronousQueue<>(), r -> {
+                Thread t = ThreadingUtil.newThread(r, "JMRI Server Output " + count.incrementAndGet());
+                t.setDaemon(true);
+                return t;
+            });
+        }
+        return senders;
+    }
+
+    private static final Logger log = LoggerFactory.getLogger(ClientOutputStream.class);
+}
@@ -5,8 +5,9 @@ import java.io.DataOutputStream;
 import java.io.IOException;
 import java.net.ServerSocket;
 import java.net.Socket;
-import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 import jmri.InstanceManager;
 import jmri.ShutDownTask;
@@ -17,7 +18,11 @@ import org.slf4j.LoggerFactory;
 /**
  * This is the main JMRI Server implementation.
  *
- * It starts a thread for each client.
+ * It starts a thread for each client to read its requests. Output to a client
+ * goes through a {@link ClientOutputStream}, so notifying a client of a change
+ * never waits on the network, and a client that falls more than
+ * {@link #outputLimit} bytes behind is disconnected. A client that sends
+ * nothing for longer than the timeout, if set, is also disconnected.
  *
  */
 public class JmriServer {
@@ -28,7 +33,8 @@ public class JmriServer {
     protected ZeroConfService service = null;
     protected ShutDownTask shutDownTask = null;
     private Thread listenThread = null;
-    protected ArrayList<ClientListener> connectedClientThreads = new ArrayList<>();
+    protected int outputLimit = ClientOutputStream.DEFAULT_LIMIT; // Bytes a client may fall behind.
+    protected final List<ClientListener> connectedClientThreads = new CopyOnWriteArrayList<>();
 
     // Create a new server using the default port
     public JmriServer() {
@@ -161,7 +167,7 @@ public class JmriServer {
             clientSocket = socket;
             try {
                 inStream = new DataInputStream(clientSocket.getInputStream());
-                outStream = new DataOutputStream(clientSocket.getOutputStream());
+                outStream = new DataOutputStream(new ClientOutputStream(clientSocket.getOutputStream(), outputLimit, this::evict));
             } catch (IOException e) {
                 log.error("Error obtaining I/O Stream from socket.");
             }
@@ -175,6 +181,16 @@ public class JmriServer {
         public void stop(JmriServer server) {
             try {
                 server.stopClient(inStream, outStream);
+            } catch (IOException e) {
+                // silently ignore, since we may be reacting to a closed socket
+            }
+            try {
+                // sends anything still buffered
+                outStream.close();
+            } catch (IOException e) {
+                // silently ignore, since we may be reacting to a closed socket
+            }
+            try {
                 clientSocket.close();
             } catch (IOException e) {
                 // silently ignore, since we may be reacting to a closed socket
@@ -182,6 +198,17 @@ public class JmriServer {
             clientThread = null;
         }
 
+        // the client is too slow or can not be written to; closing the
+        // socket ends handleClient, which removes the client
+        private void evict() {
+            log.debug("Disconnecting client {} port {}", clientSocket.getInetAddress(), clientSocket.getPort());
+            try {
+                clientSocket.close();
+            } catch (IOException e) {
+                log.debug("Unable to close client socket", e);
+            }
+        }
+
         @Override
         public void run() {
             // handle a client.
@@ -3,7 +3,9 @@ package jmri.jmrit.blockboss;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Enumeration;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import javax.annotation.Nonnull;
 import jmri.ConfigureManager;
 import jmri.InstanceManager;
@@ -718,20 +720,49 @@ public class BlockBossLogic extends Siglet implements java.beans.VetoableChangeL
         }
 
         outputs = new NamedBean[]{driveSignal.getBean()};
+    }
 
-        // also need to act if the _signal's_ "held"
-        // parameter changes, but we don't want to
-        // act if the signals appearance changes (to
-        // avoid a loop, or avoid somebody changing appearance
-        // manually and having it instantly recomputed & changed back
-        driveSignal.getBean().addPropertyChangeListener(new java.beans.PropertyChangeListener() {
-            @Override
-            public void propertyChange(java.beans.PropertyChangeEvent e) {
-                if (e.getPropertyName().equals(Bundle.getMessage("Held"))) {
-                    setOutput();
-                }
-            }
-        }, driveSignal.getName(), "BlockBossLogic:" + name);
+    private volatile BlockBossLogicEvaluationScheduler scheduler = null;
+
+    /**
+     * Start evaluating the logic when its inputs change.
+     * <p>
+     * Unlike other Siglets this does not start a thread; the logic is
+     * registered with the shared {@link BlockBossLogicEvaluationScheduler},
+     * which also evaluates it when the driven signal head is held or released.
+     */
+    @Override
+    public void start() {
+        if (scheduler != null) {
+            scheduler.unregister(this);
+            scheduler = null;
+        }
+        defineIO();
+        if (inputs == null || inputs.length <= 0) {
+            log.error("Siglet start invoked {}, but no inputs provided", ((name!=null && !name.isEmpty()) ? "for \""+name+"\"" : "(without a name)") );
+            return;
+        }
+        scheduler = InstanceManager.getDefault(BlockBossLogicEvaluationScheduler.class);
+        scheduler.register(this);
+        // run one cycle at start
+        setOutput();
+    }
+
+    /**
+     * Stop evaluating the logic.
+     */
+    @Override
+    public void stop() {
+        BlockBossLogicEvaluationScheduler s = scheduler;
+        if (s != null) {
+            s.unregister(this);
+            scheduler = null;
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return scheduler != null;
     }
 
     /**
@@ -1150,37 +1181,38 @@ public class BlockBossLogic extends Siglet implements java.beans.VetoableChangeL
 
     // Due to an older configuration & storage paradigm, this class
     // has to add itself to the configuration manager, but only once.
-    // We do that the first time an instance is created and added to the active list
+    // We do that the first time an instance is retained
     private static volatile boolean addedToConfig = false;
 
-    // The list of existing instances. When the first is added,
-    // the configuration connection is made.
-    static List<BlockBossLogic> bblList = Collections.synchronizedList(
-                        new ArrayList<BlockBossLogic>() {
-                            @Override
-                            public boolean add(BlockBossLogic bbl) {
-                                if (!addedToConfig) {
-                                    addedToConfig = true;
-                                    ConfigureManager cm = InstanceManager.getNullableDefault(jmri.ConfigureManager.class);
-                                    if (cm != null) {
-                                        cm.registerConfig(bbl, jmri.Manager.BLOCKBOSS);
-                                    }
-                                    log.debug("added to config for {}", bbl.name);
-                                }
-                                return super.add(bbl);
-                            }
-                        }
-            );
+    // The existing instances, by the system name of the driven signal head.
+    // When the first is added, the configuration connection is made.
+    private static final Map<String, BlockBossLogic> bblMap = Collections.synchronizedMap(new LinkedHashMap<>());
 
     public static Enumeration<BlockBossLogic> entries() {
-        return Collections.enumeration(bblList);
+        synchronized (bblMap) {
+            return Collections.enumeration(new ArrayList<>(bblMap.values()));
+        }
     }
 
     /**
      * Ensure that this BlockBossLogic object is available for later retrieval.
+     * Any other logic retained for the same signal head is stopped and
+     * replaced.
      */
     public void retain() {
-        bblList.add(this);
+        if (!addedToConfig) {
+            addedToConfig = true;
+            ConfigureManager cm = InstanceManager.getNullableDefault(jmri.ConfigureManager.class);
+            if (cm != null) {
+                cm.registerConfig(this, jmri.Manager.BLOCKBOSS);
+            }
+            log.debug("added to config for {}", name);
+        }
+        BlockBossLogic old = bblMap.put(driveSignal.getBean().getSystemName(), this);
+        if (old != null && old != this) {
+            log.debug("replacing logic for {}", name);
+            old.stop();
+        }
     }
 
     /**
@@ -1210,18 +1242,10 @@ public class BlockBossLogic extends Siglet implements java.beans.VetoableChangeL
      */
     @Nonnull
     public static BlockBossLogic getStoppedObject(@Nonnull SignalHead sh) {
-        BlockBossLogic b = null;
-
-        for (BlockBossLogic bbl : bblList) {
-            if (bbl.getDrivenSignalNamedBean().getBean() == sh) {
-                b = bbl;
-                break;
-            }
-        }
+        BlockBossLogic b = bblMap.remove(sh.getSystemName());
 
         if (b != null) {
-            // found an existing one, remove it from the map and stop its thread
-            bblList.remove(b);
+            // found an existing one, removed it from the map, now stop it
             b.stop();
             return b;
         } else {
@@ -1260,13 +1284,8 @@ public class BlockBossLogic extends Siglet implements java.beans.VetoableChangeL
      */
     @Nonnull
     public static BlockBossLogic getExisting(@Nonnull SignalHead sh) {
-        for (BlockBossLogic bbl : bblList) {
-            if (bbl.getDrivenSignalNamedBean().getBean() == sh) {
-                return bbl;
-            }
-        }
-
-        return (new BlockBossLogic(sh.getDisplayName()));
+        BlockBossLogic b = bblMap.get(sh.getSystemName());
+        return b != null ? b : new BlockBossLogic(sh.getDisplayName());
     }
 
     @Override
@@ -1341,7 +1360,7 @@ public class BlockBossLogic extends Siglet implements java.beans.VetoableChangeL
             if (nb instanceof SignalHead) {
                 if (nb.equals(getDrivenSignalNamedBean().getBean())) {
                     stop();
-                    bblList.remove(this);
+                    bblMap.remove(((SignalHead) nb).getSystemName(), this);
                 }
                 if (watchedSignal1 != null && watchedSignal1.getBean().equals(nb)) {
                     stop();
@@ -1430,10 +1449,14 @@ public class BlockBossLogic extends Siglet implements java.beans.VetoableChangeL
      * Intended to be only used during testing.
      */
     public static void stopAllAndClear() {
-        for (BlockBossLogic b : bblList) {
+        List<BlockBossLogic> list;
+        synchronized (bblMap) {
+            list = new ArrayList<>(bblMap.values());
+            bblMap.clear();
+        }
+        for (BlockBossLogic b : list) {
             b.stop();
         }
-        bblList.clear();
     }
 
     public List<NamedBeanUsageReport> getUsageReport(NamedBean bean) {
@@ -0,0 +1,279 @@
+package jmri.jmrit.blockboss;
+
+import java.beans.PropertyChangeEvent;
+import java.beans.PropertyChangeListener;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+
+import javax.annotation.Nonnull;
+
+import jmri.InstanceManagerAutoDefault;
+import jmri.NamedBean;
+import jmri.SignalHead;
+import jmri.util.ThreadingUtil;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Evaluates Simple Signal Logic when the beans it watches change.
+ * <p>
+ * Each running {@link BlockBossLogic} is registered here against the beans it
+ * watches, and one listener on each watched bean marks every logic that
+ * depends on it. Marked logics are evaluated in a pass on the layout thread,
+ * each exactly once however many of its beans changed. A logic that watches
+ * the head driven by another marked logic is evaluated after that logic, and
+ * logics marked by the heads set during a pass are evaluated in the same pass,
+ * so a change works back through the approach signals in one wave. A logic
+ * marked again after it was evaluated in a pass is evaluated in the next pass.
+ * A logic that is marked again in this way in more than {@link #MAX_REPEATS}
+ * passes in a row is dropped. Its head is taken to be in a loop with the heads
+ * it watches. The logic is evaluated again when its inputs next change.
+ * <p>
+ * A logic is also marked when its driven head is held or released, but not
+ * when the appearance of that head changes.
+ */
+public class BlockBossLogicEvaluationScheduler implements InstanceManagerAutoDefault {
+
+    /**
+     * Most passes in a row in which a logic can be marked again after it was
+     * evaluated.
+     */
+    static final int MAX_REPEATS = 100;
+
+    private final Map<NamedBean, List<BlockBossLogic>> _watchers = new HashMap<>(); // bean to logics watching it
+    private final Map<SignalHead, BlockBossLogic> _drivers = new HashMap<>(); // head to logic driving it
+    private final Set<BlockBossLogic> _registered = new HashSet<>();
+    private final Set<BlockBossLogic> _dirty = new LinkedHashSet<>();
+    private final Set<BlockBossLogic> _done = new HashSet<>();
+    private final Map<SignalHead, Integer> _counts = new WeakHashMap<>();
+    private final Map<BlockBossLogic, Integer> _repeats = new HashMap<>(); // to passes in a row marked again
+    private final PropertyChangeListener _listener = this::propertyChange;
+    private boolean _scheduled = false;
+    private boolean _running = false;
+
+    /**
+     * Start evaluating a logic when its inputs change. Another logic driving
+     * the same head is stopped first.
+     *
+     * @param logic the logic, with its inputs and outputs defined
+     */
+    public void register(@Nonnull BlockBossLogic logic) {
+        BlockBossLogic previous;
+        synchronized (this) {
+            previous = _drivers.get(logic.getDrivenSignalNamedBean().getBean());
+        }
+        if (previous != null && previous != logic) {
+            log.debug("Stopping other Simple Signal Logic for {}", logic.getDrivenSignal());  // NOI18N
+            previous.stop();
+        }
+        List<NamedBean> added = new ArrayList<>();
+        synchronized (this) {
+            if (!_registered.add(logic)) {
+                return;
+            }
+            for (NamedBean bean : logic.inputs) {
+                if (bean != null && !isWatched(bean)) {
+                    added.add(bean);
+                }
+                if (bean != null) {
+                    _watchers.computeIfAbsent(bean, b -> new ArrayList<>()).add(logic);
+                }
+            }
+            SignalHead head = logic.getDrivenSignalNamedBean().getBean();
+            if (!isWatched(head) && !added.contains(head)) {
+                added.add(head);
+            }
+            _drivers.put(head, logic);
+        }
+        for (NamedBean bean : added) {
+            bean.addPropertyChangeListener(_listener, bean.getDisplayName(), "BlockBossLogic"); // NOI18N
+        }
+    }
+
+    /**
+     * Stop evaluating a logic.
+     *
+     * @param logic the logic
+     */
+    public void unregister(@Nonnull BlockBossLogic logic) {
+        List<NamedBean> removed = new ArrayList<>();
+        synchronized (this) {
+            if (!_registered.remove(logic)) {
+                return;
+            }
+            _dirty.remove(logic);
+            _repeats.remove(logic);
+            Set<NamedBean> beans = new HashSet<>();
+            _watchers.forEach((bean, logics) -> {
+                if (logics.removeIf(l -> l == logic)) {
+                    beans.add(bean);
+                }
+            });
+            SignalHead head = logic.getDrivenSignalNamedBean().getBean();
+            if (_drivers.remove(head, logic)) {
+                beans.add(head);
+            }
+            for (NamedBean bean : beans) {
+                List<BlockBossLogic> logics = _watchers.get(bean);
+                if (logics != null && logics.isEmpty()) {
+                    _watchers.remove(bean);
+                }
+                if (!isWatched(bean)) {
+                    removed.add(bean);
+                }
+            }
+        }
+        for (NamedBean bean : removed) {
+            bean.removePropertyChangeListener(_listener);
+        }
+    }
+
+    /**
+     * @param logic the logic
+     * @return true if the logic is evaluated when its inputs change
+     */
+    public synchronized boolean isRegistered(BlockBossLogic logic) {
+        return _registered.contains(logic);
+    }
+
+    // call holding the lock
+    private boolean isWatched(NamedBean bean) {
+        return _watchers.containsKey(bean) || _drivers.containsKey(bean);
+    }
+
+    private void propertyChange(PropertyChangeEvent e) {
+        Object source = e.getSource();
+        synchronized (this) {
+            List<BlockBossLogic> logics = _watchers.get(source);
+            if (logics != null) {
+                // any event drives the output
+                logics.forEach(this::mark);
+            }
+            // a driven head is only evaluated again when held or released, so
+            // that setting its appearance, here or by hand, does not loop
+            BlockBossLogic driver = _drivers.get(source);
+            if (driver != null && Bundle.getMessage("Held").equals(e.getPropertyName())) {
+                mark(driver);
+            }
+        }
+    }
+
+    // call holding the lock
+    private void mark(BlockBossLogic logic) {
+        if (_dirty.add(logic) && !_scheduled && !_running) {
+            schedule();
+        }
+    }
+
+    // call holding the lock
+    private void schedule() {
+        _scheduled = true;
+        ThreadingUtil.runOnLayoutEventually(this::run);
+    }
+
+    /**
+     * Evaluate all marked logics.
+     */
+    private void run() {
+        synchronized (this) {
+            _scheduled = false;
+            _running = true;
+        }
+        try {
+            BlockBossLogic logic;
+            while ((logic = next()) != null) {
+                synchronized (this) {
+                    _dirty.remove(logic);
+                    _done.add(logic);
+                    _counts.merge(logic.getDrivenSignalNamedBean().getBean(), 1, Integer::sum);
+                }
+                try {
+                    logic.setOutput();
+                } catch (RuntimeException ex) {
+                    log.error("Error evaluating Simple Signal Logic for {}", logic.getDrivenSignal(), ex);  // NOI18N
+                }
+            }
+        } finally {
+            synchronized (this) {
+                _running = false;
+                for (BlockBossLogic logic : _done) {
+                    if (!_dirty.contains(logic)) {
+                        _repeats.remove(logic);
+                    } else if (_repeats.merge(logic, 1, Integer::sum) > MAX_REPEATS) {
+                        log.error("Stopped evaluating Simple Signal Logic for {} after {} passes in a row; heads may be changing each other in a loop",
+                                logic.getDrivenSignal(), MAX_REPEATS);  // NOI18N
+                        _dirty.remove(logic);
+                        _repeats.remove(logic);
+                    }
+                }
+                _done.clear();
+                if (!_dirty.isEmpty()) {
+                    schedule();
+                }
+            }
+        }
+    }
+
+    /**
+     * Get the next logic to evaluate: a marked logic not yet evaluated in this
+     * pass, after the logic driving a head it watches if that is marked too.
+     */
+    private synchronized BlockBossLogic next() {
+        Map<NamedBean, BlockBossLogic> pending = new HashMap<>();
+        BlockBossLogic first = null;
+        for (BlockBossLogic logic : _dirty) {
+            if (!_done.contains(logic)) {
+                pending.putIfAbsent(logic.getDrivenSignalNamedBean().getBean(), logic);
+                if (first == null) {
+                    first = logic;
+                }
+            }
+        }
+        if (first == null) {
+            return null;
+        }
+        // follow watched heads while their logics are waiting; stop on a loop
+        Set<BlockBossLogic> seen = new HashSet<>();
+        BlockBossLogic logic = first;
+        seen.add(logic);
+        boolean moved = true;
+        while (moved) {
+            moved = false;
+            for (NamedBean bean : logic.inputs) {
+                BlockBossLogic ahead = bean instanceof SignalHead ? pending.get(bean) : null;
+                if (ahead != null && seen.add(ahead)) {
+                    logic = ahead;
+                    moved = true;
+                    break;
+                }
+            }
+        }
+        return logic;
+    }
+
+    /**
+     * Get the number of times the logic driving a head was evaluated.
+     *
+     * @param head the driven head
+     * @return the number of times evaluated
+     */
+    public synchronized int getEvaluationCount(SignalHead head) {
+        return _counts.getOrDefault(head, 0);
+    }
+
+    /**
+     * Clear the recorded counts.
+     */
+    public synchronized void resetStatistics() {
+        _counts.clear();
+    }
+
+    private final static Logger log = LoggerFactory.getLogger(BlockBossLogicEvaluationScheduler.class);
+}
@@ -1,16 +1,23 @@
 package jmri.jmrit.decoderdefn;
 
+import java.io.BufferedInputStream;
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
 import java.net.URL;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
+import java.util.NoSuchElementException;
 import java.util.Set;
 import javax.annotation.Nonnull;
 import javax.swing.JComboBox;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
 import jmri.InstanceInitializer;
 import jmri.InstanceManager;
 import jmri.implementation.AbstractInstanceInitializer;
@@ -117,15 +124,115 @@ public class DecoderIndexFile extends XmlFile {
     public List<DecoderFile> matchingDecoderList(String mfg, String family,
             String decoderMfgID, String decoderVersionID,
             String decoderProductID, String model, String developerID) {
+        List<DecoderFile> candidates = candidates(mfg, family, decoderMfgID, decoderVersionID, decoderProductID, model);
         List<DecoderFile> l = new ArrayList<>();
-        for (int i = 0; i < numDecoders(); i++) {
-            if (checkEntry(i, mfg, family, decoderMfgID, decoderVersionID, decoderProductID, model, developerID)) {
-                l.add(decoderList.get(i));
+        for (DecoderFile r : candidates) {
+            if (matches(r, mfg, family, decoderMfgID, decoderVersionID, decoderProductID, model, developerID)) {
+                l.add(r);
             }
         }
         return l;
     }
 
+    // indexes over decoderList, in list order; extended as entries are added
+    private final HashMap<String, List<DecoderFile>> _byMfg = new HashMap<>();
+    private final HashMap<String, List<DecoderFile>> _byMfgID = new HashMap<>();
+    private final HashMap<String, List<DecoderFile>> _byFamily = new HashMap<>();
+    private final HashMap<String, List<DecoderFile>> _byModel = new HashMap<>();
+    private final HashMap<String, List<DecoderFile>> _byProductID = new HashMap<>();
+    private final HashMap<String, DecoderFile> _byTitle = new HashMap<>();
+    @SuppressWarnings("unchecked")
+    private final List<DecoderFile>[] _byVersion = new List[256];
+    private int indexed = 0;
+
+    /**
+     * Get the smallest indexed list of decoders that holds every decoder
+     * matching the given keys. The list still has to be checked entry by
+     * entry.
+     */
+    private synchronized List<DecoderFile> candidates(String mfg, String family,
+            String decoderMfgID, String decoderVersionID, String decoderProductID, String model) {
+        updateIndex();
+        List<DecoderFile> best = decoderList;
+        best = smaller(best, mfg, _byMfg);
+        best = smaller(best, family, _byFamily);
+        best = smaller(best, decoderMfgID, _byMfgID);
+        best = smaller(best, model, _byModel);
+        if (decoderProductID != null && !decoderProductID.contains(",")) {
+            best = smaller(best, decoderProductID, _byProductID);
+        }
+        if (decoderVersionID != null) {
+            int versionID = Integer.parseInt(decoderVersionID);
+            if (versionID >= 0 && versionID < _byVersion.length) {
+                List<DecoderFile> list = _byVersion[versionID];
+                if (list == null) {
+                    return Collections.emptyList();
+                }
+                if (list.size() < best.size()) {
+                    best = list;
+                }
+            }
+        }
+        return new ArrayList<>(best);
+    }
+
+    private static List<DecoderFile> smaller(List<DecoderFile> best, String key, HashMap<String, List<DecoderFile>> index) {
+        if (key == null) {
+            return best;
+        }
+        List<DecoderFile> list = index.getOrDefault(key, Collections.emptyList());
+        return list.size() < best.size() ? list : best;
+    }
+
+    /**
+     * Add entries appended to decoderList since the last call to the
+     * indexes, rebuilding them if the list was cleared or shortened.
+     */
+    private void updateIndex() {
+        if (decoderList.size() < indexed) {
+            _byMfg.clear();
+            _byMfgID.clear();
+            _byFamily.clear();
+            _byModel.clear();
+            _byProductID.clear();
+            _byTitle.clear();
+            Arrays.fill(_byVersion, null);
+            indexed = 0;
+        }
+        for (; indexed < decoderList.size(); indexed++) {
+            DecoderFile r = decoderList.get(indexed);
+            addToIndex(_byMfg, r.getMfg(), r);
+            addToIndex(_byMfgID, r.getMfgID(), r);
+            addToIndex(_byFamily, r.getFamily(), r);
+            addToIndex(_byModel, r.getModel(), r);
+            if (r.getModelElement() != null) {
+                // same comma-separated form that matches() searches
+                for (String id : String.valueOf(r.getProductID()).split(",", -1)) {
+                    addToIndex(_byProductID, id, r);
+                }
+            }
+            for (int v = 0; v < _byVersion.length; v++) {
+                if (r.isVersion(v)) {
+                    if (_byVersion[v] == null) {
+                        _byVersion[v] = new ArrayList<>();
+                    }
+                    _byVersion[v].add(r);
+                }
+            }
+            // later entries win, as in a search from the end of the list
+            _byTitle.put(r.titleString(), r);
+        }
+    }
+
+    private static void addToIndex(HashMap<String, List<DecoderFile>> index, String key, DecoderFile r) {
+        if (key != null) {
+            List<DecoderFile> list = index.computeIfAbsent(key, k -> new ArrayList<>());
+            if (list.isEmpty() || list.get(list.size() - 1) != r) {
+                list.add(r);
+            }
+        }
+    }
+
     /**
      * Get a JComboBox representing the choices that match some information.
      *
@@ -175,14 +282,9 @@ public class DecoderIndexFile extends XmlFile {
      * @param title the decoder title
      * @return the decoder file
      */
-    public DecoderFile fileFromTitle(String title) {
-        for (int i = numDecoders() - 1; i >= 0; i--) {
-            DecoderFile r = decoderList.get(i);
-            if (r.titleString().equals(title)) {
-                return r;
-            }
-        }
-        return null;
+    public synchronized DecoderFile fileFromTitle(String title) {
+        updateIndex();
+        return _byTitle.get(title);
     }
 
     /**
@@ -203,7 +305,12 @@ public class DecoderIndexFile extends XmlFile {
     public boolean checkEntry(int i, String mfgName, String family, String mfgID,
             String decoderVersionID, String decoderProductID, String model,
             String developerID) {
-        DecoderFile r = decoderList.get(i);
+        return matches(decoderList.get(i), mfgName, family, mfgID, decoderVersionID, decoderProductID, model, developerID);
+    }
+
+    private boolean matches(DecoderFile r, String mfgName, String family, String mfgID,
+            String decoderVersionID, String decoderProductID, String model,
+            String developerID) {
         if (mfgName != null && !mfgName.equals(r.getMfg())) {
             return false;
         }
@@ -245,11 +352,12 @@ public class DecoderIndexFile extends XmlFile {
      * Check whether the user's version of the decoder index file needs to be
      * updated; if it does, then forces the update.
      *
+     * @param userVersion the version of the index found on the search path,
+     *                    typically as already read into the instance
      * @return true is the index should be reloaded because it was updated
-     * @throws org.jdom2.JDOMException if unable to parse decoder index
-     * @throws java.io.IOException     if unable to read decoder index
+     * @throws java.io.IOException if unable to read decoder index
      */
-    static boolean updateIndexIfNeeded() throws org.jdom2.JDOMException, java.io.IOException {
+    static boolean updateIndexIfNeeded(String userVersion) throws java.io.IOException {
         switch (FileUtil.findFiles(defaultDecoderIndexFilename(), ".").size()) {
             case 0:
                 log.debug("creating decoder index");
@@ -263,36 +371,20 @@ public class DecoderIndexFile extends XmlFile {
         }
 
         // get version from master index; if not found, give up
-        String masterVersion = null;
-        DecoderIndexFile masterXmlFile = new DecoderIndexFile();
         URL masterFile = FileUtil.findURL("xml/" + defaultDecoderIndexFilename(), FileUtil.Location.INSTALLED);
         if (masterFile == null) {
             return false;
         }
         log.debug("checking for master file at {}", masterFile);
-        Element masterRoot = masterXmlFile.rootFromURL(masterFile);
-        if (masterRoot.getChild(DECODER_INDEX) != null) {
-            if (masterRoot.getChild(DECODER_INDEX).getAttribute(VERSION) != null) {
-                masterVersion = masterRoot.getChild(DECODER_INDEX).getAttribute(VERSION).getValue();
-            }
-            log.debug("master version found, is {}", masterVersion);
-        } else {
+        String masterVersion;
+        try {
+            masterVersion = readIndexVersion(masterFile);
+        } catch (NoSuchElementException ex) {
             return false;
         }
+        log.debug("master version found, is {}", masterVersion);
 
-        // get from user index.  Unless they are equal, force an update.
-        // note we find this file via the search path; if not exists, so that
-        // the master is found, we still do the right thing (nothing).
-        String userVersion = null;
-        DecoderIndexFile userXmlFile = new DecoderIndexFile();
-        log.debug("checking for user file at {}", defaultDecoderIndexFilename());
-        Element userRoot = userXmlFile.rootFromName(defaultDecoderIndexFilename());
-        if (userRoot.getChild(DECODER_INDEX) != null) {
-            if (userRoot.getChild(DECODER_INDEX).getAttribute(VERSION) != null) {
-                userVersion = userRoot.getChild(DECODER_INDEX).getAttribute(VERSION).getValue();
-            }
-            log.debug("user version found, is {}", userVersion);
-        }
+        // Unless they are equal, force an update.
         if (masterVersion != null && masterVersion.equals(userVersion)) {
             return false;
         }
@@ -305,6 +397,38 @@ public class DecoderIndexFile extends XmlFile {
 
     }
 
+    /**
+     * Read the version attribute of the decoderIndex element of an index
+     * file, stopping there rather than building the whole document.
+     *
+     * @param url the decoder index file
+     * @return the version, or null if the element has no version
+     * @throws java.util.NoSuchElementException if there is no decoderIndex
+     *                                          element
+     * @throws java.io.IOException              if unable to read the file
+     */
+    static String readIndexVersion(URL url) throws IOException {
+        XMLInputFactory factory = XMLInputFactory.newInstance();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        try (InputStream in = new BufferedInputStream(url.openStream())) {
+            XMLStreamReader reader = factory.createXMLStreamReader(in);
+            try {
+                while (reader.hasNext()) {
+                    if (reader.next() == XMLStreamConstants.START_ELEMENT
+                            && DECODER_INDEX.equals(reader.getLocalName())) {
+                        return reader.getAttributeValue(null, VERSION);
+                    }
+                }
+            } finally {
+                reader.close();
+            }
+        } catch (XMLStreamException ex) {
+            throw new IOException(ex);
+        }
+        throw new NoSuchElementException(DECODER_INDEX);
+    }
+
     /**
      * Force creation of a new user index without incrementing version
      */
@@ -670,7 +794,9 @@ public class DecoderIndexFile extends XmlFile {
                 }
                 // see if needs to be updated
                 try {
-                    if (updateIndexIfNeeded()) {
+                    // the instance was read from the user's index if there is one
+                    String userVersion = instance.fileVersion >= 0 ? Integer.toString(instance.fileVersion) : null;
+                    if (updateIndexIfNeeded(userVersion)) {
                         try {
                             instance = new DecoderIndexFile();
                             instance.readFile(defaultDecoderIndexFilename());
@@ -678,7 +804,7 @@ public class DecoderIndexFile extends XmlFile {
                             log.error("Exception during decoder index reload: ", e);
                         }
                     }
-                } catch (IOException | JDOMException e) {
+                } catch (IOException e) {
                     log.error("Exception during decoder index update: ", e);
                 }
                 log.debug("DecoderIndexFile returns instance {}", instance);
@@ -4,6 +4,13 @@ import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 import java.beans.PropertyChangeEvent;
 import java.beans.PropertyChangeListener;
 import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import jmri.Block;
 import jmri.BlockManager;
 import jmri.DccLocoAddress;
@@ -14,10 +21,12 @@ import jmri.Section;
 import jmri.Sensor;
 import jmri.SignalHead;
 import jmri.SignalMast;
+import jmri.Throttle;
 import jmri.ThrottleListener;
 import jmri.Timebase;
 import jmri.implementation.SignalSpeedMap;
 import jmri.jmrit.roster.RosterEntry;
+import jmri.util.ThreadingUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -133,6 +142,7 @@ public class AutoActiveTrain implements ThrottleListener {
 
     public void setForward(boolean set) {
         _forward = set;
+        wakeAutoEngineer();
     }
 
     public synchronized float getTargetSpeed() {
@@ -144,6 +154,7 @@ public class AutoActiveTrain implements ThrottleListener {
         if (speed > 0.002) {
             _autoEngineer.slowToStop(false);
         }
+        wakeAutoEngineer();
     }
 
     public int getSavedStatus() {
@@ -198,6 +209,7 @@ public class AutoActiveTrain implements ThrottleListener {
     public void setRunInReverse(boolean set) {
         _runInReverse = set;
         _forward = !_runInReverse;
+        wakeAutoEngineer();
     }
 
     public boolean getSoundDecoder() {
@@ -322,8 +334,8 @@ public class AutoActiveTrain implements ThrottleListener {
         if (_autoEngineer != null) {
             log.error("Second Trottle for same loco[{}] - ignoring", _address);
         } else {
-            _autoEngineer = new AutoEngineer();
-            jmri.util.ThreadingUtil.newThread(_autoEngineer, "Auto Engineer " + _address).start();
+            DispatcherFrame dispatcher = InstanceManager.getDefault(DispatcherFrame.class);
+            startAutoEngineer(_throttle, dispatcher.getMinThrottleInterval(), dispatcher.getFullRampTime());
             _activeTrain.setMode(ActiveTrain.AUTOMATIC);
             if (_resumingAutomatic) {
                 _resumingAutomatic = false;
@@ -338,6 +350,29 @@ public class AutoActiveTrain implements ThrottleListener {
         }
     }
 
+    /**
+     * Start an AutoEngineer running the train with a throttle.
+     *
+     * @param throttle         the throttle for the train
+     * @param throttleInterval the minimum milliseconds between throttle
+     *                         commands
+     * @param fullRampTime     the milliseconds to ramp from stop to full speed
+     *                         at the fastest ramp rate
+     */
+    void startAutoEngineer(DccThrottle throttle, int throttleInterval, int fullRampTime) {
+        _throttle = throttle;
+        _autoEngineer = new AutoEngineer(throttle, throttleInterval, fullRampTime);
+        _autoEngineer.run();
+    }
+
+    // have the AutoEngineer act on a change of target speed or direction
+    private void wakeAutoEngineer() {
+        AutoEngineer engineer = _autoEngineer;
+        if (engineer != null) {
+            engineer.wake();
+        }
+    }
+
     protected DccThrottle getThrottle() {
         return _throttle;
     }
@@ -409,17 +444,24 @@ public class AutoActiveTrain implements ThrottleListener {
 
     protected void restoreSavedSpeed() {
         _targetSpeed = _savedSpeed;
+        wakeAutoEngineer();
     }
 
     // keeps track of number of horn execution threads that are active
     private int _activeHornThreads = 0;
+    private final Object _hornLock = new Object();
 
     protected void decrementHornExecution() {
-        _activeHornThreads--;
+        synchronized (_hornLock) {
+            _activeHornThreads--;
+            _hornLock.notifyAll();
+        }
     }
 
     protected void incrementHornExecution() {
-        _activeHornThreads++;
+        synchronized (_hornLock) {
+            _activeHornThreads++;
+        }
     }
 
     //
@@ -573,6 +615,7 @@ public class AutoActiveTrain implements ThrottleListener {
         } else {
             _forward = !_activeTrain.isTransitReversed();
         }
+        wakeAutoEngineer();
         log.debug("flipping direction was [{}] now [{}]",_forward,oldFwd);
     }
 
@@ -1229,9 +1272,14 @@ public class AutoActiveTrain implements ThrottleListener {
         }
         // even if no task is required it must be run
         // as cleanup happens after train stops.
-        Runnable waitForStop = new WaitForTrainToStop(task);
-        Thread tWait = jmri.util.ThreadingUtil.newThread(waitForStop, "Wait for stop " + getActiveTrain().getActiveTrainName());
-        tWait.start();
+        _autoEngineer.whenStopped(() -> ThreadingUtil.newThread(() -> {
+            try {
+                log.trace("executing task[{}]", task);
+                executeStopTasks(task);
+            } catch (Exception e) {
+                log.error("Stop tasks crashed.", e);
+            }
+        }, "Stop tasks " + getActiveTrain().getActiveTrainName()).start());
     }
 
     protected synchronized void executeStopTasks(int task) {
@@ -1357,6 +1405,7 @@ public class AutoActiveTrain implements ThrottleListener {
     private synchronized void setToAMaximumThrottle(float throttleSetting) {
         if (throttleSetting < _targetSpeed) {
             _targetSpeed = throttleSetting;
+            wakeAutoEngineer();
         }
     }
 
@@ -1418,6 +1467,7 @@ public class AutoActiveTrain implements ThrottleListener {
         } else {
             _autoEngineer.setHalt(true);
         }
+        wakeAutoEngineer();
     }
 
     private synchronized void setTargetSpeedByProfile(float speedState) {
@@ -1445,6 +1495,7 @@ public class AutoActiveTrain implements ThrottleListener {
                 _targetSpeed = -1.0f;
                 _autoEngineer.setHalt(true);
             }
+            wakeAutoEngineer();
         }
 
     /**
@@ -1471,6 +1522,7 @@ public class AutoActiveTrain implements ThrottleListener {
             _targetSpeed = 0.0f;
             _autoEngineer.setHalt(true);
         }
+        wakeAutoEngineer();
     }
 
     private int getBlockLength(Block b) {
@@ -1512,20 +1564,24 @@ public class AutoActiveTrain implements ThrottleListener {
      * current autoActiveTrain thread.
      */
     protected void waitUntilStopped() {
-        boolean doneWaiting = false;
-        while (!doneWaiting) {
-            if (_autoEngineer != null) {
-                doneWaiting = _autoEngineer.isStopped();
-            } else {
-                doneWaiting = true;
-            }
-            if (!doneWaiting) {
-                try {
-                    Thread.sleep(50);
-                } catch (InterruptedException e) {
-                    // ignore this exception
-                }
-            }
+        try {
+            awaitStop();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // wait for the throttle to report the train stopped, or for the
+    // AutoEngineer to be replaced
+    private void awaitStop() throws InterruptedException {
+        AutoEngineer engineer = _autoEngineer;
+        if (engineer == null) {
+            return;
+        }
+        CountDownLatch stopped = new CountDownLatch(1);
+        engineer.whenStopped(stopped::countDown);
+        while (!stopped.await(1, TimeUnit.SECONDS) && _autoEngineer == engineer) {
+            log.trace("{}: still waiting to stop", _activeTrain.getTrainName());
         }
     }
 
@@ -1566,21 +1622,18 @@ public class AutoActiveTrain implements ThrottleListener {
 
     public void terminate() {
         // here add code to stop the train and release its throttle if it is in autoRun
-        while (_activeHornThreads > 0) {
-            try {
-                Thread.sleep(50);
-            } catch (InterruptedException e) {
-                // ignore this exception
+        synchronized (_hornLock) {
+            while (_activeHornThreads > 0) {
+                try {
+                    _hornLock.wait();
+                } catch (InterruptedException e) {
+                    // ignore this exception
+                }
             }
         }
         _autoTrainAction.clearRemainingActions();
         if (_autoEngineer != null) {
             _autoEngineer.setHalt(true);
-            try {
-                Thread.sleep(50);
-            } catch (InterruptedException e) {
-                // ignore this exception
-            }
             waitUntilStopped();
             _autoEngineer.abort();
             InstanceManager.throttleManagerInstance().releaseThrottle(_throttle, this);
@@ -1596,37 +1649,6 @@ public class AutoActiveTrain implements ThrottleListener {
     }
 
 // _________________________________________________________________________________________
-    // This class waits for train stop in a separate thread
-    class WaitForTrainToStop implements Runnable {
-
-        public WaitForTrainToStop(int task) {
-            _task = task;
-        }
-
-        @Override
-        public void run() {
-            boolean waitingOnTrain = true;
-            try {
-                while (waitingOnTrain) {
-                    if ((getAutoEngineer() != null) && (getAutoEngineer().isStopped())) {
-                        waitingOnTrain = false;
-                    } else {
-                        Thread.sleep(_delay);
-                    }
-                }
-                log.trace("executing task[{}]",_task);
-                executeStopTasks(_task);
-            } catch (InterruptedException e) {
-                log.warn("Waiting for train to stop interrupted - stop tasks not executing");
-            } catch (Exception e) {
-                log.error("Waiting for train to stop crashed - stop tasks not executing.", e);
-            }
-        }
-
-        private final int _delay = 91;
-        private int _task = 0;
-    }
-
     /**
      * Pause the train in a separate thread. Train is stopped, then restarted
      * after specified number of fast Minutes have elapsed.
@@ -1652,44 +1674,28 @@ public class AutoActiveTrain implements ThrottleListener {
             setCurrentRampRate(RAMP_FAST);
             stopInCurrentSection(NO_TASK);
             // wait for train to stop
-            boolean waitNow = true;
             boolean keepGoing = true;
-            while (waitNow) {
-                try {
-                    Thread.sleep(101);
-                    if (_autoEngineer != null) {
-                        if (_autoEngineer.isStopped()) {
-                            waitNow = false;
-                        }
-                    } else {
-                        waitNow = false;
-                    }
-                } catch (InterruptedException e) {
-                    log.error("InterruptedException while watiting to stop for pause - {}", (Object) e);
-                    waitNow = false;
-                    keepGoing = false;
-                }
+            try {
+                awaitStop();
+            } catch (InterruptedException e) {
+                log.error("InterruptedException while watiting to stop for pause - {}", (Object) e);
+                keepGoing = false;
             }
             _activeTrain.setStatus(ActiveTrain.PAUSED);
             if (keepGoing) {
                 // wait for specified fast clock time
                 Timebase _clock = InstanceManager.getDefault(jmri.Timebase.class);
+                CountDownLatch minutes = new CountDownLatch(Math.max(_fastMinutes, 0));
                 java.beans.PropertyChangeListener _clockListener = (java.beans.PropertyChangeEvent e) -> {
-                    _fastMinutes--;
+                    minutes.countDown();
                 };
                 _clock.addMinuteChangeListener(_clockListener);
                 // wait for fast minutes to tick away
-                waitNow = true;
-                while (waitNow) {
-                    try {
-                        Thread.sleep(501);
-                        if (_fastMinutes <= 0) {
-                            waitNow = false;
-                        }
-                    } catch (InterruptedException e) {
-                        log.error("InterruptedException while waiting when paused", e);
-                        keepGoing = false;
-                    }
+                try {
+                    minutes.await();
+                } catch (InterruptedException e) {
+                    log.error("InterruptedException while waiting when paused", e);
+                    keepGoing = false;
                 }
                 _clock.removeMinuteChangeListener(_clockListener);
             }
@@ -1709,13 +1715,23 @@ public class AutoActiveTrain implements ThrottleListener {
     }
 
 // _________________________________________________________________________________________
-    // This class runs a throttle to control the train in a separate thread.
+    // This class runs a throttle to control the train.
     // (This class started from code by Pete Cressman contained in Warrant.java.)
+    // Each throttle command is a step run on a scheduler shared by all trains;
+    // steps are scheduled a throttle interval apart while the speed or direction
+    // is changing, and the AutoEngineer is idle otherwise until woken by a new
+    // target speed, direction or stop request.
     class AutoEngineer implements Runnable {
 
-        AutoEngineer() {
+        AutoEngineer(DccThrottle throttle, int throttleInterval, int fullRampTime) {
+            _throttle = throttle;
+            _throttleInterval = throttleInterval;
+            _fullRampTime = fullRampTime;
         }
 
+        private final DccThrottle _throttle;
+        private final int _throttleInterval; // minimum milliseconds between throttle commands
+        private final int _fullRampTime;
         // operational instance variables and flags
         private volatile boolean _abort = false;
         private volatile boolean _halt = false;  // halt/resume from user's control
@@ -1724,35 +1740,82 @@ public class AutoActiveTrain implements ThrottleListener {
         private float _currentSpeed = 0.0f;
         private float _speedIncrement = 0.0f; //will be recalculated
         private boolean _speedProfileStoppingIsRunning = false; // stop by speed profile is running.
+        private boolean _started = false; // true once initial direction and speed are sent
+        private boolean _running = false; // true once run() has scheduled the first step
+        private ScheduledFuture<?> _nextStep = null; // null if idle or a step is running
+        private long _nextStepTime = 0; // System.nanoTime() of next step, or earliest if idle
+        private boolean _stepping = false; // true while a step is running
+        private boolean _woken = false; // true if woken while a step is running
+        private final List<Runnable> _whenStopped = new ArrayList<>();
+        private final PropertyChangeListener _throttleListener = (PropertyChangeEvent e) -> {
+            if (Throttle.SPEEDSETTING.equals(e.getPropertyName())) {
+                checkStopped();
+            }
+        };
 
+        /**
+         * Send the direction to the train, and start running the train once
+         * the command station has had a chance to handle it.
+         */
         @Override
         public void run() {
             _abort = false;
             setHalt(false);
             slowToStop(false);
-            DispatcherFrame dispatcher = InstanceManager.getDefault(DispatcherFrame.class);
 
             //calculate speed increment to use in each minInterval time
-            _speedIncrement = (100.0f / ((float) dispatcher.getFullRampTime() / dispatcher.getMinThrottleInterval())
+            _speedIncrement = (100.0f / ((float) _fullRampTime / _throttleInterval)
                     / _currentRampRate) / 100.0f;
             log.debug("{}: _speedIncrement={}", _activeTrain.getTrainName(), _speedIncrement);
 
             // send direction to train
             log.debug("{}: AutoEngineer.setIsForward({})", _activeTrain.getTrainName(), _forward);
             _throttle.setIsForward(_forward);
+            _throttle.addPropertyChangeListener(_throttleListener);
 
             // Give command station a chance to handle direction command
-            try {
-                Thread.sleep(dispatcher.getMinThrottleInterval() * 2);
-            } catch (InterruptedException ex) {
-                log.warn("Someones shutting us down");
-                _abort = true;
+            synchronized (this) {
+                _running = true;
+                scheduleStep(System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(_throttleInterval * 2L));
+            }
+        }
+
+        /**
+         * Act on a change of target speed, direction, or stopping, at the next
+         * time a throttle command can be sent.
+         */
+        synchronized void wake() {
+            if (_stepping) {
+                _woken = true;
+            } else if (_running && !_abort && _nextStep == null) {
+                scheduleStep(Math.max(System.nanoTime(), _nextStepTime));
             }
-            _throttle.setSpeedSetting(_currentSpeed);
-            // this is the running loop, which adjusts speeds, including stop
-            while (!_abort) {
-                // always get current speed
-                // _currentSpeed = _throttle.getSpeedSetting();
+        }
+
+        // call holding the lock
+        private void scheduleStep(long time) {
+            _nextStepTime = time;
+            _nextStep = getScheduler().schedule(this::step, time - System.nanoTime(), TimeUnit.NANOSECONDS);
+        }
+
+        // adjust the speed, including stop, by one throttle command
+        private void step() {
+            long time;
+            synchronized (this) {
+                if (_abort) {
+                    return;
+                }
+                _nextStep = null;
+                _stepping = true;
+                _woken = false;
+                time = _nextStepTime;
+            }
+            long delay = _throttleInterval;
+            try {
+                if (!_started) {
+                    _throttle.setSpeedSetting(_currentSpeed);
+                    _started = true;
+                }
                 if (_halt && !_halted) {
                     if (_speedProfileStoppingIsRunning) {
                         re.getSpeedProfile().cancelSpeedChange();
@@ -1781,62 +1844,101 @@ public class AutoActiveTrain implements ThrottleListener {
                     if (_speedProfileStoppingIsRunning) {
                         re.getSpeedProfile().cancelSpeedChange();
                         _speedProfileStoppingIsRunning = false;
-                        // and do one loop to take effect
-                    } else {
+                        // and do one step to take effect
+                    } else if (_throttle.getIsForward() != _forward) {
                         // change direction if needed
-                        if (_throttle.getIsForward() != _forward) {
-                            log.debug("AutoEngineer.setIsForward({}), was {} for {}", _forward,
-                                    _throttle.getIsForward(), _throttle.getLocoAddress());
-                            _throttle.setIsForward(_forward);
-
-                            // Give command station a chance to handle reversing.
-                            try {
-                                Thread.sleep(dispatcher.getMinThrottleInterval() * 2);
-                            } catch (InterruptedException ex) {
-                                log.warn("Someones shutting us down");
-                                _abort = true;
-                            }
-                        }
+                        log.debug("AutoEngineer.setIsForward({}), was {} for {}", _forward,
+                                _throttle.getIsForward(), _throttle.getLocoAddress());
+                        _throttle.setIsForward(_forward);
+                        // Give command station a chance to handle reversing.
+                        delay = _throttleInterval * 2L;
+                    } else if (java.lang.Math.abs(_currentSpeed - _targetSpeed) > 0.001) {
                         // test if need to change speed
-                        if (java.lang.Math.abs(_currentSpeed - _targetSpeed) > 0.001) {
-                            if (_currentRampRate == RAMP_NONE) {
-                                // set speed immediately
-                                _currentSpeed = _targetSpeed;
-                                _throttle.setSpeedSetting(_currentSpeed);
+                        if (_currentRampRate == RAMP_NONE) {
+                            // set speed immediately
+                            _currentSpeed = _targetSpeed;
+                            _throttle.setSpeedSetting(_currentSpeed);
+                        } else {
+                            if (_currentSpeed < _targetSpeed) {
+                                _currentSpeed += _speedIncrement;
+                                if (_currentSpeed >= _targetSpeed) {
+                                    _currentSpeed = _targetSpeed;
+                                }
                             } else {
-                                if (_currentSpeed < _targetSpeed) {
-                                    _currentSpeed += _speedIncrement;
-                                    if (_currentSpeed >= _targetSpeed) {
-                                        _currentSpeed = _targetSpeed;
-                                    }
-                                } else {
-                                    _currentSpeed -= _speedIncrement;
-                                    if (_currentSpeed <= _targetSpeed) {
-                                        _currentSpeed = _targetSpeed;
-                                    }
+                                _currentSpeed -= _speedIncrement;
+                                if (_currentSpeed <= _targetSpeed) {
+                                    _currentSpeed = _targetSpeed;
                                 }
-                                _throttle.setSpeedSetting(_currentSpeed);
-                                log.trace("_currentSpeed:{}", _currentSpeed);
-                            } //ramping
-                        } //if currentSpeed != targetSpeed
+                            }
+                            _throttle.setSpeedSetting(_currentSpeed);
+                            log.trace("_currentSpeed:{}", _currentSpeed);
+                        } //ramping
+                    } //if currentSpeed != targetSpeed
+                }
+            } catch (RuntimeException ex) {
+                log.error("{}: AutoEngineer step failed", _activeTrain.getTrainName(), ex);
+            } finally {
+                synchronized (this) {
+                    _stepping = false;
+                    // steps are at fixed times after the first, unless running late
+                    _nextStepTime = Math.max(time + TimeUnit.MILLISECONDS.toNanos(delay), System.nanoTime());
+                    if (!_abort && (_woken || isChanging())) {
+                        scheduleStep(_nextStepTime);
                     }
                 }
-                // Give other threads a chance to work
-                try {
-                    Thread.sleep(dispatcher.getMinThrottleInterval());
-                } catch (InterruptedException ex) {
-                    log.warn("Someones shutting us down");
-                    _abort = true;
+            }
+        }
+
+        // true if a following step has something to do
+        private boolean isChanging() {
+            if (_halt && !_halted) {
+                return true;
+            } else if (_slowToStop) {
+                // the speed profile is given the current block until the train stops
+                return useSpeedProfile && _throttle.getSpeedSetting() > 0.005f;
+            } else if (!_halt) {
+                return _speedProfileStoppingIsRunning
+                        || _throttle.getIsForward() != _forward
+                        || java.lang.Math.abs(_currentSpeed - _targetSpeed) > 0.001;
+            }
+            return false;
+        }
+
+        /**
+         * Run an action once the throttle reports the train stopped, or now if
+         * it is already stopped. The action is run on the thread that stopped
+         * the throttle, so it must not block.
+         *
+         * @param action the action
+         */
+        void whenStopped(Runnable action) {
+            synchronized (this) {
+                if (!isStopped()) {
+                    _whenStopped.add(action);
+                    return;
                 }
-            } //while !abort
-              // shut down
+            }
+            action.run();
+        }
+
+        private void checkStopped() {
+            List<Runnable> actions;
+            synchronized (this) {
+                if (_whenStopped.isEmpty() || !isStopped()) {
+                    return;
+                }
+                actions = new ArrayList<>(_whenStopped);
+                _whenStopped.clear();
+            }
+            actions.forEach(Runnable::run);
         }
 
         public synchronized void slowToStop(boolean toStop) {
             _slowToStop = toStop;
             if (!toStop) {
                 setHalt(toStop);
-             }
+            }
+            wake();
         }
 
         /**
@@ -1849,6 +1951,7 @@ public class AutoActiveTrain implements ThrottleListener {
             if (!_halt) {
                 _halted = false;
             }
+            wake();
         }
 
         /**
@@ -1860,6 +1963,7 @@ public class AutoActiveTrain implements ThrottleListener {
             log.trace("{}: setting speed directly to {}%", _activeTrain.getTrainName(), (int) (speed * 100));
             _targetSpeed = speed;
             _currentSpeed = speed + _speedIncrement; // close enough to force change, but skip ramping
+            wake();
         }
 
         /**
@@ -1887,6 +1991,14 @@ public class AutoActiveTrain implements ThrottleListener {
          */
         public void abort() {
             _abort = true;
+            synchronized (this) {
+                if (_nextStep != null) {
+                    _nextStep.cancel(false);
+                    _nextStep = null;
+                }
+                _whenStopped.clear();
+            }
+            _throttle.removePropertyChangeListener(_throttleListener);
         }
 
         protected void setFunction(int cmdNum, boolean isSet) {
@@ -1894,6 +2006,30 @@ public class AutoActiveTrain implements ThrottleListener {
         }
     }
 
+    private static ScheduledThreadPoolExecutor scheduler = null;
+
+    /**
+     * Get the executor that runs the throttle commands of all AutoEngineers.
+     * It has a thread per processor, at least 4; the threads stop when idle.
+     *
+     * @return the shared executor
+     */
+    static synchronized ScheduledExecutorService getScheduler() {
+        if (scheduler == null) {
+            AtomicInteger count = new AtomicInteger();
+            scheduler = new ScheduledThreadPoolExecutor(Math.max(4, Runtime.getRuntime().availableProcessors()),
+                    r -> {
+                        Thread t = ThreadingUtil.newThread(r, "Auto Engineer " + count.incrementAndGet());
+                        t.setDaemon(true);
+                        return t;
+                    });
+            scheduler.setKeepAliveTime(10, TimeUnit.SECONDS);
+            scheduler.allowCoreThreadTimeOut(true);
+            scheduler.setRemoveOnCancelPolicy(true);
+        }
+        return scheduler;
+    }
+
     /**
      * Convert ramp rate name, stored as a string into the constant value
      * assigned.
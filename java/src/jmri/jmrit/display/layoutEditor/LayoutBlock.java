@@ -177,6 +177,7 @@ public class LayoutBlock extends AbstractNamedBean implements PropertyChangeList
         if (occupancyNamedSensor != null) {
             block.setNamedSensor(occupancyNamedSensor);
         }
+        firePropertyChange("BlockChange", null, block);
     }
 
     /* initializeLayoutBlockRouting */
@@ -469,25 +470,33 @@ public class LayoutBlock extends AbstractNamedBean implements PropertyChangeList
      * @param name for memory
      */
     public void setMemoryName(String name) {
+        NamedBeanHandle<Memory> old = namedMemory;
         if ((name == null) || name.isEmpty()) {
             namedMemory = null;
             memoryName = "";
-            return;
+        } else {
+            memoryName = name;
+            Memory memory = InstanceManager.memoryManagerInstance().getMemory(name);
+            if (memory != null) {
+                namedMemory = InstanceManager.getDefault(NamedBeanHandleManager.class).getNamedBeanHandle(name, memory);
+            }
         }
-        memoryName = name;
-        Memory memory = InstanceManager.memoryManagerInstance().getMemory(name);
-        if (memory != null) {
-            namedMemory = InstanceManager.getDefault(NamedBeanHandleManager.class).getNamedBeanHandle(name, memory);
+        if (old != namedMemory) {
+            firePropertyChange("MemoryChange", old, namedMemory);
         }
     }
 
     public void setMemory(Memory m, String name) {
+        NamedBeanHandle<Memory> old = namedMemory;
         if (m == null) {
             namedMemory = null;
             memoryName = name == null ? "" : name;
-            return;
+        } else {
+            namedMemory = InstanceManager.getDefault(NamedBeanHandleManager.class).getNamedBeanHandle(name, m);
+        }
+        if (old != namedMemory) {
+            firePropertyChange("MemoryChange", old, namedMemory);
         }
-        namedMemory = InstanceManager.getDefault(NamedBeanHandleManager.class).getNamedBeanHandle(name, m);
     }
 
     /**
@@ -530,6 +539,7 @@ public class LayoutBlock extends AbstractNamedBean implements PropertyChangeList
      * @param name for senor to add
      */
     public void setOccupancySensorName(String name) {
+        NamedBeanHandle<Sensor> old = occupancyNamedSensor;
         if ((name == null) || name.isEmpty()) {
             if (occupancyNamedSensor != null) {
                 occupancyNamedSensor.getBean().removePropertyChangeListener(mBlockListener);
@@ -540,17 +550,20 @@ public class LayoutBlock extends AbstractNamedBean implements PropertyChangeList
             if (block != null) {
                 block.setNamedSensor(null);
             }
-            return;
-        }
-        occupancySensorName = name;
-        Sensor sensor = InstanceManager.sensorManagerInstance().getSensor(name);
-        if (sensor != null) {
-            occupancyNamedSensor = InstanceManager.getDefault(
-                    NamedBeanHandleManager.class).getNamedBeanHandle(name, sensor);
-            if (block != null) {
-                block.setNamedSensor(occupancyNamedSensor);
+        } else {
+            occupancySensorName = name;
+            Sensor sensor = InstanceManager.sensorManagerInstance().getSensor(name);
+            if (sensor != null) {
+                occupancyNamedSensor = InstanceManager.getDefault(
+                        NamedBeanHandleManager.class).getNamedBeanHandle(name, sensor);
+                if (block != null) {
+                    block.setNamedSensor(occupancyNamedSensor);
+                }
             }
         }
+        if (old != occupancyNamedSensor) {
+            firePropertyChange("OccupancySensorChange", old, occupancyNamedSensor);
+        }
     }
 
     /**
@@ -595,6 +608,7 @@ public class LayoutBlock extends AbstractNamedBean implements PropertyChangeList
             if (block != null) {
                 block.setNamedSensor(occupancyNamedSensor);
             }
+            firePropertyChange("OccupancySensorChange", null, occupancyNamedSensor);
         }
 
         if (getOccupancySensor() == null) {
@@ -848,7 +862,17 @@ public class LayoutBlock extends AbstractNamedBean implements PropertyChangeList
      *
      * @param e propChgEvent
      */
+    @SuppressWarnings("unchecked") // the Block sends its sensor handle
     void handleBlockChange(PropertyChangeEvent e) {
+        if (e.getPropertyName().equals("OccupancySensorChange")) {
+            // follow a sensor set on the Block when none is named here
+            if (occupancySensorName.isEmpty() && occupancyNamedSensor != e.getNewValue()) {
+                NamedBeanHandle<Sensor> old = occupancyNamedSensor;
+                occupancyNamedSensor = (NamedBeanHandle<Sensor>) e.getNewValue();
+                firePropertyChange("OccupancySensorChange", old, occupancyNamedSensor);
+            }
+            return;
+        }
         // Update memory object if there is one
         if ((getMemory() != null) && (block != null) && !suppressNameUpdate) {
             // copy block value to memory if there is a value
@@ -953,8 +977,10 @@ public class LayoutBlock extends AbstractNamedBean implements PropertyChangeList
                 needsRedraw = true;
             } else if (validateSensor(newName, editLayoutBlockFrame) == null) {
                 // invalid sensor entered
+                NamedBeanHandle<Sensor> old = occupancyNamedSensor;
                 occupancyNamedSensor = null;
                 occupancySensorName = "";
+                firePropertyChange("OccupancySensorChange", old, null);
                 sensorNameField.setText("");
                 return;
             } else {
@@ -1,9 +1,13 @@
 package jmri.jmrit.display.layoutEditor;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
 import jmri.*;
 import jmri.jmrit.display.EditorManager;
 import org.slf4j.Logger;
@@ -63,8 +67,6 @@ final public class LayoutBlockConnectivityTools {
         DISTANCE
     }
     
-    private static final int ttlSize = 50;
-    
 
     /**
      * Determines if a pair of NamedBeans (Signalhead, Signalmast or Sensor)
@@ -285,6 +287,11 @@ final public class LayoutBlockConnectivityTools {
      *                            routing is not enabled.
      */
     public boolean checkValidDest(LayoutBlock currentBlock, LayoutBlock nextBlock, LayoutBlock destBlock, List<LayoutBlock> destBlockn1, Routing pathMethod) throws jmri.JmriException {
+        return checkValidDest(currentBlock, nextBlock, destBlock, destBlockn1, pathMethod, null);
+    }
+
+    private boolean checkValidDest(LayoutBlock currentBlock, LayoutBlock nextBlock, LayoutBlock destBlock, List<LayoutBlock> destBlockn1, Routing pathMethod,
+            Map<SearchKey, LayoutBlockGraph.Paths> searches) throws jmri.JmriException {
         LayoutBlockManager lbm = InstanceManager.getDefault(LayoutBlockManager.class);
         if (!lbm.isAdvancedRoutingEnabled()) {
             log.debug("Advanced routing has not been enabled therefore we cannot use this function");
@@ -354,7 +361,7 @@ final public class LayoutBlockConnectivityTools {
                 pathMethod = Routing.NONE;
             }
 
-            List<LayoutBlock> blockList = getLayoutBlocks(currentBlock, destBlock, nextBlock, true, pathMethod); // Was MASTTOMAST
+            List<LayoutBlock> blockList = getLayoutBlocks(currentBlock, destBlock, nextBlock, true, pathMethod, searches); // Was MASTTOMAST
             if (log.isDebugEnabled()) {
                 log.debug("checkValidDest blockList for {}", destBlock.getDisplayName());
                 blockList.forEach(blk -> log.debug("  block = {}", blk.getDisplayName()));
@@ -393,7 +400,8 @@ final public class LayoutBlockConnectivityTools {
      * @return true if valid
      * @throws JmriException during nested getProtectingBlocks operation
      */
-    private boolean checkValidDest(LayoutBlock facing, LayoutBlock protecting, FacingProtecting dest, Routing pathMethod) throws JmriException {
+    private boolean checkValidDest(LayoutBlock facing, LayoutBlock protecting, FacingProtecting dest, Routing pathMethod,
+            Map<SearchKey, LayoutBlockGraph.Paths> searches) throws JmriException {
         if (facing == null || protecting == null || dest == null) {
             return false;
         }
@@ -414,7 +422,7 @@ final public class LayoutBlockConnectivityTools {
         dest.getProtectingBlocks().forEach((b) -> {
             destList.add(InstanceManager.getDefault(LayoutBlockManager.class).getLayoutBlock(b));
         });
-        return checkValidDest(facing, protecting, InstanceManager.getDefault(LayoutBlockManager.class).getLayoutBlock(dest.getFacing()), destList, pathMethod);
+        return checkValidDest(facing, protecting, InstanceManager.getDefault(LayoutBlockManager.class).getLayoutBlock(dest.getFacing()), destList, pathMethod, searches);
     }
 
     /**
@@ -447,31 +455,32 @@ final public class LayoutBlockConnectivityTools {
      *                            has not been enabled.
      */
     public List<LayoutBlock> getLayoutBlocks(LayoutBlock sourceLayoutBlock, LayoutBlock destinationLayoutBlock, LayoutBlock protectingLayoutBlock, boolean validateOnly, Routing pathMethod) throws jmri.JmriException {
+        return getLayoutBlocks(sourceLayoutBlock, destinationLayoutBlock, protectingLayoutBlock, validateOnly, pathMethod, null);
+    }
+
+    /**
+     * As {@link #getLayoutBlocks(LayoutBlock, LayoutBlock, LayoutBlock, boolean, Routing)},
+     * reusing searches from the same source when only validating.
+     *
+     * @param searches if not null, searches done while validating are kept
+     *                 here and reused
+     */
+    private List<LayoutBlock> getLayoutBlocks(LayoutBlock sourceLayoutBlock, LayoutBlock destinationLayoutBlock, LayoutBlock protectingLayoutBlock, boolean validateOnly, Routing pathMethod,
+            Map<SearchKey, LayoutBlockGraph.Paths> searches) throws jmri.JmriException {
         lastErrorMessage = "Unknown Error Occured";
         LayoutBlockManager lbm = InstanceManager.getDefault(LayoutBlockManager.class);
-        
+
         if (!lbm.isAdvancedRoutingEnabled()) {
             log.debug("Advanced routing has not been enabled therefore we cannot use this function");
             throw new jmri.JmriException("Advanced routing has not been enabled therefore we cannot use this function");
         }
 
-        int directionOfTravel = sourceLayoutBlock.getNeighbourDirection(protectingLayoutBlock);
-        Block currentBlock = sourceLayoutBlock.getBlock();
-
-        Block destBlock = destinationLayoutBlock.getBlock();
-        log.debug("Destination Block {} {}", destinationLayoutBlock.getDisplayName(), destBlock);
-
-        Block nextBlock = protectingLayoutBlock.getBlock();
         if (log.isDebugEnabled()) {
             log.debug("s:{} p:{} d:{}", sourceLayoutBlock.getDisplayName(), protectingLayoutBlock.getDisplayName(), destinationLayoutBlock.getDisplayName());
         }
-        List<BlocksTested> blocksInRoute = new ArrayList<>();
-        blocksInRoute.add(new BlocksTested(sourceLayoutBlock));
 
         if (!validateOnly) {
-            if (canLBlockBeUsed(protectingLayoutBlock)) {
-                blocksInRoute.add(new BlocksTested(protectingLayoutBlock));
-            } else {
+            if (!canLBlockBeUsed(protectingLayoutBlock)) {
                 lastErrorMessage = "Block we are protecting is already occupied or reserved";
                 log.debug("will throw {}", lastErrorMessage);
                 throw new jmri.JmriException(lastErrorMessage);
@@ -481,136 +490,41 @@ final public class LayoutBlockConnectivityTools {
                 log.debug("will throw {}", lastErrorMessage);
                 throw new jmri.JmriException(lastErrorMessage);
             }
-        } else {
-            blocksInRoute.add(new BlocksTested(protectingLayoutBlock));
         }
         if (destinationLayoutBlock == protectingLayoutBlock) {
             List<LayoutBlock> returnBlocks = new ArrayList<>();
-            blocksInRoute.forEach((blocksTested) -> {
-                returnBlocks.add(blocksTested.getBlock());
-            });
+            returnBlocks.add(sourceLayoutBlock);
+            returnBlocks.add(protectingLayoutBlock);
             return returnBlocks;
         }
 
-        BlocksTested bt = blocksInRoute.get(blocksInRoute.size() - 1);
-
-        int ttl = 1;
-        List<Integer> offSet = new ArrayList<>();
-        while (ttl < ttlSize) { // value should be higher but low for test!
-            log.debug("===== Ttl value = {} ======", ttl);
-            log.debug("Looking for next block");
-            int nextBlockIndex = findBestHop(currentBlock, nextBlock, destBlock, directionOfTravel, offSet, validateOnly, pathMethod);
-            if (nextBlockIndex != -1) {
-                bt.addIndex(nextBlockIndex);
-                if (log.isDebugEnabled()) {
-                    log.debug("block index returned {} Blocks in route size {}", nextBlockIndex, blocksInRoute.size());
-                }
-                // Sets the old next block to be our current block.
-                LayoutBlock currentLBlock = InstanceManager.getDefault(LayoutBlockManager.class).getLayoutBlock(nextBlock);
-                if (currentLBlock == null) {
-                    log.error("Unable to get block :{}: from instancemanager", nextBlock);
-                    continue;
-                }
-                offSet.clear();
-
-                directionOfTravel = currentLBlock.getRouteDirectionAtIndex(nextBlockIndex);
-
-                currentBlock = nextBlock;
-                nextBlock = currentLBlock.getRouteNextBlockAtIndex(nextBlockIndex);
-                LayoutBlock nextLBlock = InstanceManager.getDefault(LayoutBlockManager.class).getLayoutBlock(nextBlock);
-                if (log.isDebugEnabled()) {
-                    log.debug("Blocks in route size {}", blocksInRoute.size());
-                    log.debug("next: {} dest: {}", nextBlock.getDisplayName(), destBlock.getDisplayName());
-                }
-                if (nextBlock == currentBlock) {
-                    nextBlock = currentLBlock.getRouteDestBlockAtIndex(nextBlockIndex);
-                    log.debug("the next block to our destination we are looking for is directly connected to this one");
-                } else if (protectingLayoutBlock != nextLBlock) {
-                    if (nextLBlock != null) {
-                        log.debug("Add block {}", nextLBlock.getDisplayName());
-                    }
-                    bt = new BlocksTested(nextLBlock);
-                    blocksInRoute.add(bt);
-                }
-                if (nextBlock == destBlock) {
-                    if (!validateOnly && !checkForLevelCrossing(destinationLayoutBlock)) {
-                        throw new jmri.JmriException("Destination block is in conflict on a crossover");
-                    }
-                    List<LayoutBlock> returnBlocks = new ArrayList<>();
-                    blocksInRoute.forEach((blocksTested) -> {
-                        returnBlocks.add(blocksTested.getBlock());
-                    });
-                    returnBlocks.add(destinationLayoutBlock);
-                    if (log.isDebugEnabled()) {
-                        log.debug("Adding destination Block {}", destinationLayoutBlock.getDisplayName());
-                        log.debug("arrived at destination block");
-                        log.debug("{} Return as Long", sourceLayoutBlock.getDisplayName());
-                        returnBlocks.forEach((returnBlock) -> {
-                            log.debug("  return block {}", returnBlock.getDisplayName());
-                        });
-                        log.debug("Finished List");
-                    }
-                    return returnBlocks;
-                }
-            } else {
-                //-1 is returned when there are no more valid besthop valids found
-                // Block index is -1, so we need to go back a block and find another way.
-
-                // So we have gone back as far as our starting block so we better return.
-                int birSize = blocksInRoute.size();
-                log.debug("block in route size {}", birSize);
-                if (birSize <= 2) {
-                    log.debug("drop out here with ttl");
-                    ttl = ttlSize + 1;
-                } else {
-                    if (log.isDebugEnabled()) {
-                        for (int t = 0; t < blocksInRoute.size(); t++) {
-                            log.debug("index {} block {}", t, blocksInRoute.get(t).getBlock().getDisplayName());
-                        }
-                        log.debug("To remove last block {}", blocksInRoute.get(birSize - 1).getBlock().getDisplayName());
-                    }
-
-                    currentBlock = blocksInRoute.get(birSize - 3).getBlock().getBlock();
-                    nextBlock = blocksInRoute.get(birSize - 2).getBlock().getBlock();
-                    offSet = blocksInRoute.get(birSize - 2).getTestedIndexes();
-                    bt = blocksInRoute.get(birSize - 2);
-                    blocksInRoute.remove(birSize - 1);
-                    ttl--;
-                }
-            }
-            ttl++;
-        }
-        if (ttl == ttlSize) {
-            lastErrorMessage = "ttlExpired";
-        }
-        // we exited the loop without either finding the destination or we had error.
-        throw new jmri.JmriException(lastErrorMessage);
-    }
-
-    static class BlocksTested {
-
-        LayoutBlock block;
-        List<Integer> indexNumber = new ArrayList<>();
-
-        BlocksTested(LayoutBlock block) {
-            this.block = block;
-        }
-
-        void addIndex(int x) {
-            indexNumber.add(x);
+        LayoutBlockGraph.Paths paths;
+        if (validateOnly && searches != null) {
+            // search results while validating only depend on the layout, not on block states
+            paths = searches.computeIfAbsent(new SearchKey(sourceLayoutBlock, protectingLayoutBlock, pathMethod),
+                    k -> search(k.source, k.protecting, true, k.pathMethod));
+        } else {
+            paths = search(sourceLayoutBlock, protectingLayoutBlock, validateOnly, pathMethod);
         }
-
-        int getLastIndex() {
-            return indexNumber.get(indexNumber.size() - 1); // get the last one in the list
+        List<LayoutBlock> returnBlocks = (paths == null) ? null : paths.pathTo(destinationLayoutBlock);
+        if (returnBlocks == null) {
+            if (lastErrorMessage.equals("Unknown Error Occured")) {
+                lastErrorMessage = "No valid free path found";
+            }
+            log.debug("will throw {}", lastErrorMessage);
+            throw new jmri.JmriException(lastErrorMessage);
         }
-
-        List<Integer> getTestedIndexes() {
-            return indexNumber;
+        if (!validateOnly && !checkForLevelCrossing(destinationLayoutBlock)) {
+            throw new jmri.JmriException("Destination block is in conflict on a crossover");
         }
-
-        LayoutBlock getBlock() {
-            return block;
+        if (log.isDebugEnabled()) {
+            log.debug("{} Return as Long", sourceLayoutBlock.getDisplayName());
+            returnBlocks.forEach((returnBlock) -> {
+                log.debug("  return block {}", returnBlock.getDisplayName());
+            });
+            log.debug("Finished List");
         }
+        return returnBlocks;
     }
 
     private boolean canLBlockBeUsed(LayoutBlock lBlock) {
@@ -628,92 +542,138 @@ final public class LayoutBlockConnectivityTools {
 
     String lastErrorMessage = "Unknown Error Occured";
 
-    // We need to take into account if the returned block has a signalmast attached.
-    int findBestHop(final Block preBlock, final Block currentBlock, Block destBlock, int direction, List<Integer> offSet, boolean validateOnly, Routing pathMethod) {
-        int result = 0;
+    private LayoutBlockGraph graph = null;
+    private int graphChanges = -1;
+    private final AtomicInteger connectivityChanges = new AtomicInteger();
 
-        LayoutBlock currentLBlock = InstanceManager.getDefault(LayoutBlockManager.class).getLayoutBlock(currentBlock);
-        if (currentLBlock == null) {
-            return -1;
-        }
-        List<Integer> blkIndexTested = new ArrayList<>(5);
-        if (log.isDebugEnabled()) {
-            log.debug("In find best hop current {} previous {}", currentLBlock.getDisplayName(), preBlock.getDisplayName());
+    /**
+     * Note that the neighbours or through paths of a layout block may have
+     * changed, so the routing graph has to be rebuilt before its next use.
+     */
+    void connectivityChanged() {
+        connectivityChanges.incrementAndGet();
+    }
+
+    /**
+     * Get the routing graph, building it if the layout blocks have changed
+     * since it was last built.
+     *
+     * @return the graph
+     */
+    synchronized LayoutBlockGraph getGraph() {
+        int changes = connectivityChanges.get();
+        if (graph == null || graphChanges != changes) {
+            graph = new LayoutBlockGraph(InstanceManager.getDefault(LayoutBlockManager.class).getNamedBeanSet());
+            graphChanges = changes;
+            log.debug("routing graph built with {} blocks and {} hops", graph.getBlockCount(), graph.getHopCount());
+        }
+        return graph;
+    }
+
+    private LayoutBlockGraph.Paths search(LayoutBlock source, LayoutBlock protecting, boolean validateOnly, Routing pathMethod) {
+        return getGraph().search(source, protecting, new PathFilter(validateOnly, pathMethod));
+    }
+
+    /**
+     * Rejects hops into blocks that can not be used, and hops past a bean of
+     * the kind given by the path method facing the direction of travel.
+     */
+    private final class PathFilter implements LayoutBlockGraph.HopFilter {
+
+        private final boolean validateOnly;
+        private final Routing pathMethod;
+        // the facing bean only depends on the pair of blocks, and is slow to find
+        private final Map<List<Block>, NamedBean> facingBeans = new HashMap<>();
+
+        PathFilter(boolean validateOnly, Routing pathMethod) {
+            this.validateOnly = validateOnly;
+            this.pathMethod = pathMethod;
         }
-        Block block;
-        while (result != -1) {
-            if (currentBlock == preBlock) {
-                // Basically looking for the connected block, which there should only be one of!
-                log.debug("At get ConnectedBlockRoute");
-                result = currentLBlock.getConnectedBlockRouteIndex(destBlock, direction);
+
+        @Override
+        public boolean canUse(LayoutBlock from, LayoutBlock via, LayoutBlock to) {
+            Block currentBlock = via.getBlock();
+            Block blocktoCheck = to.getBlock();
+            if (!validateOnly && !(checkForDoubleCrossover(from.getBlock(), via, blocktoCheck) && checkForLevelCrossing(via) && canLBlockBeUsed(to))) {
+                lastErrorMessage = "block " + to.getDisplayName() + " found not to be not usable";
+                log.debug("continue after {}", lastErrorMessage);
+                return false;
+            }
+            List<Block> key = Arrays.asList(currentBlock, blocktoCheck);
+            NamedBean foundBean;
+            if (facingBeans.containsKey(key)) {
+                foundBean = facingBeans.get(key);
             } else {
-                if (log.isDebugEnabled()) {
-                    log.debug("Off Set {}", offSet);
-                }
-                result = currentLBlock.getNextBestBlock(preBlock, destBlock, offSet, Metric.METRIC);
+                foundBean = getFacingBean(currentBlock, blocktoCheck, pathMethod);
+                facingBeans.put(key, foundBean);
             }
-            if (result != -1) {
-                block = currentLBlock.getRouteNextBlockAtIndex(result);
-                LayoutBlock lBlock = InstanceManager.getDefault(LayoutBlockManager.class).getLayoutBlock(block);
-
-                Block blocktoCheck = block;
-                if (block == currentBlock) {
-                    log.debug("current block matches returned block therefore the next block is directly connected");
-                    blocktoCheck = destBlock;
-                }
+            if (foundBean != null) {
+                lastErrorMessage = "Signal " + foundBean.getDisplayName() + " already exists between blocks " + currentBlock.getDisplayName() + " and " + blocktoCheck.getDisplayName() + " in the same direction on this path";
+                log.debug("continue after {}", lastErrorMessage);
+                return false;
+            }
+            return true;
+        }
+    }
 
-                if ((block == currentBlock) && (currentLBlock.getThroughPathIndex(preBlock, destBlock) == -1)) {
-                    lastErrorMessage = "block " + block.getDisplayName() + " is directly attached, however the route to the destination block " + destBlock.getDisplayName() + " can not be directly used";
-                    log.debug("continue after {}", lastErrorMessage);
-                } else if ((validateOnly) || ((checkForDoubleCrossover(preBlock, currentLBlock, blocktoCheck) && checkForLevelCrossing(currentLBlock)) && canLBlockBeUsed(lBlock))) {
-                    if (log.isDebugEnabled()) {
-                        log.debug("{} not occupied & not reserved but we need to check if the anchor point between the two contains a signal or not", block.getDisplayName());
-                        log.debug("  current {} {}", currentBlock.getDisplayName(), block.getDisplayName());
-                    }
+    /**
+     * Find the bean of the kind given by the path method at the boundary
+     * between two blocks, facing the direction of travel.
+     */
+    private NamedBean getFacingBean(Block currentBlock, Block blocktoCheck, Routing pathMethod) {
+        LayoutBlockManager lbm = InstanceManager.getDefault(LayoutBlockManager.class);
+        NamedBean foundBean = null;
+        /* We change the logging level to fatal in the layout block manager as we are testing to make sure that no signalhead/mast exists
+         this would generate an error message that is expected.*/
+        MDC.put("loggingDisabled", LayoutBlockManager.class.getName());
+        switch (pathMethod) {
+            case MASTTOMAST:
+                foundBean = lbm.getFacingSignalMast(currentBlock, blocktoCheck);
+                break;
+            case HEADTOHEAD:
+                foundBean = lbm.getFacingSignalHead(currentBlock, blocktoCheck);
+                break;
+            case SENSORTOSENSOR:
+                foundBean = lbm.getFacingSensor(currentBlock, blocktoCheck, null);
+                break;
+            case NONE:
+                break;
+            default:
+                foundBean = lbm.getFacingNamedBean(currentBlock, blocktoCheck, null);
+                break;
+        }
+        MDC.remove("loggingDisabled");
+        return foundBean;
+    }
 
-                    jmri.NamedBean foundBean = null;
-                    /* We change the logging level to fatal in the layout block manager as we are testing to make sure that no signalhead/mast exists
-                     this would generate an error message that is expected.*/
-                    MDC.put("loggingDisabled", LayoutBlockManager.class.getName());
-                    switch (pathMethod) {
-                        case MASTTOMAST:
-                            foundBean = InstanceManager.getDefault(LayoutBlockManager.class).getFacingSignalMast(currentBlock, blocktoCheck);
-                            break;
-                        case HEADTOHEAD:
-                            foundBean = InstanceManager.getDefault(LayoutBlockManager.class).getFacingSignalHead(currentBlock, blocktoCheck);
-                            break;
-                        case SENSORTOSENSOR:
-                            foundBean = InstanceManager.getDefault(LayoutBlockManager.class).getFacingSensor(currentBlock, blocktoCheck, null);
-                            break;
-                        case NONE:
-                            break;
-                        default:
-                            foundBean = InstanceManager.getDefault(LayoutBlockManager.class).getFacingNamedBean(currentBlock, blocktoCheck, null);
-                            break;
-                    }
-                    MDC.remove("loggingDisabled");
-                    if (foundBean == null) {
-                        log.debug("No object found so okay to return");
-                        return result;
-                    } else {
-                        lastErrorMessage = "Signal " + foundBean.getDisplayName() + " already exists between blocks " + currentBlock.getDisplayName() + " and " + blocktoCheck.getDisplayName() + " in the same direction on this path";
-                        log.debug("continue after {}", lastErrorMessage);
-                    }
-                } else {
-                    lastErrorMessage = "block " + block.getDisplayName() + " found not to be not usable";
-                    log.debug("continue after {}", lastErrorMessage);
-                }
-                if (blkIndexTested.contains(result)) {
-                    lastErrorMessage = ("No valid free path found");
-                    return -1;
-                }
-                blkIndexTested.add(result);
-                offSet.add(result);
-            } else {
-                log.debug("At this point the getNextBextBlock() has returned a -1");
+    /**
+     * Key for a search kept while discovering pairs.
+     */
+    private static final class SearchKey {
+
+        final LayoutBlock source;
+        final LayoutBlock protecting;
+        final Routing pathMethod;
+
+        SearchKey(LayoutBlock source, LayoutBlock protecting, Routing pathMethod) {
+            this.source = source;
+            this.protecting = protecting;
+            this.pathMethod = pathMethod;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof SearchKey)) {
+                return false;
             }
+            SearchKey other = (SearchKey) obj;
+            return source == other.source && protecting == other.protecting && pathMethod == other.pathMethod;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(source, protecting, pathMethod);
         }
-        return -1;
     }
 
     private boolean checkForDoubleCrossover(Block prevBlock, LayoutBlock curBlock, Block nextBlock) {
@@ -779,10 +739,11 @@ final public class LayoutBlockConnectivityTools {
      */
     public HashMap<NamedBean, List<NamedBean>> discoverValidBeanPairs(LayoutEditor editor, Class<?> T, Routing pathMethod) {
         LayoutBlockManager lbm = InstanceManager.getDefault(LayoutBlockManager.class);
-        HashMap<NamedBean, List<NamedBean>> retPairs = new HashMap<>();
         List<FacingProtecting> beanList = generateBlocksWithBeans(editor, T);
+        List<FacingProtecting> sources = new ArrayList<>();
+        List<Block> protecting = new ArrayList<>();
         beanList.forEach((fp) -> {
-            fp.getProtectingBlocks().stream().map((block) -> {
+            fp.getProtectingBlocks().forEach((block) -> {
                 if (log.isDebugEnabled()) {
                     try {
                         log.debug("\nSource {}", fp.getBean().getDisplayName());
@@ -792,18 +753,25 @@ final public class LayoutBlockConnectivityTools {
                         // Can be considered normal if the signalmast is assigned to an end bumper.
                     }
                 }
-                return block;
-            }).forEachOrdered((block) -> {
-                LayoutBlock lFacing = lbm.getLayoutBlock(fp.getFacing());
-                LayoutBlock lProtecting = lbm.getLayoutBlock(block);
-                NamedBean source = fp.getBean();
-                try {
-                    retPairs.put(source, discoverPairDest(source, lProtecting, lFacing, beanList, pathMethod));
-                } catch (JmriException ex) {
-                    log.error("exception in retPairs.put", ex);
-                }
+                sources.add(fp);
+                protecting.add(block);
             });
         });
+
+        // searches are shared by sources protecting the same block; this runs
+        // on the layout thread, as the facing bean and panel lookups must
+        Map<SearchKey, LayoutBlockGraph.Paths> searches = new HashMap<>();
+        HashMap<NamedBean, List<NamedBean>> retPairs = new HashMap<>();
+        for (int i = 0; i < sources.size(); i++) {
+            FacingProtecting fp = sources.get(i);
+            LayoutBlock lFacing = lbm.getLayoutBlock(fp.getFacing());
+            LayoutBlock lProtecting = lbm.getLayoutBlock(protecting.get(i));
+            try {
+                retPairs.put(fp.getBean(), discoverPairDest(fp.getBean(), lProtecting, lFacing, beanList, pathMethod, searches));
+            } catch (JmriException ex) {
+                log.error("exception in retPairs.put", ex);
+            }
+        }
         return retPairs;
     }
 
@@ -831,15 +799,17 @@ final public class LayoutBlockConnectivityTools {
         List<LayoutBlock> lProtecting = lbm.getProtectingBlocksByNamedBean(source, editor);
         List<NamedBean> ret = new ArrayList<>();
         List<FacingProtecting> beanList = generateBlocksWithBeans(editor, T);
-        
+        Map<SearchKey, LayoutBlockGraph.Paths> searches = new HashMap<>();
+
         // may throw JmriException here
         for (LayoutBlock lb : lProtecting) {
-            ret.addAll(discoverPairDest(source, lb, lFacing, beanList, pathMethod));
+            ret.addAll(discoverPairDest(source, lb, lFacing, beanList, pathMethod, searches));
         }
         return ret;
     }
 
-    List<NamedBean> discoverPairDest(NamedBean source, LayoutBlock lProtecting, LayoutBlock lFacing, List<FacingProtecting> blockList, Routing pathMethod) throws JmriException {
+    List<NamedBean> discoverPairDest(NamedBean source, LayoutBlock lProtecting, LayoutBlock lFacing, List<FacingProtecting> blockList, Routing pathMethod,
+            Map<SearchKey, LayoutBlockGraph.Paths> searches) throws JmriException {
         LayoutBlockManager lbm = InstanceManager.getDefault(LayoutBlockManager.class);
         if (!lbm.isAdvancedRoutingEnabled()) {
             throw new JmriException("advanced routing not enabled");
@@ -855,13 +825,13 @@ final public class LayoutBlockConnectivityTools {
                     log.debug("looking for pair {} {}", source.getDisplayName(), destObj.getDisplayName());
                 }
                 try {
-                    if (checkValidDest(lFacing, lProtecting, facingProtecting, pathMethod)) {
+                    if (checkValidDest(lFacing, lProtecting, facingProtecting, pathMethod, searches)) {
                         if (log.isDebugEnabled()) {
                             log.debug("Valid pair {} {}", source.getDisplayName(), destObj.getDisplayName());
                         }
                         LayoutBlock ldstBlock = lbm.getLayoutBlock(facingProtecting.getFacing());
                         try {
-                            List<LayoutBlock> lblks = getLayoutBlocks(lFacing, ldstBlock, lProtecting, true, pathMethod);
+                            List<LayoutBlock> lblks = getLayoutBlocks(lFacing, ldstBlock, lProtecting, true, pathMethod, searches);
                             if (log.isDebugEnabled()) {
                                 log.debug("Adding block {} to paths, current size {}", destObj.getDisplayName(), lblks.size());
                             }
@@ -0,0 +1,325 @@
+package jmri.jmrit.display.layoutEditor;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import javax.annotation.CheckForNull;
+import javax.annotation.Nonnull;
+import jmri.Block;
+
+/**
+ * Immutable snapshot of the connectivity between LayoutBlocks, used by
+ * {@link LayoutBlockConnectivityTools} to search for paths.
+ * <p>
+ * Blocks are numbered from 0, and the neighbours and through paths are held
+ * in primitive arrays. A search state is a hop from one block into a
+ * neighbour, because which blocks a train can go on to depends on the block
+ * it came from: from the state "entered b from a" the search may go on to c
+ * only if b has a through path from a to c.
+ * <p>
+ * The cost of entering a block is its {@link LayoutBlock#getBlockMetric()
+ * metric}, so searches find the path of least total metric, as the routing
+ * protocol does.
+ */
+final class LayoutBlockGraph {
+
+    private final LayoutBlock[] blocks;
+    private final Map<Block, Integer> index;
+    private final int[] metric;
+    // neighbours of block i are edgeTarget[edgeStart[i]] to edgeTarget[edgeStart[i + 1] - 1]
+    private final int[] edgeStart;
+    private final int[] edgeTarget;
+    private final int[] edgeSource;
+    // hops into block i are incoming[incomingStart[i]] to incoming[incomingStart[i + 1] - 1]
+    private final int[] incomingStart;
+    private final int[] incoming;
+    // sorted keys of through paths, see throughPathKey()
+    private final long[] throughPaths;
+
+    /**
+     * Decides if a hop may be used in a path.
+     */
+    interface HopFilter {
+
+        /**
+         * @param from the block the train came from
+         * @param via  the block the train is in
+         * @param to   the block the train would move into
+         * @return true if the hop from via into to can be used
+         */
+        boolean canUse(@Nonnull LayoutBlock from, @Nonnull LayoutBlock via, @Nonnull LayoutBlock to);
+    }
+
+    /**
+     * Build a graph from the current neighbours and through paths.
+     *
+     * @param layoutBlocks the blocks to include
+     */
+    LayoutBlockGraph(@Nonnull Collection<LayoutBlock> layoutBlocks) {
+        blocks = new LayoutBlock[layoutBlocks.size()];
+        index = new HashMap<>();
+        int n = 0;
+        for (LayoutBlock lb : layoutBlocks) {
+            if (lb.getBlock() != null) {
+                index.put(lb.getBlock(), n);
+                blocks[n++] = lb;
+            }
+        }
+        metric = new int[n];
+        edgeStart = new int[n + 1];
+        List<Integer> targets = new ArrayList<>();
+        List<Long> paths = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            LayoutBlock lb = blocks[i];
+            metric[i] = Math.max(lb.getBlockMetric(), 0);
+            edgeStart[i] = targets.size();
+            for (int j = 0; j < lb.getNumberOfNeighbours(); j++) {
+                Integer t = index.get(lb.getNeighbourAtIndex(j));
+                if (t != null && !targets.subList(edgeStart[i], targets.size()).contains(t)) {
+                    targets.add(t);
+                }
+            }
+            for (int j = 0; j < lb.getNumberOfThroughPaths(); j++) {
+                Integer from = index.get(lb.getThroughPathSource(j));
+                Integer to = index.get(lb.getThroughPathDestination(j));
+                if (from != null && to != null) {
+                    paths.add(throughPathKey(i, from, to));
+                }
+            }
+        }
+        edgeStart[n] = targets.size();
+        edgeTarget = new int[targets.size()];
+        edgeSource = new int[targets.size()];
+        incomingStart = new int[n + 1];
+        for (int i = 0; i < n; i++) {
+            for (int f = edgeStart[i]; f < edgeStart[i + 1]; f++) {
+                edgeTarget[f] = targets.get(f);
+                edgeSource[f] = i;
+                incomingStart[edgeTarget[f] + 1]++;
+            }
+        }
+        for (int i = 0; i < n; i++) {
+            incomingStart[i + 1] += incomingStart[i];
+        }
+        incoming = new int[edgeTarget.length];
+        int[] fill = Arrays.copyOf(incomingStart, n);
+        for (int f = 0; f < edgeTarget.length; f++) {
+            incoming[fill[edgeTarget[f]]++] = f;
+        }
+        throughPaths = new long[paths.size()];
+        for (int i = 0; i < throughPaths.length; i++) {
+            throughPaths[i] = paths.get(i);
+        }
+        Arrays.sort(throughPaths);
+    }
+
+    private static long throughPathKey(int via, int from, int to) {
+        return ((long) via << 42) | ((long) from << 21) | to;
+    }
+
+    /**
+     * @return the number of blocks
+     */
+    int getBlockCount() {
+        return metric.length;
+    }
+
+    /**
+     * @return the number of neighbour links, counting each direction
+     */
+    int getHopCount() {
+        return edgeTarget.length;
+    }
+
+    /**
+     * @param lb a layout block
+     * @return the number of lb in this graph, or -1 if it is not included
+     */
+    int indexOf(@CheckForNull LayoutBlock lb) {
+        if (lb == null || lb.getBlock() == null) {
+            return -1;
+        }
+        Integer i = index.get(lb.getBlock());
+        return (i == null || blocks[i] != lb) ? -1 : i;
+    }
+
+    /**
+     * @param via  the block the train is in
+     * @param from the block it came from
+     * @param to   the block it would move into
+     * @return true if via has a through path from from to to
+     */
+    boolean hasThroughPath(int via, int from, int to) {
+        return Arrays.binarySearch(throughPaths, throughPathKey(via, from, to)) >= 0;
+    }
+
+    /**
+     * Find the least cost paths from a block, leaving it into a given
+     * neighbour, to every block that can be reached.
+     *
+     * @param source     the block the train starts in
+     * @param protecting the block the train moves into first
+     * @param filter     decides which hops can be used after the first
+     * @return the paths found, or null if either block is not in this graph
+     */
+    @CheckForNull
+    Paths search(@Nonnull LayoutBlock source, @Nonnull LayoutBlock protecting, @Nonnull HopFilter filter) {
+        int s = indexOf(source);
+        int p = indexOf(protecting);
+        if (s < 0 || p < 0) {
+            return null;
+        }
+        Paths paths = new Paths(s, p);
+        long[] dist = paths.dist;
+        int[] previous = paths.previous;
+        Heap heap = new Heap();
+
+        // the first hop, from source into protecting, is always allowed
+        relax(s, p, -1, 0, filter, dist, previous, heap);
+        while (!heap.isEmpty()) {
+            long top = heap.pop();
+            int e = (int) (top & 0xFFFFFFFFL);
+            long d = top >>> 32;
+            if (d > dist[e]) {
+                continue; // already reached more cheaply
+            }
+            relax(edgeSource[e], edgeTarget[e], e, d, filter, dist, previous, heap);
+        }
+        return paths;
+    }
+
+    /**
+     * Try every hop out of block via, having entered it from block from.
+     *
+     * @param e the hop used to enter via, or -1 for the start
+     */
+    private void relax(int from, int via, int e, long d, HopFilter filter, long[] dist, int[] previous, Heap heap) {
+        for (int f = edgeStart[via]; f < edgeStart[via + 1]; f++) {
+            int to = edgeTarget[f];
+            if (!hasThroughPath(via, from, to)) {
+                continue;
+            }
+            long nd = d + metric[to];
+            if (nd < dist[f] && filter.canUse(blocks[from], blocks[via], blocks[to])) {
+                dist[f] = nd;
+                previous[f] = e;
+                heap.push((nd << 32) | f);
+            }
+        }
+    }
+
+    /**
+     * Result of a search: the cheapest way found into each block.
+     */
+    final class Paths {
+
+        private final int source;
+        private final int protecting;
+        private final long[] dist = new long[edgeTarget.length];
+        private final int[] previous = new int[edgeTarget.length];
+
+        private Paths(int source, int protecting) {
+            this.source = source;
+            this.protecting = protecting;
+            Arrays.fill(dist, Long.MAX_VALUE);
+            Arrays.fill(previous, -1);
+        }
+
+        /**
+         * Get the cheapest path to a block.
+         *
+         * @param destination the block to reach
+         * @return the blocks in order, from the source block, through the
+         *         protecting block, to the destination; or null if the
+         *         destination can not be reached
+         */
+        @CheckForNull
+        List<LayoutBlock> pathTo(@CheckForNull LayoutBlock destination) {
+            int d = indexOf(destination);
+            if (d < 0) {
+                return null;
+            }
+            if (d == protecting) {
+                List<LayoutBlock> path = new ArrayList<>();
+                path.add(blocks[source]);
+                path.add(blocks[protecting]);
+                return path;
+            }
+            int best = -1;
+            for (int i = incomingStart[d]; i < incomingStart[d + 1]; i++) {
+                int f = incoming[i];
+                if (dist[f] != Long.MAX_VALUE && (best < 0 || dist[f] < dist[best])) {
+                    best = f;
+                }
+            }
+            if (best < 0) {
+                return null;
+            }
+            List<LayoutBlock> reversed = new ArrayList<>();
+            for (int e = best; e >= 0; e = previous[e]) {
+                reversed.add(blocks[edgeTarget[e]]);
+            }
+            List<LayoutBlock> path = new ArrayList<>(reversed.size() + 2);
+            path.add(blocks[source]);
+            path.add(blocks[protecting]);
+            for (int i = reversed.size() - 1; i >= 0; i--) {
+                path.add(reversed.get(i));
+            }
+            return path;
+        }
+    }
+
+    /**
+     * Binary min-heap of longs, so that search states are not boxed.
+     */
+    private static final class Heap {
+
+        private long[] heap = new long[64];
+        private int size = 0;
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+
+        void push(long v) {
+            if (size == heap.length) {
+                heap = Arrays.copyOf(heap, size * 2);
+            }
+            int i = size++;
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (heap[parent] <= v) {
+                    break;
+                }
+                heap[i] = heap[parent];
+                i = parent;
+            }
+            heap[i] = v;
+        }
+
+        long pop() {
+            long top = heap[0];
+            long v = heap[--size];
+            int i = 0;
+            while (true) {
+                int child = 2 * i + 1;
+                if (child >= size) {
+                    break;
+                }
+                if (child + 1 < size && heap[child + 1] < heap[child]) {
+                    child++;
+                }
+                if (v <= heap[child]) {
+                    break;
+                }
+                heap[i] = heap[child];
+                i = child;
+            }
+            heap[i] = v;
+            return top;
+        }
+    }
+}
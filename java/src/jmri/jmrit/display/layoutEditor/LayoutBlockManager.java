@@ -1,7 +1,12 @@
 package jmri.jmrit.display.layoutEditor;
 
+import java.beans.PropertyChangeEvent;
+import java.beans.PropertyChangeListener;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.Set;
 import javax.annotation.CheckForNull;
 import javax.annotation.CheckReturnValue;
@@ -42,6 +47,110 @@ public class LayoutBlockManager extends AbstractManager<LayoutBlock> implements
         super(InstanceManager.getDefault(InternalSystemConnectionMemo.class));
         InstanceManager.sensorManagerInstance().addVetoableChangeListener(this);
         InstanceManager.memoryManagerInstance().addVetoableChangeListener(this);
+        // a name assigned before its bean existed resolves once the bean is created
+        InstanceManager.sensorManagerInstance().addPropertyChangeListener("length", indexListener);
+        InstanceManager.memoryManagerInstance().addPropertyChangeListener("length", indexListener);
+    }
+
+    // reverse indexes for the lookups by assigned bean; rebuilt on first use
+    // after any LayoutBlock is added, removed or has its assignments changed
+    private volatile Indexes indexes = null;
+    private final AtomicInteger indexChanges = new AtomicInteger();
+
+    private final PropertyChangeListener indexListener = (PropertyChangeEvent e) -> {
+        String property = e.getPropertyName();
+        if ("BlockChange".equals(property) // NOI18N
+                || "OccupancySensorChange".equals(property) // NOI18N
+                || "MemoryChange".equals(property) // NOI18N
+                || "length".equals(property)) { // NOI18N
+            indexChanges.incrementAndGet();
+        }
+    };
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Also keeps the lookups by Block, Sensor and Memory up to date, and
+     * rebuilds the routing graph after any change in the neighbours, through
+     * paths or metrics of a LayoutBlock.
+     */
+    @Override
+    public void propertyChange(PropertyChangeEvent e) {
+        super.propertyChange(e);
+        if (e.getSource() instanceof LayoutBlock) {
+            indexListener.propertyChange(e);
+            String property = e.getPropertyName();
+            if ("through-path-added".equals(property) // NOI18N
+                    || "through-path-removed".equals(property) // NOI18N
+                    || "neighbourmetric".equals(property) // NOI18N
+                    || "BlockChange".equals(property)) { // NOI18N
+                this.lbct.connectivityChanged();
+            }
+        }
+    }
+
+    @Nonnull
+    private Indexes getIndexes() {
+        Indexes i = indexes;
+        int changes = indexChanges.get();
+        if (i == null || i.changes != changes) {
+            i = new Indexes(changes, getNamedBeanSet());
+            indexes = i;
+        }
+        return i;
+    }
+
+    /**
+     * Snapshot of the LayoutBlock assigned to each Block, Sensor and Memory.
+     */
+    private static final class Indexes {
+
+        final int changes;
+        final Map<Block, LayoutBlock> blocks = new HashMap<>();
+        final Map<Sensor, LayoutBlock> sensors = new HashMap<>();
+        final Map<Memory, LayoutBlock> memories = new HashMap<>();
+
+        Indexes(int changes, Set<LayoutBlock> layoutBlocks) {
+            this.changes = changes;
+            // first in bean order wins, as with a linear search
+            for (LayoutBlock lb : layoutBlocks) {
+                Block b = lb.getBlock();
+                if (b != null) {
+                    blocks.putIfAbsent(b, lb);
+                }
+                Sensor s = lb.getOccupancySensor();
+                if (s != null) {
+                    sensors.putIfAbsent(s, lb);
+                }
+                Memory m = lb.getMemory();
+                if (m != null) {
+                    memories.putIfAbsent(m, lb);
+                }
+            }
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Also keeps the lookups by Block, Sensor and Memory, and the routing
+     * graph, up to date.
+     */
+    @Override
+    public void register(@Nonnull LayoutBlock s) {
+        super.register(s);
+        indexChanges.incrementAndGet();
+        lbct.connectivityChanged();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void deregister(@Nonnull LayoutBlock s) {
+        super.deregister(s);
+        indexChanges.incrementAndGet();
+        lbct.connectivityChanged();
     }
 
     @Override
@@ -169,12 +278,16 @@ public class LayoutBlockManager extends AbstractManager<LayoutBlock> implements
     @CheckReturnValue
     @CheckForNull
     public LayoutBlock getLayoutBlock(@CheckForNull Block block) {
-        for (LayoutBlock lb : getNamedBeanSet()) {
-            if (lb.getBlock() == block) {
-                return lb;
+        if (block == null) {
+            // first LayoutBlock without a Block, as the index has no null key
+            for (LayoutBlock lb : getNamedBeanSet()) {
+                if (lb.getBlock() == null) {
+                    return lb;
+                }
             }
+            return null;
         }
-        return null;
+        return getIndexes().blocks.get(block);
     }
 
     /**
@@ -188,12 +301,16 @@ public class LayoutBlockManager extends AbstractManager<LayoutBlock> implements
     @CheckReturnValue
     @CheckForNull
     public LayoutBlock getBlockWithSensorAssigned(@CheckForNull Sensor s) {
-        for (LayoutBlock block : getNamedBeanSet()) {
-            if (block.getOccupancySensor() == s) {
-                return block;
+        if (s == null) {
+            // first LayoutBlock without a Sensor, as the index has no null key
+            for (LayoutBlock block : getNamedBeanSet()) {
+                if (block.getOccupancySensor() == null) {
+                    return block;
+                }
             }
+            return null;
         }
-        return null;
+        return getIndexes().sensors.get(s);
     }
 
     /**
@@ -206,12 +323,16 @@ public class LayoutBlockManager extends AbstractManager<LayoutBlock> implements
     @CheckReturnValue
     @CheckForNull
     public LayoutBlock getBlockWithMemoryAssigned(Memory m) {
-        for (LayoutBlock block : getNamedBeanSet()) {
-            if (block.getMemory() == m) {
-                return block;
+        if (m == null) {
+            // first LayoutBlock without a Memory, as the index has no null key
+            for (LayoutBlock block : getNamedBeanSet()) {
+                if (block.getMemory() == null) {
+                    return block;
+                }
             }
+            return null;
         }
-        return null;
+        return getIndexes().memories.get(m);
     }
 
     /**
@@ -2521,6 +2642,7 @@ public class LayoutBlockManager extends AbstractManager<LayoutBlock> implements
     void setLastRoutingChange() {
         log.debug("setLastRoutingChange");
         lastRoutingChange = System.nanoTime();
+        lbct.connectivityChanged();
         stabilised = false;
         setRoutingStabilised();
     }
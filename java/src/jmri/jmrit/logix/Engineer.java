@@ -1,9 +1,14 @@
 package jmri.jmrit.logix;
 
-import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 import java.util.List;
 import java.util.ListIterator;
-import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import jmri.DccThrottle;
 import jmri.InstanceManager;
 import jmri.NamedBean;
@@ -17,15 +22,23 @@ import org.slf4j.LoggerFactory;
 /**
  * Execute a throttle command script for a warrant.
  * <p>
- * This generally operates on its own thread, but switches back to the Layout
- * thread when asking the Warrant to perform actions.
+ * The script is run as a series of steps on a scheduled executor. Where the
+ * script must wait, for the time of a command, for the train to reach a
+ * block, or for a halt or a sensor, the Engineer remembers the step to resume
+ * at and returns, to be scheduled again when the time is up or when it is
+ * notified. Speed ramps are run the same way, one speed step at a time.
+ * <p>
+ * By default all Engineers share one small pool of threads, so many warrants
+ * can run without a thread each. {@link #setUseSharedScheduler(boolean)} can
+ * instead give each Engineer a thread of its own. Either way, the Engineer
+ * switches to the Layout thread when asking the Warrant to perform actions.
  *
  * @author Pete Cressman Copyright (C) 2009, 2010, 2011
  */
 /*
- * ************************ Thread running the train ****************
+ * ************************ State machine running the train ****************
  */
-public class Engineer extends Thread implements java.beans.PropertyChangeListener {
+public class Engineer implements java.beans.PropertyChangeListener {
 
     private static final String CANNOT_RUN = "CannotRun";
     private static final String SPEED = "SPEED";
@@ -50,13 +63,39 @@ public class Engineer extends Thread implements java.beans.PropertyChangeListene
     private final List<ThrottleSetting> _commands;
     private Sensor _waitSensor;
     private int _sensorWaitState;
-    final ReentrantLock _lock = new ReentrantLock(true);    // Ramp needs to block script speeds
-    private Object _rampLockObject = new Object(); // used for synchronizing threads for _ramp
     private ThrottleRamp _ramp;
     private boolean _atHalt = false;
     private boolean _atClear = false;
     private final SpeedUtil _speedUtil;
 
+    /**
+     * Steps of running a command. A step that must wait sets the step to
+     * resume at and parks the Engineer.
+     */
+    private enum Step {
+        NEXT,       // start the next command
+        SYNC,       // command time is up, wait for the train to reach the command's block
+        SYNCED,     // train reached the block
+        CLEAR,      // wait for clearance ahead
+        CLEARED,    // clearance given
+        HALT,       // wait for user to resume
+        RESUMED,    // user resumed
+        COMMAND,    // do the command, a speed command waits for a ramp to finish
+        SENSOR,     // wait sensor command done
+        DONE        // script finished or stopped
+    }
+
+    private final String _name;
+    private final ScheduledExecutorService _executor;
+    private final boolean _ownExecutor;
+    private Step _step = Step.NEXT;
+    private boolean _parked = false;    // waiting to be notified or for _timer
+    private boolean _stopped = false;   // stopRun() has been called
+    private ScheduledFuture<?> _timer;
+    private ThrottleSetting _ts;        // command being run
+    private long _cmdWaitTime;          // time to wait before executing command
+    private long _et;                   // time command started
+
     Engineer(Warrant warrant, DccThrottle throttle) {
         _warrant = warrant;
         _throttle = throttle;
@@ -66,223 +105,383 @@ public class Engineer extends Thread implements java.beans.PropertyChangeListene
         _idxSkipToSpeedCommand = 0;
         _syncIdx = -1;
         _waitForSensor = false;
-        setName("Engineer(" + _warrant.getTrainName() +")");
+        _name = "Engineer(" + _warrant.getTrainName() +")";
+        _ownExecutor = !isUseSharedScheduler();
+        if (_ownExecutor) {
+            _executor = Executors.newSingleThreadScheduledExecutor(r -> ThreadingUtil.newThread(r, _name));
+        } else {
+            _executor = getSharedScheduler();
+        }
     }
 
     int cmdBlockIdx = 0;
 
-    @Override
-    @SuppressFBWarnings(value="UW_UNCOND_WAIT", justification="waits may be indefinite until satisfied or thread aborted")
-    public void run() {
-        if (log.isDebugEnabled()) 
+    /**
+     * Start running the script.
+     */
+    public void start() {
+        if (log.isDebugEnabled())
             log.debug("Engineer started warrant {} _throttle= {}", _warrant.getDisplayName(), _throttle.getClass().getName());
 
         cmdBlockIdx = 0;
-        while (_idxCurrentCommand < _commands.size()) {
-            while (_idxSkipToSpeedCommand > _idxCurrentCommand) {
-                if (log.isDebugEnabled()) {
-                    ThrottleSetting ts = _commands.get(_idxCurrentCommand);
-                    log.debug("Skip Cmd #{}: {} Warrant {}", _idxCurrentCommand+1, ts, _warrant.getDisplayName());
-                    // Note: command indexes biased from 0 to 1 to match Warrant display of commands.
-                }
-                _idxCurrentCommand++;
-            }
-            Long et = System.currentTimeMillis();
-            ThrottleSetting ts = _commands.get(_idxCurrentCommand);
-            long cmdWaitTime = ts.getTime();    // time to wait before executing command
-            _currentCommand = ts.getCommand().toUpperCase();
-            _runOnET = _setRunOnET;     // OK to set here
-            if (!"SET SENSOR".equals(_currentCommand) && !"WAIT SENSOR".equals(_currentCommand) &&
-                    !"RUN WARRANT".equals(_currentCommand)) {
-                int idx = _warrant.getIndexOfBlock(ts.getBeanDisplayName(), cmdBlockIdx);
-                if (idx >= 0) {
-                    cmdBlockIdx = idx;
-                }
-            }
-            if (cmdBlockIdx < _warrant.getCurrentOrderIndex() || 
-                    (_currentCommand.equals("NOOP") && (cmdBlockIdx <= _warrant.getCurrentOrderIndex()))) {
-                // Train advancing too fast, need to process commands more quickly,
-                // allow some time for whistle toots etc.
-                cmdWaitTime = Math.min(cmdWaitTime, 200); // 200ms per command should be enough for toots etc.
-                if (log.isDebugEnabled())
-                    log.debug("Train reached block \"{}\" before script et={}ms . Warrant {}",
-                            _warrant.getCurrentBlockName(), ts.getTime(), _warrant.getDisplayName());
-            }
-            if (_abort) {
-                break;
-            }
-            if (log.isDebugEnabled()) 
-                log.debug("Start Cmd #{} for block \"{}\" currently in \"{}\". wait {}ms to do cmd {}. Warrant {}",
-                    _idxCurrentCommand+1, ts.getBeanDisplayName(), _warrant.getCurrentBlockName(), 
-                    cmdWaitTime, _currentCommand, _warrant.getDisplayName());
-                    // Note: command indexes biased from 0 to 1 to match Warrant display of commands.
-            synchronized (this) {
-                if (!Warrant.Normal.equals(_speedType)) {
-                    cmdWaitTime = (long)(cmdWaitTime*_timeRatio); // extend et when speed has been modified from scripted speed
-                }                
-                try {
-                    if (cmdWaitTime > 0) {
-                        wait(cmdWaitTime);
-                    }
-                    if (_abort) {
-                        break;
-                    }
-                } catch (InterruptedException ie) {
-                    log.error("At time wait {}", ie);
-                    _warrant.debugInfo();
-                    Thread.currentThread().interrupt();
-                } catch (java.lang.IllegalArgumentException iae) {
-                    log.error("At time wait {}", iae);
-                }
+        execute(this::run);
+    }
+
+    /**
+     * Run steps of the script until one must wait.
+     */
+    private void run() {
+        try {
+            while (doStep()) {
+                // next step
             }
+        } catch (RuntimeException e) {
+            log.error("{} failed at Cmd #{} of warrant {}", _name, _idxCurrentCommand+1, _warrant.getDisplayName(), e);
+        }
+    }
 
-            _syncIdx = cmdBlockIdx;
-            // Having waited, time=ts.getTime(), so blocks should agree.  if not,
-            // wait for train to arrive at block and send sync notification.
-            // note, blind runs cannot detect entrance.
-            if (!_runOnET && _syncIdx > _warrant.getCurrentOrderIndex()) {
-                // commands are ahead of current train position
-                // When the next block goes active or a control command is made, a clear sync call
-                // will test these indexes again and can trigger a notify() to free the wait
+    /**
+     * Do the current step.
+     *
+     * @return true to go on to the next step, false if waiting or done
+     */
+    private boolean doStep() {
+        Step step;
+        synchronized (this) {
+            if (_abort || _stopped) {
+                // stopRun() has released the throttle, the warrant is already stopped
+                finish();
+                return false;
+            }
+            step = _step;
+        }
+        switch (step) {
+            case NEXT:
+                return nextCommand();
+            case SYNC:
+                return waitForSync();
+            case SYNCED:
                 synchronized (this) {
-                    try {
-                        _waitForSync = true;
-                        if (log.isDebugEnabled()) 
-                            log.debug("Wait for train to enter \"{}\". Warrant {}",
-                                _warrant.getBlockAt(_syncIdx).getDisplayName(), _warrant.getDisplayName());
-                        _warrant.fireRunStatus("WaitForSync", _idxCurrentCommand - 1, _idxCurrentCommand);
-                        wait();
-                    } catch (InterruptedException ie) {
-                        log.error("At _waitForSync {}", ie);
-                        _warrant.debugInfo();
-                        Thread.currentThread().interrupt();
-                    }
-                    finally {
-                        _waitForSync = false;
-                    }
+                    _waitForSync = false;
+                    _step = Step.CLEAR;
                 }
-            }
-            if (_abort) {
-                break;
-            }
-
-            synchronized (this) {
-                // block position and elapsed time are as expected, but track conditions
-                // such as signals or rogue occupancy requires waiting
-                if (_waitForClear) {
-                    try {
+                return true;
+            case CLEAR:
+                synchronized (this) {
+                    // block position and elapsed time are as expected, but track conditions
+                    // such as signals or rogue occupancy requires waiting
+                    _step = Step.HALT;
+                    if (_waitForClear) {
                         _atClear = true;
-                        if (log.isDebugEnabled()) 
+                        if (log.isDebugEnabled())
                             log.debug("Waiting for clearance. _waitForClear= {} _halt= {} \"{}\".  Warrant {}",
                                 _waitForClear, _halt, _warrant.getBlockAt(cmdBlockIdx).getDisplayName(), _warrant.getDisplayName());
-                        wait();
-                    } catch (InterruptedException ie) {
-                        log.error("At _atClear {}", ie);
-                        _warrant.debugInfo();
-                        Thread.currentThread().interrupt();
-                    }
-                    finally {
-                        _waitForClear = false;
-                        _atClear = false;
+                        return park(Step.CLEARED, 0);
                     }
                 }
-            }
-            if (_abort) {
-                break;
-            }
-
-            synchronized (this) {
-                // user's command to halt requires waiting
-                if (_halt) {
-                    try {
+                return true;
+            case CLEARED:
+                synchronized (this) {
+                    _waitForClear = false;
+                    _atClear = false;
+                    _step = Step.HALT;
+                }
+                return true;
+            case HALT:
+                synchronized (this) {
+                    // user's command to halt requires waiting
+                    _step = Step.COMMAND;
+                    if (_halt) {
                         _atHalt = true;
-                        if (log.isDebugEnabled()) 
+                        if (log.isDebugEnabled())
                             log.debug("Waiting to Resume. _halt= {}, _waitForClear= {}, Block \"{}\".  Warrant {}",
                                 _halt, _waitForClear, _warrant.getBlockAt(cmdBlockIdx).getDisplayName(), _warrant.getDisplayName());
-                        wait();
-                    } catch (InterruptedException ie) {
-                        log.error("At _atHalt {}", ie);
-                        _warrant.debugInfo();
-                        Thread.currentThread().interrupt();
-                    }
-                    finally {
-                        _halt = false;
-                        _atHalt = false;
+                        return park(Step.RESUMED, 0);
                     }
                 }
+                return true;
+            case RESUMED:
+                synchronized (this) {
+                    _halt = false;
+                    _atHalt = false;
+                    _step = Step.COMMAND;
+                }
+                return true;
+            case COMMAND:
+                return doCommand();
+            case SENSOR:
+                if (_waitSensor != null) {
+                    String name =  _waitSensor.getDisplayName();    // save name, _waitSensor will be null 'eventually'
+                    _warrant.fireRunStatus("SensorWaitCommand", null, name);
+                }
+                clearSensor();
+                endCommand();
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    private boolean nextCommand() {
+        if (_idxCurrentCommand >= _commands.size()) {
+            // shut down
+            setSpeed(0.0f); // for safety to be sure train stops
+            synchronized (this) {
+                _step = Step.DONE;
             }
-            if (_abort) {
-                break;
+            _warrant.stopWarrant(false);
+            shutdown();
+            return false;
+        }
+        while (_idxSkipToSpeedCommand > _idxCurrentCommand) {
+            if (log.isDebugEnabled()) {
+                ThrottleSetting ts = _commands.get(_idxCurrentCommand);
+                log.debug("Skip Cmd #{}: {} Warrant {}", _idxCurrentCommand+1, ts, _warrant.getDisplayName());
+                // Note: command indexes biased from 0 to 1 to match Warrant display of commands.
             }
-            if (_currentCommand.equals(SPEED)) {
-                synchronized (this) {
-                    if (_ramp != null && !_ramp.ready) {
-                        try {
-                            if (log.isDebugEnabled()) 
-                                log.debug("Waiting for ramp to finish.  Warrant {}", _warrant.getDisplayName());
-                            wait();
-                        } catch (InterruptedException ie) {
-                            _warrant.debugInfo();
-                            Thread.currentThread().interrupt();
-                        }
-                    }
-                    if (_idxCurrentCommand >= _idxSkipToSpeedCommand) {
-                        try {
-                            _lock.lock();
-                            float throttle = Float.parseFloat(ts.getValue());
-                            _normalSpeed = throttle;
-                            float speedMod = _speedUtil.modifySpeed(throttle, _speedType);
-                            if (Math.abs(throttle - speedMod) > .0001f) {
-                                _timeRatio = throttle / speedMod;
-                            } else {
-                                _timeRatio = 1.0f;
-                            }
-                            setSpeed(speedMod);                                
-                        } finally {
-                            _lock.unlock();                                
-                        }
+            _idxCurrentCommand++;
+        }
+        _et = System.currentTimeMillis();
+        ThrottleSetting ts = _commands.get(_idxCurrentCommand);
+        _ts = ts;
+        long cmdWaitTime = ts.getTime();    // time to wait before executing command
+        _currentCommand = ts.getCommand().toUpperCase();
+        _runOnET = _setRunOnET;     // OK to set here
+        if (!"SET SENSOR".equals(_currentCommand) && !"WAIT SENSOR".equals(_currentCommand) &&
+                !"RUN WARRANT".equals(_currentCommand)) {
+            int idx = _warrant.getIndexOfBlock(ts.getBeanDisplayName(), cmdBlockIdx);
+            if (idx >= 0) {
+                cmdBlockIdx = idx;
+            }
+        }
+        if (cmdBlockIdx < _warrant.getCurrentOrderIndex() ||
+                (_currentCommand.equals("NOOP") && (cmdBlockIdx <= _warrant.getCurrentOrderIndex()))) {
+            // Train advancing too fast, need to process commands more quickly,
+            // allow some time for whistle toots etc.
+            cmdWaitTime = Math.min(cmdWaitTime, 200); // 200ms per command should be enough for toots etc.
+            if (log.isDebugEnabled())
+                log.debug("Train reached block \"{}\" before script et={}ms . Warrant {}",
+                        _warrant.getCurrentBlockName(), ts.getTime(), _warrant.getDisplayName());
+        }
+        if (log.isDebugEnabled())
+            log.debug("Start Cmd #{} for block \"{}\" currently in \"{}\". wait {}ms to do cmd {}. Warrant {}",
+                _idxCurrentCommand+1, ts.getBeanDisplayName(), _warrant.getCurrentBlockName(),
+                cmdWaitTime, _currentCommand, _warrant.getDisplayName());
+                // Note: command indexes biased from 0 to 1 to match Warrant display of commands.
+        synchronized (this) {
+            if (!Warrant.Normal.equals(_speedType)) {
+                cmdWaitTime = (long)(cmdWaitTime*_timeRatio); // extend et when speed has been modified from scripted speed
+            }
+            _cmdWaitTime = cmdWaitTime;
+            if (cmdWaitTime > 0) {
+                return park(Step.SYNC, cmdWaitTime);
+            }
+            _step = Step.SYNC;
+        }
+        return true;
+    }
+
+    private boolean waitForSync() {
+        _syncIdx = cmdBlockIdx;
+        // Having waited, time=ts.getTime(), so blocks should agree.  if not,
+        // wait for train to arrive at block and send sync notification.
+        // note, blind runs cannot detect entrance.
+        synchronized (this) {
+            _step = Step.CLEAR;
+            if (!_runOnET && _syncIdx > _warrant.getCurrentOrderIndex()) {
+                // commands are ahead of current train position
+                // When the next block goes active or a control command is made, a clear sync call
+                // will test these indexes again and can trigger a notify() to free the wait
+                _waitForSync = true;
+                if (log.isDebugEnabled())
+                    log.debug("Wait for train to enter \"{}\". Warrant {}",
+                        _warrant.getBlockAt(_syncIdx).getDisplayName(), _warrant.getDisplayName());
+                _warrant.fireRunStatus("WaitForSync", _idxCurrentCommand - 1, _idxCurrentCommand);
+                return park(Step.SYNCED, 0);
+            }
+        }
+        return true;
+    }
+
+    private boolean doCommand() {
+        ThrottleSetting ts = _ts;
+        if (_currentCommand.equals(SPEED)) {
+            synchronized (this) {
+                if (_ramp != null && !_ramp.ready) {
+                    if (log.isDebugEnabled())
+                        log.debug("Waiting for ramp to finish.  Warrant {}", _warrant.getDisplayName());
+                    return park(Step.COMMAND, 0);
+                }
+                if (_idxCurrentCommand >= _idxSkipToSpeedCommand) {
+                    float throttle = Float.parseFloat(ts.getValue());
+                    _normalSpeed = throttle;
+                    float speedMod = _speedUtil.modifySpeed(throttle, _speedType);
+                    if (Math.abs(throttle - speedMod) > .0001f) {
+                        _timeRatio = throttle / speedMod;
+                    } else {
+                        _timeRatio = 1.0f;
                     }
+                    setSpeed(speedMod);
                 }
-            } else {    // let non-speed commands go before wait
-                try {
-                    if (_currentCommand.equals("SPEEDSTEP")) {
-                        SpeedStepMode mode = SpeedStepMode.getByName(ts.getValue());
-                        _throttle.setSpeedStepMode(mode);
-                    } else if (_currentCommand.equals("FORWARD")) {
-                        boolean isForward = Boolean.parseBoolean(ts.getValue());
-                        _throttle.setIsForward(isForward);
-                        _speedUtil.setIsForward(isForward);
-                    } else if (_currentCommand.startsWith("F")) {
-                        int cmdNum = Integer.parseInt(_currentCommand.substring(1));
-                        boolean isTrue = Boolean.parseBoolean(ts.getValue());
-                        setFunction(cmdNum, isTrue);
-                    } else if (_currentCommand.startsWith("LOCKF")) {
-                        int cmdNum = Integer.parseInt(_currentCommand.substring(5));
-                        boolean isTrue = Boolean.parseBoolean(ts.getValue());
-                        setLockFunction(cmdNum, isTrue);
-                    } else if (_currentCommand.equals("SET SENSOR")) {
-                        setSensor(ts.getBeanSystemName(), ts.getValue());
-                    } else if (_currentCommand.equals("WAIT SENSOR")) {
-                        getSensor(ts.getBeanSystemName(), ts.getValue());
-                    } else if (_currentCommand.equals("RUN WARRANT")) {
-                        runWarrant(ts);
-                    } else if (_runOnET && _currentCommand.equals("NOOP")) {    // let warrant know engineer expects entry into dark block
-                        ThreadingUtil.runOnLayout(() -> _warrant.goingActive(_warrant.getBlockAt(cmdBlockIdx)));
+            }
+        } else {    // let non-speed commands go before wait
+            try {
+                if (_currentCommand.equals("SPEEDSTEP")) {
+                    SpeedStepMode mode = SpeedStepMode.getByName(ts.getValue());
+                    _throttle.setSpeedStepMode(mode);
+                } else if (_currentCommand.equals("FORWARD")) {
+                    boolean isForward = Boolean.parseBoolean(ts.getValue());
+                    _throttle.setIsForward(isForward);
+                    _speedUtil.setIsForward(isForward);
+                } else if (_currentCommand.startsWith("F")) {
+                    int cmdNum = Integer.parseInt(_currentCommand.substring(1));
+                    boolean isTrue = Boolean.parseBoolean(ts.getValue());
+                    setFunction(cmdNum, isTrue);
+                } else if (_currentCommand.startsWith("LOCKF")) {
+                    int cmdNum = Integer.parseInt(_currentCommand.substring(5));
+                    boolean isTrue = Boolean.parseBoolean(ts.getValue());
+                    setLockFunction(cmdNum, isTrue);
+                } else if (_currentCommand.equals("SET SENSOR")) {
+                    setSensor(ts.getBeanSystemName(), ts.getValue());
+                } else if (_currentCommand.equals("WAIT SENSOR")) {
+                    if (getSensor(ts.getBeanSystemName(), ts.getValue())) {
+                        return false;   // resumes at Step.SENSOR
                     }
-                } catch (NumberFormatException nfe) {
-                    log.error("Command failed! {} {}", ts, nfe);
+                } else if (_currentCommand.equals("RUN WARRANT")) {
+                    runWarrant(ts);
+                } else if (_runOnET && _currentCommand.equals("NOOP")) {    // let warrant know engineer expects entry into dark block
+                    ThreadingUtil.runOnLayout(() -> _warrant.goingActive(_warrant.getBlockAt(cmdBlockIdx)));
                 }
-                
+            } catch (NumberFormatException nfe) {
+                log.error("Command failed! {} {}", ts, nfe);
             }
-            et = System.currentTimeMillis() - et;
+
+        }
+        endCommand();
+        return true;
+    }
+
+    private void endCommand() {
+        long et = System.currentTimeMillis() - _et;
+        synchronized (this) {
             _idxCurrentCommand++;
-            if (log.isDebugEnabled()) 
-                log.debug("Cmd #{} done. et={}. {} warrant {}", _idxCurrentCommand, et, ts, _warrant.getDisplayName());
+            _step = Step.NEXT;
+        }
+        if (log.isDebugEnabled())
+            log.debug("Cmd #{} done. et={}. {} warrant {}", _idxCurrentCommand, et, _ts, _warrant.getDisplayName());
+    }
+
+    /**
+     * Wait to be notified, or for a time.
+     * Must be called holding the lock on this Engineer.
+     *
+     * @param resume the step to do next
+     * @param delay  milliseconds to wait, 0 to wait until notified
+     * @return false, to stop running steps
+     */
+    private boolean park(Step resume, long delay) {
+        _step = resume;
+        _parked = true;
+        if (delay > 0) {
+            _timer = schedule(this::notifyEngineer, delay);
+        }
+        return false;
+    }
+
+    /**
+     * Resume a parked script, as a notify() frees a wait(). Does not free a
+     * wait for a sensor.
+     */
+    private synchronized void notifyEngineer() {
+        if (_parked && _step != Step.SENSOR) {
+            resume();
+        }
+    }
 
+    private synchronized void resume() {
+        _parked = false;
+        if (_timer != null) {
+            _timer.cancel(false);
+            _timer = null;
         }
-        // shut down
-        setSpeed(0.0f); // for safety to be sure train stops                               
-        _warrant.stopWarrant(_abort);
+        execute(this::run);
+    }
+
+    /**
+     * Stop the state machine after stopRun(); the warrant has already been
+     * stopped, so nothing is left to do but free the thread.
+     */
+    private synchronized void finish() {
+        _step = Step.DONE;
+        _parked = false;
+        if (_timer != null) {
+            _timer.cancel(false);
+            _timer = null;
+        }
+        shutdown();
+    }
+
+    private void shutdown() {
+        if (_ownExecutor) {
+            _executor.shutdown();
+        }
+    }
+
+    private void execute(Runnable task) {
+        try {
+            _executor.execute(task);
+        } catch (RejectedExecutionException ree) {
+            log.debug("{} stopped, cannot run task", _name);
+        }
+    }
+
+    private ScheduledFuture<?> schedule(Runnable task, long delay) {
+        try {
+            return _executor.schedule(task, delay, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException ree) {
+            log.debug("{} stopped, cannot schedule task", _name);
+            return null;
+        }
+    }
+
+    private static ScheduledThreadPoolExecutor sharedScheduler = null;
+    private static boolean useSharedScheduler = !Boolean.getBoolean("jmri.jmrit.logix.Engineer.dedicatedThreads");
+
+    /**
+     * Set whether Engineers started from now on share a pool of threads, or
+     * each have a thread of their own. The default is to share, unless the
+     * "jmri.jmrit.logix.Engineer.dedicatedThreads" system property is true.
+     *
+     * @param shared true to share a pool of threads
+     */
+    public static synchronized void setUseSharedScheduler(boolean shared) {
+        useSharedScheduler = shared;
+    }
+
+    public static synchronized boolean isUseSharedScheduler() {
+        return useSharedScheduler;
+    }
+
+    /**
+     * Get the executor shared by Engineers, ramps and linked warrant launches.
+     * It has a thread per processor, at least 4; the threads stop when idle.
+     *
+     * @return the shared executor
+     */
+    static synchronized ScheduledExecutorService getSharedScheduler() {
+        if (sharedScheduler == null) {
+            AtomicInteger count = new AtomicInteger();
+            sharedScheduler = new ScheduledThreadPoolExecutor(Math.max(4, Runtime.getRuntime().availableProcessors()),
+                    r -> {
+                        Thread t = ThreadingUtil.newThread(r, "Engineer Scheduler " + count.incrementAndGet());
+                        t.setDaemon(true);
+                        return t;
+                    });
+            sharedScheduler.setKeepAliveTime(10, TimeUnit.SECONDS);
+            sharedScheduler.allowCoreThreadTimeOut(true);
+            sharedScheduler.setRemoveOnCancelPolicy(true);
+        }
+        return sharedScheduler;
     }
 
     protected int getCurrentCommandIndex() {
@@ -331,7 +530,7 @@ public class Engineer extends Thread implements java.beans.PropertyChangeListene
         if (_waitForSync) {
             if (log.isDebugEnabled()) 
                 log.debug("clearWaitForSync() calls notify()");
-            notifyAll();   // if wait is cleared, this sets _waitForSync= false
+            notifyEngineer();   // if wait is cleared, this sets _waitForSync= false
         } else {
             ThrottleSetting ts = _commands.get(_idxCurrentCommand);
             OBlock block = _warrant.getCurrentBlockOrder().getBlock();
@@ -339,7 +538,7 @@ public class Engineer extends Thread implements java.beans.PropertyChangeListene
             if (ts.getCommand().equalsIgnoreCase("NOOP") && ts.getBeanDisplayName().equals(block.getDisplayName())) {
                 if (log.isDebugEnabled()) 
                     log.debug("clearWaitForSync() calls notify()");
-                notifyAll();
+                notifyEngineer();
             }
         }
     }
@@ -369,37 +568,16 @@ public class Engineer extends Thread implements java.beans.PropertyChangeListene
 
             if (_ramp == null) {
                 _ramp = new ThrottleRamp();
-                _ramp.start();
             } else {
                 _ramp.quit(false);
             }
-            long time = 0;
-            int waitTime = _speedUtil.getRampTimeIncrement() + 20;
-            while (time < waitTime && !_ramp.ready) {
-                // may need a bit of time for quit() or start() to get ready
-                try {
-                    wait(20);
-                    time += 20;
-                }
-                catch (InterruptedException ie) { // ignore
-                }
-            }
-            if (_ramp.ready) {
-                _ramp.setParameters(endSpeedType, endBlockIdx, useIndex);
-                synchronized (_rampLockObject) {
-                    _rampLockObject.notifyAll(); // free wait at ThrottleRamp.run()
-                    log.debug("rampSpeedTo called notify _ramp.ready={}", _ramp.ready);
-                }
-            } else {
-                log.error("Can't launch ramp for speed {}! _ramp Thread.State= {}. Waited {}ms",
-                        endSpeedType, _ramp.getState(), time-20);
-                _warrant.debugInfo();
-            }
+            _ramp.setParameters(endSpeedType, endBlockIdx, useIndex);
+            _ramp.start();
         }
     }
 
     private void cancelRamp(boolean die) {
-        if (_ramp != null && !_ramp.ready) {
+        if (_ramp != null) {
             _ramp.quit(die);
         }
     }
@@ -495,7 +673,7 @@ public class Engineer extends Thread implements java.beans.PropertyChangeListene
             if (_atHalt) {
                 if (log.isDebugEnabled()) 
                     log.debug("setHalt calls notify()");
-                notifyAll();   // free wait at _atHalt
+                notifyEngineer();   // free wait at _atHalt
             }
         } else {
             _halt = true;
@@ -518,7 +696,7 @@ public class Engineer extends Thread implements java.beans.PropertyChangeListene
             if (_atClear) {
                 if (log.isDebugEnabled()) 
                     log.debug("setWaitforClear calls notify");
-                notifyAll();   // free wait at _atClear
+                notifyEngineer();   // free wait at _atClear
             }
         } else {
             _waitForClear = true;
@@ -532,6 +710,8 @@ public class Engineer extends Thread implements java.beans.PropertyChangeListene
         buf.append(", _halt= "); buf.append(_halt);
         buf.append(", _atHalt= "); buf.append(_atHalt);
         buf.append(", _waitForSync= "); buf.append(_waitForSync);
+        buf.append(", step= "); buf.append(_step);
+        buf.append(", parked= "); buf.append(_parked);
         return buf.toString();
     }
 
@@ -587,8 +767,14 @@ public class Engineer extends Thread implements java.beans.PropertyChangeListene
     }
 
     public void stopRun(boolean abort, boolean turnOffFunctions) {
-        if (abort) {
-            _abort =true;            
+        synchronized (this) {
+            if (abort) {
+                _abort =true;
+            }
+            _stopped = true;
+            if (_parked) {
+                resume();   // to finish
+            }
         }
         if (_waitSensor != null) {
             _waitSensor.removePropertyChangeListener(this);
@@ -654,8 +840,9 @@ public class Engineer extends Thread implements java.beans.PropertyChangeListene
 
     /**
      * Wait for Sensor state event
+     * @return true if waiting, to resume at Step.SENSOR
      */
-    private void getSensor(String sensorName, String act) {
+    private boolean getSensor(String sensorName, String act) {
         String action = act.toUpperCase();
         if (_waitSensor != null) {
             _waitSensor.removePropertyChangeListener(this);
@@ -668,37 +855,30 @@ public class Engineer extends Thread implements java.beans.PropertyChangeListene
                 _sensorWaitState = Sensor.INACTIVE;
             } else {
                 log.error("Bad Sensor command \"{}\" for sensor {}",action,sensorName);
-                return;
+                return false;
             }
             int state = _waitSensor.getKnownState();
             if (state == _sensorWaitState) {
                 log.info("Engineer: state of event sensor {} already at state {}",sensorName,action);
-                return;
+                return false;
             }
             _waitSensor.addPropertyChangeListener(this);
             if (log.isDebugEnabled()) 
                 log.debug("Listen for propertyChange of {}, wait for State= {}", _waitSensor.getDisplayName(), _sensorWaitState);
             // suspend commands until sensor changes state
-            synchronized (_waitSensor) {
+            synchronized (this) {
                 _waitForSensor = true;
-                while (_waitForSensor) {
-                    try {
-                        _warrant.fireRunStatus("SensorWaitCommand", act, _waitSensor.getDisplayName());
-                        _waitSensor.wait();
-                        String name =  _waitSensor.getDisplayName();    // save name, _waitSensor will be null 'eventually' 
-                        _warrant.fireRunStatus("SensorWaitCommand", null, name);
-                    } catch (InterruptedException ie) {
-                        log.error("Engineer interrupted at _waitForSensor ",ie);
-                        _warrant.debugInfo();
-                        Thread.currentThread().interrupt();
-                    } finally {
-                        clearSensor();
-                    }
+                _warrant.fireRunStatus("SensorWaitCommand", act, _waitSensor.getDisplayName());
+                park(Step.SENSOR, 0);
+                if (_waitSensor.getKnownState() == _sensorWaitState) {
+                    resume();   // changed before listening
                 }
             }
+            return true;
         } else {
             log.warn("Sensor {} not found.",sensorName );
         }
+        return false;
     }
 
     private void clearSensor() {
@@ -720,8 +900,10 @@ public class Engineer extends Thread implements java.beans.PropertyChangeListene
             log.debug("propertyChange {} new value= {}", evt.getPropertyName(), evt.getNewValue());
         if ((evt.getPropertyName().equals("KnownState")
                 && ((Number) evt.getNewValue()).intValue() == _sensorWaitState)) {
-            synchronized (_waitSensor) {
-                    _waitSensor.notifyAll();  // free sensor wait
+            synchronized (this) {
+                if (_parked && _step == Step.SENSOR) {
+                    resume();  // free sensor wait
+                }
             }
         }
     }
@@ -750,7 +932,7 @@ public class Engineer extends Thread implements java.beans.PropertyChangeListene
         if (msg == null) {
             if (_warrant.getSpeedUtil().getDccAddress().equals(warrant.getSpeedUtil().getDccAddress())) {
                 cmdBlockIdx = 0;    // reset block command number  
-                Thread checker = new CheckForTermination(_warrant, warrant, num);
+                CheckForTermination checker = new CheckForTermination(_warrant, warrant, num);
                 checker.start();
                 if (log.isDebugEnabled()) log.debug("Exit runWarrant");
                 return;
@@ -775,11 +957,16 @@ public class Engineer extends Thread implements java.beans.PropertyChangeListene
         log.debug("Exit runWarrant - {}",msg);
     }
 
-    private static class CheckForTermination extends Thread {
+    /**
+     * Waits for the running warrant to end, then launches the next one.
+     * Checks every 100ms on the shared scheduler, for up to 10 seconds.
+     */
+    private static class CheckForTermination implements Runnable {
 
         Warrant oldWarrant;
         Warrant newWarrant;
         int num;
+        long time = 0;
 
         CheckForTermination(Warrant oldWar, Warrant newWar, int n) {
             oldWarrant = oldWar;
@@ -789,30 +976,22 @@ public class Engineer extends Thread implements java.beans.PropertyChangeListene
                     oldWarrant.getDisplayName(), newWarrant.getDisplayName(), num);
          }
 
+        void start() {
+            getSharedScheduler().execute(this);
+        }
+
         @Override
         public void run() {
             OBlock endBlock = oldWarrant.getLastOrder().getBlock();
-            long time = 0;
             String msg = null;
-            while (time < 10000) {
-                if (oldWarrant.getRunMode() == Warrant.MODE_NONE) {
-                    break;
-                }
-                int priority = Thread.currentThread().getPriority();
-                try {
-                    Thread.currentThread().setPriority(Thread.MIN_PRIORITY);
-                    Thread.sleep(100);
+            if (oldWarrant.getRunMode() != Warrant.MODE_NONE) {
+                if (time < 10000) {
                     time += 100;
-                } catch (InterruptedException ie) {
-                    time = 10000;
-                    msg = Bundle.getMessage(CANNOT_RUN, newWarrant.getDisplayName(), ie);
-                } finally {
-                    Thread.currentThread().setPriority(priority);
-                }
-                if (time >= 10000) {
-                    msg = Bundle.getMessage("cannotLaunch",
-                            newWarrant.getDisplayName(), oldWarrant.getDisplayName(), endBlock.getDisplayName());
+                    getSharedScheduler().schedule(this, 100, TimeUnit.MILLISECONDS);
+                    return;
                 }
+                msg = Bundle.getMessage("cannotLaunch",
+                        newWarrant.getDisplayName(), oldWarrant.getDisplayName(), endBlock.getDisplayName());
             }
             if (log.isDebugEnabled()) log.debug("CheckForTermination waited {}ms. runMode={} ", time, oldWarrant.getRunMode());
 
@@ -846,29 +1025,40 @@ public class Engineer extends Thread implements java.beans.PropertyChangeListene
     /*
      * *************************************************************************************
      */
-     class ThrottleRamp extends Thread {
+    /**
+     * Ramps the throttle speed in steps. Each step is scheduled at a whole
+     * number of time increments from the start of the ramp, so the steps
+     * don't drift however long each takes. All the ramp's state is guarded by
+     * the lock on the Engineer.
+     */
+     class ThrottleRamp {
 
          private RampData _rampData;
          private String _endSpeedType;
          private int _endBlockIdx;   // index of block where down ramp ends - not used for up ramps.
          private boolean _useIndex;
          private boolean stop = false;   // aborts ramping
-         boolean ready = false;   // ready for call doRamp
+         volatile boolean ready = true;   // no ramp in progress
          private boolean _die = false;    // kills ramp for good
-
-         ThrottleRamp() {
-            setName("Ramp(" + _warrant.getTrainName() +")");
-         }
+         private int _generation = 0;     // count of ramps started, to ignore steps of an old ramp
+         private ListIterator<Float> _iter;
+         private float _endSpeed;
+         private int _timeIncrement;
+         private long _startTime;         // nanoTime the ramp started
+         private int _stepCount;
+         private Float _holdSpeed = null; // last speed of a down ramp, held until the end block is reached
+         private ScheduledFuture<?> _next;
 
          void quit(boolean die) {
-             log.debug("ThrottleRamp.quit die={})", die);
-             stop = true;
-             if (die) { // once set to true, do not allow resetting to false
-                 _die = die;
-             }
-             synchronized (_rampLockObject) {
-                 log.debug("ThrottleRamp.quit calls notify)");
-                 _rampLockObject.notifyAll(); // free waits at ramp time interval
+             synchronized (Engineer.this) {
+                 log.debug("ThrottleRamp.quit die={})", die);
+                 if (die) { // once set to true, do not allow resetting to false
+                     _die = die;
+                 }
+                 if (!ready) {
+                     stop = true;
+                     finish();
+                 }
              }
          }
 
@@ -876,227 +1066,239 @@ public class Engineer extends Thread implements java.beans.PropertyChangeListene
             _endSpeedType = endSpeedType;
             _endBlockIdx = endBlockIdx;
             _useIndex = useIndex;
-            _stopPending = endSpeedType.equals(Warrant.Stop);                    
+            _stopPending = endSpeedType.equals(Warrant.Stop);
         }
 
         RampData getRampData () {
             return _rampData;
         }
 
-        @Override
-        @SuppressFBWarnings(value="UW_UNCOND_WAIT", justification="waits may be indefinite until satisfied or thread aborted")
-        public void run() {
-            ready = true;
-            while (!_die) {
-                synchronized (_rampLockObject) {
-                    try {
-                        _rampLockObject.wait(); // wait until notified by rampSpeedTo() calls quit()
-                    } catch (InterruptedException ie) {
-                        log.debug("As expected {}", ie);
-                    }
-                }
-                doRamp();
+        /**
+         * Start the ramp. Must be called holding the lock on the Engineer.
+         */
+        void start() {
+            if (_die) {
+                return;
             }
-        }
-
-        public void doRamp() {
             // the time 'right now' is at having done _idxCurrentCommand-1 and is waiting
             // to do the _idxCurrentCommand.  A non-scripted speed change is to begin now.
             // current speed at _idxCurrentCommand is (should be) _normalSpeed modified by _speedType
-            // Note on ramp down the _normalSpeed value may be modified. 
+            // Note on ramp down the _normalSpeed value may be modified.
             // "idxSkipToSpeedCommand" may be used rather than "_idxCurrentCommand".
             // Note on ramp up endSpeed should match scripted speed modified by endSpeedType
             ready = false;
             stop = false;
+            _generation++;
             float endSpeed = _speedUtil.modifySpeed(_normalSpeed, _endSpeedType);   // requested end speed
             float speed = _throttle.getSpeedSetting();  // current speed setting
             if (speed < 0.0f) {
                 speed = 0.0f;
             }
             _rampData = _speedUtil.getRampForSpeedChange(speed, endSpeed);
-            int timeIncrement = _rampData.getRampTimeIncrement();
+            _timeIncrement = _rampData.getRampTimeIncrement();
 
-            synchronized (this) {
-                try {
-                     _lock.lock();
-                     if (log.isDebugEnabled()) 
-                         log.debug("ThrottleRamp for \"{}\". Ramp {} to {}. normalSpeed= {}. on warrant {}",
-                            _endSpeedType, speed, endSpeed, _normalSpeed, _warrant.getDisplayName());
-                     // _normalSpeed typically is the last setThrottleSetting done. However it also
-                     // may be reset after a down ramp to be the setting expected to be resumed at the
-                     // point skipped to by the down ramp.
-
-                    if (_rampData.isUpRamp()) {
-                        _resumePending = true;
-                        // The ramp up will take time and the script may have other speed commands while
-                        // ramping up. So 'scriptSpeed' may not be actual script speed when ramp up distance
-                        // is traveled.  Adjust 'endSpeed' to match that 'scriptSpeed'.
-                        // Up rampDist is distance from current throttle speed to endSpeed.
-                        float rampDist = _rampData.getRampLength();
-                        long scriptTime = 0;
-                        float scriptDist = 0;   // distance traveled at speed 'scriptSpeed' to next speed command
-                        float scriptSpeed = _normalSpeed;
-                        boolean hasSpeed = (scriptSpeed > 0);
-                        int idx = Math.max(_idxSkipToSpeedCommand, _idxCurrentCommand);
-                        // look ahead for point in script where ramp will finish and match the settings
-                        while (idx < _commands.size()) {
-                            ThrottleSetting ts = _commands.get(idx);
-                            scriptTime = ts.getTime();
-                            String cmd = ts.getCommand().toUpperCase();
-                            if (hasSpeed) {
-                                scriptDist += _speedUtil.getDistanceTraveled(scriptSpeed, _endSpeedType, scriptTime);
-                                if (scriptDist >= rampDist) {   // up ramp will be complete within this distance
-                                    advanceToCommandIndex(idx); // don't let script set speeds up to here
-                                    break;
-                                }
-                            }
-                            if (SPEED.equals(cmd)) {
-                                scriptSpeed = Float.parseFloat(ts.getValue());
-                                hasSpeed = (scriptSpeed > 0);
-                                endSpeed = _speedUtil.modifySpeed(scriptSpeed, _endSpeedType);
-                                _rampData = _speedUtil.getRampForSpeedChange(speed, endSpeed);
-                                rampDist = _rampData.getRampLength();
-                                advanceToCommandIndex(idx); // don't let script set speeds up to here
-                            }
-                            idx++;
+            if (log.isDebugEnabled())
+                log.debug("ThrottleRamp for \"{}\". Ramp {} to {}. normalSpeed= {}. on warrant {}",
+                    _endSpeedType, speed, endSpeed, _normalSpeed, _warrant.getDisplayName());
+            // _normalSpeed typically is the last setThrottleSetting done. However it also
+            // may be reset after a down ramp to be the setting expected to be resumed at the
+            // point skipped to by the down ramp.
+
+            if (_rampData.isUpRamp()) {
+                _resumePending = true;
+                // The ramp up will take time and the script may have other speed commands while
+                // ramping up. So 'scriptSpeed' may not be actual script speed when ramp up distance
+                // is traveled.  Adjust 'endSpeed' to match that 'scriptSpeed'.
+                // Up rampDist is distance from current throttle speed to endSpeed.
+                float rampDist = _rampData.getRampLength();
+                long scriptTime = 0;
+                float scriptDist = 0;   // distance traveled at speed 'scriptSpeed' to next speed command
+                float scriptSpeed = _normalSpeed;
+                boolean hasSpeed = (scriptSpeed > 0);
+                int idx = Math.max(_idxSkipToSpeedCommand, _idxCurrentCommand);
+                // look ahead for point in script where ramp will finish and match the settings
+                while (idx < _commands.size()) {
+                    ThrottleSetting ts = _commands.get(idx);
+                    scriptTime = ts.getTime();
+                    String cmd = ts.getCommand().toUpperCase();
+                    if (hasSpeed) {
+                        scriptDist += _speedUtil.getDistanceTraveled(scriptSpeed, _endSpeedType, scriptTime);
+                        if (scriptDist >= rampDist) {   // up ramp will be complete within this distance
+                            advanceToCommandIndex(idx); // don't let script set speeds up to here
+                            break;
                         }
-                        _normalSpeed = scriptSpeed;
-
-                        if (log.isDebugEnabled()) 
-                            log.debug("Ramp up for \"{}\". speedType= {}, endSpeed= {}, scriptDist= {}, resumeIndex= {}, nextSpeedIdx= {}, rampDist= {}",
-                                    _endSpeedType, speed, endSpeed, scriptSpeed, _idxSkipToSpeedCommand+1, _idxCurrentCommand+1, rampDist);
-                                // Note: command indexes biased from 0 to 1 to match Warrant display of commands.
+                    }
+                    if (SPEED.equals(cmd)) {
+                        scriptSpeed = Float.parseFloat(ts.getValue());
+                        hasSpeed = (scriptSpeed > 0);
+                        endSpeed = _speedUtil.modifySpeed(scriptSpeed, _endSpeedType);
+                        _rampData = _speedUtil.getRampForSpeedChange(speed, endSpeed);
+                        rampDist = _rampData.getRampLength();
+                        advanceToCommandIndex(idx); // don't let script set speeds up to here
+                    }
+                    idx++;
+                }
+                _normalSpeed = scriptSpeed;
 
-                        ListIterator<Float> iter = _rampData.speedIterator(true);
-                        if (iter.hasNext()) {
-                            log.trace("starting ramp at speed {}", iter.next());
-                        }
-                        while (iter.hasNext()) { // do ramp up
-                            if (stop) {
-                                break;
-                            }
-                            speed = iter.next().floatValue();
-                            log.trace("next speed {}", speed);
-                            setSpeed(speed);
-
-                            try {
-                                wait(timeIncrement);
-                            } catch (InterruptedException ie) {
-                                _lock.unlock();
-                                stop = true;
-                            }
-                        }
-                    } else {     // decreasing, ramp down to a modified speed
-                        if (log.isDebugEnabled()) 
-                            log.debug("Ramp down for \"{}\". curSpeed= {}, endSpeed= {}, startIdx={} BlockOrderIdx= {}",
-                                    _endSpeedType, speed, endSpeed, _idxCurrentCommand+1, _endBlockIdx);
+                if (log.isDebugEnabled())
+                    log.debug("Ramp up for \"{}\". speedType= {}, endSpeed= {}, scriptDist= {}, resumeIndex= {}, nextSpeedIdx= {}, rampDist= {}",
+                            _endSpeedType, speed, endSpeed, scriptSpeed, _idxSkipToSpeedCommand+1, _idxCurrentCommand+1, rampDist);
                         // Note: command indexes biased from 0 to 1 to match Warrant display of commands.
-                        ListIterator<Float> iter = _rampData.speedIterator(false);
-                        if (iter.hasPrevious()) {
-                            log.trace("starting ramp down at {}",iter.previous());
+
+                _iter = _rampData.speedIterator(true);
+                if (_iter.hasNext()) {
+                    log.trace("starting ramp at speed {}", _iter.next());
+                }
+            } else {     // decreasing, ramp down to a modified speed
+                if (log.isDebugEnabled())
+                    log.debug("Ramp down for \"{}\". curSpeed= {}, endSpeed= {}, startIdx={} BlockOrderIdx= {}",
+                            _endSpeedType, speed, endSpeed, _idxCurrentCommand+1, _endBlockIdx);
+                // Note: command indexes biased from 0 to 1 to match Warrant display of commands.
+                _iter = _rampData.speedIterator(false);
+                if (_iter.hasPrevious()) {
+                    log.trace("starting ramp down at {}", _iter.previous());
+                }
+            }
+            _endSpeed = endSpeed;
+            _holdSpeed = null;
+            _stepCount = 0;
+            _startTime = System.nanoTime();
+            int generation = _generation;
+            _next = schedule(() -> step(generation), 0);
+        }
+
+        /**
+         * Set the next speed of the ramp, and schedule the following step.
+         */
+        private void step(int generation) {
+            synchronized (Engineer.this) {
+                if (ready || generation != _generation) {
+                    return; // ramp was quit
+                }
+                if (stop) {
+                    finish();
+                    return;
+                }
+                float speed;
+                if (_rampData.isUpRamp()) {
+                    if (!_iter.hasNext()) {
+                        finish();
+                        return;
+                    }
+                    speed = _iter.next().floatValue();
+                } else if (_holdSpeed != null) {
+                    if (_endBlockIdx - _warrant._idxCurrentOrder > 0) {
+                        // Until loco reaches end block, continue current speed
+                        scheduleNext(generation);
+                        return;
+                    }
+                    speed = _holdSpeed;
+                    _holdSpeed = null;
+                } else {
+                    if (!_iter.hasPrevious()) {
+                        finish();
+                        return;
+                    }
+                    speed = _iter.previous().floatValue();
+                    if (_useIndex) {
+                        if ( _warrant._idxCurrentOrder > _endBlockIdx) { // loco overran end block
+                            speed = _endSpeed;
+                        } else if ( _warrant._idxCurrentOrder < _endBlockIdx &&
+                                _endSpeedType.equals(Warrant.Stop) && Math.abs(speed - _endSpeed) <.001f) {
+                            // at last speed change. let loco creep to end block
+                            if (log.isDebugEnabled())
+                                log.debug("Extending ramp to reach block {}. speed= {}",
+                                        _warrant.getBlockAt(_endBlockIdx).getDisplayName(), speed);
+                            _holdSpeed = speed;
+                            scheduleNext(generation);
+                            return;
                         }
-                        while (iter.hasPrevious()) {
-                            if (stop) {
-                                break;
-                            }
-                            speed = iter.previous().floatValue();
-                            log.trace("next speed {}",speed);
-                            if (_useIndex) {
-                                if ( _warrant._idxCurrentOrder > _endBlockIdx) { // loco overran end block
-                                    speed = endSpeed;
-                                } else if ( _warrant._idxCurrentOrder < _endBlockIdx && 
-                                        _endSpeedType.equals(Warrant.Stop) && Math.abs(speed - endSpeed) <.001f) {
-                                    // at last speed change. let loco creep to end block
-                                    if (log.isDebugEnabled()) 
-                                        log.debug("Extending ramp to reach block {}. speed= {}",
-                                                _warrant.getBlockAt(_endBlockIdx).getDisplayName(), speed);
-                                    while (_endBlockIdx - _warrant._idxCurrentOrder > 0) {
-                                        // Until loco reaches end block, continue current speed
-                                        try {
-                                            wait(timeIncrement);
-                                        } catch (InterruptedException ie) {
-                                            _lock.unlock();
-                                            stop = true;
-                                        }   
-                                    }
+                    }
+                }
+                log.trace("next speed {}", speed);
+                setSpeed(speed);
+                scheduleNext(generation);
+            }
+        }
+
+        private void scheduleNext(int generation) {
+            _stepCount++;
+            long delay = _startTime + TimeUnit.MILLISECONDS.toNanos((long) _stepCount * _timeIncrement) - System.nanoTime();
+            _next = _executor.isShutdown() ? null : _executor.schedule(() -> step(generation), Math.max(0, delay), TimeUnit.NANOSECONDS);
+        }
+
+        /**
+         * Finish the ramp, whether complete or stopped.
+         */
+        private void finish() {
+            if (_next != null) {
+                _next.cancel(false);
+                _next = null;
+            }
+            try {
+                if (!_rampData.isUpRamp()) {
+                    _stopPending = false;
+
+                    // Down ramp may advance the train beyond the point where the script is paused.
+                    // Any down ramp requested with _useIndex==true is expected to end at the end of
+                    // a block i.e. the block of BlockOrder indexed by _endBlockIdx.
+                    // Therefore script should resume at the exit to this block.
+                    // advanceToCommandIndex() sets the resume point of script.
+                    if (_useIndex) {
+                        int idx = _idxCurrentCommand;
+                        while (idx < _commands.size()) {
+                            ThrottleSetting ts = _commands.get(idx);
+                            NamedBean bean = ts.getNamedBeanHandle().getBean();
+                            if (bean instanceof OBlock) {
+                                OBlock blk = (OBlock)bean;
+                                if (_endBlockIdx < _warrant.getIndexOfBlock(blk, _endBlockIdx)) {
+                                    // script is past end point, command should be NOOP
+                                    break;
                                 }
                             }
-                            setSpeed(speed);
-
-                            try {
-                                wait(timeIncrement);
-                            } catch (InterruptedException ie) {
-                                _lock.unlock();
-                                stop = true;
+                            if (ts.getCommand().equalsIgnoreCase(SPEED)) {
+                                _normalSpeed = Float.parseFloat(ts.getValue()); // modify 'resume' speed to be last speed
                             }
+                            idx++;
                         }
-                        _stopPending = false;
-
-                        // Down ramp may advance the train beyond the point where the script is paused.
-                        // Any down ramp requested with _useIndex==true is expected to end at the end of
-                        // a block i.e. the block of BlockOrder indexed by _endBlockIdx.
-                        // Therefore script should resume at the exit to this block.
-                        // advanceToCommandIndex() sets the resume point of script.
-                        if (_useIndex) {
-                            int idx = _idxCurrentCommand;
-                            while (idx < _commands.size()) {
-                                ThrottleSetting ts = _commands.get(idx);
-                                NamedBean bean = ts.getNamedBeanHandle().getBean();
-                                if (bean instanceof OBlock) {
-                                    OBlock blk = (OBlock)bean;
-                                    if (_endBlockIdx < _warrant.getIndexOfBlock(blk, _endBlockIdx)) {
-                                        // script is past end point, command should be NOOP
-                                        break;
-                                    }
-                                }
-                                if (ts.getCommand().equalsIgnoreCase(SPEED)) {
-                                    _normalSpeed = Float.parseFloat(ts.getValue()); // modify 'resume' speed to be last speed
-                                }
-                                idx++;
-                            }
-                            advanceToCommandIndex(idx); // skip up to this command
-
-                            if (log.isDebugEnabled()) 
-                                log.debug("endBlkName= {}, cmdBlkName= {}, _idxCurrentCommand={}, skipToBlkName= {}, skipToIdx= {}, _normalSpeed= {}",
-                                        _warrant.getBlockAt(_endBlockIdx).getDisplayName(),
-                                        _commands.get(_idxCurrentCommand).getNamedBeanHandle().getBean().getDisplayName(), _idxCurrentCommand+1,
-                                        _commands.get(idx).getNamedBeanHandle().getBean().getDisplayName(), idx+1,
-                                        _normalSpeed); // Note: command indexes biased from 0 to 1 to match Warrant display of commands.
-                       }
-                    }
-                    
-                } finally {
-                    _lock.unlock();
-                    if (!_endSpeedType.equals(Warrant.Stop) &&
-                            !_endSpeedType.equals(Warrant.EStop)) {
-                        // speed restored, clear any stop waits
-                        // If flags already off, OK to repeat setting false
-                        setWaitforClear(false);
-                        setHalt(false);
+                        advanceToCommandIndex(idx); // skip up to this command
+
+                        if (log.isDebugEnabled())
+                            log.debug("endBlkName= {}, cmdBlkName= {}, _idxCurrentCommand={}, skipToBlkName= {}, skipToIdx= {}, _normalSpeed= {}",
+                                    _warrant.getBlockAt(_endBlockIdx).getDisplayName(),
+                                    _commands.get(_idxCurrentCommand).getNamedBeanHandle().getBean().getDisplayName(), _idxCurrentCommand+1,
+                                    _commands.get(idx).getNamedBeanHandle().getBean().getDisplayName(), idx+1,
+                                    _normalSpeed); // Note: command indexes biased from 0 to 1 to match Warrant display of commands.
                     }
-                    _resumePending = false;
                 }
+            } finally {
+                if (!_endSpeedType.equals(Warrant.Stop) &&
+                        !_endSpeedType.equals(Warrant.EStop)) {
+                    // speed restored, clear any stop waits
+                    // If flags already off, OK to repeat setting false
+                    setWaitforClear(false);
+                    setHalt(false);
+                }
+                _resumePending = false;
             }
-            rampDone(stop, _endSpeedType);
             ready = true;
+            rampDone(stop, _endSpeedType);
             stop = false;
         }
 
         private void rampDone(boolean stop, String type) {
             if (log.isDebugEnabled())
-                log.debug("ThrottleRamp done: {} for \"{}\" at speed= {}. _normalScript={}, Thread.State= {} resume index= {}, current Index= {} on warrant {}",
-                        (stop?"stopped":"completed"), type, getSpeedSetting(), _normalSpeed, (_ramp != null?_ramp.getState():"_ramp is null!"),
+                log.debug("ThrottleRamp done: {} for \"{}\" at speed= {}. _normalScript={}, resume index= {}, current Index= {} on warrant {}",
+                        (stop?"stopped":"completed"), type, getSpeedSetting(), _normalSpeed,
                         _idxSkipToSpeedCommand+1, _idxCurrentCommand+1, _warrant.getDisplayName());
             // Note: command indexes biased from 0 to 1 to match Warrant display of commands.
             if (!stop) {
                 _warrant.fireRunStatus("RampDone", _halt, type);
             }
             if (!_atHalt && !_atClear) {
-                synchronized (this) {
-                    notifyAll();  // let engineer run script
-                    log.debug("rampDone called notify");
-                }
-                if (_currentCommand.equals("NOOP")) {
+                notifyEngineer();  // let engineer run script
+                log.debug("rampDone called notify");
+                if (_currentCommand != null && _currentCommand.equals("NOOP")) {
                     _idxCurrentCommand--;   // notify advances command.  Repeat wait for entry to next block
                 }
             }
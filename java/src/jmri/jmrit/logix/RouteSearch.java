@@ -0,0 +1,344 @@
+package jmri.jmrit.logix;
+
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import javax.annotation.CheckForNull;
+import javax.annotation.Nonnull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Finds routes of {@link BlockOrder}s through the {@link Portal}s and
+ * {@link OPath}s of OBlocks.
+ * <p>
+ * The search is best-first: partial routes are extended in order of their
+ * cost, so the routes are found shortest first, and it stops once the
+ * requested number of routes has been found. Each combination of block, path
+ * and entry portal is extended no more times than the number of routes
+ * wanted, so the work done grows with the size of the layout rather than
+ * with the number of possible routes.
+ * <p>
+ * A route may be required to pass through a path of a via block, and may be
+ * forbidden from a path of an avoid block.
+ * <p>
+ * There is nothing Swing in here, so a search can run on any thread.
+ * {@link RouteFinder} runs one for {@link WarrantRoute}, which displays the
+ * results.
+ */
+public class RouteSearch {
+
+    /**
+     * How routes are compared.
+     */
+    public enum Cost {
+        /**
+         * By the number of blocks.
+         */
+        BLOCKS,
+        /**
+         * By the total length of the paths after the origin block.
+         */
+        LENGTH
+    }
+
+    private final BlockOrder _origin;
+    private final BlockOrder _dest;
+    private final OBlock _viaBlock;
+    private final String _vPathName;
+    private final OBlock _avoidBlock;
+    private final String _aPathName;
+
+    private int _maxBlocks = Integer.MAX_VALUE;
+    private int _maxRoutes = 1;
+    private Cost _cost = Cost.BLOCKS;
+    private volatile boolean _quit = false;
+
+    private final List<Step> _steps = new ArrayList<>();
+
+    /**
+     * @param origin first block order: block, path and exit portal
+     * @param dest   last block order: block, path and entry portal
+     * @param via    if not null, routes must use the path of this block
+     * @param avoid  if not null, routes must not use the path of this block;
+     *               if it has no path, the whole block is avoided
+     */
+    public RouteSearch(@Nonnull BlockOrder origin, @Nonnull BlockOrder dest,
+            @CheckForNull BlockOrder via, @CheckForNull BlockOrder avoid) {
+        _origin = origin;
+        _dest = dest;
+        _viaBlock = via == null ? null : via.getBlock();
+        _vPathName = via == null ? null : via.getPathName();
+        _avoidBlock = avoid == null ? null : avoid.getBlock();
+        _aPathName = avoid == null ? null : avoid.getPathName();
+    }
+
+    /**
+     * @param max the most blocks, after the origin, in a route
+     */
+    public void setMaxBlocks(int max) {
+        _maxBlocks = max;
+    }
+
+    /**
+     * @param max the number of routes to find
+     */
+    public void setMaxRoutes(int max) {
+        _maxRoutes = max;
+    }
+
+    /**
+     * @param cost how routes are compared
+     */
+    public void setCost(@Nonnull Cost cost) {
+        _cost = cost;
+    }
+
+    /**
+     * Stop a search running on another thread. It returns the routes found
+     * so far.
+     */
+    public void quit() {
+        _quit = true;
+    }
+
+    /**
+     * Do the search.
+     *
+     * @return the routes found, cheapest first, each a list of block orders
+     *         from the origin to the destination
+     */
+    @Nonnull
+    public List<List<BlockOrder>> findRoutes() {
+        _steps.clear();
+        List<List<BlockOrder>> routes = new ArrayList<>();
+        Map<State, Integer> expanded = new HashMap<>();
+        PriorityQueue<Step> queue = new PriorityQueue<>();
+        queue.add(new Step(_origin, null, _viaBlock == null, 0, 0f, 0));
+        int sequence = 1;
+        while (!queue.isEmpty() && !_quit && routes.size() < _maxRoutes) {
+            Step step = queue.poll();
+            if (step.isDestination()) {
+                routes.add(step.getRoute());
+                continue;
+            }
+            if (step._blocks >= _maxBlocks) {
+                continue;
+            }
+            // no more routes can come through a state than have already been found from it
+            State state = new State(step._order, step._viaSeen);
+            int count = expanded.getOrDefault(state, 0);
+            if (count >= _maxRoutes) {
+                continue;
+            }
+            expanded.put(state, count + 1);
+            _steps.add(step);
+            for (Step next : nextSteps(step, sequence)) {
+                queue.add(next);
+                sequence++;
+            }
+        }
+        if (log.isDebugEnabled()) {
+            log.debug("{} routes found from \"{}\" to \"{}\" after {} steps. quit= {}", routes.size(),
+                    _origin.getBlock().getDisplayName(), _dest.getBlock().getDisplayName(), _steps.size(), _quit);
+        }
+        return routes;
+    }
+
+    /**
+     * Get the partial routes that were extended during the last search, for
+     * showing where a search went when it failed.
+     *
+     * @return the steps, in the order they were extended
+     */
+    @Nonnull
+    public List<Step> getSteps() {
+        return Collections.unmodifiableList(_steps);
+    }
+
+    @SuppressFBWarnings(value = "BC_UNCONFIRMED_CAST_OF_RETURN_VALUE", justification = "OBlock extends Block")
+    private List<Step> nextSteps(Step step, int sequence) {
+        List<Step> list = new ArrayList<>();
+        BlockOrder pOrder = step._order;
+        OBlock pBlock = pOrder.getBlock();
+        String pName = pOrder.getExitName();    // is entryName of next block
+        Portal exitPortal = pBlock.getPortalByName(pName);
+        if (exitPortal == null) {
+            log.debug("Dead branch: block= \"{}\" has no exit portal", pBlock.getDisplayName());
+            return list;
+        }
+        OBlock nextBlock = exitPortal.getOpposingBlock(pBlock);
+        List<OPath> paths = exitPortal.getPathsFromOpposingBlock(pBlock);
+        if (paths == null || paths.isEmpty()) {
+            if (nextBlock == null) {
+                log.error("Portal \"{}\" is malformed! \"{}\" not connected to another block!",
+                        pName, pBlock.getDisplayName());
+            } else {
+                log.error("Portal \"{}\" does not have any paths from \"{}\" to \"{}\"",
+                        pName, pBlock.getDisplayName(), nextBlock.getDisplayName());
+            }
+            return list;
+        }
+        for (OPath path : paths) {
+            if (_avoidBlock != null && _avoidBlock.equals(nextBlock)
+                    && (_aPathName == null || _aPathName.equals(path.getName()))) {
+                continue;
+            }
+            BlockOrder nOrder = new BlockOrder((OBlock) path.getBlock(), path.getName(), pName,
+                    path.getOppositePortalName(pName));
+            if (step.contains(nOrder)) {
+                continue;   // going round in a circle
+            }
+            boolean viaSeen = step._viaSeen
+                    || (_viaBlock != null && _viaBlock.equals(nextBlock) && Objects.equals(_vPathName, path.getName()));
+            float length = step._length + path.getLengthMm();
+            list.add(new Step(nOrder, step, viaSeen, step._blocks + 1, length, sequence + list.size()));
+        }
+        return list;
+    }
+
+    /**
+     * A route from the origin, as far as one block order.
+     */
+    public final class Step implements Comparable<Step> {
+
+        private final BlockOrder _order;
+        private final Step _previous;
+        private final boolean _viaSeen;
+        private final int _blocks;
+        private final float _length;
+        private final int _sequence;
+
+        private Step(BlockOrder order, Step previous, boolean viaSeen, int blocks, float length, int sequence) {
+            _order = order;
+            _previous = previous;
+            _viaSeen = viaSeen;
+            _blocks = blocks;
+            _length = length;
+            _sequence = sequence;
+        }
+
+        /**
+         * @return the last block order of this route
+         */
+        @Nonnull
+        public BlockOrder getOrder() {
+            return _order;
+        }
+
+        /**
+         * @return the route without its last block order, or null for the
+         *         origin
+         */
+        @CheckForNull
+        public Step getPrevious() {
+            return _previous;
+        }
+
+        /**
+         * @return the number of blocks after the origin
+         */
+        public int getBlockCount() {
+            return _blocks;
+        }
+
+        /**
+         * @return the length in millimeters of the paths after the origin
+         */
+        public float getLength() {
+            return _length;
+        }
+
+        /**
+         * @return the block orders from the origin to this one
+         */
+        @Nonnull
+        public List<BlockOrder> getRoute() {
+            List<BlockOrder> route = new ArrayList<>(_blocks + 1);
+            for (Step s = this; s != null; s = s._previous) {
+                route.add(s._order);
+            }
+            Collections.reverse(route);
+            return route;
+        }
+
+        private boolean isDestination() {
+            return _previous != null && _viaSeen
+                    && _dest.getBlock() == _order.getBlock()
+                    && Objects.equals(_dest.getPathName(), _order.getPathName())
+                    && Objects.equals(_dest.getEntryName(), _order.getEntryName());
+        }
+
+        private boolean contains(BlockOrder order) {
+            for (Step s = this; s != null; s = s._previous) {
+                if (s._order.getBlock() == order.getBlock()
+                        && Objects.equals(s._order.getPathName(), order.getPathName())
+                        && Objects.equals(s._order.getEntryName(), order.getEntryName())) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private float cost() {
+            return _cost == Cost.LENGTH ? _length : _blocks;
+        }
+
+        @Override
+        public int compareTo(Step other) {
+            int c = Float.compare(cost(), other.cost());
+            return c != 0 ? c : Integer.compare(_sequence, other._sequence);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            return this == obj;
+        }
+
+        @Override
+        public int hashCode() {
+            return _sequence;
+        }
+    }
+
+    /**
+     * What decides how a route can go on from a step.
+     */
+    private static final class State {
+
+        private final OBlock _block;
+        private final String _pathName;
+        private final String _entryName;
+        private final boolean _viaSeen;
+
+        State(BlockOrder order, boolean viaSeen) {
+            _block = order.getBlock();
+            _pathName = order.getPathName();
+            _entryName = order.getEntryName();
+            _viaSeen = viaSeen;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof State)) {
+                return false;
+            }
+            State other = (State) obj;
+            return _block == other._block && _viaSeen == other._viaSeen
+                    && Objects.equals(_pathName, other._pathName)
+                    && Objects.equals(_entryName, other._entryName);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(System.identityHashCode(_block), _pathName, _entryName, _viaSeen);
+        }
+    }
+
+    private static final Logger log = LoggerFactory.getLogger(RouteSearch.class);
+}
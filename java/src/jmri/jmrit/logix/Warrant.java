@@ -67,7 +67,7 @@ public class Warrant extends jmri.implementation.AbstractNamedBean implements Th
     protected ArrayList<BlockSpeedInfo> _speedInfo; // map max speeds and occupation times of each block in route
 
     protected int _runMode;
-    private Engineer _engineer; // thread that runs the train
+    private Engineer _engineer; // runs the train
     @GuardedBy("this")
     private CommandDelay _delayCommand; // thread for delayed ramp down
     private boolean _allocated; // initial Blocks of _orders have been allocated
@@ -1132,23 +1132,10 @@ public class Warrant extends jmri.implementation.AbstractNamedBean implements Th
             // Note: command indexes biased from 0 to 1 to match Warrant's 1-based display of commands.
             info.append(cmdIdx + 1); info.append(", Command: ");
             info.append(getThrottleCommands().get(cmdIdx).toString()); info.append("\n\t");
-            info.append(_engineer.getFlags()); info.append("\n\t\t");
-            for (StackTraceElement elem :_engineer.getStackTrace()) {
-                info.append(elem.getClassName()); info.append(".");
-                info.append(elem.getMethodName()); info.append(", line ");
-                info.append(elem.getLineNumber()); info.append("\n\t\t");
-            }
-            info.append("\tEngineer Thread.State= ");
-            info.append(_engineer.getState()); info.append("\n\t");
+            info.append(_engineer.getFlags()); info.append("\n\t");
             Engineer.ThrottleRamp ramp = _engineer.getRamp();
             if (ramp != null) {
-                info.append("Ramp Thread.State= "); info.append(ramp.getState());
-                info.append(", ready= "); info.append(ramp.ready); info.append("\n\t\t");
-                for (StackTraceElement elem : ramp.getStackTrace()) {
-                    info.append(elem.getClassName()); info.append(".");
-                    info.append(elem.getMethodName()); info.append(", line ");
-                    info.append(elem.getLineNumber()); info.append("\n\t\t");
-                }
+                info.append("Ramp ready= "); info.append(ramp.ready);
             } else {
                 info.append("No ramp");
             }
@@ -9,6 +9,7 @@ import java.awt.event.ActionListener;
 import java.awt.event.MouseEvent;
 import java.beans.PropertyChangeListener;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import javax.swing.AbstractButton;
@@ -17,6 +18,7 @@ import javax.swing.Box;
 import javax.swing.BoxLayout;
 import javax.swing.ButtonGroup;
 import javax.swing.JButton;
+import javax.swing.JCheckBox;
 import javax.swing.JComboBox;
 import javax.swing.JComponent;
 import javax.swing.JDialog;
@@ -31,7 +33,6 @@ import javax.swing.JTextField;
 import javax.swing.table.AbstractTableModel;
 import javax.swing.tree.DefaultMutableTreeNode;
 import javax.swing.tree.DefaultTreeModel;
-import javax.swing.tree.TreeNode;
 import jmri.InstanceManager;
 import jmri.Path;
 import jmri.jmrit.picker.PickListModel;
@@ -83,6 +84,7 @@ abstract class WarrantRoute extends jmri.util.JmriJFrame implements ActionListen
     private JFrame _debugFrame;
     private RouteFinder _routeFinder;
     private final JTextField _searchDepth = new JTextField(5);
+    private final JCheckBox _shortestLength = new JCheckBox(Bundle.getMessage("ShortestLength"));
     private JButton _calculateButton = new JButton(Bundle.getMessage("Calculate"));
     private JButton _stopButton;
 
@@ -138,6 +140,8 @@ abstract class WarrantRoute extends jmri.util.JmriJFrame implements ActionListen
         p.add(Box.createHorizontalGlue());
         p.add(makeTextBoxPanel(vertical, _searchDepth, "SearchDepth", "ToolTipSearchDepth"));
         _searchDepth.setColumns(5);
+        _shortestLength.setToolTipText(Bundle.getMessage("ToolTipShortestLength"));
+        p.add(_shortestLength);
         p.add(Box.createHorizontalGlue());
         return p;
     }
@@ -865,7 +869,8 @@ abstract class WarrantRoute extends jmri.util.JmriJFrame implements ActionListen
                 log.debug("Params OK. findRoute() is creating a RouteFinder");
             }
             _routeFinder = new RouteFinder(this, _origin.getOrder(), _destination.getOrder(),
-                    _via.getOrder(), _avoid.getOrder(), getDepth());
+                    _via.getOrder(), _avoid.getOrder(), getDepth(),
+                    _shortestLength.isSelected() ? RouteSearch.Cost.LENGTH : RouteSearch.Cost.BLOCKS);
             jmri.util.ThreadingUtil.newThread(_routeFinder).start();
         }
         return msg;
@@ -912,12 +917,11 @@ abstract class WarrantRoute extends jmri.util.JmriJFrame implements ActionListen
     /**
      * Callback from RouteFinder - several routes found
      *
-     * @param destNodes the destination blocks
-     * @param routeTree the routes
+     * @param routes the routes, shortest first
      */
-    protected void pickRoute(List<DefaultMutableTreeNode> destNodes, DefaultTreeModel routeTree) {
-        if (destNodes.size() == 1) {
-            showRoute(destNodes.get(0), routeTree);
+    protected void pickRoute(List<List<BlockOrder>> routes) {
+        if (routes.size() == 1) {
+            showRoute(routes.get(0));
             selectedRoute(_orders);
             showTempWarrant(_orders);
             return;
@@ -934,7 +938,7 @@ abstract class WarrantRoute extends jmri.util.JmriJFrame implements ActionListen
         mainPanel.setLayout(new BorderLayout(5, 5));
         JPanel panel = new JPanel();
         panel.setLayout(new BoxLayout(panel, BoxLayout.Y_AXIS));
-        panel.add(new JLabel(Bundle.getMessage("NumberRoutes1", destNodes.size())));
+        panel.add(new JLabel(Bundle.getMessage("NumberRoutes1", routes.size())));
         panel.add(new JLabel(Bundle.getMessage("NumberRoutes2")));
         JPanel wrapper = new JPanel();
         wrapper.add(panel);
@@ -943,16 +947,16 @@ abstract class WarrantRoute extends jmri.util.JmriJFrame implements ActionListen
 
         panel = new JPanel();
         panel.setLayout(new BoxLayout(panel, BoxLayout.Y_AXIS));
-        for (int i = 0; i < destNodes.size(); i++) {
+        for (int i = 0; i < routes.size(); i++) {
             JRadioButton button = new JRadioButton(Bundle.getMessage("RouteSize", i + 1,
-                    destNodes.get(i).getLevel() + 1));
+                    routes.get(i).size()));
             button.setActionCommand("" + i);
             button.addActionListener((ActionEvent e) -> {
                 clearTempWarrant();
             });
             buttons.add(button);
             panel.add(button);
-            if (destNodes.size() == 1) {
+            if (routes.size() == 1) {
                 button.setSelected(true);
             }
         }
@@ -966,15 +970,14 @@ abstract class WarrantRoute extends jmri.util.JmriJFrame implements ActionListen
         ok.addActionListener(new ActionListener() {
             ButtonGroup buts;
             JDialog dialog;
-            List<DefaultMutableTreeNode> dNodes;
-            DefaultTreeModel tree;
+            List<List<BlockOrder>> routeList;
 
             @Override
             public void actionPerformed(ActionEvent e) {
                 if (buts.getSelection() != null) {
                     clearTempWarrant();
                     int i = Integer.parseInt(buttons.getSelection().getActionCommand());
-                    showRoute(dNodes.get(i), tree);
+                    showRoute(routeList.get(i));
                     selectedRoute(_orders);
                     showTempWarrant(_orders);
                     dialog.dispose();
@@ -983,42 +986,37 @@ abstract class WarrantRoute extends jmri.util.JmriJFrame implements ActionListen
                 }
             }
 
-            ActionListener init(ButtonGroup bg, JDialog d, List<DefaultMutableTreeNode> dn,
-                    DefaultTreeModel t) {
+            ActionListener init(ButtonGroup bg, JDialog d, List<List<BlockOrder>> r) {
                 buts = bg;
                 dialog = d;
-                dNodes = dn;
-                tree = t;
+                routeList = r;
                 return this;
             }
-        }.init(buttons, _pickRouteDialog, destNodes, routeTree));
+        }.init(buttons, _pickRouteDialog, routes));
         ok.setMaximumSize(ok.getPreferredSize());
         JButton show = new JButton(Bundle.getMessage("ButtonReview"));
         show.addActionListener(new ActionListener() {
             ButtonGroup buts;
-            List<DefaultMutableTreeNode> destinationNodes;
-            DefaultTreeModel tree;
+            List<List<BlockOrder>> routeList;
 
             @Override
             public void actionPerformed(ActionEvent e) {
                 if (buts.getSelection() != null) {
                     clearTempWarrant();
                     int i = Integer.parseInt(buttons.getSelection().getActionCommand());
-                    showRoute(destinationNodes.get(i), tree);
+                    showRoute(routeList.get(i));
                     showTempWarrant(_orders);
                 } else {
                     showWarning(Bundle.getMessage("SelectRoute"));
                 }
             }
 
-            ActionListener init(ButtonGroup bg, List<DefaultMutableTreeNode> dn,
-                    DefaultTreeModel t) {
+            ActionListener init(ButtonGroup bg, List<List<BlockOrder>> r) {
                 buts = bg;
-                destinationNodes = dn;
-                tree = t;
+                routeList = r;
                 return this;
             }
-        }.init(buttons, destNodes, routeTree));
+        }.init(buttons, routes));
         show.setMaximumSize(show.getPreferredSize());
         panel = new JPanel();
         panel.setLayout(new BoxLayout(panel, BoxLayout.X_AXIS));
@@ -1051,17 +1049,12 @@ abstract class WarrantRoute extends jmri.util.JmriJFrame implements ActionListen
     }
 
     /**
-     * Callback from RouteFinder - exactly one route found
+     * Show a route found by RouteFinder
      *
-     * @param destNode destination block
-     * @param tree     possible routes
+     * @param route block orders of the route
      */
-    private void showRoute(DefaultMutableTreeNode destNode, DefaultTreeModel tree) {
-        TreeNode[] nodes = tree.getPathToRoot(destNode);
-        _orders = new ArrayList<>();
-        for (TreeNode node : nodes) {
-            _orders.add((BlockOrder) ((DefaultMutableTreeNode) node).getUserObject());
-        }
+    private void showRoute(List<BlockOrder> route) {
+        _orders = new ArrayList<>(route);
 //        _dirty = true;
         _routeModel.fireTableDataChanged();
         if (log.isDebugEnabled()) {
@@ -1094,11 +1087,11 @@ abstract class WarrantRoute extends jmri.util.JmriJFrame implements ActionListen
     /**
      * Callback from RouteFinder - no routes found
      *
-     * @param tree   routes
+     * @param steps  partial routes tried by the search
      * @param origin starting block
      * @param dest   ending block
      */
-    protected void debugRoute(DefaultTreeModel tree, BlockOrder origin, BlockOrder dest) {
+    protected void debugRoute(List<RouteSearch.Step> steps, BlockOrder origin, BlockOrder dest) {
         if (JOptionPane.NO_OPTION == JOptionPane.showConfirmDialog(this, Bundle.getMessage("NoRoute",
                 new Object[]{origin.getBlock().getDisplayName(),
                     origin.getPathName(), origin.getExitName(), dest.getBlock().getDisplayName(),
@@ -1111,7 +1104,7 @@ abstract class WarrantRoute extends jmri.util.JmriJFrame implements ActionListen
             _debugFrame.dispose();
         }
         _debugFrame = new JFrame(Bundle.getMessage("DebugRoute"));
-        javax.swing.JTree dTree = new javax.swing.JTree(tree);
+        javax.swing.JTree dTree = new javax.swing.JTree(makeSearchTree(steps));
         dTree.setShowsRootHandles(true);
         dTree.setScrollsOnExpand(true);
         dTree.setExpandsSelectedPaths(true);
@@ -1122,6 +1115,29 @@ abstract class WarrantRoute extends jmri.util.JmriJFrame implements ActionListen
         _debugFrame.pack();
     }
 
+    /**
+     * Make a tree of the partial routes tried by a search, each below the
+     * one it was extended from.
+     *
+     * @param steps partial routes, each after the one it extends
+     * @return the tree
+     */
+    private DefaultTreeModel makeSearchTree(List<RouteSearch.Step> steps) {
+        HashMap<RouteSearch.Step, DefaultMutableTreeNode> nodes = new HashMap<>();
+        DefaultMutableTreeNode root = new DefaultMutableTreeNode();
+        for (RouteSearch.Step step : steps) {
+            DefaultMutableTreeNode node = new DefaultMutableTreeNode(step.getOrder());
+            nodes.put(step, node);
+            DefaultMutableTreeNode parent = nodes.get(step.getPrevious());
+            if (parent != null) {
+                parent.add(node);
+            } else {
+                root = node;
+            }
+        }
+        return new DefaultTreeModel(root);
+    }
+
     protected void clearRoute() {
         _orders = new ArrayList<>();
         clearFrames();
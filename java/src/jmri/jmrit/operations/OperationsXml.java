@@ -1,8 +1,26 @@
 package jmri.jmrit.operations;
 
+import java.io.BufferedInputStream;
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import javax.annotation.CheckForNull;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
 import jmri.InstanceManager;
 import jmri.jmrit.XmlFile;
 import jmri.jmrit.operations.locations.LocationManagerXml;
@@ -12,12 +30,36 @@ import jmri.jmrit.operations.routes.RouteManagerXml;
 import jmri.jmrit.operations.setup.OperationsSetupXml;
 import jmri.jmrit.operations.trains.TrainManagerXml;
 import jmri.util.FileUtil;
+import jmri.util.ThreadingUtil;
+import org.jdom2.Attribute;
+import org.jdom2.Content;
+import org.jdom2.Document;
+import org.jdom2.Element;
 import org.jdom2.JDOMException;
+import org.jdom2.input.StAXStreamBuilder;
+import org.jdom2.output.Format;
+import org.jdom2.output.XMLOutputter;
+import org.jdom2.output.support.AbstractXMLOutputProcessor;
+import org.jdom2.output.support.FormatStack;
+import org.jdom2.util.NamespaceStack;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
  * Loads and stores the operation setup using xml files.
+ * <p>
+ * Files holding a long list of items, such as cars or trains, can be written
+ * and read one item at a time. A subclass returns the document to be written
+ * from {@link #createDocument()} and names the element holding the list in
+ * {@link #getListElementName()}. The document is created on the calling
+ * thread, so it is a snapshot of the operations data, and then written on a
+ * background thread with each item released once it has been written. The
+ * file stays dirty until the snapshot has been written, and is dirty again
+ * if the write fails. The
+ * file is the same, byte for byte, as one written by
+ * {@link XmlFile#writeXML(File, Document)}. Such files are read with
+ * {@link #readFile(String, String, Consumer, Consumer)}, which hands the
+ * items to the caller one at a time as they are parsed.
  *
  * @author Daniel Boudreau Copyright (C) 2008
  */
@@ -28,11 +70,219 @@ public abstract class OperationsXml extends XmlFile {
      * including making a backup if needed
      */
     public void writeOperationsFile() {
-        createFile(getDefaultOperationsFilename(), true); // make backup
-        try {
-            writeFile(getDefaultOperationsFilename());
-        } catch (IOException e) {
-            log.error("Exception while writing operation file, may not be complete: {}", e.getMessage());
+        String name = getDefaultOperationsFilename();
+        Document doc = createDocument();
+        if (doc == null) {
+            createFile(name, true); // make backup
+            try {
+                writeFile(name);
+            } catch (IOException e) {
+                log.error("Exception while writing operation file, may not be complete: {}", e.getMessage());
+            }
+            return;
+        }
+        // the document is a snapshot, so the data can change while it is written
+        int snapshot = getChanges();
+        Future<?> future = writer.submit(() -> {
+            File file = createFile(name, true); // make backup
+            try {
+                writeXML(file, doc);
+                clearDirty(snapshot);
+            } catch (IOException | RuntimeException e) {
+                log.error("Exception while writing operation file, may not be complete: {}", e.getMessage());
+                setDirty(true);
+            }
+        });
+        synchronized (pendingWrites) {
+            pendingWrites.removeIf(Future::isDone);
+            pendingWrites.add(future);
+        }
+    }
+
+    /**
+     * Create the document to be written to this file. Subclasses that
+     * override this have their files written on a background thread.
+     *
+     * @return the document, or null if this file is written by
+     *         {@link #writeFile(String)}
+     */
+    @CheckForNull
+    protected Document createDocument() {
+        return null;
+    }
+
+    /**
+     * Get the name of the child of the root element holding the list of
+     * items that is written and read one item at a time.
+     *
+     * @return the element name, or null if there is no such list
+     */
+    @CheckForNull
+    protected String getListElementName() {
+        return null;
+    }
+
+    /**
+     * Write the document. If the root has a child named by
+     * {@link #getListElementName()}, the items of that list are taken out of
+     * the document and written one at a time, so they can be garbage
+     * collected as the file is written.
+     */
+    @Override
+    public void writeXML(File file, Document doc) throws IOException, FileNotFoundException {
+        String listName = getListElementName();
+        Element list = listName == null ? null : doc.getRootElement().getChild(listName);
+        if (list == null || list.getContentSize() == 0) {
+            super.writeXML(file, doc);
+            return;
+        }
+        // ensure parent directory exists
+        if (file.getParent() != null) {
+            FileUtil.createDirectory(file.getParent());
+        }
+        // same format as XmlFile.writeXML
+        try (FileOutputStream o = new FileOutputStream(file)) {
+            XMLOutputter fmt = new XMLOutputter(Format.getPrettyFormat()
+                    .setLineSeparator(System.getProperty("line.separator"))
+                    .setTextMode(Format.TextMode.TRIM_FULL_WHITE), new ListOutputProcessor(list));
+            fmt.output(doc, o);
+            o.flush();
+        }
+    }
+
+    /**
+     * Prints the list element by handing its items to the standard element
+     * printing one at a time, dropping each once printed.
+     */
+    private static class ListOutputProcessor extends AbstractXMLOutputProcessor {
+
+        private final Element list;
+
+        ListOutputProcessor(Element list) {
+            this.list = list;
+        }
+
+        @Override
+        protected void printElement(Writer out, FormatStack fstack, NamespaceStack nstack, Element element)
+                throws IOException {
+            if (element != list) {
+                super.printElement(out, fstack, nstack, element);
+                return;
+            }
+            List<Content> items = new ArrayList<>(list.removeContent());
+            write(out, "<");
+            write(out, list.getQualifiedName());
+            for (Attribute a : list.getAttributes()) {
+                printAttribute(out, fstack, a);
+            }
+            write(out, ">");
+            fstack.push();
+            try {
+                for (int i = 0; i < items.size(); i++) {
+                    Content item = items.set(i, null);
+                    if (item instanceof Element) {
+                        write(out, fstack.getLevelEOL());
+                        write(out, fstack.getLevelIndent());
+                        super.printElement(out, fstack, nstack, (Element) item);
+                    }
+                }
+            } finally {
+                fstack.pop();
+            }
+            write(out, fstack.getLevelEOL());
+            write(out, fstack.getLevelIndent());
+            write(out, "</");
+            write(out, list.getQualifiedName());
+            write(out, ">");
+        }
+    }
+
+    /**
+     * Read a file one item at a time. The children of the root element are
+     * read into a root element, except for the items of the list named
+     * listName, which are passed to item as soon as each is parsed and are not
+     * kept. Before the first item, head is passed the root element holding
+     * the children that come before the list in the file; if there is no
+     * list, head is passed the whole root element.
+     * <p>
+     * The streaming parser can not validate, so if {@link #getValidate()}
+     * asks for validation the whole file is read and validated first, and
+     * head is passed every child of the root but the list items.
+     *
+     * @param name     the file name
+     * @param listName the name of the child of the root holding the list
+     * @param head     loads what must be known before the items
+     * @param item     loads an item
+     * @return the root element, without the items of the list, or null if
+     *         the file could not be found
+     * @throws JDOMException if the file can not be parsed
+     * @throws IOException   if the file can not be read
+     */
+    @CheckForNull
+    protected Element readFile(String name, String listName, Consumer<Element> head, Consumer<Element> item)
+            throws JDOMException, IOException {
+        waitForWrites(); // the file may still be being written
+        File file = findFile(name);
+        if (file == null) {
+            return null;
+        }
+        if (getValidate() != Validate.None) {
+            Element root = rootFromFile(file);
+            Element list = root.getChild(listName);
+            List<Element> items = new ArrayList<>();
+            if (list != null) {
+                items.addAll(list.getChildren());
+                list.removeContent();
+            }
+            head.accept(root);
+            for (Element e : items) {
+                item.accept(e);
+            }
+            return root;
+        }
+        XMLInputFactory factory = XMLInputFactory.newInstance();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        factory.setProperty(XMLInputFactory.IS_COALESCING, true);
+        StAXStreamBuilder builder = new StAXStreamBuilder();
+        try (InputStream in = new BufferedInputStream(new FileInputStream(file))) {
+            XMLStreamReader reader = factory.createXMLStreamReader(in);
+            try {
+                while (reader.next() != XMLStreamConstants.START_ELEMENT) {
+                    // skip the prolog
+                }
+                Element root = new Element(reader.getLocalName());
+                for (int i = 0; i < reader.getAttributeCount(); i++) {
+                    root.setAttribute(reader.getAttributeLocalName(i), reader.getAttributeValue(i));
+                }
+                boolean headDone = false;
+                int event;
+                while ((event = reader.next()) != XMLStreamConstants.END_ELEMENT) {
+                    if (event != XMLStreamConstants.START_ELEMENT) {
+                        continue;
+                    }
+                    if (headDone || !reader.getLocalName().equals(listName)) {
+                        root.addContent(builder.fragment(reader));
+                        continue;
+                    }
+                    root.addContent(new Element(listName));
+                    head.accept(root);
+                    headDone = true;
+                    while ((event = reader.next()) != XMLStreamConstants.END_ELEMENT) {
+                        if (event == XMLStreamConstants.START_ELEMENT) {
+                            item.accept((Element) builder.fragment(reader));
+                        }
+                    }
+                }
+                if (!headDone) {
+                    head.accept(root);
+                }
+                return root;
+            } finally {
+                reader.close();
+            }
+        } catch (XMLStreamException e) {
+            throw new JDOMException("Unable to read " + name, e);
         }
     }
 
@@ -44,6 +294,12 @@ public abstract class OperationsXml extends XmlFile {
         }
     }
 
+    @Override
+    public void revertBackupFile(String name) {
+        waitForWrites(); // the write that made the backup may not have finished
+        super.revertBackupFile(name);
+    }
+
     protected File createFile(String fullPathName, boolean backupFile) {
         if (backupFile) {
             makeBackupFile(fullPathName);
@@ -84,15 +340,35 @@ public abstract class OperationsXml extends XmlFile {
     abstract public void readFile(String filename) throws org.jdom2.JDOMException, java.io.IOException;
 
     private boolean dirty = false;
+    private int changes = 0; // times set dirty
 
-    public void setDirty(boolean b) {
+    public synchronized void setDirty(boolean b) {
+        if (b) {
+            changes++;
+        }
         dirty = b;
     }
 
-    public boolean isDirty() {
+    public synchronized boolean isDirty() {
         return dirty;
     }
 
+    private synchronized int getChanges() {
+        return changes;
+    }
+
+    /**
+     * Clear dirty once a snapshot has been written, unless the data has
+     * changed since the snapshot was taken.
+     *
+     * @param snapshot the number of changes when the snapshot was taken
+     */
+    private synchronized void clearDirty(int snapshot) {
+        if (changes == snapshot) {
+            dirty = false;
+        }
+    }
+
     public void writeFileIfDirty() {
         if (isDirty()) {
             writeOperationsFile();
@@ -208,7 +484,8 @@ public abstract class OperationsXml extends XmlFile {
     }
 
     /**
-     * Saves operation files that have been modified.
+     * Saves operation files that have been modified, and waits for them to be
+     * written.
      */
     public static void save() {
         InstanceManager.getDefault(OperationsSetupXml.class).writeFileIfDirty();
@@ -217,6 +494,7 @@ public abstract class OperationsXml extends XmlFile {
         InstanceManager.getDefault(CarManagerXml.class).writeFileIfDirty(); // save train assignments
         InstanceManager.getDefault(EngineManagerXml.class).writeFileIfDirty(); // save train assignments
         InstanceManager.getDefault(TrainManagerXml.class).writeFileIfDirty(); // save train changes
+        waitForWrites();
     }
 
     /**
@@ -233,6 +511,41 @@ public abstract class OperationsXml extends XmlFile {
                 || InstanceManager.getDefault(TrainManagerXml.class).isDirty();
     }
 
+    /**
+     * Wait for files being written in the background to be written.
+     */
+    public static void waitForWrites() {
+        List<Future<?>> futures;
+        synchronized (pendingWrites) {
+            futures = new ArrayList<>(pendingWrites);
+            pendingWrites.clear();
+        }
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (ExecutionException e) {
+                log.error("Exception while writing operation file", e.getCause());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private static final List<Future<?>> pendingWrites = new ArrayList<>();
+
+    // one thread, so writes of a file happen in order; it ends when idle
+    private static final ThreadPoolExecutor writer = new ThreadPoolExecutor(1, 1, 1, TimeUnit.SECONDS,
+            new LinkedBlockingQueue<>(), r -> {
+                Thread t = ThreadingUtil.newThread(r, "Operations File Writer"); // NOI18N
+                t.setDaemon(true);
+                return t;
+            });
+
+    static {
+        writer.allowCoreThreadTimeOut(true);
+    }
+
     private final static Logger log = LoggerFactory.getLogger(OperationsXml.class);
 
 }
@@ -30,6 +30,14 @@ public class LocationManagerXml extends OperationsXml implements InstanceManager
         if (file == null) {
             file = new File(name);
         }
+        writeXML(file, createDocument());
+
+        // done - location file now stored, so can't be dirty
+        setDirty(false);
+    }
+
+    @Override
+    protected Document createDocument() {
         // create root element
         Element root = new Element("operations-config"); // NOI18N
         Document doc = newDocument(root, dtdLocation + "operations-locations.dtd"); // NOI18N
@@ -43,11 +51,12 @@ public class LocationManagerXml extends OperationsXml implements InstanceManager
 
         InstanceManager.getDefault(LocationManager.class).store(root);
         InstanceManager.getDefault(ScheduleManager.class).store(root);
+        return doc;
+    }
 
-        writeXML(file, doc);
-
-        // done - location file now stored, so can't be dirty
-        setDirty(false);
+    @Override
+    protected String getListElementName() {
+        return Xml.LOCATIONS;
     }
 
     /**
@@ -56,19 +65,15 @@ public class LocationManagerXml extends OperationsXml implements InstanceManager
      */
     @Override
     public void readFile(String name) throws org.jdom2.JDOMException, java.io.IOException {
-        // suppress rootFromName(name) warning message by checking to see if file exists
-        if (findFile(name) == null) {
-            log.debug("{} file could not be found", name);
-            return;
-        }
-        // find root
-        Element root = rootFromName(name);
+        // locations are registered as they are read
+        Element root = readFile(name, Xml.LOCATIONS,
+                head -> InstanceManager.getDefault(LocationManager.class).load(head),
+                location -> InstanceManager.getDefault(LocationManager.class).register(new Location(location)));
         if (root == null) {
-            log.debug("{} file could not be read", name);
+            log.debug("{} file could not be found", name);
             return;
         }
 
-        InstanceManager.getDefault(LocationManager.class).load(root);
         InstanceManager.getDefault(ScheduleManager.class).load(root);
 
         setDirty(false);
@@ -24,6 +24,7 @@ import jmri.jmrit.operations.routes.Route;
 import jmri.jmrit.operations.routes.RouteLocation;
 import jmri.jmrit.operations.setup.Setup;
 import jmri.jmrit.operations.trains.Train;
+import jmri.jmrit.operations.trains.TrainBuilder;
 import jmri.jmrit.operations.trains.TrainManager;
 import jmri.jmrit.operations.trains.schedules.TrainSchedule;
 import jmri.jmrit.operations.trains.schedules.TrainScheduleManager;
@@ -2070,7 +2071,7 @@ public class Track extends PropertyChangeSupport {
                 !car.getScheduleItemId().equals(si.getId())) {
             try {
                 int value = Integer.parseInt(si.getRandom());
-                double random = 100 * Math.random();
+                double random = 100 * TrainBuilder.random();
                 log.debug("Selected random {}, created random {}", si.getRandom(), random);
                 if (random > value) {
                     return MessageFormat.format(Bundle.getMessage("scheduleRandom"), new Object[]{SCHEDULE,
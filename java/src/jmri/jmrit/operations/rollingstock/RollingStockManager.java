@@ -4,8 +4,15 @@ import java.beans.PropertyChangeEvent;
 import java.beans.PropertyChangeListener;
 import java.util.ArrayList;
 import java.util.Enumeration;
+import java.util.HashMap;
 import java.util.Hashtable;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Predicate;
 
 import javax.annotation.OverridingMethodsMustInvokeSuper;
 
@@ -32,6 +39,12 @@ public abstract class RollingStockManager<T extends RollingStock> extends Proper
     protected Hashtable<String, T> _hashTable = new Hashtable<>();
 
     public static final String LISTLENGTH_CHANGED_PROPERTY = "RollingStockListLength"; // NOI18N
+
+    // secondary indexes, kept up to date by propertyChange()
+    private final Index<String> _byRfid = new Index<>(RollingStock::getRfid);
+    private final Index<Location> _byLocation = new Index<>(RollingStock::getLocation);
+    private final Index<Track> _byTrack = new Index<>(RollingStock::getTrack);
+    private final Index<String> _byTypeAndRoad = new Index<>(rs -> typeAndRoad(rs.getTypeName(), rs.getRoadName()));
     
     abstract public RollingStock newRS(String road, String number);
 
@@ -83,9 +96,7 @@ public abstract class RollingStockManager<T extends RollingStock> extends Proper
      * @return the first RollingStock found with the specified type and road.
      */
     public T getByTypeAndRoad(String type, String road) {
-        Enumeration<String> en = _hashTable.keys();
-        while (en.hasMoreElements()) {
-            T rs = getById(en.nextElement());
+        for (T rs : _byTypeAndRoad.get(typeAndRoad(type, road))) {
             if (rs.getTypeName().equals(type) && rs.getRoadName().equals(road)) {
                 return rs;
             }
@@ -100,9 +111,7 @@ public abstract class RollingStockManager<T extends RollingStock> extends Proper
      * @return the RollingStock with the specific RFID, or null if not found
      */
     public T getByRfid(String rfid) {
-        Enumeration<String> en = _hashTable.keys();
-        while (en.hasMoreElements()) {
-            T rs = getById(en.nextElement());
+        for (T rs : _byRfid.get(rfid)) {
             if (rs.getRfid().equals(rfid)) {
                 return rs;
             }
@@ -116,10 +125,15 @@ public abstract class RollingStockManager<T extends RollingStock> extends Proper
      * @param rs The RollingStock to load.
      */
     public void register(T rs) {
-        if (!_hashTable.contains(rs)) {
+        // rolling stock is kept under its current id, see propertyChange()
+        if (_hashTable.get(rs.getId()) != rs) {
             int oldSize = _hashTable.size();
             rs.addPropertyChangeListener(this);
-            _hashTable.put(rs.getId(), rs);
+            T old = _hashTable.put(rs.getId(), rs);
+            if (old != null) {
+                removeFromIndexes(old);
+            }
+            updateIndexes(rs);
             firePropertyChange(LISTLENGTH_CHANGED_PROPERTY, oldSize, _hashTable.size());
         }
     }
@@ -134,6 +148,7 @@ public abstract class RollingStockManager<T extends RollingStock> extends Proper
         rs.dispose();
         int oldSize = _hashTable.size();
         _hashTable.remove(rs.getId());
+        removeFromIndexes(rs);
         firePropertyChange(LISTLENGTH_CHANGED_PROPERTY, oldSize, _hashTable.size());
     }
 
@@ -164,6 +179,7 @@ public abstract class RollingStockManager<T extends RollingStock> extends Proper
             T rs = getById(en.nextElement());
             rs.dispose();
             _hashTable.remove(rs.getId());
+            removeFromIndexes(rs);
         }
         firePropertyChange(LISTLENGTH_CHANGED_PROPERTY, oldSize, _hashTable.size());
     }
@@ -568,6 +584,8 @@ public abstract class RollingStockManager<T extends RollingStock> extends Proper
      * @return list of RollingStock
      */
     public List<T> getList(Train train) {
+        // not indexed, callers such as Train.getCabooseRoadAndNumber()
+        // depend on the order of this list
         List<T> out = new ArrayList<>();
         _hashTable.values().stream().filter((rs) -> {
             return rs.getTrain() == train;
@@ -578,41 +596,36 @@ public abstract class RollingStockManager<T extends RollingStock> extends Proper
     }
 
     /**
-     * Returns a list (no order) of RollingStock at a location.
+     * Returns a list of RollingStock at a location, ordered by id.
      *
      * @param location location to search for.
      * @return list of RollingStock
      */
     public List<T> getList(Location location) {
-        List<T> out = new ArrayList<>();
-        _hashTable.values().stream().filter((rs) -> {
-            return rs.getLocation() == location;
-        }).forEachOrdered((rs) -> {
-            out.add(rs);
-        });
-        return out;
+        return getByIdList(_byLocation.getList(location, rs -> rs.getLocation() == location));
     }
 
     /**
-     * Returns a list (no order) of RollingStock on a track.
+     * Returns a list of RollingStock on a track, ordered by id.
      *
      * @param track Track to search for.
      * @return list of RollingStock
      */
     public List<T> getList(Track track) {
-        List<T> out = new ArrayList<>();
-        _hashTable.values().stream().filter((rs) -> {
-            return rs.getTrack() == track;
-        }).forEachOrdered((rs) -> {
-            out.add(rs);
-        });
-        return out;
+        return getByIdList(_byTrack.getList(track, rs -> rs.getTrack() == track));
+    }
+
+    // same order as getByIdList()
+    private List<T> getByIdList(List<T> list) {
+        list.sort((r1, r2) -> r1.getId().compareTo(r2.getId()));
+        return list;
     }
 
     @Override
     @OverridingMethodsMustInvokeSuper
     public void propertyChange(PropertyChangeEvent evt) {
-        if (evt.getPropertyName().equals(Xml.ID)) {
+        String property = evt.getPropertyName();
+        if (property.equals(Xml.ID)) {
             @SuppressWarnings("unchecked")
             T rs = (T) evt.getSource(); // unchecked cast to T  
             _hashTable.remove(evt.getOldValue());
@@ -620,6 +633,94 @@ public abstract class RollingStockManager<T extends RollingStock> extends Proper
             // fire so listeners that rebuild internal lists get signal of change in id, even without change in size
             firePropertyChange(LISTLENGTH_CHANGED_PROPERTY, _hashTable.size(), _hashTable.size());
         }
+        if (property.equals(RollingStock.TRACK_CHANGED_PROPERTY)
+                || property.equals(RollingStock.TYPE_CHANGED_PROPERTY)
+                || property.equals("rolling stock road") // NOI18N
+                || property.equals("rolling stock rfid")) { // NOI18N
+            @SuppressWarnings("unchecked")
+            T rs = (T) evt.getSource(); // unchecked cast to T
+            if (_hashTable.get(rs.getId()) == rs) {
+                updateIndexes(rs);
+            }
+        }
+    }
+
+    private static String typeAndRoad(String type, String road) {
+        return type + "\n" + road; // NOI18N
+    }
+
+    private void updateIndexes(T rs) {
+        _byRfid.update(rs);
+        _byLocation.update(rs);
+        _byTrack.update(rs);
+        _byTypeAndRoad.update(rs);
+    }
+
+    private void removeFromIndexes(T rs) {
+        _byRfid.remove(rs);
+        _byLocation.remove(rs);
+        _byTrack.remove(rs);
+        _byTypeAndRoad.remove(rs);
+    }
+
+    /**
+     * Rolling stock grouped by the value of one attribute.
+     * <p>
+     * Rolling stock is only moved between groups when it fires a property
+     * change, so changes that don't fire one, such as
+     * {@link RollingStock#setTrack(Track)} used by the router on copies of
+     * cars, are not seen. Lookups check the attribute of each rolling stock
+     * in the group before returning it.
+     *
+     * @param <K> type of the attribute
+     */
+    private final class Index<K> {
+
+        private final Function<RollingStock, K> attribute;
+        private final Map<K, Set<T>> groups = new HashMap<>();
+        private final Map<T, K> keys = new HashMap<>();
+
+        Index(Function<RollingStock, K> attribute) {
+            this.attribute = attribute;
+        }
+
+        synchronized void update(T rs) {
+            K key = attribute.apply(rs);
+            if (keys.containsKey(rs)) {
+                K old = keys.get(rs);
+                if (Objects.equals(old, key)) {
+                    return;
+                }
+                remove(rs);
+            }
+            keys.put(rs, key);
+            groups.computeIfAbsent(key, k -> new LinkedHashSet<>()).add(rs);
+        }
+
+        synchronized void remove(T rs) {
+            if (!keys.containsKey(rs)) {
+                return;
+            }
+            K old = keys.remove(rs);
+            Set<T> group = groups.get(old);
+            if (group != null) {
+                group.remove(rs);
+                if (group.isEmpty()) {
+                    groups.remove(old);
+                }
+            }
+        }
+
+        synchronized List<T> get(K key) {
+            Set<T> group = groups.get(key);
+            return group == null ? new ArrayList<>() : new ArrayList<>(group);
+        }
+
+        List<T> getList(K key, Predicate<T> check) {
+            List<T> out = get(key);
+            out.removeIf(check.negate());
+            return out;
+        }
     }
 
     private final static Logger log = LoggerFactory.getLogger(RollingStockManager.class);
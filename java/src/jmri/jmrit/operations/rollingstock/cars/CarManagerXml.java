@@ -34,6 +34,14 @@ public class CarManagerXml extends OperationsXml implements InstanceManagerAutoD
         if (file == null) {
             file = new File(name);
         }
+        writeXML(file, createDocument());
+
+        // done - car file now stored, so can't be dirty
+        setDirty(false);
+    }
+
+    @Override
+    protected Document createDocument() {
         // create root element
         Element root = new Element("operations-config"); // NOI18N
         Document doc = newDocument(root, dtdLocation + "operations-cars.dtd"); // NOI18N
@@ -53,11 +61,12 @@ public class CarManagerXml extends OperationsXml implements InstanceManagerAutoD
         InstanceManager.getDefault(CarOwners.class).store(root);
         InstanceManager.getDefault(CarLoads.class).store(root);
         InstanceManager.getDefault(CarManager.class).store(root);
+        return doc;
+    }
 
-        writeXML(file, doc);
-
-        // done - car file now stored, so can't be dirty
-        setDirty(false);
+    @Override
+    protected String getListElementName() {
+        return Xml.CARS;
     }
 
     /**
@@ -66,26 +75,21 @@ public class CarManagerXml extends OperationsXml implements InstanceManagerAutoD
      */
     @Override
     public void readFile(String name) throws org.jdom2.JDOMException, java.io.IOException {
-        // suppress rootFromName(name) warning message by checking to see if file exists
-        if (findFile(name) == null) {
-            log.debug("{} file could not be found", name);
-            return;
-        }
-        // find root
-        Element root = rootFromName(name);
+        // cars are registered as they are read, after the kernels, roads and so on they use
+        Element root = readFile(name, Xml.CARS, head -> {
+            InstanceManager.getDefault(CarRoads.class).load(head);
+            InstanceManager.getDefault(CarTypes.class).load(head);
+            InstanceManager.getDefault(CarColors.class).load(head);
+            InstanceManager.getDefault(CarLengths.class).load(head);
+            InstanceManager.getDefault(CarOwners.class).load(head);
+            InstanceManager.getDefault(CarLoads.class).load(head);
+            InstanceManager.getDefault(CarManager.class).load(head);
+        }, car -> InstanceManager.getDefault(CarManager.class).register(new Car(car)));
         if (root == null) {
-            log.debug("{} file could not be read", name);
+            log.debug("{} file could not be found", name);
             return;
         }
 
-        InstanceManager.getDefault(CarRoads.class).load(root);
-        InstanceManager.getDefault(CarTypes.class).load(root);
-        InstanceManager.getDefault(CarColors.class).load(root);
-        InstanceManager.getDefault(CarLengths.class).load(root);
-        InstanceManager.getDefault(CarOwners.class).load(root);
-        InstanceManager.getDefault(CarLoads.class).load(root);
-        InstanceManager.getDefault(CarManager.class).load(root);
-
         log.debug("Cars have been loaded!");
         InstanceManager.getDefault(RollingStockLogger.class).enableCarLogging(Setup.isCarLoggerEnabled());
         // clear dirty bit
@@ -33,6 +33,14 @@ public class EngineManagerXml extends OperationsXml implements InstanceManagerAu
         if (file == null) {
             file = new File(name);
         }
+        writeXML(file, createDocument());
+
+        // done - engine file now stored, so can't be dirty
+        setDirty(false);
+    }
+
+    @Override
+    protected Document createDocument() {
         // create root element
         Element root = new Element("operations-config"); // NOI18N
         Document doc = newDocument(root, dtdLocation + "operations-engines.dtd"); // NOI18N
@@ -48,11 +56,12 @@ public class EngineManagerXml extends OperationsXml implements InstanceManagerAu
         InstanceManager.getDefault(EngineTypes.class).store(root);
         InstanceManager.getDefault(EngineLengths.class).store(root);
         InstanceManager.getDefault(EngineManager.class).store(root);
+        return doc;
+    }
 
-        writeXML(file, doc);
-
-        // done - engine file now stored, so can't be dirty
-        setDirty(false);
+    @Override
+    protected String getListElementName() {
+        return Xml.ENGINES;
     }
 
     /**
@@ -61,23 +70,18 @@ public class EngineManagerXml extends OperationsXml implements InstanceManagerAu
      */
     @Override
     public void readFile(String name) throws org.jdom2.JDOMException, java.io.IOException {
-        // suppress rootFromName(name) warning message by checking to see if file exists
-        if (findFile(name) == null) {
-            log.debug("{} file could not be found", name);
-            return;
-        }
-        // find root
-        Element root = rootFromName(name);
+        // engines are registered as they are read, after the consists, models and so on they use
+        Element root = readFile(name, Xml.ENGINES, head -> {
+            InstanceManager.getDefault(EngineModels.class).load(head);
+            InstanceManager.getDefault(EngineTypes.class).load(head);
+            InstanceManager.getDefault(EngineLengths.class).load(head);
+            InstanceManager.getDefault(EngineManager.class).load(head);
+        }, engine -> InstanceManager.getDefault(EngineManager.class).register(new Engine(engine)));
         if (root == null) {
-            log.debug("{} file could not be read", name);
+            log.debug("{} file could not be found", name);
             return;
         }
 
-        InstanceManager.getDefault(EngineModels.class).load(root);
-        InstanceManager.getDefault(EngineTypes.class).load(root);
-        InstanceManager.getDefault(EngineLengths.class).load(root);
-        InstanceManager.getDefault(EngineManager.class).load(root);
-
         log.debug("Engines have been loaded!");
         InstanceManager.getDefault(RollingStockLogger.class).enableEngineLogging(Setup.isEngineLoggerEnabled());
         // clear dirty bit
@@ -220,6 +220,7 @@ public abstract class BackupBase {
     public void copyBackupSet(File sourceDir, File destDir) throws IOException {
         log.debug("copying backup set from: {} to: {}", sourceDir, destDir);
         log.info("Saving copy of operations files to: {}", destDir);
+        OperationsXml.waitForWrites(); // files being saved in the background
 
         if (!sourceDir.exists()) // This throws an exception, as the dir should
         // exist.
@@ -382,6 +383,7 @@ public abstract class BackupBase {
     @SuppressFBWarnings(value = "NP_NULL_ON_SOME_PATH_FROM_RETURN_VALUE",
             justification = "not possible")  // NOI18N
     public void deleteOperationsFiles() {
+        OperationsXml.waitForWrites(); // don't let a background save recreate a file
         // TODO Maybe this should also only delete specific files used by Operations,
         // and not just all XML files.
         File files = getOperationsRoot();
@@ -0,0 +1,276 @@
+package jmri.jmrit.operations.trains;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import jmri.InstanceManager;
+import jmri.jmrit.operations.locations.Location;
+import jmri.jmrit.operations.locations.Track;
+import jmri.jmrit.operations.locations.schedules.Schedule;
+import jmri.jmrit.operations.locations.schedules.ScheduleItem;
+import jmri.jmrit.operations.rollingstock.RollingStock;
+import jmri.jmrit.operations.rollingstock.cars.Car;
+import jmri.jmrit.operations.rollingstock.cars.CarManager;
+import jmri.jmrit.operations.rollingstock.engines.EngineManager;
+import jmri.jmrit.operations.routes.Route;
+import jmri.jmrit.operations.routes.RouteLocation;
+import jmri.jmrit.operations.setup.Setup;
+
+/**
+ * Builds a list of trains, building trains that can not affect each other at
+ * the same time.
+ * <p>
+ * Trains are put into groups before building. Two trains are in the same
+ * group if the locations they may use overlap: the locations in their routes,
+ * and the destinations of the cars and engines at those locations and of the
+ * schedules of the tracks there. A train that may use any location, because
+ * it has scripts or because the router may be asked to find a route for one
+ * of its cars, puts every train into one group. Each group is built in list order
+ * on its own thread, so the trains of a group see each other's results
+ * exactly as in a serial build, and trains in different groups share no
+ * locations, tracks or rolling stock.
+ * <p>
+ * Each train makes its random choices with its own generator, seeded from the
+ * seed given and the train's id, so a build can be repeated and the results
+ * don't depend on how the groups are scheduled.
+ * <p>
+ * The time taken to build each train, and the overall time, are kept for
+ * display.
+ */
+public class ParallelTrainBuilder {
+
+    private final long _seed;
+    private int _threads = Runtime.getRuntime().availableProcessors();
+    private final Map<Train, Long> _buildTimes = new LinkedHashMap<>();
+    private long _totalTime = 0;
+
+    /**
+     * @param seed seed for the random choices of the builds
+     */
+    public ParallelTrainBuilder(long seed) {
+        _seed = seed;
+    }
+
+    /**
+     * @param threads the most trains to build at once, 1 to build serially
+     */
+    public void setThreads(int threads) {
+        _threads = Math.max(1, threads);
+    }
+
+    /**
+     * Build the trains that are selected for building and not yet built.
+     *
+     * @param trains the trains, in the order they would be built serially
+     * @return true if every train built was built successfully
+     */
+    public boolean build(List<Train> trains) {
+        long start = System.nanoTime();
+        List<Train> selected = new ArrayList<>();
+        for (Train train : trains) {
+            if (train.isBuildEnabled() && !train.isBuilt()) {
+                selected.add(train);
+            } else {
+                log.debug("Train ({}) not selected or already built, skipping build", train.getName());
+            }
+        }
+        // wait for trains being built one at a time to finish
+        while (InstanceManager.getDefault(TrainManager.class).isAnyTrainBuilding()) {
+            try {
+                Thread.sleep(100); // 100 msec
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+        List<List<Train>> groups = getGroups(selected);
+        log.debug("Building {} trains in {} groups", selected.size(), groups.size());
+        synchronized (_buildTimes) {
+            _buildTimes.clear();
+        }
+        boolean results = true;
+        if (groups.size() == 1 || _threads == 1) {
+            for (List<Train> group : groups) {
+                results &= buildGroup(group);
+            }
+        } else {
+            ExecutorService executor = Executors.newFixedThreadPool(Math.min(_threads, groups.size()),
+                    jmri.util.ThreadingUtil::newThread);
+            try {
+                List<Future<Boolean>> futures = new ArrayList<>();
+                for (List<Train> group : groups) {
+                    futures.add(executor.submit(() -> buildGroup(group)));
+                }
+                for (Future<Boolean> future : futures) {
+                    try {
+                        results &= future.get();
+                    } catch (ExecutionException e) {
+                        log.error("Train build failed", e.getCause());
+                        results = false;
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                results = false;
+            } finally {
+                executor.shutdown();
+            }
+        }
+        _totalTime = (System.nanoTime() - start) / 1000000;
+        log.info("Built {} trains in {} msec", selected.size(), _totalTime);
+        return results;
+    }
+
+    private boolean buildGroup(List<Train> group) {
+        boolean results = true;
+        for (Train train : group) {
+            long start = System.nanoTime();
+            results &= train.build(new TrainBuilder(new Random(_seed * 31 + train.getId().hashCode())));
+            long time = (System.nanoTime() - start) / 1000000;
+            synchronized (_buildTimes) {
+                _buildTimes.put(train, time);
+            }
+            log.debug("Train ({}) build took {} msec", train.getName(), time);
+        }
+        return results;
+    }
+
+    /**
+     * @param train a train
+     * @return the time in milliseconds the last build of the train took, or
+     *         -1 if it was not built
+     */
+    public long getBuildTime(Train train) {
+        synchronized (_buildTimes) {
+            Long time = _buildTimes.get(train);
+            return time == null ? -1 : time;
+        }
+    }
+
+    /**
+     * @return the time in milliseconds the last call to build() took
+     */
+    public long getTotalTime() {
+        return _totalTime;
+    }
+
+    /**
+     * Split trains into groups that can be built at the same time.
+     *
+     * @param trains the trains, in build order
+     * @return the groups, each in build order
+     */
+    List<List<Train>> getGroups(List<Train> trains) {
+        // union-find over the trains, joining trains that share a location
+        int[] parent = new int[trains.size()];
+        Map<Location, Integer> owner = new HashMap<>();
+        boolean global = false;
+        for (int i = 0; i < trains.size(); i++) {
+            parent[i] = i;
+            Set<Location> locations = getLocations(trains.get(i));
+            if (locations == null) {
+                global = true;
+                continue;
+            }
+            for (Location location : locations) {
+                Integer other = owner.putIfAbsent(location, i);
+                if (other != null) {
+                    parent[find(parent, i)] = find(parent, other);
+                }
+            }
+        }
+        List<List<Train>> groups = new ArrayList<>();
+        if (global) {
+            if (!trains.isEmpty()) {
+                groups.add(new ArrayList<>(trains));
+            }
+            return groups;
+        }
+        Map<Integer, List<Train>> byRoot = new LinkedHashMap<>();
+        for (int i = 0; i < trains.size(); i++) {
+            byRoot.computeIfAbsent(find(parent, i), k -> new ArrayList<>()).add(trains.get(i));
+        }
+        groups.addAll(byRoot.values());
+        return groups;
+    }
+
+    private static int find(int[] parent, int i) {
+        while (parent[i] != i) {
+            parent[i] = parent[parent[i]];
+            i = parent[i];
+        }
+        return i;
+    }
+
+    /**
+     * Get the locations a train's build may read or change.
+     *
+     * @param train the train
+     * @return the locations, or null if the build may use any location
+     */
+    private Set<Location> getLocations(Train train) {
+        if (!train.getBuildScripts().isEmpty() || !train.getAfterBuildScripts().isEmpty()) {
+            return null;
+        }
+        Route route = train.getRoute();
+        if (route == null) {
+            return new HashSet<>();
+        }
+        Set<Location> routeLocations = new HashSet<>();
+        for (RouteLocation rl : route.getLocationsBySequenceList()) {
+            if (rl.getLocation() != null) {
+                routeLocations.add(rl.getLocation());
+            }
+        }
+        // the router may send cars through locations served by other trains,
+        // and reads the state of every train
+        boolean routing = Setup.isCarRoutingEnabled();
+        Set<Location> locations = new HashSet<>(routeLocations);
+        for (Location location : routeLocations) {
+            for (Car car : InstanceManager.getDefault(CarManager.class).getList(location)) {
+                if (routing && (car.getFinalDestination() != null || car.getReturnWhenEmptyDestination() != null)) {
+                    return null;
+                }
+                addLocation(locations, car.getDestination());
+                addLocation(locations, car.getFinalDestination());
+                addLocation(locations, car.getReturnWhenEmptyDestination());
+            }
+            for (RollingStock engine : InstanceManager.getDefault(EngineManager.class).getList(location)) {
+                addLocation(locations, engine.getDestination());
+            }
+            for (Track track : location.getTrackList()) {
+                Schedule schedule = track.getSchedule();
+                if (schedule != null) {
+                    for (ScheduleItem si : schedule.getItemsBySequenceList()) {
+                        if (routing && si.getDestination() != null) {
+                            return null;
+                        }
+                        addLocation(locations, si.getDestination());
+                    }
+                }
+            }
+        }
+        return locations;
+    }
+
+    private static void addLocation(Set<Location> locations, Location location) {
+        if (location != null) {
+            locations.add(location);
+        }
+    }
+
+    private final static Logger log = LoggerFactory.getLogger(ParallelTrainBuilder.class);
+}
@@ -2817,9 +2817,25 @@ public class Train extends PropertyChangeSupport implements Identifiable, Proper
                 log.error("Thread unexpectedly interrupted", e);
             }
         }
+        return runBuild(new TrainBuilder());
+    }
+
+    /**
+     * Build this train with the given builder, without waiting for other
+     * trains to finish building. Used by {@link ParallelTrainBuilder} for
+     * trains that share nothing with the others being built.
+     *
+     * @param tb the builder
+     * @return True if build successful.
+     */
+    synchronized boolean build(TrainBuilder tb) {
+        reset();
+        return runBuild(tb);
+    }
+
+    private boolean runBuild(TrainBuilder tb) {
         // run before build scripts
         runScripts(getBuildScripts());
-        TrainBuilder tb = new TrainBuilder();
         boolean results = tb.build(this);
         setPrinted(false);
         setSwitchListStatus(UNKNOWN);
@@ -78,7 +78,38 @@ public class TrainBuilder extends TrainCommon {
     TrainManager trainManager = InstanceManager.getDefault(TrainManager.class);
     TrainScheduleManager trainScheduleManager = InstanceManager.getDefault(TrainScheduleManager.class);
     CarLoads carLoads = InstanceManager.getDefault(CarLoads.class);
-    Router router = InstanceManager.getDefault(Router.class);
+    // not the shared Router: it keeps the state of the car being routed, and
+    // trains may be built at the same time
+    Router router = new Router();
+
+    // random numbers for the build running on this thread, null for Math.random()
+    private static final ThreadLocal<Random> buildRandom = new ThreadLocal<>();
+    private final Random _random;
+
+    public TrainBuilder() {
+        _random = null;
+    }
+
+    /**
+     * Create a builder that makes its random choices with the given
+     * generator, so that a build can be repeated.
+     *
+     * @param random the generator to use
+     */
+    public TrainBuilder(Random random) {
+        _random = random;
+    }
+
+    /**
+     * Get a random number for the build running on this thread. Used instead
+     * of Math.random() for all random choices made during a build.
+     *
+     * @return a number from 0 up to but not including 1
+     */
+    public static double random() {
+        Random random = buildRandom.get();
+        return random == null ? Math.random() : random.nextDouble();
+    }
 
     /**
      * Build rules:
@@ -101,12 +132,17 @@ public class TrainBuilder extends TrainCommon {
      */
     public boolean build(Train train) {
         this._train = train;
+        if (_random != null) {
+            buildRandom.set(_random);
+        }
         try {
             build();
             return true;
         } catch (BuildFailedException e) {
             buildFailed(e);
             return false;
+        } finally {
+            buildRandom.remove();
         }
     }
 
@@ -514,7 +550,7 @@ public class TrainBuilder extends TrainCommon {
                 try {
                     int value = Integer.parseInt(rl.getRandomControl());
                     // now adjust the number of available moves for this location
-                    double random = Math.random();
+                    double random = random();
                     log.debug("random {}", random);
                     int moves = (int) (random * ((rl.getMaxCarMoves() * value / 100) + 1));
                     log.debug("Reducing number of moves for location ({}) by {}", rl.getName(), moves);
@@ -3451,7 +3487,7 @@ public class TrainBuilder extends TrainCommon {
             log.debug("Found {} staging tracks", tracks.size());
             while (tracks.size() > 0) {
                 // pick a track randomly
-                int rnd = (int) (Math.random() * tracks.size());
+                int rnd = (int) (random() * tracks.size());
                 Track track = tracks.get(rnd);
                 tracks.remove(track);
                 log.debug("Staging track ({}, {})", track.getLocation().getName(), track.getName());
@@ -3647,7 +3683,7 @@ public class TrainBuilder extends TrainCommon {
         }
         while (tracks.size() > 0) {
             // pick a track randomly
-            int rnd = (int) (Math.random() * tracks.size());
+            int rnd = (int) (random() * tracks.size());
             Track track = tracks.get(rnd);
             tracks.remove(track);
             log.debug("Try staging track ({}, {})", track.getLocation().getName(), track.getName());
@@ -3828,7 +3864,7 @@ public class TrainBuilder extends TrainCommon {
         if (!si.getRandom().equals(ScheduleItem.NONE)) {
             try {
                 int value = Integer.parseInt(si.getRandom());
-                double random = 100 * Math.random();
+                double random = 100 * random();
                 log.debug("Selected random {}, created random {}", si.getRandom(), random);
                 if (random > value) {
                     addLine(_buildReport, SEVEN, MessageFormat.format(Bundle.getMessage("buildScheduleRandom"),
@@ -4869,7 +4905,7 @@ public class TrainBuilder extends TrainCommon {
         // Use random loads rather that the first one that works to create interesting loads
         if (loads.size() > 0) {
             String oldLoad = car.getLoadName(); // save load in case we fail
-            int rnd = (int) (Math.random() * loads.size());
+            int rnd = (int) (random() * loads.size());
             car.setLoadName(loads.get(rnd));
             // check to see if car is now accepted by staging
             String status = car.testDestination(stageTrack.getLocation(), stageTrack); // will staging accept this car?
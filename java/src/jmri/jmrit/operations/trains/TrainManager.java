@@ -8,6 +8,7 @@ import java.util.ArrayList;
 import java.util.Enumeration;
 import java.util.Hashtable;
 import java.util.List;
+import java.util.Random;
 
 import javax.swing.JComboBox;
 import javax.swing.JOptionPane;
@@ -52,6 +53,7 @@ public class TrainManager extends PropertyChangeSupport implements InstanceManag
     private boolean _printPreview = false; // when true, preview train manifest
     private boolean _openFile = false; // when true, open CSV file manifest
     private boolean _runFile = false; // when true, run CSV file manifest
+    private Long _buildSeed = null; // when not null, seed for building selected trains
     
     // Conductor attributes
     private boolean _showLocationHyphenName = false;
@@ -120,6 +122,25 @@ public class TrainManager extends PropertyChangeSupport implements InstanceManag
         setDirtyAndFirePropertyChange("BuildReportEnabled", enable, old); // NOI18N
     }
 
+    /**
+     * Set the seed for the random choices made when building the selected
+     * trains, so that a build can be repeated. Not saved.
+     *
+     * @param seed the seed, or null to use a new seed for every build
+     */
+    public void setBuildSeed(Long seed) {
+        _buildSeed = seed;
+    }
+
+    /**
+     *
+     * @return the seed for building selected trains, or null if a new seed is
+     *         used for every build
+     */
+    public Long getBuildSeed() {
+        return _buildSeed;
+    }
+
     /**
      *
      * @return true if open file is enabled
@@ -932,13 +953,13 @@ public class TrainManager extends PropertyChangeSupport implements InstanceManag
     }
 
     public void buildSelectedTrains(List<Train> trains) {
+        long seed = _buildSeed != null ? _buildSeed : new Random().nextLong();
+        log.debug("Building selected trains with seed {}", seed);
         // use a thread to allow table updates during build
         Thread build = jmri.util.ThreadingUtil.newThread(new Runnable() {
             @Override
             public void run() {
-                for (Train train : trains) {
-                    train.buildIfSelected();
-                }
+                new ParallelTrainBuilder(seed).build(trains);
                 setDirtyAndFirePropertyChange(TRAINS_BUILT_CHANGED_PROPERTY, false, true);
             }
         });
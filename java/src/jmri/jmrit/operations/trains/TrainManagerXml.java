@@ -59,6 +59,14 @@ public class TrainManagerXml extends OperationsXml implements InstanceManagerAut
         if (file == null) {
             file = new File(name);
         }
+        writeXML(file, createDocument());
+
+        // done - train file now stored, so can't be dirty
+        setDirty(false);
+    }
+
+    @Override
+    protected Document createDocument() {
         // create root element
         Element root = new Element("operations-config"); // NOI18N
         Document doc = newDocument(root, dtdLocation + "operations-trains.dtd"); // NOI18N
@@ -73,11 +81,12 @@ public class TrainManagerXml extends OperationsXml implements InstanceManagerAut
         InstanceManager.getDefault(TrainManager.class).store(root);
         InstanceManager.getDefault(TrainScheduleManager.class).store(root);
         InstanceManager.getDefault(AutomationManager.class).store(root);
+        return doc;
+    }
 
-        writeXML(file, doc);
-
-        // done - train file now stored, so can't be dirty
-        setDirty(false);
+    @Override
+    protected String getListElementName() {
+        return Xml.TRAINS;
     }
 
     /**
@@ -87,20 +96,16 @@ public class TrainManagerXml extends OperationsXml implements InstanceManagerAut
     @Override
     public void readFile(String name) throws org.jdom2.JDOMException, java.io.IOException {
 
-        // suppress rootFromName(name) warning message by checking to see if file exists
-        if (findFile(name) == null) {
+        // trains are registered as they are read, after the train options
+        Element root = readFile(name, Xml.TRAINS,
+                head -> InstanceManager.getDefault(TrainManager.class).load(head),
+                train -> InstanceManager.getDefault(TrainManager.class).register(new Train(train)));
+        if (root == null) {
             log.debug("{} file could not be found", name);
             fileLoaded = true; // set flag, could be the first time
             return;
         }
-        // find root
-        Element root = rootFromName(name);
-        if (root == null) {
-            log.debug("{} file could not be read", name);
-            return;
-        }
 
-        InstanceManager.getDefault(TrainManager.class).load(root);
         InstanceManager.getDefault(TrainScheduleManager.class).load(root);
 
         fileLoaded = true; // set flag trains are loaded
@@ -2,6 +2,8 @@ package jmri.jmrit.roster;
 
 import java.io.File;
 import java.io.IOException;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
 import java.util.HashMap;
 import java.util.List;
 import jmri.jmrit.XmlFile;
@@ -97,6 +99,7 @@ public class LocoFile extends XmlFile {
                 }
                 cvObject.setValue(Integer.parseInt(value));
                 cvObject.setState(CvValue.FROMFILE);
+                loadLastAccess(element, cvObject);
             }
         } else {
             log.error("no values element found in config file; CVs not configured for ID=\"{}\"", rosterName);
@@ -111,6 +114,19 @@ public class LocoFile extends XmlFile {
         }
     }
 
+    private static void loadLastAccess(Element element, CvValue cvObject) {
+        Instant time = null;
+        String access = element.getAttributeValue("lastAccess");
+        if (access != null) {
+            try {
+                time = Instant.parse(access);
+            } catch (DateTimeParseException ex) {
+                log.warn("Ignoring unreadable lastAccess \"{}\" of CV {}", access, cvObject.number());
+            }
+        }
+        cvObject.setLastAccess(time, element.getAttributeValue("programmer"));
+    }
+
     /**
      * Load a VariableTableModel from the locomotive element in the File
      *
@@ -251,10 +267,18 @@ public class LocoFile extends XmlFile {
             // add the CV values to the values Element
             if (cvModel != null) {
                 for (int i = 0; i < cvModel.getRowCount(); i++) {
-                    values.addContent(new Element("CVvalue")
+                    Element cv = new Element("CVvalue")
                             .setAttribute("name", cvModel.getName(i))
-                            .setAttribute("value", cvModel.getValString(i))
-                    );
+                            .setAttribute("value", cvModel.getValString(i));
+                    // provenance, used to skip CVs known to match the decoder
+                    CvValue cvObject = cvModel.getCvByRow(i);
+                    if (cvObject.getLastAccess() != null) {
+                        cv.setAttribute("lastAccess", cvObject.getLastAccess().toString());
+                    }
+                    if (cvObject.getLastProgrammer() != null) {
+                        cv.setAttribute("programmer", cvObject.getLastProgrammer());
+                    }
+                    values.addContent(cv);
                 }
             }
 
@@ -8,6 +8,7 @@ import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
@@ -76,6 +77,13 @@ public class Roster extends XmlFile implements RosterGroupSelector, PropertyChan
      * List of contained {@link RosterEntry} elements.
      */
     private final List<RosterEntry> _list = new ArrayList<>();
+    // secondary indexes of _list, guarded by _list
+    private final RosterIndex index = new RosterIndex();
+
+    /**
+     * The order of entries in the roster.
+     */
+    static final Comparator<RosterEntry> ID_ORDER = (RosterEntry o1, RosterEntry o2) -> o1.getId().compareToIgnoreCase(o2.getId());
     private boolean dirty = false;
     /*
      * This should always be a real path, changes in the UserFiles location are
@@ -222,6 +230,7 @@ public class Roster extends XmlFile implements RosterGroupSelector, PropertyChan
                 i--;
             }
             _list.add(i + 1, e);
+            index.update(e);
         }
         e.addPropertyChangeListener(this);
         this.addRosterGroups(e.getGroups(this));
@@ -239,6 +248,7 @@ public class Roster extends XmlFile implements RosterGroupSelector, PropertyChan
         log.debug("Remove entry {}", e);
         synchronized (_list) {
             _list.remove(e);
+            index.remove(e);
         }
         e.removePropertyChangeListener(this);
         setDirty(true);
@@ -279,7 +289,8 @@ public class Roster extends XmlFile implements RosterGroupSelector, PropertyChan
      */
     public RosterEntry entryFromTitle(String title) {
         synchronized (_list) {
-            for (RosterEntry re : _list) {
+            // the title of an entry is its id
+            for (RosterEntry re : index.getById(title)) {
                 if (re.titleString().equals(title)) {
                     return re;
                 }
@@ -296,7 +307,7 @@ public class Roster extends XmlFile implements RosterGroupSelector, PropertyChan
      */
     public RosterEntry getEntryForId(String id) {
         synchronized (_list) {
-            for (RosterEntry re : _list) {
+            for (RosterEntry re : index.getById(id)) {
                 if (re.getId().equals(id)) {
                     return re;
                 }
@@ -313,11 +324,12 @@ public class Roster extends XmlFile implements RosterGroupSelector, PropertyChan
      */
     @Nonnull
     public List<RosterEntry> getEntriesByDccAddress(String a) {
-        return findMatchingEntries(
-                (RosterEntry r) -> {
-                    return r.getDccAddress().equals(a);
-                }
-        );
+        List<RosterEntry> l;
+        synchronized (_list) {
+            l = index.getByDccAddress(a);
+        }
+        l.removeIf((RosterEntry r) -> !r.getDccAddress().equals(a));
+        return l;
     }
 
     /**
@@ -412,36 +424,30 @@ public class Roster extends XmlFile implements RosterGroupSelector, PropertyChan
     }
 
     public List<RosterEntry> getEntriesWithAttributeKey(String key) {
-        ArrayList<RosterEntry> result = new ArrayList<>();
+        List<RosterEntry> result;
         synchronized (_list) {
-            _list.stream().filter((r) -> (r.getAttribute(key) != null)).forEachOrdered((r) -> {
-                result.add(r);
-            });
+            result = index.getByAttribute(key);
         }
+        result.removeIf((r) -> (r.getAttribute(key) == null));
         return result;
     }
 
     public List<RosterEntry> getEntriesWithAttributeKeyValue(String key, String value) {
-        ArrayList<RosterEntry> result = new ArrayList<>();
+        List<RosterEntry> result;
         synchronized (_list) {
-            _list.stream().forEach((r) -> {
-                String v = r.getAttribute(key);
-                if (v != null && v.equals(value)) {
-                    result.add(r);
-                }
-            });
+            result = index.getByAttribute(key, value);
         }
+        result.removeIf((r) -> {
+            String v = r.getAttribute(key);
+            return v == null || !v.equals(value);
+        });
         return result;
     }
 
     public Set<String> getAllAttributeKeys() {
-        Set<String> result = new TreeSet<>();
         synchronized (_list) {
-            _list.stream().forEach((r) -> {
-                result.addAll(r.getAttributes());
-            });
+            return new TreeSet<>(index.getAttributeKeys());
         }
-        return result;
     }
 
     public List<RosterEntry> getEntriesInGroup(String group) {
@@ -492,6 +498,16 @@ public class Roster extends XmlFile implements RosterGroupSelector, PropertyChan
     @Nonnull
     public List<RosterEntry> getEntriesMatchingCriteria(String roadName, String roadNumber, String dccAddress,
             String mfg, String decoderModel, String decoderFamily, String id, String group) {
+        List<RosterEntry> l;
+        synchronized (_list) {
+            l = index.getCandidates(roadName, roadNumber, dccAddress, id, group);
+        }
+        if (l != null) {
+            l.removeIf((RosterEntry r) -> !checkEntry(r, roadName, roadNumber, dccAddress,
+                    mfg, decoderModel, decoderFamily,
+                    id, group));
+            return l;
+        }
         return findMatchingEntries(
                 (RosterEntry r) -> {
                     return checkEntry(r, roadName, roadNumber, dccAddress,
@@ -852,39 +868,7 @@ public class Roster extends XmlFile implements RosterGroupSelector, PropertyChan
             //Scan the object to check the Comment and Decoder Comment fields for
             //any <?p?> processor directives and change them to back \n characters
             synchronized (_list) {
-                _list.stream().map((entry) -> {
-                    //Extract the Comment field and create a new string for output
-                    String tempComment = entry.getComment();
-                    StringBuilder xmlComment = new StringBuilder();
-                    //transfer tempComment to xmlComment one character at a time, except
-                    //when <?p?> is found.  In that case, insert a \n and skip over those
-                    //characters in tempComment.
-                    for (int k = 0; k < tempComment.length(); k++) {
-                        if (tempComment.startsWith("<?p?>", k)) { // NOI18N
-                            xmlComment.append("\n"); // NOI18N
-                            k = k + 4;
-                        } else {
-                            xmlComment.append(tempComment.substring(k, k + 1));
-                        }
-                    }
-                    entry.setComment(xmlComment.toString());
-                    return entry;
-                }).forEachOrdered((r) -> {
-                    //Now do the same thing for the decoderComment field
-                    String tempDecoderComment = r.getDecoderComment();
-                    StringBuilder xmlDecoderComment = new StringBuilder();
-
-                    for (int k = 0; k < tempDecoderComment.length(); k++) {
-                        if (tempDecoderComment.startsWith("<?p?>", k)) { // NOI18N
-                            xmlDecoderComment.append("\n"); // NOI18N
-                            k = k + 4;
-                        } else {
-                            xmlDecoderComment.append(tempDecoderComment.substring(k, k + 1));
-                        }
-                    }
-
-                    r.setDecoderComment(xmlDecoderComment.toString());
-                });
+                _list.forEach(Roster::restoreLineBreaks);
             }
         } else {
             log.error("Unrecognized roster file contents in file: {}", name);
@@ -897,6 +881,34 @@ public class Roster extends XmlFile implements RosterGroupSelector, PropertyChan
         }
     }
 
+    /**
+     * Change any {@literal <?p?>} processor directives in the Comment and
+     * Decoder Comment fields of an entry read from a file back to \n
+     * characters.
+     *
+     * @param entry the entry
+     */
+    private static void restoreLineBreaks(RosterEntry entry) {
+        entry.setComment(restoreLineBreaks(entry.getComment()));
+        entry.setDecoderComment(restoreLineBreaks(entry.getDecoderComment()));
+    }
+
+    private static String restoreLineBreaks(String xmlComment) {
+        StringBuilder comment = new StringBuilder();
+        //transfer xmlComment to comment one character at a time, except
+        //when <?p?> is found.  In that case, insert a \n and skip over those
+        //characters in xmlComment.
+        for (int k = 0; k < xmlComment.length(); k++) {
+            if (xmlComment.startsWith("<?p?>", k)) { // NOI18N
+                comment.append("\n"); // NOI18N
+                k = k + 4;
+            } else {
+                comment.append(xmlComment.substring(k, k + 1));
+            }
+        }
+        return comment.toString();
+    }
+
     void setDirty(boolean b) {
         dirty = b;
     }
@@ -976,6 +988,7 @@ public class Roster extends XmlFile implements RosterGroupSelector, PropertyChan
         synchronized (_list) {
 
             _list.clear();
+            index.clear();
         }
         this.rosterGroups.clear();
         // and read new
@@ -1096,7 +1109,10 @@ public class Roster extends XmlFile implements RosterGroupSelector, PropertyChan
     public void entryIdChanged(RosterEntry r) {
         log.debug("EntryIdChanged");
         synchronized (_list) {
-            Collections.sort(_list, (RosterEntry o1, RosterEntry o2) -> o1.getId().compareToIgnoreCase(o2.getId()));
+            Collections.sort(_list, ID_ORDER);
+            if (index.contains(r)) {
+                index.update(r);
+            }
         }
         firePropertyChange(CHANGE, null, r);
     }
@@ -1380,8 +1396,19 @@ public class Roster extends XmlFile implements RosterGroupSelector, PropertyChan
     @Override
     public void propertyChange(PropertyChangeEvent evt) {
         if (evt.getSource() instanceof RosterEntry) {
-            if (evt.getPropertyName().equals(RosterEntry.ID)) {
-                this.entryIdChanged((RosterEntry) evt.getSource());
+            RosterEntry r = (RosterEntry) evt.getSource();
+            String property = evt.getPropertyName();
+            if (property.equals(RosterEntry.ID)) {
+                this.entryIdChanged(r);
+            } else if (property.equals(RosterEntry.DCC_ADDRESS)
+                    || property.equals(RosterEntry.ROADNAME) // also fired for the road number
+                    || property.equals(RosterEntry.ATTRIBUTE_DELETED)
+                    || property.startsWith(RosterEntry.ATTRIBUTE_UPDATED)) {
+                synchronized (_list) {
+                    if (index.contains(r)) {
+                        index.update(r);
+                    }
+                }
             }
         }
     }
@@ -0,0 +1,268 @@
+package jmri.jmrit.roster;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import javax.annotation.CheckForNull;
+import javax.annotation.Nonnull;
+
+/**
+ * Secondary indexes of the entries in a {@link Roster}.
+ * <p>
+ * Entries are indexed by id, DCC address, road name, road number and
+ * attribute. The index keeps a copy of the values each entry was indexed
+ * under, so an entry can be moved to its new keys when the Roster sees a
+ * property change from it.
+ * <p>
+ * Lookups return candidates in roster order. Callers should still check each
+ * candidate, as an entry may have been changed without a property change.
+ * <p>
+ * This class is not thread safe; the Roster accesses it while holding the
+ * lock on its list of entries.
+ */
+class RosterIndex {
+
+    private final Map<RosterEntry, Keys> keys = new IdentityHashMap<>();
+    private final Map<String, Set<RosterEntry>> byId = new HashMap<>();
+    private final Map<String, Set<RosterEntry>> byAddress = new HashMap<>();
+    private final Map<String, Set<RosterEntry>> byRoadName = new HashMap<>();
+    private final Map<String, Set<RosterEntry>> byRoadNumber = new HashMap<>();
+    private final Map<String, Map<String, Set<RosterEntry>>> byAttribute = new TreeMap<>();
+    private long added = 0;
+
+    // Roster.addEntry() puts an entry before any others with the same id
+    private final Comparator<RosterEntry> order = Roster.ID_ORDER.thenComparing(
+            (RosterEntry e) -> keys.get(e).sequence, Comparator.reverseOrder());
+
+    /**
+     * Add an entry, or move it to its current keys if already present.
+     *
+     * @param entry the entry
+     */
+    void update(@Nonnull RosterEntry entry) {
+        Keys old = keys.get(entry);
+        Keys current = new Keys(entry, old != null ? old.sequence : added++);
+        keys.put(entry, current);
+        if (old != null) {
+            if (old.equals(current)) {
+                return;
+            }
+            old.remove(entry);
+        }
+        current.add(entry);
+    }
+
+    /**
+     * Remove an entry.
+     *
+     * @param entry the entry
+     */
+    void remove(@Nonnull RosterEntry entry) {
+        Keys old = keys.remove(entry);
+        if (old != null) {
+            old.remove(entry);
+        }
+    }
+
+    /**
+     * @param entry the entry
+     * @return true if the entry is indexed
+     */
+    boolean contains(@Nonnull RosterEntry entry) {
+        return keys.containsKey(entry);
+    }
+
+    void clear() {
+        keys.clear();
+        byId.clear();
+        byAddress.clear();
+        byRoadName.clear();
+        byRoadNumber.clear();
+        byAttribute.clear();
+    }
+
+    @Nonnull
+    List<RosterEntry> getById(@CheckForNull String id) {
+        return sorted(byId.get(id));
+    }
+
+    @Nonnull
+    List<RosterEntry> getByDccAddress(@CheckForNull String address) {
+        return sorted(byAddress.get(address));
+    }
+
+    /**
+     * Get the entries with an attribute, whatever its value.
+     *
+     * @param key the attribute key
+     * @return the candidates, in roster order
+     */
+    @Nonnull
+    List<RosterEntry> getByAttribute(@CheckForNull String key) {
+        Map<String, Set<RosterEntry>> values = key != null ? byAttribute.get(key) : null;
+        if (values == null) {
+            return new ArrayList<>();
+        }
+        List<RosterEntry> result = new ArrayList<>();
+        values.values().forEach(result::addAll);
+        result.sort(order);
+        return result;
+    }
+
+    @Nonnull
+    List<RosterEntry> getByAttribute(@CheckForNull String key, @CheckForNull String value) {
+        Map<String, Set<RosterEntry>> values = key != null ? byAttribute.get(key) : null;
+        return sorted(values != null ? values.get(value) : null);
+    }
+
+    /**
+     * @return the attribute keys of all entries, in order
+     */
+    @Nonnull
+    Set<String> getAttributeKeys() {
+        return byAttribute.keySet();
+    }
+
+    /**
+     * Get the smallest group of candidates for a query. Null arguments match
+     * anything, as for
+     * {@link Roster#checkEntry(RosterEntry, String, String, String, String, String, String, String, String)}.
+     *
+     * @param roadName   road name or null
+     * @param roadNumber road number or null
+     * @param dccAddress address or null
+     * @param id         id or null
+     * @param group      roster group or null for all entries
+     * @return the candidates in roster order, or null if no argument can be
+     *         looked up and every entry is a candidate
+     */
+    @CheckForNull
+    List<RosterEntry> getCandidates(@CheckForNull String roadName, @CheckForNull String roadNumber,
+            @CheckForNull String dccAddress, @CheckForNull String id, @CheckForNull String group) {
+        Collection<RosterEntry> best = null;
+        if (id != null) {
+            best = smaller(best, byId.get(id));
+        }
+        if (roadName != null) {
+            best = smaller(best, byRoadName.get(roadName));
+        }
+        if (roadNumber != null) {
+            best = smaller(best, byRoadNumber.get(roadNumber));
+        }
+        if (dccAddress != null) {
+            best = smaller(best, byAddress.get(dccAddress));
+        }
+        if (group != null && !group.equals(Roster.ALLENTRIES)) {
+            Map<String, Set<RosterEntry>> values = byAttribute.get(Roster.getRosterGroupProperty(group));
+            best = smaller(best, values != null ? values.get("yes") : null); // NOI18N
+        }
+        return best != null ? sorted(best) : null;
+    }
+
+    private static Collection<RosterEntry> smaller(Collection<RosterEntry> best, Set<RosterEntry> group) {
+        Collection<RosterEntry> candidates = group != null ? group : Collections.emptySet();
+        return (best == null || candidates.size() < best.size()) ? candidates : best;
+    }
+
+    private List<RosterEntry> sorted(Collection<RosterEntry> group) {
+        if (group == null) {
+            return new ArrayList<>();
+        }
+        List<RosterEntry> result = new ArrayList<>(group);
+        result.sort(order);
+        return result;
+    }
+
+    private static void add(Map<String, Set<RosterEntry>> map, String key, RosterEntry entry) {
+        if (key != null) {
+            map.computeIfAbsent(key, k -> new LinkedHashSet<>()).add(entry);
+        }
+    }
+
+    private static void remove(Map<String, Set<RosterEntry>> map, String key, RosterEntry entry) {
+        Set<RosterEntry> group = map.get(key);
+        if (group != null) {
+            group.remove(entry);
+            if (group.isEmpty()) {
+                map.remove(key);
+            }
+        }
+    }
+
+    /**
+     * The values an entry is indexed under.
+     */
+    private final class Keys {
+
+        private final long sequence;
+        private final String id;
+        private final String address;
+        private final String roadName;
+        private final String roadNumber;
+        private final Map<String, String> attributes = new HashMap<>();
+
+        Keys(RosterEntry entry, long sequence) {
+            this.sequence = sequence;
+            id = entry.getId();
+            address = entry.getDccAddress();
+            roadName = entry.getRoadName();
+            roadNumber = entry.getRoadNumber();
+            for (String key : entry.getAttributes()) {
+                attributes.put(key, entry.getAttribute(key));
+            }
+        }
+
+        void add(RosterEntry entry) {
+            RosterIndex.add(byId, id, entry);
+            RosterIndex.add(byAddress, address, entry);
+            RosterIndex.add(byRoadName, roadName, entry);
+            RosterIndex.add(byRoadNumber, roadNumber, entry);
+            attributes.forEach((key, value) -> {
+                RosterIndex.add(byAttribute.computeIfAbsent(key, k -> new TreeMap<>()), value, entry);
+            });
+        }
+
+        void remove(RosterEntry entry) {
+            RosterIndex.remove(byId, id, entry);
+            RosterIndex.remove(byAddress, address, entry);
+            RosterIndex.remove(byRoadName, roadName, entry);
+            RosterIndex.remove(byRoadNumber, roadNumber, entry);
+            attributes.forEach((key, value) -> {
+                Map<String, Set<RosterEntry>> values = byAttribute.get(key);
+                if (values != null) {
+                    RosterIndex.remove(values, value, entry);
+                    if (values.isEmpty()) {
+                        byAttribute.remove(key);
+                    }
+                }
+            });
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Keys)) {
+                return false;
+            }
+            Keys k = (Keys) o;
+            return Objects.equals(id, k.id)
+                    && Objects.equals(address, k.address)
+                    && Objects.equals(roadName, k.roadName)
+                    && Objects.equals(roadNumber, k.roadNumber)
+                    && attributes.equals(k.attributes);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(id, address, roadName, roadNumber);
+        }
+    }
+}
@@ -4,12 +4,21 @@ import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import java.beans.PropertyChangeEvent;
 import java.beans.PropertyChangeListener;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.Vector;
 import javax.swing.JButton;
 import javax.swing.JLabel;
 import javax.swing.JTextField;
 import jmri.Programmer;
+import jmri.implementation.MultiIndexProgrammerFacade;
+import jmri.jmrix.AbstractProgrammerFacade;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -353,6 +362,70 @@ public class CvTableModel extends javax.swing.table.AbstractTableModel implement
         return false;
     }
 
+    /**
+     * Select the CVs a verify operation has to read, in the order to read
+     * them.
+     * <p>
+     * A CV is read if its state is UNKNOWN, if there's no record of it being
+     * accessed in the decoder, if it's marked stale, or if it's an index CV
+     * that is overwritten when accessing indexed CVs. Values edited but not
+     * yet written are left alone, as are CVs that can't be read.
+     * <p>
+     * CVs reached through the same index CV values are kept together, direct
+     * CVs first, so that a {@link MultiIndexProgrammerFacade} can skip
+     * rewriting the index CVs between them.
+     *
+     * @param cvs the CVs to check, in the order they'd otherwise be read
+     * @return the CVs to read
+     */
+    public List<CvValue> getCvsToVerify(Collection<CvValue> cvs) {
+        MultiIndexProgrammerFacade facade = getIndexFacade();
+        Map<CvValue, String> pages = new HashMap<>();
+        Set<String> indexCvs = new HashSet<>();
+        for (CvValue cv : cvs) {
+            String[] writes = new String[0];
+            if (facade != null) {
+                try {
+                    writes = facade.getIndexWrites(cv.number());
+                } catch (NumberFormatException ex) {
+                    log.debug("CV {} not in index form", cv.number());
+                }
+            }
+            for (String write : writes) {
+                indexCvs.add(write.substring(0, write.indexOf('=')));
+            }
+            pages.put(cv, String.join(",", writes));
+        }
+
+        // group by page in order of first use, the direct CVs first
+        Map<String, List<CvValue>> byPage = new LinkedHashMap<>();
+        byPage.put("", new ArrayList<>());
+        Set<CvValue> seen = new HashSet<>();
+        for (CvValue cv : cvs) {
+            if (!seen.add(cv) || cv.getInfoOnly() || cv.getWriteOnly() || cv.getState() == CvValue.EDITED) {
+                continue;
+            }
+            if (cv.getState() == CvValue.UNKNOWN || cv.getLastAccess() == null || cv.isStale()
+                    || indexCvs.contains(cv.number())) {
+                byPage.computeIfAbsent(pages.get(cv), k -> new ArrayList<>()).add(cv);
+            }
+        }
+        List<CvValue> result = new ArrayList<>();
+        byPage.values().forEach(result::addAll);
+        return result;
+    }
+
+    private MultiIndexProgrammerFacade getIndexFacade() {
+        Programmer p = mProgrammer;
+        while (p instanceof AbstractProgrammerFacade) {
+            if (p instanceof MultiIndexProgrammerFacade) {
+                return (MultiIndexProgrammerFacade) p;
+            }
+            p = ((AbstractProgrammerFacade) p).getProgrammer();
+        }
+        return null;
+    }
+
     public void dispose() {
         if (log.isDebugEnabled()) {
             log.debug("dispose");
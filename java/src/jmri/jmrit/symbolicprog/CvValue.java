@@ -1,8 +1,10 @@
 package jmri.jmrit.symbolicprog;
 
 import java.awt.Color;
+import java.time.Instant;
 import javax.swing.JLabel;
 import javax.swing.JTextField;
+import jmri.AddressedProgrammer;
 import jmri.ProgListener;
 import jmri.Programmer;
 import org.slf4j.Logger;
@@ -89,12 +91,14 @@ public class CvValue extends AbstractValue implements ProgListener {
      * Edit a new value into the CV.
      * <p>
      * Only use this for external edits, e.g. set form a GUI.
-     * Not for internal uses, as it sets the state to EDITED.
+     * Not for internal uses, as it sets the state to EDITED and forgets
+     * when the value was last accessed in the decoder.
      * @param value new CV value.
      */
     public void setValue(int value) {
         log.debug("CV {} value changed from {} to {}", number(), _value, value); // NOI18N
 
+        setLastAccess(null, null);
         setState(EDITED);
         if (_value != value) {
             _value = value;
@@ -188,6 +192,76 @@ public class CvValue extends AbstractValue implements ProgListener {
 
     private int _state = 0;
 
+    /**
+     * Get when this CV's value was last read from, written to or confirmed
+     * against the decoder.
+     *
+     * @return the time, or null if not known
+     */
+    public Instant getLastAccess() {
+        return _lastAccess;
+    }
+
+    /**
+     * Get a description of the programmer that last read, wrote or confirmed
+     * this CV's value, typically the programming mode and, for an ops mode
+     * programmer, the decoder address.
+     *
+     * @return the description, or null if not known
+     */
+    public String getLastProgrammer() {
+        return _lastProgrammer;
+    }
+
+    /**
+     * Set the provenance of the value, e.g. when it's loaded from a roster
+     * entry.
+     *
+     * @param time       when the value was last known to match the decoder;
+     *                   null if unknown
+     * @param programmer the programmer that accessed it; null if unknown
+     */
+    public void setLastAccess(Instant time, String programmer) {
+        _lastAccess = time;
+        _lastProgrammer = programmer;
+    }
+
+    /**
+     * Check whether the value may no longer match the decoder, e.g. after a
+     * failed write or a compare that found a different value. A stale value is
+     * read again by a verify operation.
+     *
+     * @return true if marked stale
+     */
+    public boolean isStale() {
+        return _stale;
+    }
+
+    public void setStale(boolean stale) {
+        _stale = stale;
+    }
+
+    private void recordAccess() {
+        _lastAccess = Instant.now();
+        _lastProgrammer = describe(mProgrammer);
+        _stale = false;
+    }
+
+    static String describe(Programmer p) {
+        if (p == null) {
+            return null;
+        }
+        String mode = p.getMode() != null ? p.getMode().getStandardName() : "";
+        if (p instanceof AddressedProgrammer) {
+            return mode + " " + ((AddressedProgrammer) p).getAddressNumber();
+        }
+        return mode;
+    }
+
+    private Instant _lastAccess = null;
+    private String _lastProgrammer = null;
+    private boolean _stale = false;
+
     // read, write operations
     public boolean isBusy() {
         return _busy;
@@ -467,6 +541,7 @@ public class CvValue extends AbstractValue implements ProgListener {
                 _value = value;
                 _tableEntry.setText(Integer.toString(value));
                 notifyValueChange(value);
+                recordAccess();
                 setState(READ);
                 log.debug("CV setting not busy on end read"); // NOI18N
                 _busy = false;
@@ -476,13 +551,16 @@ public class CvValue extends AbstractValue implements ProgListener {
                 _decoderValue = value;
                 // does the decoder value match the file value
                 if (value == _value) {
+                    recordAccess();
                     setState(SAME);
                 } else {
+                    _stale = true;
                     setState(DIFF);
                 }
                 _busy = false;
                 notifyBusyChange(oldBusy, _busy);
             } else {  // writing
+                recordAccess();
                 setState(STORED);
                 _busy = false;
                 notifyBusyChange(oldBusy, _busy);
@@ -511,6 +589,7 @@ public class CvValue extends AbstractValue implements ProgListener {
     }
 
     void errorTimeout() {
+        _stale = true;
         setState(UNKNOWN);
         log.debug("CV setting not busy on error reply"); // NOI18N
         _busy = false;
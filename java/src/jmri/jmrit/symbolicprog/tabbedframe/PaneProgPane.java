@@ -11,9 +11,14 @@ import java.awt.event.ItemListener;
 import java.io.IOException;
 import java.lang.reflect.Field;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.StringTokenizer;
 import java.util.TreeSet;
@@ -197,6 +202,7 @@ public class PaneProgPane extends javax.swing.JPanel
     protected transient ItemListener l4;
     transient ItemListener l5;
     transient ItemListener l6;
+    transient ItemListener l7;
 
     boolean isCvTablePane = false;
 
@@ -362,6 +368,24 @@ public class PaneProgPane extends javax.swing.JPanel
             }
         });
 
+        verifyButton.addItemListener(l7 = (ItemEvent e) -> {
+            if (e.getStateChange() == ItemEvent.SELECTED) {
+                verifyButton.setText(SymbolicProgBundle.getMessage("ButtonStopVerifySheet"));
+                if (container.isBusy() == false) {
+                    prepVerifyPane();
+                    prepGlassPane(verifyButton);
+                    container.getBusyGlassPane().setVisible(true);
+                    nextRead();
+                }
+            } else {
+                stopProgramming();
+                verifyButton.setText(SymbolicProgBundle.getMessage("ButtonVerifySheet"));
+                if (container.isBusy()) {
+                    verifyButton.setEnabled(false);
+                }
+            }
+        });
+
         writeChangesButton.setToolTipText(SymbolicProgBundle.getMessage("TipWriteHighlightedSheet"));
         writeChangesButton.addItemListener(l3 = (ItemEvent e) -> {
             if (e.getStateChange() == ItemEvent.SELECTED) {
@@ -451,6 +475,7 @@ public class PaneProgPane extends javax.swing.JPanel
         if (_cvTable) {
             bottom.add(confirmAllButton);
         }
+        bottom.add(verifyButton);
 
         // don't show buttons if no programmer at all
         if (_cvModel.getProgrammer() != null) {
@@ -476,17 +501,21 @@ public class PaneProgPane extends javax.swing.JPanel
     void enableReadButtons() {
         readChangesButton.setToolTipText(SymbolicProgBundle.getMessage("TipReadChangesSheet"));
         readAllButton.setToolTipText(SymbolicProgBundle.getMessage("TipReadAllSheet"));
+        verifyButton.setToolTipText(SymbolicProgBundle.getMessage("TipVerifySheet"));
         if (_cvModel.getProgrammer() != null
                 && !_cvModel.getProgrammer().getCanRead()) {
             // can't read, disable the buttons
             readChangesButton.setEnabled(false);
             readAllButton.setEnabled(false);
+            verifyButton.setEnabled(false);
             // set tooltip to explain why
             readChangesButton.setToolTipText(SymbolicProgBundle.getMessage("TipNoRead"));
             readAllButton.setToolTipText(SymbolicProgBundle.getMessage("TipNoRead"));
+            verifyButton.setToolTipText(SymbolicProgBundle.getMessage("TipNoRead"));
         } else {
             readChangesButton.setEnabled(true);
             readAllButton.setEnabled(true);
+            verifyButton.setEnabled(true);
         }
     }
 
@@ -535,6 +564,7 @@ public class PaneProgPane extends javax.swing.JPanel
     protected JToggleButton writeAllButton = new JToggleButton(SymbolicProgBundle.getMessage("ButtonWriteFullSheet"));
     JToggleButton confirmChangesButton = new JToggleButton(SymbolicProgBundle.getMessage("ButtonConfirmChangesSheet"));
     JToggleButton confirmAllButton = new JToggleButton(SymbolicProgBundle.getMessage("ButtonConfirmFullSheet"));
+    JToggleButton verifyButton = new JToggleButton(SymbolicProgBundle.getMessage("ButtonVerifySheet"));
 
     /**
      * Estimate the number of CVs that will be accessed when reading or writing
@@ -599,6 +629,7 @@ public class PaneProgPane extends javax.swing.JPanel
         } else {
             readChangesButton.setEnabled(stat);
             readAllButton.setEnabled(stat);
+            verifyButton.setEnabled(stat);
             confirmChangesButton.setEnabled(stat);
             confirmAllButton.setEnabled(stat);
         }
@@ -678,6 +709,89 @@ public class PaneProgPane extends javax.swing.JPanel
         return nextRead();
     }
 
+    /**
+     * Invoked by "Verify sheet" button, this reads only the CVs on this pane
+     * whose values are not known to match the decoder, as selected by
+     * {@link CvTableModel#getCvsToVerify}, and reports how many of them
+     * differed from the values from the roster entry.
+     *
+     * @return true is a read has been started, false if the pane is complete
+     */
+    public boolean readPaneVerify() {
+        prepVerifyPane();
+        return nextRead();
+    }
+
+    /**
+     * Prepare this pane for a verify operation. The CVs to read are read
+     * directly, rather than through their variables, in the order given by
+     * {@link CvTableModel#getCvsToVerify}.
+     */
+    public void prepVerifyPane() {
+        justChanges = false;
+        if (isCvTablePane) {
+            setCvListFromTable();  // make sure list of CVs up to date if table
+        }
+        enableButtons(false);
+        verifyButton.setSelected(true);
+        verifyButton.setEnabled(true);
+        if (container.isBusy() == false) {
+            container.enableButtons(false);
+        }
+
+        // the CVs on this pane, in the order a full read would take
+        Set<CvValue> cvs = new LinkedHashSet<>();
+        for (int varNum : varList) {
+            cvs.addAll(Arrays.asList(_varModel.getVariable(varNum).usesCVs()));
+        }
+        for (int cvNum : cvList) {
+            cvs.add(_cvModel.getCvByRow(cvNum));
+        }
+        Map<CvValue, Integer> rows = new HashMap<>();
+        for (int row = 0; row < _cvModel.getRowCount(); row++) {
+            rows.put(_cvModel.getCvByRow(row), row);
+        }
+
+        verifyValues = new LinkedHashMap<>();
+        List<Integer> toRead = new ArrayList<>();
+        for (CvValue cv : _cvModel.getCvsToVerify(cvs)) {
+            Integer row = rows.get(cv);
+            if (row != null) {
+                cv.setToRead(true);
+                verifyValues.put(cv, cv.getValue());
+                toRead.add(row);
+            }
+        }
+        log.debug("verify reads {} of {} CVs", toRead.size(), cvs.size());
+        for (int varNum : varList) {
+            _varModel.getVariable(varNum).setToRead(false);
+        }
+        varListIndex = varList.size();
+        cvListIterator = toRead.iterator();
+    }
+
+    // CVs being read by a verify operation, with their values before it
+    private Map<CvValue, Integer> verifyValues = null;
+
+    private void finishVerify() {
+        if (verifyValues == null) {
+            return;
+        }
+        int differ = 0;
+        for (Map.Entry<CvValue, Integer> entry : verifyValues.entrySet()) {
+            CvValue cv = entry.getKey();
+            cv.setToRead(false);
+            if (cv.getState() == CvValue.READ && cv.getValue() != entry.getValue()) {
+                log.info("CV {} was {} in the roster entry, {} in the decoder", cv.number(), entry.getValue(), cv.getValue());
+                differ++;
+            }
+        }
+        if (_cvModel.getStatusLabel() != null) {
+            _cvModel.getStatusLabel().setText(SymbolicProgBundle.getMessage("StateVerified", verifyValues.size(), differ));
+        }
+        verifyValues = null;
+    }
+
     /**
      * Set the "ToRead" parameter in all variables and CVs on this pane.
      *
@@ -879,8 +993,10 @@ public class PaneProgPane extends javax.swing.JPanel
         if (log.isDebugEnabled()) {
             log.debug("nextRead found nothing to do");
         }
+        finishVerify();
         readChangesButton.setSelected(false);
-        readAllButton.setSelected(false);  // reset both, as that's final state we want
+        readAllButton.setSelected(false);  // reset all, as that's final state we want
+        verifyButton.setSelected(false);
         setBusy(false);
         container.paneFinished();
         return false;
@@ -1253,6 +1369,8 @@ public class PaneProgPane extends javax.swing.JPanel
             nextRead();
         } else if (_read && readAllButton.isSelected()) {
             nextRead();
+        } else if (_read && verifyButton.isSelected()) {
+            nextRead();
         } else if (_read && confirmChangesButton.isSelected()) {
             nextConfirm();
         } else if (_read && confirmAllButton.isSelected()) {
@@ -1277,6 +1395,10 @@ public class PaneProgPane extends javax.swing.JPanel
         log.debug("start stopProgramming");
         setToRead(false, false);
         setToWrite(false, false);
+        if (verifyValues != null) {
+            verifyValues.keySet().forEach(cv -> cv.setToRead(false));
+            verifyValues = null;
+        }
         varListIndex = varList.size();
 
         cvListIterator = null;
@@ -2433,7 +2555,8 @@ public class PaneProgPane extends javax.swing.JPanel
         writeAllButton.removeItemListener(l4);
         confirmChangesButton.removeItemListener(l5);
         confirmAllButton.removeItemListener(l6);
-        l1 = l2 = l3 = l4 = l5 = l6 = null;
+        verifyButton.removeItemListener(l7);
+        l1 = l2 = l3 = l4 = l5 = l6 = l7 = null;
 
         if (_programmingVar != null) {
             _programmingVar.removePropertyChangeListener(this);
@@ -14,6 +14,8 @@ abstract public class AbstractController {
 
     ArrayList<ControllerInterface> listeners = null;
     List<String> sysNameList = null;
+    // the list last sent to devices, null until built again after a change
+    volatile String listMessage = null;
 
     boolean isValid = false;
     boolean canBuildList = true;
@@ -77,6 +79,7 @@ abstract public class AbstractController {
             if (sysNameList != null) {
                 deregister();
                 sysNameList = null;
+                listMessage = null;
             }
             canBuildList = true;
         }
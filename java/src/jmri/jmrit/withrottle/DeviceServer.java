@@ -89,12 +89,12 @@ import java.net.Socket;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.TimerTask;
 import jmri.CommandStation;
 import jmri.DccLocoAddress;
 import jmri.InstanceManager;
-import jmri.jmrit.roster.Roster;
-import jmri.jmrit.roster.RosterEntry;
+import jmri.jmris.ClientOutputStream;
 import jmri.util.ThreadingUtil;
 import jmri.web.server.WebServerPreferences;
 import org.slf4j.Logger;
@@ -121,9 +121,14 @@ public class DeviceServer implements Runnable, ThrottleControllerListener, Contr
     private boolean isUsingHeartbeat = false;
     private boolean heartbeat = true;
     private int pulseInterval = 16; // seconds til disconnect
-    private TimerTask ekgTask;
     private int stopEKGCount;
 
+    // devices using a heartbeat, with the time each is next checked; a
+    // single task checks every device instead of a task for each
+    private static final Map<DeviceServer, Long> ekgDue = new HashMap<>();
+    private static TimerTask ekgWheel = null;
+    static final long EKG_TICK = 100; // milliseconds between checks for due devices
+
     private TrackPowerController trackPower = null;
     final boolean isTrackPowerAllowed = InstanceManager.getDefault(WiThrottlePreferences.class).isAllowTrackPower();
     private TurnoutController turnoutC = null;
@@ -149,21 +154,28 @@ public class DeviceServer implements Runnable, ThrottleControllerListener, Contr
             if (log.isDebugEnabled()) {
                 log.debug("Creating output stream writer for {}", device.getRemoteSocketAddress());
             }
-            out = new PrintStream(device.getOutputStream(), true, "UTF8");
+            // a device that falls too far behind is disconnected
+            out = new PrintStream(new ClientOutputStream(device.getOutputStream(), ClientOutputStream.DEFAULT_LIMIT, this::closeSocket), true, "UTF8");
 
         } catch (IOException e) {
             log.error("Stream creation failed (DeviceServer)");
+        }
+    }
+
+    @Override
+    public void run() {
+        if (out == null) {
+            // the streams could not be opened
+            closeSocket();
             return;
         }
+        // sent from this thread, not the thread accepting connections, so
+        // other devices can connect meanwhile
         sendPacketToDevice("VN" + getWiTVersion());
         sendPacketToDevice(sendRoster());
         addControllers();
         sendPacketToDevice("PW" + getWebServerPort());
 
-    }
-
-    @Override
-    public void run() {
         for (int i = 0; i < listeners.size(); i++) {
             DeviceListener l = listeners.get(i);
             log.debug("Notify Device Add");
@@ -460,49 +472,81 @@ public class DeviceServer implements Runnable, ThrottleControllerListener, Contr
         log.debug("starting heartbeat EKG for '{}' with interval: {}", getName(), pulseInterval);
         isUsingHeartbeat = true;
         stopEKGCount = 0;
-        ekgTask = new TimerTask() {
-            @Override
-            public void run() {  //  Drops on second pass
-                ThreadingUtil.runOnLayout(() -> {
-                    if (!heartbeat) {
-                        stopEKGCount++;
-                        //  Send eStop to each throttle
-                        if (log.isDebugEnabled()) {
-                            log.debug("Lost signal from: {}, sending eStop", getName());
-                        }
-                        if (throttleController != null) {
-                            throttleController.sort("X");
-                        }
-                        if (secondThrottleController != null) {
-                            secondThrottleController.sort("X");
-                        }
-                        if (multiThrottles != null) {
-                            for (char key : multiThrottles.keySet()) {
-                                if (log.isDebugEnabled()) {
-                                    log.debug("Sending eStop to MT key: {}", key);
-                                }
-                                multiThrottles.get(key).eStop();
-                            }
-
-                        }
-                        if (stopEKGCount > 2) {
-                            closeThrottles();
-                        }
+        synchronized (ekgDue) {
+            ekgDue.put(this, System.currentTimeMillis() + pulseInterval * 900L);
+            if (ekgWheel == null) {
+                ekgWheel = new TimerTask() {
+                    @Override
+                    public void run() {
+                        checkEKGs();
                     }
-                    heartbeat = false;
-                });
+                };
+                jmri.util.TimerUtil.scheduleAtFixedRate(ekgWheel, EKG_TICK, EKG_TICK);
             }
-
-        };
-        jmri.util.TimerUtil.scheduleAtFixedRate(ekgTask, pulseInterval * 900L, pulseInterval * 900L);
+        }
     }
 
     public void stopEKG() {
         isUsingHeartbeat = false;
-        if (ekgTask != null) {
-            ekgTask.cancel();
+        synchronized (ekgDue) {
+            ekgDue.remove(this);
+            if (ekgDue.isEmpty() && ekgWheel != null) {
+                ekgWheel.cancel();
+                ekgWheel = null;
+            }
+        }
+
+    }
+
+    /**
+     * Check the heartbeat of each device that is due a check.
+     */
+    private static void checkEKGs() {
+        List<DeviceServer> due = new ArrayList<>();
+        long now = System.currentTimeMillis();
+        synchronized (ekgDue) {
+            for (Map.Entry<DeviceServer, Long> entry : ekgDue.entrySet()) {
+                if (entry.getValue() <= now) {
+                    due.add(entry.getKey());
+                    entry.setValue(entry.getValue() + entry.getKey().pulseInterval * 900L);
+                }
+            }
         }
+        if (!due.isEmpty()) {
+            ThreadingUtil.runOnLayout(() -> due.forEach(DeviceServer::checkEKG));
+        }
+    }
 
+    private void checkEKG() {  //  Drops on second pass
+        if (!isUsingHeartbeat) {
+            return;
+        }
+        if (!heartbeat) {
+            stopEKGCount++;
+            //  Send eStop to each throttle
+            if (log.isDebugEnabled()) {
+                log.debug("Lost signal from: {}, sending eStop", getName());
+            }
+            if (throttleController != null) {
+                throttleController.sort("X");
+            }
+            if (secondThrottleController != null) {
+                secondThrottleController.sort("X");
+            }
+            if (multiThrottles != null) {
+                for (char key : multiThrottles.keySet()) {
+                    if (log.isDebugEnabled()) {
+                        log.debug("Sending eStop to MT key: {}", key);
+                    }
+                    multiThrottles.get(key).eStop();
+                }
+
+            }
+            if (stopEKGCount > 2) {
+                closeThrottles();
+            }
+        }
+        heartbeat = false;
     }
 
     private void addControllers() {
@@ -523,8 +567,8 @@ public class DeviceServer implements Runnable, ThrottleControllerListener, Contr
                     log.debug("Turnout Controller valid.");
                 }
                 turnoutC.addControllerListener(this);
-                turnoutC.sendTitles();
-                turnoutC.sendList();
+                turnoutC.sendTitles(this);
+                turnoutC.sendList(this);
             }
         }
         if (isRouteAllowed) {
@@ -534,8 +578,8 @@ public class DeviceServer implements Runnable, ThrottleControllerListener, Contr
                     log.debug("Route Controller valid.");
                 }
                 routeC.addControllerListener(this);
-                routeC.sendTitles();
-                routeC.sendList();
+                routeC.sendTitles(this);
+                routeC.sendList(this);
             }
         }
 
@@ -750,26 +794,7 @@ public class DeviceServer implements Runnable, ThrottleControllerListener, Contr
      *         received.
      */
     public String sendRoster() {
-        List<RosterEntry> rosterList;
-        rosterList = Roster.getDefault().getEntriesInGroup(manager.getSelectedRosterGroup());
-        StringBuilder rosterString = new StringBuilder(rosterList.size() * 25);
-        for (RosterEntry entry : rosterList) {
-            StringBuilder entryInfo = new StringBuilder(entry.getId()); //  Start with name
-            entryInfo.append("}|{");
-            entryInfo.append(entry.getDccAddress());
-            if (entry.isLongAddress()) { //  Append length value
-                entryInfo.append("}|{L");
-            } else {
-                entryInfo.append("}|{S");
-            }
-
-            rosterString.append("]\\[");  //  Put this info in as an item
-            rosterString.append(entryInfo);
-
-        }
-        rosterString.trimToSize();
-
-        return ("RL" + rosterList.size() + rosterString);
+        return InstanceManager.getDefault(WiThrottleManager.class).getRosterList(manager.getSelectedRosterGroup());
     }
 
     private final static Logger log = LoggerFactory.getLogger(DeviceServer.class);
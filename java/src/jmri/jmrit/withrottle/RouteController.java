@@ -22,6 +22,12 @@ public class RouteController extends AbstractController implements PropertyChang
 
     private RouteManager manager = null;
     private HashMap<NamedBeanHandle<Sensor>, Route> indication;    //  Monitor turnouts for aligned status
+    // a renamed route makes the list out of date
+    private final PropertyChangeListener routeListener = (PropertyChangeEvent evt) -> {
+        if (evt.getPropertyName().equals("UserName")) {
+            listMessage = null;
+        }
+    };
 
     public RouteController() {
         manager = InstanceManager.getNullableDefault(jmri.RouteManager.class);
@@ -103,18 +109,31 @@ public class RouteController extends AbstractController implements PropertyChang
             return;
         }
 
+        String message = getTitles();
+
+        for (ControllerInterface listener : listeners) {
+            listener.sendPacketToDevice(message);
+        }
+
+    }
+
+    /**
+     * Send Info on routes to a newly connected device.
+     *
+     * @param listener the device
+     */
+    public void sendTitles(ControllerInterface listener) {
+        listener.sendPacketToDevice(getTitles());
+    }
+
+    private String getTitles() {
         StringBuilder labels = new StringBuilder("PRT");    //  Panel Turnout Titles
 
         labels.append("]\\[").append(Bundle.getMessage("MenuItemRouteTable")).append("}|{Route"); // should Route be translated?
         labels.append("]\\[").append("Active").append("}|{2"); // should Active be translated?
         labels.append("]\\[").append("Inactive").append("}|{4"); // should Inctive be translated?
 
-        String message = labels.toString();
-
-        for (ControllerInterface listener : listeners) {
-            listener.sendPacketToDevice(message);
-        }
-
+        return labels.toString();
     }
 
     protected jmri.NamedBeanHandleManager nbhm = jmri.InstanceManager.getDefault(jmri.NamedBeanHandleManager.class);
@@ -130,11 +149,46 @@ public class RouteController extends AbstractController implements PropertyChang
         if (listeners == null) {
             return;
         }
+        String message = getList();
+        if (message == null) {
+            return;
+        }
+
+        for (ControllerInterface listener : listeners) {
+            listener.sendPacketToDevice(message);
+        }
+    }
+
+    /**
+     * Send list of routes to a newly connected device. Devices already
+     * connected are kept up to date by state changes, so they are not sent
+     * the list again.
+     *
+     * @param listener the device
+     */
+    public void sendList(ControllerInterface listener) {
+        String message = getList();
+        if (message != null) {
+            listener.sendPacketToDevice(message);
+        }
+    }
+
+    /**
+     * Get the list of routes, only building it again if a route or its
+     * aligned sensor has changed since it was last built.
+     *
+     * @return the list or null if there are no routes to send
+     */
+    private synchronized String getList() {
         if (canBuildList) {
             buildList(manager);
         }
         if (sysNameList.isEmpty()) {
-            return;
+            return null;
+        }
+        String message = listMessage;
+        if (message != null) {
+            return message;
         }
 
         StringBuilder list = new StringBuilder("PRL");  //  Panel Route List
@@ -159,11 +213,9 @@ public class RouteController extends AbstractController implements PropertyChang
                 }
             }
         }
-        String message = list.toString();
-
-        for (ControllerInterface listener : listeners) {
-            listener.sendPacketToDevice(message);
-        }
+        message = list.toString();
+        listMessage = message;
+        return message;
     }
 
     /**
@@ -173,6 +225,7 @@ public class RouteController extends AbstractController implements PropertyChang
     public void propertyChange(PropertyChangeEvent evt) {
         if (evt.getPropertyName().equals("KnownState")) {
             Sensor s = (Sensor) evt.getSource();
+            listMessage = null;
             for (Map.Entry<NamedBeanHandle<Sensor>, Route> entry : indication.entrySet()) {
                 if (entry.getKey().getBean() == s) {
                     Route r = entry.getValue();
@@ -195,6 +248,7 @@ public class RouteController extends AbstractController implements PropertyChang
         for (String sysName : sysNameList) {
             Route r = manager.getBySystemName(sysName);
             if (r != null) {
+                r.addPropertyChangeListener(routeListener);
                 String turnoutsAlignedSensor = r.getTurnoutsAlignedSensor();
                 if (!turnoutsAlignedSensor.equals("")) {  //only set if found
                     Sensor sensor = InstanceManager.sensorManagerInstance().provideSensor(turnoutsAlignedSensor);
@@ -216,6 +270,12 @@ public class RouteController extends AbstractController implements PropertyChang
             return;
         }
 
+        for (String sysName : sysNameList) {
+            Route r = manager.getBySystemName(sysName);
+            if (r != null) {
+                r.removePropertyChangeListener(routeListener);
+            }
+        }
         indication.keySet().forEach((namedSensor) -> {
             namedSensor.getBean().removePropertyChangeListener(this);
             if (log.isDebugEnabled()) {
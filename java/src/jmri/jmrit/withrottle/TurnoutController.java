@@ -145,18 +145,31 @@ public class TurnoutController extends AbstractController implements PropertyCha
             return;
         }
 
+        String message = getTitles();
+
+        for (ControllerInterface listener : listeners) {
+            listener.sendPacketToDevice(message);
+        }
+
+    }
+
+    /**
+     * Send Info on turnouts to a newly connected device.
+     *
+     * @param listener the device
+     */
+    public void sendTitles(ControllerInterface listener) {
+        listener.sendPacketToDevice(getTitles());
+    }
+
+    private String getTitles() {
         StringBuilder labels = new StringBuilder("PTT");    //  Panel Turnout Titles
 
         labels.append("]\\[").append(Bundle.getMessage("MenuItemTurnoutTable")).append("}|{Turnout");
         labels.append("]\\[").append(manager.getClosedText()).append("}|{2");
         labels.append("]\\[").append(manager.getThrownText()).append("}|{4");
 
-        String message = labels.toString();
-
-        for (ControllerInterface listener : listeners) {
-            listener.sendPacketToDevice(message);
-        }
-
+        return labels.toString();
     }
 
     /**
@@ -169,12 +182,47 @@ public class TurnoutController extends AbstractController implements PropertyCha
         if (listeners == null) {
             return;
         }
+        String message = getList();
+        if (message == null) {
+            return;
+        }
+
+        for (ControllerInterface listener : listeners) {
+            listener.sendPacketToDevice(message);
+        }
+    }
+
+    /**
+     * Send list of turnouts to a newly connected device. Devices already
+     * connected are kept up to date by state changes, so they are not sent
+     * the list again.
+     *
+     * @param listener the device
+     */
+    public void sendList(ControllerInterface listener) {
+        String message = getList();
+        if (message != null) {
+            listener.sendPacketToDevice(message);
+        }
+    }
+
+    /**
+     * Get the list of turnouts, only building it again if a turnout has
+     * changed state since it was last built.
+     *
+     * @return the list or null if there are no turnouts to send
+     */
+    private synchronized String getList() {
         if (canBuildList) {
             buildList(manager);
         }
 
         if (sysNameList.isEmpty()) {
-            return;
+            return null;
+        }
+        String message = listMessage;
+        if (message != null) {
+            return message;
         }
 
         StringBuilder list = new StringBuilder("PTL");  //  Panel Turnout List
@@ -193,11 +241,9 @@ public class TurnoutController extends AbstractController implements PropertyCha
                 }
             }
         }
-        String message = list.toString();
-
-        for (ControllerInterface listener : listeners) {
-            listener.sendPacketToDevice(message);
-        }
+        message = list.toString();
+        listMessage = message;
+        return message;
     }
 
     /**
@@ -207,7 +253,10 @@ public class TurnoutController extends AbstractController implements PropertyCha
     public void propertyChange(PropertyChangeEvent evt) {
         if (evt.getPropertyName().equals("KnownState")) {
             Turnout t = (Turnout) evt.getSource();
+            listMessage = null;
             sendTurnoutState(t);
+        } else if (evt.getPropertyName().equals("UserName")) {
+            listMessage = null;
         }
     }
 
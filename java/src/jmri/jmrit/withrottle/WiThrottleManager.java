@@ -1,6 +1,15 @@
 package jmri.jmrit.withrottle;
 
+import java.beans.PropertyChangeEvent;
+import java.beans.PropertyChangeListener;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import jmri.InstanceManagerAutoDefault;
+import jmri.jmrit.roster.Roster;
+import jmri.jmrit.roster.RosterEntry;
 
 /**
  * @author Brett Hoffman Copyright (C) 2010
@@ -13,6 +22,22 @@ public class WiThrottleManager implements InstanceManagerAutoDefault {
     private ConsistController consistController = null;
     private FastClockController fastClockController = null;
 
+    // roster lists sent to devices, by roster group; cleared by any change
+    // to the roster or to an entry in a list
+    private final Map<String, String> rosterLists = new HashMap<>();
+    private final Set<RosterEntry> rosterEntries = new HashSet<>();
+    private Roster roster = null;
+    private final PropertyChangeListener rosterListener = (PropertyChangeEvent evt) -> {
+        synchronized (this) {
+            rosterLists.clear();
+            if (evt.getPropertyName().equals(Roster.REMOVE) && evt.getOldValue() instanceof RosterEntry) {
+                RosterEntry entry = (RosterEntry) evt.getOldValue();
+                entry.removePropertyChangeListener(this.rosterListener);
+                rosterEntries.remove(entry);
+            }
+        }
+    };
+
     public WiThrottleManager() {
     }
 
@@ -51,4 +76,50 @@ public class WiThrottleManager implements InstanceManagerAutoDefault {
         return fastClockController;
     }
 
+    /**
+     * Get the list of roster entries in a group, as sent to devices. The list
+     * is only built again after the roster changes.
+     * <p>
+     * Format: RL{count}]\[{id}}|{{address}}|{{L or S}]\[...
+     *
+     * @param group the roster group, or null for all entries
+     * @return the list
+     */
+    public synchronized String getRosterList(String group) {
+        Roster current = Roster.getDefault();
+        if (current != roster) {
+            if (roster != null) {
+                roster.removePropertyChangeListener(rosterListener);
+            }
+            rosterEntries.forEach(entry -> entry.removePropertyChangeListener(rosterListener));
+            rosterEntries.clear();
+            rosterLists.clear();
+            roster = current;
+            roster.addPropertyChangeListener(rosterListener);
+        }
+        String key = group != null ? group : Roster.ALLENTRIES;
+        String list = rosterLists.get(key);
+        if (list == null) {
+            List<RosterEntry> rosterList = roster.getEntriesInGroup(group);
+            StringBuilder rosterString = new StringBuilder(rosterList.size() * 25);
+            for (RosterEntry entry : rosterList) {
+                if (rosterEntries.add(entry)) {
+                    entry.addPropertyChangeListener(rosterListener);
+                }
+                rosterString.append("]\\[");  //  Put this info in as an item
+                rosterString.append(entry.getId()); //  Start with name
+                rosterString.append("}|{");
+                rosterString.append(entry.getDccAddress());
+                if (entry.isLongAddress()) { //  Append length value
+                    rosterString.append("}|{L");
+                } else {
+                    rosterString.append("}|{S");
+                }
+            }
+            list = "RL" + rosterList.size() + rosterString;
+            rosterLists.put(key, list);
+        }
+        return list;
+    }
+
 }
@@ -126,22 +126,79 @@ public abstract class AbstractMRTrafficController {
 
     // The methods to implement the abstract Interface
 
-    protected final Vector<AbstractMRListener> cmdListeners = new Vector<>();
+    /**
+     * Registered listeners. Copy-on-write, so notification never needs to
+     * copy or lock it.
+     */
+    protected final ListenerRegistry<AbstractMRListener> cmdListeners = new ListenerRegistry<>();
 
-    protected synchronized void addListener(AbstractMRListener l) {
+    protected void addListener(AbstractMRListener l) {
         // add only if not already registered
         if (l == null) {
             throw new NullPointerException();
         }
-        if (!cmdListeners.contains(l)) {
-            cmdListeners.addElement(l);
-        }
+        cmdListeners.add(l);
     }
 
-    protected synchronized void removeListener(AbstractMRListener l) {
-        if (cmdListeners.contains(l)) {
-            cmdListeners.removeElement(l);
+    /**
+     * Register a listener for only one type of message and reply, as
+     * classified by {@link #getMessageType(AbstractMRMessage)} and
+     * {@link #getReplyType(AbstractMRReply)}.
+     *
+     * @param l    the listener
+     * @param type the message type, from 0 to {@link ListenerRegistry#MAX_TYPE}
+     */
+    protected void addListener(AbstractMRListener l, int type) {
+        if (l == null) {
+            throw new NullPointerException();
         }
+        cmdListeners.add(l, type);
+    }
+
+    protected void removeListener(AbstractMRListener l) {
+        cmdListeners.remove(l);
+    }
+
+    /**
+     * Remove the registration of a listener for one type of message. Note
+     * that {@link #removeListener(AbstractMRListener)} removes every
+     * registration of the listener.
+     *
+     * @param l    the listener
+     * @param type the message type
+     */
+    protected void removeListener(AbstractMRListener l, int type) {
+        cmdListeners.remove(l, type);
+    }
+
+    /**
+     * Get the type of an outgoing message, for listeners registered with
+     * {@link #addListener(AbstractMRListener, int)}.
+     * <p>
+     * The default does not classify messages, so every listener gets them.
+     * Override in the system specific code to let listeners see only the
+     * messages they can decode.
+     *
+     * @param m the message
+     * @return the type, from 0 to {@link ListenerRegistry#MAX_TYPE}, or
+     *         {@link ListenerRegistry#ALL_TYPES} to notify every listener
+     */
+    protected int getMessageType(AbstractMRMessage m) {
+        return ListenerRegistry.ALL_TYPES;
+    }
+
+    /**
+     * Get the type of a reply, for listeners registered with
+     * {@link #addListener(AbstractMRListener, int)}.
+     * <p>
+     * The default does not classify replies, so every listener gets them.
+     *
+     * @param r the reply
+     * @return the type, from 0 to {@link ListenerRegistry#MAX_TYPE}, or
+     *         {@link ListenerRegistry#ALL_TYPES} to notify every listener
+     */
+    protected int getReplyType(AbstractMRReply r) {
+        return ListenerRegistry.ALL_TYPES;
     }
 
     /**
@@ -151,18 +208,13 @@ public abstract class AbstractMRTrafficController {
      * @param notMe One (optional) listener to be skipped, usually because it's
      *              the originating object.
      */
-    @SuppressWarnings("unchecked")
     protected void notifyMessage(AbstractMRMessage m, AbstractMRListener notMe) {
-        // make a copy of the listener vector to synchronized not needed for transmit
-        Vector<AbstractMRListener> v;
-        synchronized (this) {
-            // FIXME: unnecessary synchronized; the Vector IS already thread-safe.
-            v = (Vector<AbstractMRListener>) cmdListeners.clone();
-        }
+        // the list is an immutable snapshot, so no copy is needed
+        List<AbstractMRListener> v = cmdListeners.getListeners(getMessageType(m));
         // forward to all listeners
         int cnt = v.size();
         for (int i = 0; i < cnt; i++) {
-            AbstractMRListener client = v.elementAt(i);
+            AbstractMRListener client = v.get(i);
             if (notMe != client) {
                 log.debug("notify client: {}", client);
                 try {
@@ -269,18 +321,13 @@ public abstract class AbstractMRTrafficController {
      * @param dest One (optional) listener to be skipped, usually because it's
      *             the originating object.
      */
-    @SuppressWarnings("unchecked")
     protected void notifyReply(AbstractMRReply r, AbstractMRListener dest) {
-        // make a copy of the listener vector to synchronized (not needed for transmit?)
-        Vector<AbstractMRListener> v;
-        synchronized (this) {
-            // FIXME: unnecessary synchronized; the Vector IS already thread-safe.
-            v = (Vector<AbstractMRListener>) cmdListeners.clone();
-        }
+        // the list is an immutable snapshot, so no copy is needed
+        List<AbstractMRListener> v = cmdListeners.getListeners(getReplyType(r));
         // forward to all listeners
         int cnt = v.size();
         for (int i = 0; i < cnt; i++) {
-            AbstractMRListener client = v.elementAt(i);
+            AbstractMRListener client = v.get(i);
             log.debug("notify client: {}", client);
             try {
                 //skip dest for now, we'll send the message to there last.
@@ -304,25 +351,66 @@ public abstract class AbstractMRTrafficController {
 
     /**
      * Messages to be transmitted.
+     * <p>
+     * Subclasses may replace this in their constructor, for example to change
+     * the capacity of the queue.
      */
-    protected LinkedList<AbstractMRMessage> msgQueue = new LinkedList<>();
-    protected LinkedList<AbstractMRListener> listenerQueue = new LinkedList<>();
+    protected MRTransmitQueue transmitQueue = new MRTransmitQueue();
+
+    /**
+     * Get the priority class a message is queued in. Messages in a higher
+     * priority class are sent before any in a lower class, whatever order
+     * they were queued in.
+     * <p>
+     * The default puts every message in the same class, so messages are sent
+     * in the order they are queued. Override in the system specific code if
+     * some messages should overtake others.
+     *
+     * @param m the message being queued
+     * @return the priority class for m
+     */
+    protected MRTransmitQueue.Priority getTransmitPriority(AbstractMRMessage m) {
+        return MRTransmitQueue.Priority.OPS;
+    }
+
+    /**
+     * Get the key used to coalesce a message with one already queued.
+     * <p>
+     * If a message with an equal key and the same reply listener is still
+     * waiting to be sent, the new message replaces it, so only the latest
+     * content is sent. The default never coalesces; override in the system
+     * specific code for messages, like node output updates, where only the
+     * latest content matters.
+     *
+     * @param m the message being queued
+     * @return the key for m, or null if m must always be sent
+     */
+    protected Object getCoalescingKey(AbstractMRMessage m) {
+        return null;
+    }
 
     /**
      * Forward message to the port. Messages are queued and then the
      * transmission thread is notified.
+     * <p>
+     * This does not lock the traffic controller, so callers are not held up
+     * while the transmit thread is writing to the port.
      * @see #forwardToPort(AbstractMRMessage, AbstractMRListener)
      *
      * @param m the message to send
      * @param reply the Listener sending the message, often provided as 'this'
      */
-    protected synchronized void sendMessage(AbstractMRMessage m, AbstractMRListener reply) {
-        msgQueue.addLast(m);
-        listenerQueue.addLast(reply);
-        synchronized (xmtRunnable) {
-            if (mCurrentState == IDLESTATE) {
-                mCurrentState = NOTIFIEDSTATE;
-                xmtRunnable.notify();
+    protected void sendMessage(AbstractMRMessage m, AbstractMRListener reply) {
+        if (m != null && !transmitQueue.offer(m, reply, getTransmitPriority(m), getCoalescingKey(m))) {
+            log.error("transmit queue full, message dropped: {}", m);
+            return;
+        }
+        if (mCurrentState == IDLESTATE) {
+            synchronized (xmtRunnable) {
+                if (mCurrentState == IDLESTATE) {
+                    mCurrentState = NOTIFIEDSTATE;
+                    xmtRunnable.notify();
+                }
             }
         }
         if (m != null) {
@@ -341,16 +429,13 @@ public abstract class AbstractMRTrafficController {
             AbstractMRMessage m = null;
             AbstractMRListener l = null;
             // check for something to do
-            synchronized (this) {
-                if (!msgQueue.isEmpty()) {
-                    // yes, something to do
-                    m = msgQueue.getFirst();
-                    msgQueue.removeFirst();
-                    l = listenerQueue.getFirst();
-                    listenerQueue.removeFirst();
-                    mCurrentState = WAITMSGREPLYSTATE;
-                    log.debug("transmit loop has something to do: {}", m);
-                }  // release lock here to proceed in parallel
+            MRTransmitQueue.Entry next = transmitQueue.poll();
+            if (next != null) {
+                // yes, something to do
+                m = next.getMessage();
+                l = next.getListener();
+                mCurrentState = WAITMSGREPLYSTATE;
+                log.debug("transmit loop has something to do: {}", m);
             }
             // if a message has been extracted, process it
             if (m != null) {
@@ -403,8 +488,7 @@ public abstract class AbstractMRTrafficController {
                         handleTimeout(m, l);
                     } else if (mCurrentState == AUTORETRYSTATE) {
                         log.info("Message added back to queue: {}", m);
-                        msgQueue.addFirst(m);
-                        listenerQueue.addFirst(l);
+                        transmitQueue.requeueFirst(m, l);
                         synchronized (xmtRunnable) {
                             mCurrentState = IDLESTATE;
                         }
@@ -435,8 +519,9 @@ public abstract class AbstractMRTrafficController {
                     }
                 }
                 // once we decide that mCurrentState is in the IDLESTATE and there's an xmt msg we must guarantee
-                // the change of mCurrentState to one of the waiting for reply states.  Therefore we need to synchronize.
-                synchronized (this) {
+                // the change of mCurrentState to one of the waiting for reply states.  Therefore we need to synchronize
+                // with sendMessage(..), which makes the IDLESTATE to NOTIFIEDSTATE change under the same lock.
+                synchronized (xmtRunnable) {
                     if (mCurrentState != NOTIFIEDSTATE && mCurrentState != IDLESTATE) {
                         log.error("left timeout in unexpected state: {}", mCurrentState);
                     }
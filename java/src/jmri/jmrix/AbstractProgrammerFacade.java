@@ -22,6 +22,16 @@ public abstract class AbstractProgrammerFacade implements Programmer {
         this.prog = prog;
     }
 
+    /**
+     * Get the programmer this facade forwards to, which may itself be a
+     * facade.
+     *
+     * @return the underlying programmer
+     */
+    public Programmer getProgrammer() {
+        return prog;
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -0,0 +1,246 @@
+package jmri.jmrix;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import javax.annotation.Nonnull;
+
+/**
+ * Thread-safe set of listeners for a traffic controller.
+ * <p>
+ * The registry is copy-on-write: adding or removing a listener builds new,
+ * immutable lists, while the notification path only reads a volatile field
+ * and walks a list that no other thread can change. Nothing is copied or
+ * locked per message.
+ * <p>
+ * A listener may register for every message, or only for particular message
+ * types, such as the LocoNet opcode or the first byte of a reply. What a type
+ * means is up to the traffic controller, which passes it to
+ * {@link #getListeners(int)} when notifying. Types run from 0 to
+ * {@link #MAX_TYPE}.
+ * <p>
+ * Listeners are notified in the order they first registered.
+ *
+ * @param <T> the listener class
+ */
+public class ListenerRegistry<T> implements Iterable<T> {
+
+    /**
+     * Type to pass to {@link #getListeners(int)} for a message of unknown
+     * type, which is delivered to every listener.
+     */
+    public static final int ALL_TYPES = -1;
+
+    /**
+     * Largest message type a listener can register for.
+     */
+    public static final int MAX_TYPE = 255;
+
+    private List<Registration<T>> registrations = new ArrayList<>();
+    private volatile Snapshot<T> snapshot = new Snapshot<>(Collections.emptyList());
+
+    /**
+     * Register a listener for every message.
+     *
+     * @param l the listener
+     * @return false if it was already registered for every message
+     */
+    public boolean add(@Nonnull T l) {
+        return add(l, ALL_TYPES);
+    }
+
+    /**
+     * Register a listener for one type of message. A listener can register
+     * for several types.
+     *
+     * @param l    the listener
+     * @param type the message type, or {@link #ALL_TYPES}
+     * @return false if it was already registered for this type
+     */
+    public synchronized boolean add(@Nonnull T l, int type) {
+        Objects.requireNonNull(l);
+        checkType(type);
+        Registration<T> r = new Registration<>(l, type);
+        if (registrations.contains(r)) {
+            return false;
+        }
+        List<Registration<T>> list = new ArrayList<>(registrations);
+        list.add(r);
+        update(list);
+        return true;
+    }
+
+    /**
+     * Remove every registration of a listener.
+     *
+     * @param l the listener
+     * @return true if it was registered
+     */
+    public synchronized boolean remove(T l) {
+        List<Registration<T>> list = new ArrayList<>(registrations);
+        if (!list.removeIf(r -> r.listener.equals(l))) {
+            return false;
+        }
+        update(list);
+        return true;
+    }
+
+    /**
+     * Remove the registration of a listener for one type of message.
+     *
+     * @param l    the listener
+     * @param type the message type, or {@link #ALL_TYPES}
+     * @return true if it was registered for this type
+     */
+    public synchronized boolean remove(T l, int type) {
+        List<Registration<T>> list = new ArrayList<>(registrations);
+        if (!list.remove(new Registration<>(l, type))) {
+            return false;
+        }
+        update(list);
+        return true;
+    }
+
+    /**
+     * @param l the listener
+     * @return true if the listener is registered for any type
+     */
+    public boolean contains(Object l) {
+        return snapshot.all.contains(l);
+    }
+
+    /**
+     * @return the number of distinct listeners
+     */
+    public int size() {
+        return snapshot.all.size();
+    }
+
+    /**
+     * @return true if no listener is registered
+     */
+    public boolean isEmpty() {
+        return snapshot.all.isEmpty();
+    }
+
+    /**
+     * Get every registered listener.
+     *
+     * @return an unmodifiable list that does not change if listeners are added
+     *         or removed later
+     */
+    @Nonnull
+    public List<T> getListeners() {
+        return snapshot.all;
+    }
+
+    /**
+     * Get the listeners for a message of a given type: those registered for
+     * every message and those registered for this type.
+     *
+     * @param type the message type, or {@link #ALL_TYPES} for every listener
+     * @return an unmodifiable list that does not change if listeners are added
+     *         or removed later
+     */
+    @Nonnull
+    public List<T> getListeners(int type) {
+        Snapshot<T> s = snapshot;
+        if (type < 0 || type > MAX_TYPE) {
+            return s.all;
+        }
+        return s.byType == null ? s.any : s.byType[type];
+    }
+
+    /**
+     * Iterate over a snapshot of every registered listener.
+     */
+    @Override
+    public Iterator<T> iterator() {
+        return snapshot.all.iterator();
+    }
+
+    private static void checkType(int type) {
+        if (type != ALL_TYPES && (type < 0 || type > MAX_TYPE)) {
+            throw new IllegalArgumentException("message type out of range: " + type); // NOI18N
+        }
+    }
+
+    private void update(List<Registration<T>> list) {
+        registrations = list;
+        snapshot = new Snapshot<>(list);
+    }
+
+    private static final class Registration<T> {
+
+        final T listener;
+        final int type;
+
+        Registration(T listener, int type) {
+            this.listener = listener;
+            this.type = type;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Registration)) {
+                return false;
+            }
+            Registration<?> other = (Registration<?>) o;
+            return type == other.type && listener.equals(other.listener);
+        }
+
+        @Override
+        public int hashCode() {
+            return listener.hashCode() * 31 + type;
+        }
+    }
+
+    /**
+     * Immutable lists built from the registrations each time they change.
+     */
+    private static final class Snapshot<T> {
+
+        final List<T> all;
+        final List<T> any;
+        final List<T>[] byType; // null if no listener registered for a type
+
+        @SuppressWarnings("unchecked")
+        Snapshot(List<Registration<T>> registrations) {
+            all = listeners(registrations, null);
+            any = listeners(registrations, ALL_TYPES);
+            List<T>[] types = null;
+            for (Registration<T> r : registrations) {
+                if (r.type != ALL_TYPES) {
+                    if (types == null) {
+                        types = new List[MAX_TYPE + 1];
+                        Arrays.fill(types, any);
+                    }
+                    if (types[r.type] == any) {
+                        types[r.type] = listeners(registrations, r.type);
+                    }
+                }
+            }
+            byType = types;
+        }
+
+        /**
+         * @param type null for every listener, else those for this type and
+         *             those for every type
+         */
+        private static <T> List<T> listeners(List<Registration<T>> registrations, Integer type) {
+            List<T> list = new ArrayList<>();
+            for (Registration<T> r : registrations) {
+                if ((type == null || r.type == ALL_TYPES || r.type == type) && !list.contains(r.listener)) {
+                    list.add(r.listener);
+                }
+            }
+            if (list.isEmpty()) {
+                return Collections.emptyList();
+            }
+            return Collections.unmodifiableList(list);
+        }
+    }
+}
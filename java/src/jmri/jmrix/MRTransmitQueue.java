@@ -0,0 +1,318 @@
+package jmri.jmrix;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import javax.annotation.CheckForNull;
+import javax.annotation.Nonnull;
+
+/**
+ * Queue of messages waiting to be sent by the transmit thread of an
+ * {@link AbstractMRTrafficController}.
+ * <p>
+ * Each {@link Priority} class is held in its own bounded ring, so any number
+ * of threads can queue messages without taking a lock while the transmit
+ * thread removes them. Higher priority classes are always emptied first;
+ * within a class messages are sent in the order they were queued.
+ * <p>
+ * A message queued with a non-null coalescing key replaces a message with an
+ * equal key and the same listener that is still waiting to be sent. Only the
+ * latest content is transmitted, and the listener still gets exactly one
+ * reply.
+ */
+public class MRTransmitQueue {
+
+    /**
+     * Priority classes, in the order in which they are served.
+     */
+    public enum Priority {
+        /**
+         * Operations traffic: turnouts, throttles, scripts, etc.
+         */
+        OPS,
+        /**
+         * Service mode and ops mode programming.
+         */
+        PROGRAMMING,
+        /**
+         * Routine polling of the layout.
+         */
+        POLL
+    }
+
+    /**
+     * Default number of messages that can wait in each priority class.
+     */
+    public static final int DEFAULT_CAPACITY = 1024;
+
+    private final Ring[] rings;
+    private final Map<CoalescingKey, Entry> waiting = new ConcurrentHashMap<>();
+    private final AtomicLong coalesced = new AtomicLong();
+    private volatile Entry retry = null;
+
+    /**
+     * Create a queue with the {@link #DEFAULT_CAPACITY default capacity}.
+     */
+    public MRTransmitQueue() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Create a queue.
+     *
+     * @param capacity the number of messages that can wait in each priority
+     *                 class; rounded up to a power of two
+     */
+    public MRTransmitQueue(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("capacity must be positive");
+        }
+        int size = Integer.highestOneBit(capacity);
+        if (size < capacity) {
+            size = size << 1;
+        }
+        rings = new Ring[Priority.values().length];
+        for (int i = 0; i < rings.length; i++) {
+            rings[i] = new Ring(size);
+        }
+    }
+
+    /**
+     * Queue a message.
+     *
+     * @param m        the message to send
+     * @param l        the listener for the reply, possibly null
+     * @param priority the class this message is sent in
+     * @param key      messages with equal keys and listeners are coalesced
+     *                 while waiting; null to never coalesce
+     * @return true if the message was queued or merged into a waiting one;
+     *         false if the priority class is full
+     */
+    public boolean offer(@Nonnull AbstractMRMessage m, @CheckForNull AbstractMRListener l,
+            @Nonnull Priority priority, @CheckForNull Object key) {
+        Objects.requireNonNull(m, "message");
+        CoalescingKey ck = null;
+        if (key != null) {
+            ck = new CoalescingKey(priority, key, l);
+            Entry pending = waiting.get(ck);
+            if (pending != null) {
+                AbstractMRMessage old = pending.pending.get();
+                if (old != null && pending.pending.compareAndSet(old, m)) {
+                    coalesced.incrementAndGet();
+                    return true;
+                }
+            }
+        }
+        Entry entry = new Entry(m, l, ck);
+        if (!rings[priority.ordinal()].offer(entry)) {
+            return false;
+        }
+        if (ck != null) {
+            waiting.put(ck, entry);
+            if (entry.pending.get() == null) {
+                // already taken by the transmit thread
+                waiting.remove(ck, entry);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Remove the next message to send. Only the transmit thread should call
+     * this.
+     *
+     * @return the entry to send, or null if nothing is waiting
+     */
+    @CheckForNull
+    public Entry poll() {
+        Entry e = retry;
+        if (e != null) {
+            retry = null;
+            return e;
+        }
+        for (Ring ring : rings) {
+            while ((e = ring.poll()) != null) {
+                if (e.key != null) {
+                    waiting.remove(e.key, e);
+                }
+                AbstractMRMessage m = e.pending.getAndSet(null);
+                if (m != null) {
+                    e.message = m;
+                    return e;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Put a message back at the head of the queue, so that it is the next one
+     * sent. Only the transmit thread should call this, for example to repeat a
+     * message after a retransmittable error.
+     *
+     * @param m the message to send again
+     * @param l the listener for the reply, possibly null
+     */
+    public void requeueFirst(@Nonnull AbstractMRMessage m, @CheckForNull AbstractMRListener l) {
+        Entry e = new Entry(null, l, null);
+        e.message = m;
+        retry = e;
+    }
+
+    /**
+     * @return true if no messages are waiting
+     */
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * @return the number of messages waiting to be sent
+     */
+    public int size() {
+        int size = retry != null ? 1 : 0;
+        for (Ring ring : rings) {
+            size += ring.size();
+        }
+        return size;
+    }
+
+    /**
+     * @return the number of messages merged into an earlier waiting message
+     *         since this queue was created
+     */
+    public long getCoalescedCount() {
+        return coalesced.get();
+    }
+
+    /**
+     * A message waiting to be sent, with the listener for its reply.
+     */
+    public static final class Entry {
+
+        private final AtomicReference<AbstractMRMessage> pending;
+        private final AbstractMRListener listener;
+        private final CoalescingKey key;
+        private AbstractMRMessage message = null;
+
+        private Entry(AbstractMRMessage m, AbstractMRListener l, CoalescingKey key) {
+            this.pending = new AtomicReference<>(m);
+            this.listener = l;
+            this.key = key;
+        }
+
+        /**
+         * @return the message to send; only valid once returned from
+         *         {@link MRTransmitQueue#poll()}
+         */
+        public AbstractMRMessage getMessage() {
+            return message;
+        }
+
+        /**
+         * @return the listener for the reply, possibly null
+         */
+        @CheckForNull
+        public AbstractMRListener getListener() {
+            return listener;
+        }
+    }
+
+    private static final class CoalescingKey {
+
+        private final Priority priority;
+        private final Object key;
+        private final AbstractMRListener listener;
+
+        CoalescingKey(Priority priority, Object key, AbstractMRListener listener) {
+            this.priority = priority;
+            this.key = key;
+            this.listener = listener;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof CoalescingKey)) {
+                return false;
+            }
+            CoalescingKey other = (CoalescingKey) o;
+            return priority == other.priority && listener == other.listener && key.equals(other.key);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(priority, key, System.identityHashCode(listener));
+        }
+    }
+
+    /**
+     * Bounded ring in which every slot carries a sequence number, so that
+     * producers claim slots with a single compare-and-set and the consumer
+     * never blocks them.
+     */
+    private static final class Ring {
+
+        private final AtomicReferenceArray<Entry> slots;
+        private final AtomicLongArray sequence;
+        private final int mask;
+        private final AtomicLong head = new AtomicLong();
+        private final AtomicLong tail = new AtomicLong();
+
+        Ring(int size) {
+            slots = new AtomicReferenceArray<>(size);
+            sequence = new AtomicLongArray(size);
+            mask = size - 1;
+            for (int i = 0; i < size; i++) {
+                sequence.set(i, i);
+            }
+        }
+
+        boolean offer(Entry e) {
+            long pos = tail.get();
+            while (true) {
+                int index = (int) (pos & mask);
+                long diff = sequence.get(index) - pos;
+                if (diff == 0) {
+                    if (tail.compareAndSet(pos, pos + 1)) {
+                        slots.set(index, e);
+                        sequence.set(index, pos + 1);
+                        return true;
+                    }
+                    pos = tail.get();
+                } else if (diff < 0) {
+                    return false; // full
+                } else {
+                    pos = tail.get();
+                }
+            }
+        }
+
+        Entry poll() {
+            long pos = head.get();
+            while (true) {
+                int index = (int) (pos & mask);
+                long diff = sequence.get(index) - (pos + 1);
+                if (diff == 0) {
+                    if (head.compareAndSet(pos, pos + 1)) {
+                        Entry e = slots.getAndSet(index, null);
+                        sequence.set(index, pos + mask + 1);
+                        return e;
+                    }
+                    pos = head.get();
+                } else if (diff < 0) {
+                    return null; // empty
+                } else {
+                    pos = head.get();
+                }
+            }
+        }
+
+        int size() {
+            return (int) Math.max(0, tail.get() - head.get());
+        }
+    }
+}
@@ -6,6 +6,8 @@ import jmri.jmrix.AbstractMRListener;
 import jmri.jmrix.AbstractMRMessage;
 import jmri.jmrix.AbstractMRNodeTrafficController;
 import jmri.jmrix.AbstractMRReply;
+import jmri.jmrix.ListenerRegistry;
+import jmri.jmrix.MRTransmitQueue;
 import jmri.jmrix.cmri.serial.cmrinetmetrics.CMRInetMetricsData;
 import jmri.jmrix.cmri.serial.cmrinetmetrics.CMRInetMetricsCollector;
 import org.slf4j.Logger;
@@ -60,6 +62,52 @@ public class SerialTrafficController extends AbstractMRNodeTrafficController imp
         this.removeListener(l);
     }
 
+    /**
+     * Request notification of messages and replies of one type only, such
+     * as 'P' (poll) or 'R' (receive data). A listener can register for
+     * several types.
+     *
+     * @param type the message type character
+     * @param l    the listener
+     */
+    public void addSerialTypeListener(char type, SerialListener l) {
+        addListener(l, type & 0xFF);
+    }
+
+    /**
+     * Stop notification of messages and replies of one type. Note that
+     * {@link #removeSerialListener(SerialListener)} removes every
+     * registration of the listener.
+     *
+     * @param type the message type character
+     * @param l    the listener
+     */
+    public void removeSerialTypeListener(char type, SerialListener l) {
+        removeListener(l, type & 0xFF);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * C/MRI messages are classified by their type, the byte after the node
+     * address.
+     */
+    @Override
+    protected int getMessageType(AbstractMRMessage m) {
+        return m.getNumDataElements() > 1 ? m.getElement(1) & 0xFF : ListenerRegistry.ALL_TYPES;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * C/MRI replies are classified by their type, the byte after the node
+     * address.
+     */
+    @Override
+    protected int getReplyType(AbstractMRReply r) {
+        return r.getNumDataElements() > 1 ? r.getElement(1) & 0xFF : ListenerRegistry.ALL_TYPES;
+    }
+
     /**
      * Initialize a CMRI node.
      *
@@ -292,6 +340,33 @@ public class SerialTrafficController extends AbstractMRNodeTrafficController imp
         sendMessage(m, reply);
     }
 
+    /**
+     * Queued polls wait behind output and initialization messages.
+     * <p>
+     * {@inheritDoc}
+     */
+    @Override
+    protected MRTransmitQueue.Priority getTransmitPriority(AbstractMRMessage m) {
+        if (m instanceof SerialMessage && ((SerialMessage) m).isPoll()) {
+            return MRTransmitQueue.Priority.POLL;
+        }
+        return MRTransmitQueue.Priority.OPS;
+    }
+
+    /**
+     * Output messages to a node that has not been sent to yet are replaced by
+     * the newer output for that node, as each carries the node's full state.
+     * <p>
+     * {@inheritDoc}
+     */
+    @Override
+    protected Object getCoalescingKey(AbstractMRMessage m) {
+        if (m instanceof SerialMessage && ((SerialMessage) m).isXmt()) {
+            return ((SerialMessage) m).getUA();
+        }
+        return null;
+    }
+
     @Override
     protected AbstractMRReply newReply() {
         return new SerialReply();
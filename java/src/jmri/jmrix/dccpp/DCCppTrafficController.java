@@ -6,6 +6,7 @@ import jmri.jmrix.AbstractMRListener;
 import jmri.jmrix.AbstractMRMessage;
 import jmri.jmrix.AbstractMRReply;
 import jmri.jmrix.AbstractMRTrafficController;
+import jmri.jmrix.ListenerRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -198,6 +199,56 @@ public abstract class DCCppTrafficController extends AbstractMRTrafficController
         mListenerMasks.remove(l);
     }
 
+    /**
+     * Request notification of messages and replies with one opcode only. A
+     * listener can register for several opcodes.
+     *
+     * @param opCode the opcode character, e.g.
+     *               {@link DCCppConstants#SENSOR_REPLY}
+     * @param l      the listener
+     */
+    public void addDCCppOpCodeListener(char opCode, DCCppListener l) {
+        addListener(l, opCode & 0xFF);
+    }
+
+    /**
+     * Stop notification of messages and replies with one opcode. Note that
+     * {@link #removeDCCppListener(int, DCCppListener)} removes every
+     * registration of the listener.
+     *
+     * @param opCode the opcode character
+     * @param l      the listener
+     */
+    public void removeDCCppOpCodeListener(char opCode, DCCppListener l) {
+        removeListener(l, opCode & 0xFF);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * DCC++ messages are classified by their opcode character.
+     */
+    @Override
+    protected int getMessageType(AbstractMRMessage m) {
+        if (m instanceof DCCppMessage && m.getNumDataElements() > 0) {
+            return ((DCCppMessage) m).getOpCodeChar() & 0xFF;
+        }
+        return ListenerRegistry.ALL_TYPES;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * DCC++ replies are classified by their opcode character.
+     */
+    @Override
+    protected int getReplyType(AbstractMRReply r) {
+        if (r instanceof DCCppReply && r.getNumDataElements() > 0) {
+            return ((DCCppReply) r).getOpCodeChar() & 0xFF;
+        }
+        return ListenerRegistry.ALL_TYPES;
+    }
+
     /**
      * Has to be available, even though it doesn't do anything
      * on DCC++.
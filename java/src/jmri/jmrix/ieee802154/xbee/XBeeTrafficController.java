@@ -261,9 +261,11 @@ public class XBeeTrafficController extends IEEE802154TrafficController implement
      */
     @Override
     synchronized protected void sendMessage(AbstractMRMessage m, AbstractMRListener reply) {
-        msgQueue.addLast(m);
-        listenerQueue.addLast(reply);
         if (m != null) {
+            if (!transmitQueue.offer(m, reply, getTransmitPriority(m), getCoalescingKey(m))) {
+                log.error("transmit queue full, message dropped: {}", m);
+                return;
+            }
             log.debug("just notified transmit thread with message {}", m.toString());
         }
     }
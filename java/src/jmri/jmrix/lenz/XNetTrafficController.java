@@ -6,6 +6,7 @@ import jmri.jmrix.AbstractMRListener;
 import jmri.jmrix.AbstractMRMessage;
 import jmri.jmrix.AbstractMRReply;
 import jmri.jmrix.AbstractMRTrafficController;
+import jmri.jmrix.ListenerRegistry;
 import net.jcip.annotations.GuardedBy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -190,6 +191,51 @@ public abstract class XNetTrafficController extends AbstractMRTrafficController
         mListenerMasks.remove(l);
     }
 
+    /**
+     * Request notification of messages and replies with one header byte
+     * only. A listener can register for several header bytes. It gets these
+     * whatever their mask would select.
+     *
+     * @param header the header byte, e.g.
+     *               {@link XNetConstants#ACC_INFO_RESPONSE}
+     * @param l      the listener
+     */
+    public void addXNetHeaderListener(int header, XNetListener l) {
+        addListener(l, header & 0xFF);
+    }
+
+    /**
+     * Stop notification of messages and replies with one header byte. Note
+     * that {@link #removeXNetListener(int, XNetListener)} removes every
+     * registration of the listener.
+     *
+     * @param header the header byte
+     * @param l      the listener
+     */
+    public void removeXNetHeaderListener(int header, XNetListener l) {
+        removeListener(l, header & 0xFF);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * XpressNet messages are classified by their header byte.
+     */
+    @Override
+    protected int getMessageType(AbstractMRMessage m) {
+        return m.getNumDataElements() > 0 ? m.getElement(0) & 0xFF : ListenerRegistry.ALL_TYPES;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * XpressNet replies are classified by their header byte.
+     */
+    @Override
+    protected int getReplyType(AbstractMRReply r) {
+        return r.getNumDataElements() > 0 ? r.getElement(0) & 0xFF : ListenerRegistry.ALL_TYPES;
+    }
+
     /**
      * This method has to be available, even though it doesn't do anything on
      * Lenz.
@@ -160,19 +160,7 @@ public class IBLnPacketizer extends LnPacketizer {
                         if (log.isDebugEnabled()) {
                             log.debug("queue message for notification");
                         }
-                        final LocoNetMessage thisMsg = msg;
-                        final LnPacketizer thisTc = trafficController;
-                        // return a notification via the queue to ensure end
-                        Runnable r = new Runnable() {
-                            LocoNetMessage msgForLater = thisMsg;
-                            LnPacketizer myTc = thisTc;
-
-                            @Override
-                            public void run() {
-                                myTc.notify(msgForLater);
-                            }
-                        };
-                        javax.swing.SwingUtilities.invokeLater(r);
+                        receiveDispatcher.dispatch(msg);
                     }
 
                     // done with this one
@@ -0,0 +1,117 @@
+package jmri.jmrix.loconet;
+
+import java.util.ArrayDeque;
+import javax.annotation.Nonnull;
+
+/**
+ * Pool of reusable {@link LocoNetMessage} objects for a packetizer's receive
+ * path.
+ * <p>
+ * Messages from the pool are only valid until they are released, which the
+ * packetizer does once every listener has been notified. Listeners that need
+ * to keep one must use {@link LocoNetMessage#retain()}.
+ * <p>
+ * Some of the message formats used in this class are Copyright Digitrax, Inc.
+ * and used with permission as part of the JMRI project. That permission does
+ * not extend to uses in other software products. If you wish to use this code,
+ * algorithm or these message formats outside of JMRI, please contact Digitrax
+ * Inc for separate permission.
+ */
+public class LnMessagePool {
+
+    /**
+     * Longest possible LocoNet message, as the length byte has 7 bits.
+     */
+    static final int MAX_LENGTH = 127;
+
+    /**
+     * Number of free messages of each length kept for reuse.
+     */
+    static final int FREE_PER_LENGTH = 32;
+
+    @SuppressWarnings("unchecked")
+    private final ArrayDeque<Pooled>[] free = new ArrayDeque[MAX_LENGTH + 1];
+
+    private long created = 0;
+    private long reused = 0;
+
+    /**
+     * Get a message of the given length. The content is not cleared.
+     *
+     * @param len total bytes in the message, from 2 to 127
+     * @return a pooled message
+     */
+    @Nonnull
+    public synchronized LocoNetMessage acquire(int len) {
+        if (len < 2 || len > MAX_LENGTH) {
+            throw new IllegalArgumentException("invalid LocoNet message length " + len); // NOI18N
+        }
+        ArrayDeque<Pooled> list = free[len];
+        if (list != null && !list.isEmpty()) {
+            reused++;
+            Pooled m = list.pop();
+            m.inPool = false;
+            return m;
+        }
+        created++;
+        return new Pooled(len);
+    }
+
+    /**
+     * Return a message to the pool. Messages not from a pool, or already
+     * released, are ignored.
+     *
+     * @param m the message, which must not be used after this
+     */
+    public synchronized void release(LocoNetMessage m) {
+        if (!(m instanceof Pooled)) {
+            return;
+        }
+        Pooled p = (Pooled) m;
+        if (p.inPool) {
+            return;
+        }
+        ArrayDeque<Pooled> list = free[p.getNumDataElements()];
+        if (list == null) {
+            list = new ArrayDeque<>();
+            free[p.getNumDataElements()] = list;
+        }
+        if (list.size() < FREE_PER_LENGTH) {
+            p.inPool = true;
+            list.push(p);
+        }
+    }
+
+    /**
+     * @return number of messages created because none were free
+     */
+    public synchronized long getCreatedCount() {
+        return created;
+    }
+
+    /**
+     * @return number of requests satisfied by reusing a released message
+     */
+    public synchronized long getReusedCount() {
+        return reused;
+    }
+
+    /**
+     * A message owned by a pool, which copies itself when retained.
+     */
+    private static final class Pooled extends LocoNetMessage {
+
+        static final long serialVersionUID = 1L;
+
+        private boolean inPool = false;
+
+        Pooled(int len) {
+            super(len);
+        }
+
+        @Override
+        public LocoNetMessage retain() {
+            return new LocoNetMessage(this);
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package jmri.jmrix.loconet;
+
+import java.nio.ByteBuffer;
+import javax.annotation.CheckForNull;
+import javax.annotation.Nonnull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Finds LocoNet packets in a buffer of received bytes.
+ * <p>
+ * The bytes are examined where they lie in the buffer; a message object is
+ * only filled once a complete packet with a good checksum has been found.
+ * The framing rules are the same as those of {@link LnPacketizer.RcvHandler}:
+ * <ul>
+ * <li>bytes before an opcode (high bit set) are skipped,
+ * <li>the length comes from the opcode, or from the second byte for
+ * variable length messages,
+ * <li>a byte with the high bit set inside a packet ends that packet early
+ * and starts the next one,
+ * <li>packets with a bad checksum are dropped.
+ * </ul>
+ * Some of the message formats used in this class are Copyright Digitrax, Inc.
+ * and used with permission as part of the JMRI project. That permission does
+ * not extend to uses in other software products. If you wish to use this code,
+ * algorithm or these message formats outside of JMRI, please contact Digitrax
+ * Inc for separate permission.
+ */
+public class LnPacketFramer {
+
+    private final LnMessagePool pool;
+
+    /**
+     * @param pool source of the message objects returned by
+     *             {@link #next(ByteBuffer)}
+     */
+    public LnPacketFramer(@Nonnull LnMessagePool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * Get the next complete packet from a buffer.
+     * <p>
+     * The buffer must be in read mode (as after {@link ByteBuffer#flip()}).
+     * On return its position is past the packet returned and any bytes
+     * skipped. If there is no complete packet, the position is left at the
+     * start of the partial packet, so the caller can
+     * {@link ByteBuffer#compact()} the buffer and read more bytes into it.
+     *
+     * @param buf the received bytes
+     * @return the next packet, from the pool, or null if more bytes are needed
+     */
+    @CheckForNull
+    public LocoNetMessage next(@Nonnull ByteBuffer buf) {
+        while (true) {
+            // start by looking for an opcode - skip if bit not set
+            while (buf.hasRemaining() && (buf.get(buf.position()) & 0x80) == 0) {
+                if (log.isTraceEnabled()) { // avoid building string
+                    log.trace("Skipping: {}", Integer.toHexString(buf.get(buf.position()) & 0xFF)); // NOI18N
+                }
+                buf.position(buf.position() + 1);
+            }
+            int start = buf.position();
+            if (buf.remaining() < 2) {
+                return null;
+            }
+            int opCode = buf.get(start) & 0xFF;
+            int byte2 = buf.get(start + 1) & 0xFF;
+            int len = length(opCode, byte2);
+            if (len < 2) {
+                log.error("LocoNet message length invalid: {} opcode: {}", byte2, Integer.toHexString(opCode)); // NOI18N
+                buf.position(start + 1);
+                continue;
+            }
+            int end = Math.min(start + len, buf.limit());
+            int early = -1;
+            for (int i = start + 1; i < end; i++) {
+                if ((buf.get(i) & 0x80) != 0) {
+                    early = i;
+                    break;
+                }
+            }
+            if (early >= 0) {
+                log.warn("LocoNet message with opCode: {} ended early. Expected length: {} seen length: {} unexpected byte: {}", // NOI18N
+                        Integer.toHexString(opCode), len, early - start, Integer.toHexString(buf.get(early) & 0xFF));
+                buf.position(early);
+                continue;
+            }
+            if (end < start + len) {
+                return null; // wait for the rest
+            }
+            LocoNetMessage msg = pool.acquire(len);
+            for (int i = 0; i < len; i++) {
+                msg.setElement(i, buf.get(start + i) & 0xFF);
+            }
+            buf.position(start + len);
+            if (!msg.checkParity()) {
+                log.warn("Ignore LocoNet packet with bad checksum: {}", msg);
+                pool.release(msg);
+                continue;
+            }
+            return msg;
+        }
+    }
+
+    /**
+     * Get the total length of a packet from its first two bytes.
+     *
+     * @param opCode the first byte
+     * @param byte2  the second byte
+     * @return the number of bytes in the packet, including the checksum
+     */
+    static int length(int opCode, int byte2) {
+        switch ((opCode & 0x60) >> 5) {
+            case 0:
+                return 2;
+            case 1:
+                return 4;
+            case 2:
+                return 6;
+            default:
+                return byte2;
+        }
+    }
+
+    private final static Logger log = LoggerFactory.getLogger(LnPacketFramer.class);
+
+}
@@ -2,6 +2,7 @@ package jmri.jmrix.loconet;
 
 import java.io.DataInputStream;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
 import java.util.LinkedList;
 import java.util.NoSuchElementException;
 import org.slf4j.Logger;
@@ -72,6 +73,83 @@ public class LnPacketizer extends LnTrafficController {
      */
     protected Runnable rcvHandler;
 
+    /**
+     * True if received bytes are read in bulk and framed into pooled
+     * messages; see {@link #setPooledReceive(boolean)}.
+     */
+    protected boolean pooledReceive = false;
+
+    /**
+     * Source of the messages handed to listeners when
+     * {@link #pooledReceive} is set.
+     */
+    protected final LnMessagePool messagePool = new LnMessagePool();
+
+    /**
+     * Forwards received and echoed messages to the listeners on the layout
+     * thread, in order and in batches.
+     */
+    protected final LnReceiveDispatcher receiveDispatcher = new LnReceiveDispatcher(this);
+
+    /**
+     * Get the stage that forwards received messages to the listeners, for
+     * its batch size and queue delay statistics.
+     *
+     * @return the dispatcher
+     */
+    public LnReceiveDispatcher getReceiveDispatcher() {
+        return receiveDispatcher;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Also resets the statistics of the {@link #getReceiveDispatcher()
+     * receive dispatcher}.
+     */
+    @Override
+    public void resetStatistics() {
+        super.resetStatistics();
+        receiveDispatcher.resetStatistics();
+    }
+
+    /**
+     * Choose how received bytes are turned into messages. Must be called
+     * before {@link #startThreads()}.
+     * <p>
+     * When set, the receive thread reads all available bytes at once into a
+     * buffer, frames the packets in place with an {@link LnPacketFramer}, and
+     * reuses message objects once every listener has been notified. Listeners
+     * that keep references to received messages must then use
+     * {@link LocoNetMessage#retain()}.
+     *
+     * @param pooled true to use pooled messages; false (the default) for a
+     *               new message per packet
+     */
+    public void setPooledReceive(boolean pooled) {
+        pooledReceive = pooled;
+    }
+
+    /**
+     * @return true if received messages are pooled
+     * @see #setPooledReceive(boolean)
+     */
+    public boolean isPooledReceive() {
+        return pooledReceive;
+    }
+
+    /**
+     * Invoked in the receive thread for each complete packet with a good
+     * checksum, before it is queued for the listeners.
+     * <p>
+     * Does nothing here; override to follow the state of the LocoNet from
+     * the receive thread.
+     *
+     * @param msg the packet received
+     */
+    protected void messageReceived(LocoNetMessage msg) {
+    }
+
     /**
      * Forward a preformatted LocoNetMessage to the actual interface.
      * <p>
@@ -189,6 +267,27 @@ public class LnPacketizer extends LnTrafficController {
     // Defined this way to reduce new object creation
     private byte[] rcvBuffer = new byte[1];
 
+    /**
+     * Read as many bytes as are available, at least one, protecting against
+     * timeouts as {@link #readByteProtected(DataInputStream)} does.
+     *
+     * @param istream stream to read from
+     * @param buffer  destination for the bytes
+     * @param offset  index in buffer of the first byte to fill
+     * @param length  maximum number of bytes to read
+     * @return the number of bytes read
+     * @throws java.io.IOException failure during stream read
+     */
+    protected int readBytesProtected(DataInputStream istream, byte[] buffer, int offset, int length) throws java.io.IOException {
+        while (true) { // loop will repeat until characters found
+            int nchars;
+            nchars = istream.read(buffer, offset, length);
+            if (nchars > 0) {
+                return nchars;
+            }
+        }
+    }
+
     /**
      * Captive class to handle incoming characters. This is a permanent loop,
      * looking for input messages in character form on the stream connected to
@@ -299,8 +398,8 @@ public class LnPacketizer extends LnTrafficController {
                     // message is complete, dispatch it !!
                     {
                         log.debug("queue message for notification: {}", msg);
-
-                        jmri.util.ThreadingUtil.runOnLayoutEventually(new RcvMemo(msg, trafficController));
+                        messageReceived(msg);
+                        receiveDispatcher.dispatch(msg);
                     }
 
                     // done with this one
@@ -326,26 +425,70 @@ public class LnPacketizer extends LnTrafficController {
     }
 
     /**
-     * Captive class to notify of one message.
+     * Captive class to handle incoming characters in bulk. The bytes
+     * available on the stream are read into a buffer at once, and the
+     * packets framed there by an {@link LnPacketFramer} into messages from
+     * the {@link #messagePool}.
      */
-    private static class RcvMemo implements jmri.util.ThreadingUtil.ThreadAction {
+    protected class PooledRcvHandler implements Runnable {
+
+        /**
+         * Remember the LnPacketizer object
+         */
+        LnTrafficController trafficController;
 
-        public RcvMemo(LocoNetMessage msg, LnTrafficController trafficController) {
-            thisMsg = msg;
-            thisTc = trafficController;
+        public PooledRcvHandler(LnTrafficController lt) {
+            trafficController = lt;
         }
-        LocoNetMessage thisMsg;
-        LnTrafficController thisTc;
 
         /**
-         * {@inheritDoc}
+         * Handle incoming characters. This is a permanent loop, looking for
+         * input messages in character form on the stream connected to the
+         * LnPortController via <code>connectPort</code>. Terminates with the
+         * input stream breaking out of the try block.
          */
         @Override
         public void run() {
-            thisTc.notify(thisMsg);
+            ByteBuffer buffer = ByteBuffer.allocate(RCV_BUFFER_SIZE);
+            LnPacketFramer framer = new LnPacketFramer(messagePool);
+            while (!threadStopRequest) {   // loop until asked to stop
+                try {
+                    int n = readBytesProtected(istream, buffer.array(), buffer.position(), buffer.remaining());
+                    buffer.position(buffer.position() + n);
+                    buffer.flip();
+                    LocoNetMessage msg;
+                    while ((msg = framer.next(buffer)) != null) {
+                        // message is complete, dispatch it !!
+                        log.debug("queue message for notification: {}", msg);
+                        messageReceived(msg);
+                        receiveDispatcher.dispatch(msg, messagePool);
+                    }
+                    buffer.compact();
+                } catch (java.io.EOFException e) {
+                    // posted from idle port when enableReceiveTimeout used
+                    log.trace("EOFException, is LocoNet serial I/O using timeouts?"); // NOI18N
+                } catch (java.io.IOException e) {
+                    // fired when write-end of HexFile reaches end
+                    log.debug("IOException, should only happen with HexFIle: {}", e); // NOI18N
+                    log.info("End of file"); // NOI18N
+                    disconnectPort(controller);
+                    return;
+                } // normally, we don't catch RuntimeException, but in this
+                  // permanently running loop it seems wise.
+                catch (RuntimeException e) {
+                    log.warn("run: unexpected Exception: {}", e); // NOI18N
+                    buffer.clear();
+                }
+            } // end of permanent loop
         }
     }
 
+    /**
+     * Size of the buffer used by {@link PooledRcvHandler}; big enough for
+     * two of the longest LocoNet messages.
+     */
+    static final int RCV_BUFFER_SIZE = 256;
+
     /**
      * Captive class to handle transmission.
      */
@@ -412,25 +555,7 @@ public class LnPacketizer extends LnTrafficController {
         }
         // message is queued for transmit, echo it when needed
         // return a notification via the queue to ensure end
-        javax.swing.SwingUtilities.invokeLater(new Echo(this, new LocoNetMessage(msg)));
-    }
-
-    static class Echo implements Runnable {
-
-        Echo(LnPacketizer t, LocoNetMessage m) {
-            myTc = t;
-            msgForLater = m;
-        }
-        LocoNetMessage msgForLater;
-        LnPacketizer myTc;
-
-        /**
-         * {@inheritDoc}
-         */
-        @Override
-        public void run() {
-            myTc.notify(msgForLater);
-        }
+        receiveDispatcher.dispatch(new LocoNetMessage(msg));
     }
 
     /**
@@ -443,7 +568,7 @@ public class LnPacketizer extends LnTrafficController {
 
         // start the RcvHandler in a thread of its own
         if (rcvHandler == null) {
-            rcvHandler = new RcvHandler(this);
+            rcvHandler = pooledReceive ? new PooledRcvHandler(this) : new RcvHandler(this);
         }
         rcvThread = new Thread(rcvHandler, "LocoNet receive handler"); // NOI18N
         rcvThread.setDaemon(true);
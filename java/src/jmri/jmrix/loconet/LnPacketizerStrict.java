@@ -145,36 +145,8 @@ public class LnPacketizerStrict extends LnPacketizer {
                         if (log.isDebugEnabled()) { // avoid String building if not needed
                             log.debug("queue message for notification: {}", msg.toString());  // NOI18N
                         }
-                        // check for XmtHandler waiting on return values
-                        if (waitForMsg != null) {
-                            if (waitForMsg.equals(msg)) {
-                                waitForMsg = null;
-                            }
-                        }
-                        if (waitingOnLack) {
-                            if (msg.getOpCode() == LnConstants.OPC_LONG_ACK) {
-                                waitingOnLack = false;
-                                // check bad IMM
-                                if ((msg.getElement(1) & 0xff) == 0x6d && (msg.getElement(2) & 0xff) == 0) {
-                                    reTryRequired = true;
-                                    waitBusy = 100;
-                                    log.warn("IMM Back off");  // NOI18N
-                                } else {
-                                    reTryRequired = false;
-                                }
-                            } else if (msg.getOpCode() == LnConstants.OPC_SL_RD_DATA) {
-                                waitingOnLack = false;
-                            } else if ( msg.getOpCode() == LnConstants.OPC_ALM_READ ) { // Extended slot status
-                                waitingOnLack = false;
-                            }
-                            // check for CS busy
-                        } else if (msg.getOpCode() == LnConstants.OPC_GPBUSY) {
-                            waitBusy = 100;
-                            log.warn("CS Busy Back off");  // NOI18N
-                            reTryRequired = true;
-                            // check for waiting on echo
-                        }
-                        jmri.util.ThreadingUtil.runOnLayoutEventually(new RcvMemo(msg, trafficController));
+                        messageReceived(msg);
+                        receiveDispatcher.dispatch(msg);
                     }
                     // done with this one
                 } catch (LocoNetMessageException e) {
@@ -199,23 +171,42 @@ public class LnPacketizerStrict extends LnPacketizer {
     }
 
     /**
-     * Captive class to notify of one message
+     * Follow the echo of the message being sent, the LACK or reply it is
+     * waiting for, and command station busy messages, so that the transmit
+     * thread knows whether to send the next message or try again.
+     * <p>
+     * {@inheritDoc}
      */
-    private static class RcvMemo implements jmri.util.ThreadingUtil.ThreadAction {
-
-        public RcvMemo(LocoNetMessage msg, LnTrafficController trafficController) {
-            thisMsg = msg;
-            thisTc = trafficController;
+    @Override
+    protected void messageReceived(LocoNetMessage msg) {
+        // check for XmtHandler waiting on return values
+        if (waitForMsg != null) {
+            if (waitForMsg.equals(msg)) {
+                waitForMsg = null;
+            }
         }
-        LocoNetMessage thisMsg;
-        LnTrafficController thisTc;
-
-        /**
-         * {@inheritDoc}
-         */
-        @Override
-        public void run() {
-            thisTc.notify(thisMsg);
+        if (waitingOnLack) {
+            if (msg.getOpCode() == LnConstants.OPC_LONG_ACK) {
+                waitingOnLack = false;
+                // check bad IMM
+                if ((msg.getElement(1) & 0xff) == 0x6d && (msg.getElement(2) & 0xff) == 0) {
+                    reTryRequired = true;
+                    waitBusy = 100;
+                    log.warn("IMM Back off");  // NOI18N
+                } else {
+                    reTryRequired = false;
+                }
+            } else if (msg.getOpCode() == LnConstants.OPC_SL_RD_DATA) {
+                waitingOnLack = false;
+            } else if ( msg.getOpCode() == LnConstants.OPC_ALM_READ ) { // Extended slot status
+                waitingOnLack = false;
+            }
+            // check for CS busy
+        } else if (msg.getOpCode() == LnConstants.OPC_GPBUSY) {
+            waitBusy = 100;
+            log.warn("CS Busy Back off");  // NOI18N
+            reTryRequired = true;
+            // check for waiting on echo
         }
     }
 
@@ -372,7 +363,7 @@ public class LnPacketizerStrict extends LnPacketizer {
 
         // start the RcvHandler in a thread of its own
         if (rcvHandler == null) {
-            rcvHandler = new RcvHandlerStrict(this);
+            rcvHandler = pooledReceive ? new PooledRcvHandler(this) : new RcvHandlerStrict(this);
         }
         rcvThread = new Thread(rcvHandler, "LocoNet receive handler"); // NOI18N
         rcvThread.setDaemon(true);
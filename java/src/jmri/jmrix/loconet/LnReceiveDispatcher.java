@@ -0,0 +1,175 @@
+package jmri.jmrix.loconet;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import javax.annotation.CheckForNull;
+import javax.annotation.Nonnull;
+import jmri.util.ThreadingUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Delivers LocoNet messages from the receive and transmit threads to the
+ * listeners of a traffic controller on the layout thread.
+ * <p>
+ * Messages are queued from any thread. Only one task at a time is waiting on
+ * the layout thread; when it runs it forwards every message queued by then,
+ * in the order they were queued, to
+ * {@link LnTrafficController#notify(LocoNetMessage)}. A burst of packets is
+ * therefore handled in a few layout thread turns instead of one turn per
+ * packet.
+ * <p>
+ * The batch size and queue delay statistics show how well the layout thread
+ * is keeping up.
+ */
+public class LnReceiveDispatcher {
+
+    /**
+     * Largest number of messages forwarded in one layout thread turn. Any
+     * further messages are left for the next turn, so that other work on the
+     * layout thread is not held up.
+     */
+    static final int MAX_BATCH = 500;
+
+    private final LnTrafficController tc;
+    private final ConcurrentLinkedQueue<Pending> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean scheduled = new AtomicBoolean(false);
+
+    // statistics, only changed on the layout thread
+    private volatile long batchCount = 0;
+    private volatile long messageCount = 0;
+    private volatile int maxBatchSize = 0;
+    private volatile long totalQueueDelay = 0;
+    private volatile long maxQueueDelay = 0;
+
+    /**
+     * @param tc the traffic controller whose listeners get the messages
+     */
+    public LnReceiveDispatcher(@Nonnull LnTrafficController tc) {
+        this.tc = tc;
+    }
+
+    /**
+     * Queue a message for the listeners. May be called from any thread.
+     *
+     * @param m    the message
+     * @param pool if not null, m is released to this pool once every
+     *             listener has been notified
+     */
+    public void dispatch(@Nonnull LocoNetMessage m, @CheckForNull LnMessagePool pool) {
+        queue.add(new Pending(m, pool));
+        if (scheduled.compareAndSet(false, true)) {
+            ThreadingUtil.runOnLayoutEventually(this::drain);
+        }
+    }
+
+    /**
+     * Queue a message for the listeners. May be called from any thread.
+     *
+     * @param m the message
+     */
+    public void dispatch(@Nonnull LocoNetMessage m) {
+        dispatch(m, null);
+    }
+
+    /**
+     * Forward the queued messages. Runs on the layout thread.
+     */
+    private void drain() {
+        scheduled.set(false);
+        int count = 0;
+        long now = System.nanoTime();
+        Pending p;
+        while (count < MAX_BATCH && (p = queue.poll()) != null) {
+            count++;
+            long delay = now - p.queued;
+            totalQueueDelay += delay;
+            if (delay > maxQueueDelay) {
+                maxQueueDelay = delay;
+            }
+            try {
+                tc.notify(p.message);
+            } catch (RuntimeException e) {
+                log.warn("During dispatch of {}", p.message, e);
+            } finally {
+                if (p.pool != null) {
+                    p.pool.release(p.message);
+                }
+            }
+        }
+        if (count > 0) {
+            batchCount++;
+            messageCount += count;
+            if (count > maxBatchSize) {
+                maxBatchSize = count;
+            }
+        }
+        if (!queue.isEmpty() && scheduled.compareAndSet(false, true)) {
+            ThreadingUtil.runOnLayoutEventually(this::drain);
+        }
+    }
+
+    /**
+     * @return number of layout thread turns that forwarded messages
+     */
+    public long getBatchCount() {
+        return batchCount;
+    }
+
+    /**
+     * @return number of messages forwarded
+     */
+    public long getMessageCount() {
+        return messageCount;
+    }
+
+    /**
+     * @return largest number of messages forwarded in one layout thread turn
+     */
+    public int getMaxBatchSize() {
+        return maxBatchSize;
+    }
+
+    /**
+     * @return average time in milliseconds between a message being queued and
+     *         its batch starting on the layout thread
+     */
+    public double getAverageQueueDelay() {
+        long count = messageCount;
+        return count == 0 ? 0 : totalQueueDelay / 1.0e6 / count;
+    }
+
+    /**
+     * @return longest time in milliseconds between a message being queued and
+     *         its batch starting on the layout thread
+     */
+    public double getMaxQueueDelay() {
+        return maxQueueDelay / 1.0e6;
+    }
+
+    /**
+     * Reset the batch and delay statistics.
+     */
+    public void resetStatistics() {
+        batchCount = 0;
+        messageCount = 0;
+        maxBatchSize = 0;
+        totalQueueDelay = 0;
+        maxQueueDelay = 0;
+    }
+
+    private static final class Pending {
+
+        final LocoNetMessage message;
+        final LnMessagePool pool;
+        final long queued = System.nanoTime();
+
+        Pending(LocoNetMessage message, LnMessagePool pool) {
+            this.message = message;
+            this.pool = pool;
+        }
+    }
+
+    private final static Logger log = LoggerFactory.getLogger(LnReceiveDispatcher.class);
+
+}
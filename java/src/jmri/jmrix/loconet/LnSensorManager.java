@@ -25,8 +25,8 @@ public class LnSensorManager extends jmri.managers.AbstractSensorManager impleme
             log.error("SensorManager Created, yet there is no Traffic Controller");
             return;
         }
-        // ctor has to register for LocoNet events
-        tc.addLocoNetListener(~0, this);
+        // ctor has to register for LocoNet events; only input reports are decoded
+        tc.addLocoNetOpCodeListener(LnConstants.OPC_INPUT_REP, this);
 
         // start the update sequence. Until JMRI 2.9.4, this waited
         // until files have been read, but starts automatically
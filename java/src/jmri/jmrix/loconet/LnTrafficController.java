@@ -1,8 +1,8 @@
 package jmri.jmrix.loconet;
 
-import java.util.ArrayList;
-import java.util.Vector;
+import java.util.List;
 import javax.annotation.Nonnull;
+import jmri.jmrix.ListenerRegistry;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -72,23 +72,49 @@ public abstract class LnTrafficController implements LocoNetInterface {
 
     // The methods to implement adding and removing listeners
 
-    // relies on Vector being a synchronized class
-    protected Vector<LocoNetListener> listeners = new Vector<LocoNetListener>();
+    /**
+     * Registered listeners. Copy-on-write, so notification never needs to
+     * copy or lock it.
+     */
+    protected final ListenerRegistry<LocoNetListener> listeners = new ListenerRegistry<>();
 
     @Override
-    public synchronized void addLocoNetListener(int mask, @Nonnull LocoNetListener l) {
+    public void addLocoNetListener(int mask, @Nonnull LocoNetListener l) {
         java.util.Objects.requireNonNull(l);
-        if (!listeners.contains(l)) {
-            listeners.addElement(l);
-        }
+        listeners.add(l);
     }
 
     @Override
-    public synchronized void removeLocoNetListener(int mask, @Nonnull LocoNetListener l) {
+    public void removeLocoNetListener(int mask, @Nonnull LocoNetListener l) {
         java.util.Objects.requireNonNull(l);
-        if (listeners.contains(l)) {
-            listeners.removeElement(l);
-        }
+        listeners.remove(l);
+    }
+
+    /**
+     * Request notification of incoming messages with one opcode only. A
+     * listener can register for several opcodes. This saves listeners that
+     * only decode a few kinds of message from seeing every packet on the
+     * LocoNet.
+     *
+     * @param opCode the opcode, e.g. {@link LnConstants#OPC_INPUT_REP}
+     * @param l      the listener
+     */
+    public void addLocoNetOpCodeListener(int opCode, @Nonnull LocoNetListener l) {
+        java.util.Objects.requireNonNull(l);
+        listeners.add(l, opCode & 0xFF);
+    }
+
+    /**
+     * Stop notification of messages with one opcode. Note that
+     * {@link #removeLocoNetListener(int, LocoNetListener)} removes every
+     * registration of the listener.
+     *
+     * @param opCode the opcode
+     * @param l      the listener
+     */
+    public void removeLocoNetOpCodeListener(int opCode, @Nonnull LocoNetListener l) {
+        java.util.Objects.requireNonNull(l);
+        listeners.remove(l, opCode & 0xFF);
     }
 
     /**
@@ -106,15 +132,13 @@ public abstract class LnTrafficController implements LocoNetInterface {
         receivedMsgCount++;
         receivedByteCount += m.getNumDataElements();
 
-        // make a copy of the listener vector for notifications; synchronized not needed once copied
-        ArrayList<LocoNetListener> v;
-        synchronized (this) {
-            v = new ArrayList<LocoNetListener>(listeners);
-        }
+        // the list is an immutable snapshot, so no copy is needed
+        List<LocoNetListener> v = listeners.getListeners(m.getOpCode());
 
         // forward to all listeners
         log.debug("notify of incoming LocoNet packet: {}", m);
-        for (LocoNetListener client : v) {
+        for (int i = 0; i < v.size(); i++) {
+            LocoNetListener client = v.get(i);
             log.trace("  notify {} of incoming LocoNet packet: {}", client, m);
             client.message(m);
         }
@@ -346,6 +346,23 @@ public class LocoNetMessage extends AbstractMessage implements Serializable {
         return data;
     }
 
+    /**
+     * Get a message with this content that can be kept after the
+     * {@link LocoNetListener#message(LocoNetMessage)} call that delivered it
+     * returns.
+     * <p>
+     * A packetizer using pooled receive buffers (see
+     * {@link LnPacketizer#setPooledReceive(boolean)}) reuses the message
+     * objects it hands to listeners for later packets. Listeners that keep a
+     * reference to a received message must keep the result of this method
+     * instead. For ordinary messages this returns the message itself.
+     *
+     * @return a message whose content will not be changed by the packetizer
+     */
+    public LocoNetMessage retain() {
+        return this;
+    }
+
     /**
      * Two messages are the same if their entire data content is the same. We
      * ignore the error-check byte to ease comparisons before a message is
@@ -214,7 +214,8 @@ public final class ClientRxHandler extends Thread implements LocoNetListener {
     @Override
     public void message(LocoNetMessage msg) {
         synchronized (msgQueue) {
-            msgQueue.add(msg);
+            // sent later by the ClientTxHandler
+            msgQueue.add(msg.retain());
             msgQueue.notify();
         }
     }
@@ -43,7 +43,7 @@ public class LnMessageBuffer extends UnicastRemoteObject implements LnMessageBuf
     @Override
     public void message(LocoNetMessage msg) {
         synchronized (messageList) {
-            messageList.add(msg);
+            messageList.add(msg.retain());
             messageList.notify();
         }
     }
@@ -210,19 +210,7 @@ public class UhlenbrockPacketizer extends LnPacketizer {
                     {
                         log.debug("queue message for notification");
 //log.info("-------------------Uhlenbrock IB-COM LocoNet message RECEIVED: "+msg.toString());
-                        final LocoNetMessage thisMsg = msg;
-                        final LnPacketizer thisTc = trafficController;
-                        // return a notification via the queue to ensure end
-                        Runnable r = new Runnable() {
-                            LocoNetMessage msgForLater = thisMsg;
-                            LnPacketizer myTc = thisTc;
-
-                            @Override
-                            public void run() {
-                                myTc.notify(msgForLater);
-                            }
-                        };
-                        javax.swing.SwingUtilities.invokeLater(r);
+                        receiveDispatcher.dispatch(msg);
                     }
 
                     // done with this one
@@ -7,6 +7,7 @@ import jmri.jmrix.AbstractMRListener;
 import jmri.jmrix.AbstractMRMessage;
 import jmri.jmrix.AbstractMRReply;
 import jmri.jmrix.AbstractMRTrafficController;
+import jmri.jmrix.ListenerRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -44,6 +45,42 @@ public class NceTrafficController extends AbstractMRTrafficController implements
         this.removeListener(l);
     }
 
+    /**
+     * Request notification of messages with one opcode only. A listener can
+     * register for several opcodes.
+     * <p>
+     * NCE replies carry no opcode, so the listener still gets every reply.
+     *
+     * @param opCode the opcode, e.g. {@link NceMessage#SEND_ACC_SIG_MACRO_CMD}
+     * @param l      the listener
+     */
+    public void addNceOpCodeListener(int opCode, NceListener l) {
+        addListener(l, opCode & 0xFF);
+    }
+
+    /**
+     * Stop notification of messages with one opcode. Note that
+     * {@link #removeNceListener(NceListener)} removes every registration of
+     * the listener.
+     *
+     * @param opCode the opcode
+     * @param l      the listener
+     */
+    public void removeNceOpCodeListener(int opCode, NceListener l) {
+        removeListener(l, opCode & 0xFF);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * NCE messages are classified by their opcode, the first byte. Replies
+     * are not classified, as they do not say which command they answer.
+     */
+    @Override
+    protected int getMessageType(AbstractMRMessage m) {
+        return m.getNumDataElements() > 0 ? m.getElement(0) & 0xFF : ListenerRegistry.ALL_TYPES;
+    }
+
     @Override
     protected int enterProgModeDelayTime() {
         // we should to wait at least a second after enabling the programming track
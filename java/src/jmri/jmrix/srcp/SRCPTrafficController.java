@@ -1,7 +1,7 @@
 package jmri.jmrix.srcp;
 
 import java.lang.reflect.InvocationTargetException;
-import java.util.Vector;
+import java.util.List;
 import jmri.InstanceManager;
 import jmri.ShutDownManager;
 import jmri.jmrix.AbstractMRListener;
@@ -266,18 +266,13 @@ public class SRCPTrafficController extends AbstractMRTrafficController
      * @param dest One (optional) listener to be skipped, usually because it's
      *             the originating object.
      */
-    @SuppressWarnings("unchecked")
     protected void notifyReply(SimpleNode r, AbstractMRListener dest) {
-        // make a copy of the listener vector to synchronized (not needed for transmit?)
-        Vector<AbstractMRListener> v;
-        synchronized (this) {
-            // FIXME: unnecessary synchronized; the Vector IS already thread-safe.
-            v = (Vector<AbstractMRListener>) cmdListeners.clone();
-        }
+        // the list is an immutable snapshot, so no copy is needed
+        List<AbstractMRListener> v = cmdListeners.getListeners();
         // forward to all listeners
         int cnt = v.size();
         for (int i = 0; i < cnt; i++) {
-            AbstractMRListener client = v.elementAt(i);
+            AbstractMRListener client = v.get(i);
             log.debug("notify client: {}", client);
             try {
                 //skip dest for now, we'll send the message to there last.
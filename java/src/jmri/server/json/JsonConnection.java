@@ -91,6 +91,19 @@ public class JsonConnection extends JmriConnection {
         sendMessage(message, new JsonRequest(getLocale(), getVersion(), JSON.GET, id));
     }
 
+    /**
+     * Send a message that has already been validated and serialized, so a
+     * message sent to many connections is only prepared once.
+     *
+     * @param message the object or array to send as a message
+     * @param text    the serialized message
+     * @throws IOException if unable to send the message
+     * @see JsonNamedBeanBroadcaster
+     */
+    public void sendMessage(@Nonnull JsonNode message, @Nonnull String text) throws IOException {
+        super.sendMessage(text);
+    }
+
     public String getVersion() {
         return version;
     }
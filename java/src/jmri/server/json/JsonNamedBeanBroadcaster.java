@@ -0,0 +1,315 @@
+package jmri.server.json;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.beans.PropertyChangeEvent;
+import java.beans.PropertyChangeListener;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.annotation.Nonnull;
+import jmri.InstanceManager;
+import jmri.InstanceManagerAutoDefault;
+import jmri.NamedBean;
+import jmri.server.json.schema.JsonSchemaServiceCache;
+import jmri.util.ThreadingUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Send the state of a {@link jmri.NamedBean} to every JSON client watching it.
+ * <p>
+ * A single listener is added to each NamedBean, however many clients watch
+ * it. When the NamedBean changes, its state is read, validated and serialized
+ * once for each kind of message the clients need (clients with the same
+ * locale and JSON version share a message), and the same text is sent to all
+ * of them.
+ * <p>
+ * If {@link JsonServerPreferences#getCoalesceInterval()} is 0, changes are
+ * sent from the thread that changed the NamedBean, one change at a time. If it
+ * is greater than 0, a change is sent once the interval has passed after the
+ * first change, with the state of the NamedBean at that time, and each
+ * connection is sent its messages from its own thread. A connection that can
+ * not keep up is only sent the latest state of each NamedBean it watches, so a
+ * slow client neither delays other clients nor queues messages without limit.
+ */
+public class JsonNamedBeanBroadcaster implements InstanceManagerAutoDefault {
+
+    /**
+     * A client watching a NamedBean.
+     */
+    public interface Subscriber {
+
+        /**
+         * Get the key for the message this subscriber needs. Subscribers with
+         * equal keys are sent the same message.
+         *
+         * @return the key
+         */
+        @Nonnull
+        Object getMessageKey();
+
+        /**
+         * Get the message with the current state of the NamedBean.
+         *
+         * @return the message
+         * @throws JsonException if the state can not be read
+         */
+        @Nonnull
+        JsonNode getMessage() throws JsonException;
+
+        /**
+         * @return the request the message is validated against
+         */
+        @Nonnull
+        JsonRequest getRequest();
+
+        /**
+         * @return the connection messages are sent to
+         */
+        @Nonnull
+        JsonConnection getConnection();
+
+        /**
+         * Called when a message can not be read or sent; the subscriber has
+         * already been removed.
+         */
+        void onError();
+    }
+
+    private final Map<NamedBean, Subscription> subscriptions = new HashMap<>();
+    // messages waiting to be sent, only used if the coalesce interval is > 0
+    private final Map<JsonConnection, Outbox> outboxes = new HashMap<>();
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final JsonServerPreferences preferences = InstanceManager.getDefault(JsonServerPreferences.class);
+    private final JsonSchemaServiceCache schemas = InstanceManager.getDefault(JsonSchemaServiceCache.class);
+    private ScheduledThreadPoolExecutor timer = null;
+    private ExecutorService senders = null;
+    private static final Logger log = LoggerFactory.getLogger(JsonNamedBeanBroadcaster.class);
+
+    /**
+     * Start sending changes to a NamedBean to a subscriber.
+     *
+     * @param bean       the NamedBean
+     * @param subscriber the subscriber
+     */
+    public synchronized void subscribe(@Nonnull NamedBean bean, @Nonnull Subscriber subscriber) {
+        Subscription subscription = subscriptions.get(bean);
+        if (subscription == null) {
+            subscription = new Subscription(bean);
+            subscriptions.put(bean, subscription);
+            bean.addPropertyChangeListener(subscription);
+        }
+        if (!subscription.subscribers.contains(subscriber)) {
+            subscription.subscribers.add(subscriber);
+        }
+    }
+
+    /**
+     * Stop sending changes to a NamedBean to a subscriber.
+     *
+     * @param bean       the NamedBean
+     * @param subscriber the subscriber
+     */
+    public synchronized void unsubscribe(@Nonnull NamedBean bean, @Nonnull Subscriber subscriber) {
+        Subscription subscription = subscriptions.get(bean);
+        if (subscription != null) {
+            subscription.subscribers.remove(subscriber);
+            if (subscription.subscribers.isEmpty()) {
+                subscriptions.remove(bean);
+                bean.removePropertyChangeListener(subscription);
+            }
+        }
+    }
+
+    /**
+     * @param bean the NamedBean
+     * @return the number of subscribers to the NamedBean
+     */
+    public synchronized int getSubscriberCount(@Nonnull NamedBean bean) {
+        Subscription subscription = subscriptions.get(bean);
+        return subscription != null ? subscription.subscribers.size() : 0;
+    }
+
+    /**
+     * Read and send the state of a NamedBean to all its subscribers.
+     *
+     * @param subscription the NamedBean's subscription
+     * @param direct       true to send from the calling thread; false to
+     *                     queue the messages for each connection
+     */
+    private void publish(Subscription subscription, boolean direct) {
+        Map<Object, Message> messages = new HashMap<>();
+        for (Subscriber subscriber : subscription.subscribers) {
+            Message message = messages.get(subscriber.getMessageKey());
+            if (message == null) {
+                try {
+                    message = prepare(subscriber);
+                } catch (JsonException | IOException ex) {
+                    log.debug("Unable to prepare message for {}", subscription.bean.getSystemName(), ex);
+                    failed(subscription.bean, subscriber);
+                    continue;
+                }
+                messages.put(subscriber.getMessageKey(), message);
+            }
+            if (direct) {
+                send(subscription.bean, subscriber, message);
+            } else {
+                queue(subscription.bean, subscriber, message);
+            }
+        }
+    }
+
+    private Message prepare(Subscriber subscriber) throws JsonException, IOException {
+        JsonNode node = subscriber.getMessage();
+        if (preferences.getValidateServerMessages()) {
+            try {
+                schemas.validateMessage(node, true, subscriber.getRequest());
+            } catch (JsonException ex) {
+                node = ex.getJsonMessage();
+            }
+        }
+        return new Message(node, mapper.writeValueAsString(node));
+    }
+
+    private void send(NamedBean bean, Subscriber subscriber, Message message) {
+        try {
+            subscriber.getConnection().sendMessage(message.node, message.text);
+        } catch (IOException ex) {
+            failed(bean, subscriber);
+        }
+    }
+
+    private void failed(NamedBean bean, Subscriber subscriber) {
+        unsubscribe(bean, subscriber);
+        subscriber.onError();
+    }
+
+    private void queue(NamedBean bean, Subscriber subscriber, Message message) {
+        Outbox outbox;
+        synchronized (outboxes) {
+            outbox = outboxes.computeIfAbsent(subscriber.getConnection(), c -> new Outbox());
+            // replaces any message not yet sent to this subscriber
+            outbox.pending.put(subscriber, new Pending(bean, message));
+            if (outbox.sending) {
+                return;
+            }
+            outbox.sending = true;
+        }
+        getSenders().execute(() -> drain(subscriber.getConnection(), outbox));
+    }
+
+    private void drain(JsonConnection connection, Outbox outbox) {
+        while (true) {
+            Subscriber subscriber;
+            Pending pending;
+            synchronized (outboxes) {
+                Iterator<Map.Entry<Subscriber, Pending>> iterator = outbox.pending.entrySet().iterator();
+                if (!iterator.hasNext()) {
+                    outbox.sending = false;
+                    outboxes.remove(connection);
+                    return;
+                }
+                Map.Entry<Subscriber, Pending> entry = iterator.next();
+                iterator.remove();
+                subscriber = entry.getKey();
+                pending = entry.getValue();
+            }
+            send(pending.bean, subscriber, pending.message);
+        }
+    }
+
+    private synchronized ScheduledThreadPoolExecutor getTimer() {
+        if (timer == null) {
+            timer = new ScheduledThreadPoolExecutor(1, r -> {
+                Thread t = ThreadingUtil.newThread(r, "JSON Broadcaster Timer");
+                t.setDaemon(true);
+                return t;
+            });
+            timer.setKeepAliveTime(10, TimeUnit.SECONDS);
+            timer.allowCoreThreadTimeOut(true);
+        }
+        return timer;
+    }
+
+    private synchronized ExecutorService getSenders() {
+        if (senders == null) {
+            AtomicInteger count = new AtomicInteger();
+            senders = new ThreadPoolExecutor(0, Integer.MAX_VALUE, 10, TimeUnit.SECONDS, new SynchronousQueue<>(), r -> {
+                Thread t = ThreadingUtil.newThread(r, "JSON Broadcaster " + count.incrementAndGet());
+                t.setDaemon(true);
+                return t;
+            });
+        }
+        return senders;
+    }
+
+    /**
+     * The subscribers to a NamedBean; this is the single listener added to
+     * the NamedBean.
+     */
+    private class Subscription implements PropertyChangeListener {
+
+        private final NamedBean bean;
+        private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+        private final AtomicBoolean scheduled = new AtomicBoolean(false);
+
+        Subscription(NamedBean bean) {
+            this.bean = bean;
+        }
+
+        @Override
+        public void propertyChange(PropertyChangeEvent evt) {
+            int interval = preferences.getCoalesceInterval();
+            if (interval <= 0) {
+                publish(this, true);
+            } else if (scheduled.compareAndSet(false, true)) {
+                getTimer().schedule(() -> {
+                    scheduled.set(false);
+                    publish(this, false);
+                }, interval, TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+
+    private static class Message {
+
+        private final JsonNode node;
+        private final String text;
+
+        Message(JsonNode node, String text) {
+            this.node = node;
+            this.text = text;
+        }
+    }
+
+    private static class Pending {
+
+        private final NamedBean bean;
+        private final Message message;
+
+        Pending(NamedBean bean, Message message) {
+            this.bean = bean;
+            this.message = message;
+        }
+    }
+
+    private static class Outbox {
+
+        // in the order first queued; a newer message for a subscriber
+        // replaces the older one
+        private final LinkedHashMap<Subscriber, Pending> pending = new LinkedHashMap<>();
+        private boolean sending = false;
+    }
+}
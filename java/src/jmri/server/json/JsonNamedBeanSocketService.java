@@ -11,6 +11,7 @@ import com.fasterxml.jackson.databind.JsonNode;
 import java.beans.PropertyChangeEvent;
 import java.beans.PropertyChangeListener;
 import java.io.IOException;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.HashSet;
 import jmri.InstanceManager;
@@ -34,6 +35,7 @@ public class JsonNamedBeanSocketService<T extends NamedBean, H extends JsonNamed
 
     protected final HashMap<T, NamedBeanListener> beanListeners = new HashMap<>();
     protected final ManagerListener managerListener = new ManagerListener();
+    protected final JsonNamedBeanBroadcaster broadcaster = InstanceManager.getDefault(JsonNamedBeanBroadcaster.class);
     private static final Logger log = LoggerFactory.getLogger(JsonNamedBeanSocketService.class);
 
     public JsonNamedBeanSocketService(JsonConnection connection, H service) {
@@ -86,7 +88,7 @@ public class JsonNamedBeanSocketService<T extends NamedBean, H extends JsonNamed
 
     @Override
     public void onClose() {
-        beanListeners.values().stream().forEach(listener -> listener.bean.removePropertyChangeListener(listener));
+        beanListeners.values().stream().forEach(listener -> broadcaster.unsubscribe(listener.bean, listener));
         beanListeners.clear();
         service.getManager().removePropertyChangeListener(managerListener);
     }
@@ -98,7 +100,7 @@ public class JsonNamedBeanSocketService<T extends NamedBean, H extends JsonNamed
     protected void addListenerToBean(T bean) {
         if (bean != null) {
             NamedBeanListener listener = new NamedBeanListener(bean);
-            bean.addPropertyChangeListener(listener);
+            broadcaster.subscribe(bean, listener);
             this.beanListeners.put(bean, listener);
         }
     }
@@ -106,12 +108,17 @@ public class JsonNamedBeanSocketService<T extends NamedBean, H extends JsonNamed
     protected void removeListenersFromRemovedBeans() {
         for (T bean : new HashSet<>(beanListeners.keySet())) {
             if (service.getManager().getBySystemName(bean.getSystemName()) == null) {
-                beanListeners.remove(bean);
+                broadcaster.unsubscribe(bean, beanListeners.remove(bean));
             }
         }
     }
 
-    protected class NamedBeanListener implements PropertyChangeListener {
+    /**
+     * Sends the state of a NamedBean to the client. Changes to the NamedBean
+     * itself are sent through the {@link JsonNamedBeanBroadcaster}; this can
+     * also listen to other objects the state of the NamedBean depends on.
+     */
+    protected class NamedBeanListener implements PropertyChangeListener, JsonNamedBeanBroadcaster.Subscriber {
 
         public final T bean;
 
@@ -122,15 +129,41 @@ public class JsonNamedBeanSocketService<T extends NamedBean, H extends JsonNamed
         @Override
         public void propertyChange(PropertyChangeEvent evt) {
             try {
-                connection.sendMessage(service.doGet(this.bean, this.bean.getSystemName(), service.getType(), new JsonRequest(getLocale(), getVersion(), JSON.GET, 0)), 0);
+                connection.sendMessage(getMessage(), 0);
             } catch (
                     IOException |
                     JsonException ex) {
                 // if we get an error, unregister as listener
                 this.bean.removePropertyChangeListener(this);
+                broadcaster.unsubscribe(this.bean, this);
                 beanListeners.remove(this.bean);
             }
         }
+
+        @Override
+        public Object getMessageKey() {
+            return Arrays.asList(service.getClass(), service.getType(), getLocale(), getVersion());
+        }
+
+        @Override
+        public JsonNode getMessage() throws JsonException {
+            return service.doGet(this.bean, this.bean.getSystemName(), service.getType(), getRequest());
+        }
+
+        @Override
+        public JsonRequest getRequest() {
+            return new JsonRequest(getLocale(), getVersion(), JSON.GET, 0);
+        }
+
+        @Override
+        public JsonConnection getConnection() {
+            return connection;
+        }
+
+        @Override
+        public void onError() {
+            beanListeners.remove(this.bean);
+        }
     }
 
     protected class ManagerListener implements PropertyChangeListener {
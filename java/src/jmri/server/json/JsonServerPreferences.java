@@ -21,11 +21,13 @@ public class JsonServerPreferences extends Bean implements InstanceManagerAutoDe
     static final String PORT = "port"; // NOI18N
     static final String VALIDATE_CLIENT = "validateClientMessages"; // NOI18N
     static final String VALIDATE_SERVER = "validateServerMessages"; // NOI18N
+    static final String COALESCE_INTERVAL = "coalesceInterval"; // NOI18N
     // initial defaults if preferences not found
     private int heartbeatInterval = 15000;
     private int portNumber = DEFAULT_PORT;
     private boolean validateClientMessages = false;
     private boolean validateServerMessages = false;
+    private int coalesceInterval = 0;
     // as loaded preferences
     private int asLoadedHeartbeatInterval = 15000;
     private int asLoadedPort = DEFAULT_PORT;
@@ -64,6 +66,7 @@ public class JsonServerPreferences extends Bean implements InstanceManagerAutoDe
         setPort(sharedPreferences.getInt(PORT, getPort()));
         setValidateClientMessages(sharedPreferences.getBoolean(VALIDATE_CLIENT, getValidateClientMessages()));
         setValidateServerMessages(sharedPreferences.getBoolean(VALIDATE_SERVER, getValidateServerMessages()));
+        setCoalesceInterval(sharedPreferences.getInt(COALESCE_INTERVAL, getCoalesceInterval()));
         asLoadedHeartbeatInterval = getHeartbeatInterval();
         asLoadedPort = getPort();
     }
@@ -86,6 +89,7 @@ public class JsonServerPreferences extends Bean implements InstanceManagerAutoDe
         sharedPreferences.putInt(PORT, portNumber);
         sharedPreferences.putBoolean(VALIDATE_CLIENT, validateClientMessages);
         sharedPreferences.putBoolean(VALIDATE_SERVER, validateServerMessages);
+        sharedPreferences.putInt(COALESCE_INTERVAL, coalesceInterval);
     }
 
     public boolean isDirty() {
@@ -141,4 +145,21 @@ public class JsonServerPreferences extends Bean implements InstanceManagerAutoDe
     public void setValidateServerMessages(boolean validate) {
         validateServerMessages = validate;
     }
+
+    /**
+     * Get the time changes to a NamedBean are collected for before the new
+     * state is sent to clients. Clients are sent only the last state of a
+     * NamedBean that changes several times within this interval.
+     *
+     * @return the interval in milliseconds; 0 to send every change as it
+     *         happens
+     * @see JsonNamedBeanBroadcaster
+     */
+    public int getCoalesceInterval() {
+        return coalesceInterval;
+    }
+
+    public void setCoalesceInterval(int value) {
+        coalesceInterval = Math.max(0, value);
+    }
 }
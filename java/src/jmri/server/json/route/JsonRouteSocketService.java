@@ -18,14 +18,12 @@ public class JsonRouteSocketService extends JsonNamedBeanSocketService<Route, Js
     
     @Override
     protected void addListenerToBean(Route bean) {
+        super.addListenerToBean(bean);
         if (bean != null) {
-            NamedBeanListener listener = new NamedBeanListener(bean);
-            bean.addPropertyChangeListener(listener);
             Sensor sensor = bean.getTurnoutsAlgdSensor();
             if (sensor != null) {
-                sensor.addPropertyChangeListener(listener);
+                sensor.addPropertyChangeListener(beanListeners.get(bean));
             }
-            this.beanListeners.put(bean, listener);
         }
     }
 
@@ -0,0 +1,133 @@
+package jmri.web.servlet.frameimage;
+
+import java.awt.Component;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.zip.CRC32;
+import javax.annotation.Nonnull;
+import javax.imageio.ImageIO;
+
+/**
+ * The image of a frame last sent by the {@link JmriJFrameServlet}.
+ * <p>
+ * The frame is painted into the same image each time, and the PNG is only
+ * encoded again if a pixel has changed, so a frame shown in several browsers
+ * is encoded once per change instead of once per request. A rendering less
+ * than {@link #MIN_AGE} milliseconds old is reused without painting the frame
+ * again, unless {@link #invalidate()} has been called.
+ * <p>
+ * Each PNG has an ETag derived from its content, so a browser that already has
+ * the current image can be sent 304 Not Modified.
+ * <p>
+ * Like the frame, this must only be used on the Swing thread.
+ */
+class FrameImage {
+
+    /**
+     * Milliseconds a rendering is reused without painting the frame again.
+     */
+    static final long MIN_AGE = 100;
+
+    private BufferedImage image = null; // last rendering
+    private BufferedImage scratch = null; // the next rendering
+    private byte[] png = null;
+    private String eTag = null;
+    private long lastModified = 0;
+    private long rendered = 0;
+
+    /**
+     * Paint the component if the last rendering is out of date, and encode it
+     * if it changed.
+     *
+     * @param component the content pane of the frame
+     * @throws IOException if the image can not be encoded
+     */
+    void update(@Nonnull Component component) throws IOException {
+        long now = System.currentTimeMillis();
+        int width = Math.max(component.getWidth(), 1);
+        int height = Math.max(component.getHeight(), 1);
+        if (image != null && image.getWidth() == width && image.getHeight() == height
+                && now - rendered < MIN_AGE && now >= rendered) {
+            return;
+        }
+        if (scratch == null || scratch.getWidth() != width || scratch.getHeight() != height) {
+            scratch = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        } else {
+            Arrays.fill(pixels(scratch), 0);
+        }
+        component.paint(scratch.createGraphics());
+        rendered = now;
+        if (image != null && image.getWidth() == width && image.getHeight() == height
+                && Arrays.equals(pixels(image), pixels(scratch))) {
+            return;
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(scratch, "png", out); // NOI18N
+        png = out.toByteArray();
+        CRC32 crc = new CRC32();
+        crc.update(png);
+        eTag = "\"" + Long.toHexString(crc.getValue()) + "-" + Integer.toHexString(png.length) + "\""; // NOI18N
+        lastModified = now;
+        BufferedImage swap = image;
+        image = scratch;
+        scratch = swap;
+    }
+
+    /**
+     * Paint the frame again at the next update, however recent the last
+     * rendering is.
+     */
+    void invalidate() {
+        rendered = 0;
+    }
+
+    /**
+     * @return the PNG encoded image, or null if never updated
+     */
+    byte[] getPng() {
+        return png;
+    }
+
+    /**
+     * @return the quoted ETag of the image, or null if never updated
+     */
+    String getETag() {
+        return eTag;
+    }
+
+    /**
+     * @return the time the image last changed
+     */
+    long getLastModified() {
+        return lastModified;
+    }
+
+    /**
+     * Check an If-None-Match header against the image.
+     *
+     * @param ifNoneMatch the header value, possibly null
+     * @return true if the client already has the current image
+     */
+    boolean matches(String ifNoneMatch) {
+        if (ifNoneMatch == null || eTag == null) {
+            return false;
+        }
+        for (String tag : ifNoneMatch.split(",")) {
+            tag = tag.trim();
+            if (tag.startsWith("W/")) { // NOI18N
+                tag = tag.substring(2);
+            }
+            if (tag.equals("*") || tag.equals(eTag)) { // NOI18N
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static int[] pixels(BufferedImage image) {
+        return ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+    }
+}
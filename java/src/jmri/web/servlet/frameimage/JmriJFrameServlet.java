@@ -11,8 +11,6 @@ import java.awt.Component;
 import java.awt.Container;
 import java.awt.event.MouseEvent;
 import java.awt.event.MouseListener;
-import java.awt.image.BufferedImage;
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.UnsupportedEncodingException;
 import java.net.URLDecoder;
@@ -24,8 +22,8 @@ import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.WeakHashMap;
 import javax.annotation.Nonnull;
-import javax.imageio.ImageIO;
 import javax.servlet.ServletException;
 import javax.servlet.annotation.WebServlet;
 import javax.servlet.http.HttpServlet;
@@ -72,6 +70,9 @@ import org.slf4j.LoggerFactory;
 @ServiceProvider(service = HttpServlet.class)
 public class JmriJFrameServlet extends HttpServlet {
 
+    // last image sent for each frame; only used on the Swing thread
+    private final Map<JmriJFrame, FrameImage> images = new WeakHashMap<>();
+
     void sendClick(String name, Component c, int xg, int yg, Container FrameContentPane) {  // global positions
         int x = xg - c.getLocation().x;
         int y = yg - c.getLocation().y;
@@ -365,24 +366,25 @@ public class JmriJFrameServlet extends HttpServlet {
 
     private void doImage(JmriJFrame frame, HttpServletRequest request, HttpServletResponse response) throws ServletException, IOException {
         Date now = new Date();
-        response.setStatus(HttpServletResponse.SC_OK);
-        response.setContentType("image/png"); // NOI18N
+        FrameImage image = images.computeIfAbsent(frame, f -> new FrameImage());
+        image.update(frame.getContentPane());
         response.setDateHeader("Date", now.getTime()); // NOI18N
-        response.setDateHeader("Last-Modified", now.getTime()); // NOI18N
+        response.setDateHeader("Last-Modified", image.getLastModified()); // NOI18N
+        response.setHeader("ETag", image.getETag()); // NOI18N
         response.setHeader("Cache-Control", "no-cache"); // NOI18N
         response.setHeader("Connection", "Keep-Alive"); // NOI18N
         response.setHeader("Keep-Alive", "timeout=5, max=100"); // NOI18N
-        BufferedImage image = new BufferedImage(frame.getContentPane().getWidth(),
-                frame.getContentPane().getHeight(),
-                BufferedImage.TYPE_INT_RGB);
-        frame.getContentPane().paint(image.createGraphics());
-        //put it in a temp file to get post-compression size
-        ByteArrayOutputStream tmpFile = new ByteArrayOutputStream();
-        ImageIO.write(image, "png", tmpFile); // NOI18N
-        tmpFile.close();
-        response.setContentLength(tmpFile.size());
-        response.getOutputStream().write(tmpFile.toByteArray());
-        log.debug("Sent [{}] as {} byte png.", frame.getTitle(), tmpFile.size());
+        if (image.matches(request.getHeader("If-None-Match"))) { // NOI18N
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            log.debug("[{}] not modified.", frame.getTitle());
+            return;
+        }
+        response.setStatus(HttpServletResponse.SC_OK);
+        response.setContentType("image/png"); // NOI18N
+        byte[] png = image.getPng();
+        response.setContentLength(png.length);
+        response.getOutputStream().write(png);
+        log.debug("Sent [{}] as {} byte png.", frame.getTitle(), png.length);
     }
 
     private void doList(HttpServletRequest request, HttpServletResponse response) throws ServletException, IOException {
@@ -522,6 +524,10 @@ public class JmriJFrameServlet extends HttpServlet {
 
         //send click to topmost component under click spot
         Component c = frame.getContentPane().findComponentAt(x, y);
+        FrameImage image = images.get(frame);
+        if (image != null) {
+            image.invalidate();
+        }
         //log.debug("topmost component is class={}", c.getClass().getName());
         sendClick(frame.getTitle(), c, x, y, frame.getContentPane());
 
@@ -6,6 +6,13 @@ import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.PrintStream;
 import java.net.URL;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import jmri.InstanceManager;
+import jmri.MemoryManager;
 import jmri.util.FileUtil;
 import jmri.util.JUnitUtil;
 import org.junit.Test;
@@ -166,6 +173,49 @@ public class ConfigXmlManagerTest {
         f.delete();  // make sure it's gone again
     }
 
+    @Test
+    public void testLoadTimes() throws JmriConfigureXmlException {
+        ConfigXmlManager configxmlmanager = new ConfigXmlManager();
+        Assert.assertTrue("nothing loaded", configxmlmanager.getLoadTimes().isEmpty());
+        Assert.assertTrue("loaded", configxmlmanager.load(new File("java/test/jmri/configurexml/load/MemorySystemNameTest.xml")));
+        Assert.assertNotNull("memory loaded", InstanceManager.getDefault(MemoryManager.class).getBySystemName("IM12"));
+
+        Map<String, Long> times = configxmlmanager.getLoadTimes();
+        Assert.assertEquals("one entry per adapter", 2, times.size());
+        Assert.assertTrue(times.containsKey("jmri.managers.configurexml.DefaultMemoryManagerXml"));
+        Assert.assertTrue(times.containsKey("jmri.managers.configurexml.DefaultSignalMastLogicManagerXml"));
+        long previous = Long.MAX_VALUE;
+        for (long time : times.values()) {
+            Assert.assertTrue("slowest first", time <= previous);
+            previous = time;
+        }
+    }
+
+    @Test
+    public void testLoadReportsReadError() throws IOException, JmriConfigureXmlException {
+        ConfigXmlManager configxmlmanager = new ConfigXmlManager();
+        List<String> descriptions = new ArrayList<>();
+        ConfigXmlManager.setErrorHandler(new ErrorHandler() {
+            @Override
+            public void handle(ErrorMemo e) {
+                descriptions.add(e.description);
+            }
+        });
+        File f = new File(FileUtil.getUserFilesPath(), "testConfigXmlManagerTest.xml");
+        try (PrintStream p = new PrintStream(new FileOutputStream(f))) {
+            p.println("stuff"); // not XML
+        }
+        try {
+            Assert.assertFalse("not loaded", configxmlmanager.load(f));
+            Assert.assertEquals("reported", Collections.singletonList("Parse error"), descriptions);
+            Assert.assertFalse("still not loaded", configxmlmanager.load(new File(FileUtil.getUserFilesPath(), "none.xml")));
+            Assert.assertEquals("reported", Arrays.asList("Parse error", "File not found"), descriptions);
+        } finally {
+            f.delete();
+            ConfigXmlManager.setErrorHandler(new ErrorHandler());
+        }
+    }
+
     @Before
     public void setUp() {
         JUnitUtil.setUp();
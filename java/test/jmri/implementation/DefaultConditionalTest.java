@@ -331,8 +331,41 @@ public class DefaultConditionalTest {
 //        Assert.assertTrue("calculate() returns NamedBean.TRUE", ix1.calculate(false, null) == Conditional.TRUE);
 //        jmri.util.JUnitAppender.assertWarnMessage("Conditional IXIC 1 fell through switch in calculate");
     }
-    
-    
+
+    @Test
+    public void testCalculateAfterChanges() {
+        ConditionalVariable v1 = new ConditionalVariableStatic(Conditional.State.TRUE);
+        ConditionalVariable v2 = new ConditionalVariableStatic(Conditional.State.TRUE);
+        ConditionalVariable v3 = new ConditionalVariableStatic(Conditional.State.FALSE);
+
+        // the antecedent is compiled for the variables set after it
+        Conditional ix1 = new DefaultConditional("IXIC 1");
+        ix1.setLogicType(Conditional.AntecedentOperator.MIXED, "R1 and R2");
+        ix1.setStateVariables(Arrays.asList(v1, v2));
+        Assert.assertEquals(Conditional.TRUE, ix1.calculate(false, null));
+
+        // new variables
+        ix1.setStateVariables(Arrays.asList(v1, v3));
+        Assert.assertEquals(Conditional.FALSE, ix1.calculate(false, null));
+
+        // new antecedent
+        ix1.setLogicType(Conditional.AntecedentOperator.MIXED, "R1 or R2");
+        Assert.assertEquals(Conditional.TRUE, ix1.calculate(false, null));
+
+        // variable values and negation are read on each calculation
+        v1.setState(Conditional.State.FALSE.getIntValue());
+        Assert.assertEquals(Conditional.FALSE, ix1.calculate(false, null));
+        v3.setNegation(true);
+        Assert.assertEquals(Conditional.TRUE, ix1.calculate(false, null));
+
+        // an antecedent that no longer matches the variables is reported
+        ix1.setStateVariables(Arrays.asList(v1));
+        Assert.assertEquals(Conditional.FALSE, ix1.calculate(false, null));
+        jmri.util.JUnitAppender.assertErrorMessageStartsWith(
+                "IXIC 1 parseCalculation error antecedent= R1 or R2, ex= java.lang.ArrayIndexOutOfBoundsException");
+    }
+
+
     @Test
     public void testTriggers() {
         ConditionalVariable[] conditionalVariables_True
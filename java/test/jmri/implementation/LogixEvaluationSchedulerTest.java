@@ -0,0 +1,112 @@
+package jmri.implementation;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import jmri.Conditional;
+import jmri.ConditionalAction;
+import jmri.ConditionalManager;
+import jmri.ConditionalVariable;
+import jmri.InstanceManager;
+import jmri.JmriException;
+import jmri.Logix;
+import jmri.LogixManager;
+import jmri.Sensor;
+import jmri.SensorManager;
+import jmri.Turnout;
+import jmri.TurnoutManager;
+import jmri.util.JUnitUtil;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests for the LogixEvaluationScheduler class
+ */
+public class LogixEvaluationSchedulerTest {
+
+    private Conditional newConditional(Logix logix, String systemName, ConditionalVariable... variables) {
+        Conditional c = InstanceManager.getDefault(ConditionalManager.class).createNewConditional(systemName, null);
+        logix.addConditional(systemName, 0);
+        c.setStateVariables(new ArrayList<>(Arrays.asList(variables)));
+        return c;
+    }
+
+    private void setAction(Conditional c, Conditional.Action type, String name, int data) {
+        ConditionalAction action = new DefaultConditionalAction(Conditional.ACTION_OPTION_ON_CHANGE_TO_TRUE,
+                type, name, data, "");
+        List<ConditionalAction> actions = new ArrayList<>();
+        actions.add(action);
+        c.setAction(actions);
+    }
+
+    @Test
+    public void testCoalescing() throws JmriException {
+        Sensor is1 = InstanceManager.getDefault(SensorManager.class).provideSensor("IS1");
+        Sensor is2 = InstanceManager.getDefault(SensorManager.class).provideSensor("IS2");
+        Turnout it1 = InstanceManager.getDefault(TurnoutManager.class).provideTurnout("IT1");
+        is1.setKnownState(Sensor.INACTIVE);
+        is2.setKnownState(Sensor.INACTIVE);
+        it1.setCommandedState(Turnout.CLOSED);
+
+        LogixManager lm = InstanceManager.getDefault(LogixManager.class);
+        DefaultLogix ix1 = (DefaultLogix) lm.createNewLogix("IX1", null);
+        DefaultLogix ix2 = (DefaultLogix) lm.createNewLogix("IX2", null);
+        // IS1 active sets IS2 active
+        Conditional c1 = newConditional(ix1, "IX1C1",
+                new ConditionalVariable(false, Conditional.Operator.NONE, Conditional.Type.SENSOR_ACTIVE, "IS1", true));
+        setAction(c1, Conditional.Action.SET_SENSOR, "IS2", Sensor.ACTIVE);
+        // IS1 and IS2 active throws IT1
+        Conditional c2 = newConditional(ix2, "IX2C1",
+                new ConditionalVariable(false, Conditional.Operator.NONE, Conditional.Type.SENSOR_ACTIVE, "IS1", true),
+                new ConditionalVariable(false, Conditional.Operator.AND, Conditional.Type.SENSOR_ACTIVE, "IS2", true));
+        setAction(c2, Conditional.Action.SET_TURNOUT, "IT1", Turnout.THROWN);
+        // follows IX1C1, and so is calculated after it
+        Conditional c3 = newConditional(ix2, "IX2C2",
+                new ConditionalVariable(false, Conditional.Operator.NONE, Conditional.Type.SENSOR_ACTIVE, "IS1", true),
+                new ConditionalVariable(false, Conditional.Operator.AND, Conditional.Type.CONDITIONAL_TRUE, "IX1C1", true));
+        ix1.activateLogix();
+        ix2.activateLogix();
+
+        LogixEvaluationScheduler scheduler = InstanceManager.getDefault(LogixEvaluationScheduler.class);
+        Assert.assertEquals("IS1 listeners", 2, scheduler.getDependents(is1).size());
+        Assert.assertEquals("IS2 listeners", 1, scheduler.getDependents(is2).size());
+        ix1.resetEvaluationStatistics();
+        ix2.resetEvaluationStatistics();
+
+        is1.setKnownState(Sensor.ACTIVE);
+        Assert.assertEquals("IS2 set", Sensor.ACTIVE, is2.getKnownState());
+        Assert.assertEquals("IT1 set", Turnout.THROWN, it1.getCommandedState());
+        Assert.assertEquals(Conditional.TRUE, c2.getState());
+        Assert.assertEquals("C3 saw C1 true", Conditional.TRUE, c3.getState());
+        Assert.assertEquals("IX1C1 once", 1, ix1.getEvaluationCount());
+        Assert.assertEquals("IX2C1 and IX2C2 once each", 2, ix2.getEvaluationCount());
+        Assert.assertTrue("timed", ix2.getEvaluationTime() > 0);
+
+        ix2.deActivateLogix();
+        Assert.assertEquals("IS1 listeners", 1, scheduler.getDependents(is1).size());
+        Assert.assertTrue("IS2 listeners", scheduler.getDependents(is2).isEmpty());
+        ix2.resetEvaluationStatistics();
+        is1.setKnownState(Sensor.INACTIVE);
+        Assert.assertEquals(Conditional.FALSE, c1.getState());
+        Assert.assertEquals("IX1C1 again", 2, ix1.getEvaluationCount());
+        Assert.assertEquals("IX2 not active", 0, ix2.getEvaluationCount());
+    }
+
+    @Before
+    public void setUp() {
+        JUnitUtil.setUp();
+        JUnitUtil.initInternalSensorManager();
+        JUnitUtil.initInternalTurnoutManager();
+        JUnitUtil.initLogixManager();
+        JUnitUtil.initConditionalManager();
+    }
+
+    @After
+    public void tearDown() {
+        JUnitUtil.deregisterBlockManagerShutdownTask();
+        JUnitUtil.tearDown();
+    }
+}
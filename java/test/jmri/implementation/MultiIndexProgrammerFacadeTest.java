@@ -22,6 +22,20 @@ public class MultiIndexProgrammerFacadeTest {
     int readValue = -2;
     boolean replied = false;
 
+    @Test
+    public void testGetIndexWrites() {
+        ProgDebugger dp = new ProgDebugger();
+        MultiIndexProgrammerFacade cvFirst = new MultiIndexProgrammerFacade(dp, "81", "82", true, false);
+        Assert.assertEquals(0, cvFirst.getIndexWrites("4").length);
+        Assert.assertArrayEquals(new String[]{"81=12"}, cvFirst.getIndexWrites("123.12"));
+        Assert.assertArrayEquals(new String[]{"81=12", "82=13"}, cvFirst.getIndexWrites("123.12.13"));
+        Assert.assertArrayEquals(new String[]{"101=12", "82=13"}, cvFirst.getIndexWrites("123.101=12.13"));
+
+        MultiIndexProgrammerFacade cvLast = new MultiIndexProgrammerFacade(dp, "81", "82", false, false);
+        Assert.assertArrayEquals(new String[]{"81=12"}, cvLast.getIndexWrites("12.123"));
+        Assert.assertArrayEquals(new String[]{"81=12", "82=13"}, cvLast.getIndexWrites("12.13.123"));
+    }
+
     @Test
     public void testWriteReadDirect() throws jmri.ProgrammerException, InterruptedException {
 
@@ -0,0 +1,146 @@
+package jmri.implementation;
+
+import java.beans.PropertyChangeEvent;
+import java.beans.PropertyChangeListener;
+import java.beans.PropertyChangeListenerProxy;
+import java.util.ArrayList;
+import java.util.List;
+
+import jmri.util.JUnitUtil;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests for the PropertyChangeRegistry class
+ */
+public class PropertyChangeRegistryTest {
+
+    private final Object source = new Object();
+    private final List<String> calls = new ArrayList<>();
+
+    private PropertyChangeListener listener(String name) {
+        return (PropertyChangeEvent evt) -> {
+            Assert.assertSame(source, evt.getSource());
+            calls.add(name + ":" + evt.getPropertyName() + "=" + evt.getNewValue());
+        };
+    }
+
+    @Test
+    public void testCTor() {
+        PropertyChangeRegistry r = new PropertyChangeRegistry(source);
+        Assert.assertEquals(0, r.size());
+        Assert.assertFalse(r.hasListeners(null));
+        Assert.assertEquals(0, r.getPropertyChangeListeners().length);
+        // nothing to notify
+        r.firePropertyChange("a", 1, 2);
+    }
+
+    @Test
+    public void testFireOrder() {
+        PropertyChangeRegistry r = new PropertyChangeRegistry(source);
+        PropertyChangeListener a = listener("a");
+        PropertyChangeListener b = listener("b");
+        PropertyChangeListener c = listener("c");
+        r.addPropertyChangeListener("x", c);
+        r.addPropertyChangeListener(a);
+        r.addPropertyChangeListener(b);
+        r.addPropertyChangeListener(null);
+        r.addPropertyChangeListener(null, a);
+        Assert.assertEquals(3, r.size());
+        Assert.assertTrue(r.hasListeners("y"));
+
+        r.firePropertyChange("x", 1, 2);
+        r.firePropertyChange("y", 1, 2);
+        r.firePropertyChange("y", 3, 3);
+        r.firePropertyChange("y", null, null);
+        Assert.assertEquals("[a:x=2, b:x=2, c:x=2, a:y=2, b:y=2, a:y=null, b:y=null]", calls.toString());
+    }
+
+    @Test
+    public void testNamedOnly() {
+        PropertyChangeRegistry r = new PropertyChangeRegistry(source);
+        PropertyChangeListener c = listener("c");
+        r.addPropertyChangeListener("x", c);
+        Assert.assertTrue(r.hasListeners("x"));
+        Assert.assertFalse(r.hasListeners("y"));
+        Assert.assertFalse(r.hasListeners(null));
+        Assert.assertTrue(r.contains(c));
+        Assert.assertArrayEquals(new PropertyChangeListener[]{c}, r.getPropertyChangeListeners("x"));
+        Assert.assertEquals(0, r.getPropertyChangeListeners("y").length);
+
+        PropertyChangeListener[] all = r.getPropertyChangeListeners();
+        Assert.assertEquals(1, all.length);
+        Assert.assertTrue(all[0] instanceof PropertyChangeListenerProxy);
+        Assert.assertEquals("x", ((PropertyChangeListenerProxy) all[0]).getPropertyName());
+
+        // removing the proxy removes the named listener
+        r.removePropertyChangeListener(all[0]);
+        Assert.assertEquals(0, r.size());
+        Assert.assertFalse(r.contains(c));
+        // adding a proxy adds for its property only
+        r.addPropertyChangeListener(all[0]);
+        r.firePropertyChange("y", 1, 2);
+        r.firePropertyChange("x", 1, 2);
+        Assert.assertEquals("[c:x=2]", calls.toString());
+    }
+
+    @Test
+    public void testDuplicates() {
+        PropertyChangeRegistry r = new PropertyChangeRegistry(source);
+        PropertyChangeListener a = listener("a");
+        r.addPropertyChangeListener(a);
+        r.addPropertyChangeListener(a);
+        r.firePropertyChange("x", 1, 2);
+        Assert.assertEquals(2, calls.size());
+
+        r.removePropertyChangeListener(a);
+        Assert.assertTrue(r.contains(a));
+        r.firePropertyChange("x", 2, 3);
+        Assert.assertEquals(3, calls.size());
+
+        r.removePropertyChangeListener(a);
+        Assert.assertFalse(r.contains(a));
+        r.removePropertyChangeListener(a);
+        r.removePropertyChangeListener("x", a);
+        Assert.assertEquals(0, r.size());
+    }
+
+    @Test
+    public void testClear() {
+        PropertyChangeRegistry r = new PropertyChangeRegistry(source);
+        r.addPropertyChangeListener(listener("a"));
+        r.addPropertyChangeListener("x", listener("b"));
+        Assert.assertEquals(2, r.clear().length);
+        Assert.assertEquals(0, r.size());
+        r.firePropertyChange("x", 1, 2);
+        Assert.assertTrue(calls.isEmpty());
+    }
+
+    @Test
+    public void testChangeWhileFiring() {
+        PropertyChangeRegistry r = new PropertyChangeRegistry(source);
+        PropertyChangeListener b = listener("b");
+        r.addPropertyChangeListener((PropertyChangeEvent evt) -> {
+            // takes effect from the next event
+            r.removePropertyChangeListener(b);
+            r.addPropertyChangeListener(listener("c"));
+        });
+        r.addPropertyChangeListener(b);
+        r.firePropertyChange("x", 1, 2);
+        Assert.assertEquals("[b:x=2]", calls.toString());
+        r.firePropertyChange("x", 2, 3);
+        Assert.assertEquals("[b:x=2, c:x=3]", calls.toString());
+    }
+
+    @Before
+    public void setUp() {
+        JUnitUtil.setUp();
+    }
+
+    @After
+    public void tearDown() {
+        JUnitUtil.tearDown();
+    }
+}
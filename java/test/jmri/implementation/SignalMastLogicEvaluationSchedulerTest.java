@@ -0,0 +1,164 @@
+package jmri.implementation;
+
+import java.util.ArrayList;
+import java.util.List;
+import jmri.InstanceManager;
+import jmri.SignalMast;
+import jmri.SignalMastLogic;
+import jmri.SignalMastLogicManager;
+import jmri.util.JUnitAppender;
+import jmri.util.JUnitUtil;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests for the SignalMastLogicEvaluationScheduler class
+ */
+public class SignalMastLogicEvaluationSchedulerTest {
+
+    private final List<SignalMast> masts = new ArrayList<>();
+    private final List<SignalMastLogic> logics = new ArrayList<>();
+    private final List<SignalMast> changes = new ArrayList<>();
+
+    /**
+     * Create a line of masts, each protecting the next.
+     */
+    private void createLine(int count) {
+        for (int i = 1; i <= count; i++) {
+            SignalMast mast = new VirtualSignalMast("IF$vsm:AAR-1946:CPL($" + String.format("%04d", i) + ")");
+            mast.addPropertyChangeListener(e -> {
+                if ("Aspect".equals(e.getPropertyName())) {
+                    synchronized (changes) {
+                        changes.add(mast);
+                    }
+                }
+            });
+            masts.add(mast);
+        }
+        SignalMastLogicManager manager = InstanceManager.getDefault(SignalMastLogicManager.class);
+        for (int i = 0; i < count - 1; i++) {
+            SignalMastLogic logic = manager.newSignalMastLogic(masts.get(i));
+            logic.setDestinationMast(masts.get(i + 1));
+            logics.add(logic);
+        }
+        masts.get(count - 1).setAspect("Stop");
+        for (SignalMastLogic logic : logics) {
+            logic.initialise();
+        }
+        JUnitUtil.waitFor(() -> "Medium Approach".equals(masts.get(count - 2).getAspect()), "approach aspect");
+        JUnitUtil.waitFor(() -> "Clear".equals(masts.get(0).getAspect()), "line set");
+    }
+
+    @Test
+    public void testLineIsSetDestinationFirstOncePerMast() {
+        createLine(10);
+        SignalMastLogicEvaluationScheduler scheduler = InstanceManager.getDefault(SignalMastLogicEvaluationScheduler.class);
+        SignalMast last = masts.get(masts.size() - 1);
+        last.setAspect("Clear");
+        for (SignalMastLogic logic : logics) {
+            logic.getSourceMast().setHeld(true);
+        }
+        for (SignalMastLogic logic : logics) {
+            SignalMast mast = logic.getSourceMast();
+            JUnitUtil.waitFor(() -> "Stop".equals(mast.getAspect()), "held");
+        }
+        scheduler.resetStatistics();
+        synchronized (changes) {
+            changes.clear();
+        }
+
+        // released approach first, in the same pass
+        for (SignalMastLogic logic : logics) {
+            logic.getSourceMast().setHeld(false);
+        }
+        JUnitUtil.waitFor(() -> "Clear".equals(masts.get(0).getAspect()), "line cleared");
+        JUnitUtil.waitFor(100);
+        for (int i = 0; i < logics.size(); i++) {
+            Assert.assertEquals("set once " + i, 1, scheduler.getEvaluationCount(masts.get(i)));
+            Assert.assertEquals("Clear", masts.get(i).getAspect());
+        }
+        // each mast changed after the mast it protects
+        synchronized (changes) {
+            Assert.assertEquals("all changed", logics.size(), changes.size());
+            for (int i = 1; i < changes.size(); i++) {
+                Assert.assertTrue("destination first",
+                        masts.indexOf(changes.get(i)) < masts.indexOf(changes.get(i - 1)));
+            }
+        }
+        // the whole line was set in the same pass
+        long first = scheduler.getLastLatency(masts.get(masts.size() - 2));
+        long furthest = scheduler.getLastLatency(masts.get(0));
+        Assert.assertTrue("first set", first > 0);
+        Assert.assertTrue("set in the same pass, " + furthest + " ns", furthest < first + 50000000L);
+        Assert.assertEquals(furthest, scheduler.getMaxLatency(masts.get(0)));
+    }
+
+    @Test
+    public void testChangeIsPropagated() {
+        createLine(4);
+        SignalMastLogicEvaluationScheduler scheduler = InstanceManager.getDefault(SignalMastLogicEvaluationScheduler.class);
+        scheduler.resetStatistics();
+        masts.get(3).setAspect("Clear");
+        JUnitUtil.waitFor(() -> "Clear".equals(masts.get(2).getAspect()), "approach cleared");
+        masts.get(3).setAspect("Stop");
+        JUnitUtil.waitFor(() -> "Medium Approach".equals(masts.get(2).getAspect()), "approach set");
+        Assert.assertEquals("set for each change", 2, scheduler.getEvaluationCount(masts.get(2)));
+    }
+
+    @Test
+    public void testMarksAreCoalesced() {
+        createLine(3);
+        SignalMastLogicEvaluationScheduler scheduler = InstanceManager.getDefault(SignalMastLogicEvaluationScheduler.class);
+        JUnitUtil.waitFor(100);
+        scheduler.resetStatistics();
+        DefaultSignalMastLogic logic = (DefaultSignalMastLogic) logics.get(0);
+        for (int i = 0; i < 5; i++) {
+            logic.setSignalAppearance();
+        }
+        JUnitUtil.waitFor(() -> scheduler.getEvaluationCount(masts.get(0)) > 0, "set");
+        JUnitUtil.waitFor(100);
+        Assert.assertEquals("set once", 1, scheduler.getEvaluationCount(masts.get(0)));
+        Assert.assertEquals("nothing else set", 0, scheduler.getEvaluationCount(masts.get(1)));
+    }
+
+    @Test
+    public void testLoopIsStopped() {
+        SignalMastLogicEvaluationScheduler scheduler = InstanceManager.getDefault(SignalMastLogicEvaluationScheduler.class);
+        SignalMast mast = new VirtualSignalMast("IF$vsm:AAR-1946:CPL($0100)");
+        // a logic marked again each time it is set
+        DefaultSignalMastLogic logic = new DefaultSignalMastLogic(mast) {
+            @Override
+            void setMastAppearance() {
+                setSignalAppearance();
+            }
+        };
+        logics.add(logic);
+        logic.setSignalAppearance();
+        JUnitUtil.waitFor(() -> JUnitAppender.checkForMessageStartingWith("Stopped setting Signal Mast Logic for") != null,
+                "loop reported");
+        int count = scheduler.getEvaluationCount(mast);
+        JUnitUtil.waitFor(100);
+        Assert.assertEquals("loop stopped", count, scheduler.getEvaluationCount(mast));
+        Assert.assertEquals("stopped after repeats", SignalMastLogicEvaluationScheduler.MAX_REPEATS + 1, count);
+    }
+
+    @Before
+    public void setUp() {
+        JUnitUtil.setUp();
+        JUnitUtil.initDefaultUserMessagePreferences();
+        JUnitUtil.initInternalSensorManager();
+        JUnitUtil.initInternalTurnoutManager();
+        InstanceManager.getDefault(SignalMastLogicManager.class).setSignalLogicDelay(20);
+    }
+
+    @After
+    public void tearDown() {
+        for (SignalMastLogic logic : logics) {
+            logic.dispose();
+        }
+        JUnitUtil.tearDown();
+    }
+
+}
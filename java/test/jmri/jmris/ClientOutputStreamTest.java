@@ -0,0 +1,119 @@
+package jmri.jmris;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import jmri.util.JUnitUtil;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tests for the jmri.jmris.ClientOutputStream class
+ */
+public class ClientOutputStreamTest {
+
+    /**
+     * A client that can be held up, counting the writes it is sent.
+     */
+    private static class Client extends OutputStream {
+
+        final ByteArrayOutputStream received = new ByteArrayOutputStream();
+        final AtomicInteger writes = new AtomicInteger();
+        volatile CountDownLatch blocked = null;
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[]{(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            CountDownLatch latch = blocked;
+            if (latch != null) {
+                try {
+                    latch.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            writes.incrementAndGet();
+            synchronized (received) {
+                received.write(b, off, len);
+            }
+        }
+
+        String getReceived() {
+            synchronized (received) {
+                return received.toString();
+            }
+        }
+    }
+
+    @Test
+    public void testWritesAreCoalesced() throws IOException {
+        Client client = new Client();
+        CountDownLatch latch = new CountDownLatch(1);
+        client.blocked = latch;
+        DataOutputStream out = new DataOutputStream(new ClientOutputStream(client, ClientOutputStream.DEFAULT_LIMIT, () -> {
+        }));
+        StringBuilder expected = new StringBuilder();
+        for (int i = 0; i < 100; i++) {
+            out.writeBytes("SENSOR IS" + i + " ACTIVE\n");
+            expected.append("SENSOR IS").append(i).append(" ACTIVE\n");
+        }
+        latch.countDown();
+        JUnitUtil.waitFor(() -> client.getReceived().length() == expected.length(), "all sent");
+        assertThat(client.getReceived()).isEqualTo(expected.toString());
+        // what was written before the client was held up, then everything
+        // written while it was held up
+        assertThat(client.writes.get()).isBetween(1, 2);
+    }
+
+    @Test
+    public void testSlowClientIsDisconnected() throws IOException {
+        Client client = new Client();
+        CountDownLatch latch = new CountDownLatch(1);
+        client.blocked = latch;
+        AtomicBoolean failed = new AtomicBoolean(false);
+        ClientOutputStream out = new ClientOutputStream(client, 100, () -> failed.set(true));
+        out.write(new byte[60]);
+        JUnitUtil.waitFor(() -> out.getPending() == 0, "being sent");
+        out.write(new byte[60]);
+        assertThat(out.getPending()).isEqualTo(60);
+        assertThatThrownBy(() -> out.write(new byte[60])).isInstanceOf(IOException.class);
+        JUnitUtil.waitFor(failed::get, "failure handled");
+        assertThatThrownBy(() -> out.write(1)).isInstanceOf(IOException.class);
+        latch.countDown();
+    }
+
+    @Test
+    public void testCloseSendsBufferedBytes() throws IOException {
+        Client client = new Client();
+        ClientOutputStream out = new ClientOutputStream(client, ClientOutputStream.DEFAULT_LIMIT, () -> {
+        });
+        out.write("GOODBYE\n".getBytes());
+        out.close();
+        assertThat(client.getReceived()).isEqualTo("GOODBYE\n");
+        assertThatThrownBy(() -> out.write(1)).isInstanceOf(IOException.class);
+    }
+
+    @BeforeEach
+    public void setUp() {
+        JUnitUtil.setUp();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        JUnitUtil.tearDown();
+    }
+
+}
@@ -0,0 +1,187 @@
+package jmri.jmrit.blockboss;
+
+import java.util.ArrayList;
+import java.util.List;
+import jmri.InstanceManager;
+import jmri.Sensor;
+import jmri.SignalHead;
+import jmri.implementation.VirtualSignalHead;
+import jmri.util.JUnitAppender;
+import jmri.util.JUnitUtil;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests for the BlockBossLogicEvaluationScheduler class
+ */
+public class BlockBossLogicEvaluationSchedulerTest {
+
+    private final List<SignalHead> heads = new ArrayList<>();
+    private Sensor sensor;
+    private BlockBossLogicEvaluationScheduler scheduler;
+
+    /**
+     * Create a line of heads, each protecting the next and all watching the
+     * same sensor. The last head is not driven.
+     */
+    private void createLine(int count) throws jmri.JmriException {
+        for (int i = 1; i <= count; i++) {
+            SignalHead head = new VirtualSignalHead("IH" + i);
+            InstanceManager.getDefault(jmri.SignalHeadManager.class).register(head);
+            head.setAppearance(SignalHead.RED);
+            heads.add(head);
+        }
+        for (int i = 0; i < count - 1; i++) {
+            BlockBossLogic logic = BlockBossLogic.getStoppedObject(heads.get(i));
+            logic.setMode(BlockBossLogic.SINGLEBLOCK);
+            logic.setSensor1(sensor.getSystemName());
+            logic.setWatchedSignal1(heads.get(i + 1).getSystemName(), false);
+            logic.retain();
+            logic.start();
+        }
+        JUnitUtil.waitFor(() -> SignalHead.GREEN == heads.get(0).getAppearance(), "line set");
+    }
+
+    @Test
+    public void testEachHeadEvaluatedOncePerChange() throws jmri.JmriException {
+        createLine(10);
+        JUnitUtil.waitFor(50);
+        scheduler.resetStatistics();
+
+        sensor.setState(Sensor.ACTIVE);
+        JUnitUtil.waitFor(() -> SignalHead.RED == heads.get(0).getAppearance(), "occupied");
+        JUnitUtil.waitFor(50);
+        for (int i = 0; i < heads.size() - 1; i++) {
+            Assert.assertEquals("evaluated once " + i, 1, scheduler.getEvaluationCount(heads.get(i)));
+            Assert.assertEquals("red " + i, SignalHead.RED, heads.get(i).getAppearance());
+        }
+
+        scheduler.resetStatistics();
+        sensor.setState(Sensor.INACTIVE);
+        JUnitUtil.waitFor(() -> SignalHead.GREEN == heads.get(0).getAppearance(), "cleared");
+        JUnitUtil.waitFor(50);
+        for (int i = 0; i < heads.size() - 1; i++) {
+            Assert.assertEquals("evaluated once " + i, 1, scheduler.getEvaluationCount(heads.get(i)));
+        }
+        Assert.assertEquals("approach", SignalHead.YELLOW, heads.get(heads.size() - 2).getAppearance());
+    }
+
+    @Test
+    public void testHeldHeadIsEvaluated() throws jmri.JmriException {
+        createLine(3);
+        heads.get(0).setHeld(true);
+        JUnitUtil.waitFor(() -> SignalHead.RED == heads.get(0).getAppearance(), "held");
+        heads.get(0).setHeld(false);
+        JUnitUtil.waitFor(() -> SignalHead.GREEN == heads.get(0).getAppearance(), "released");
+
+        // setting the driven head by hand is not undone
+        scheduler.resetStatistics();
+        heads.get(0).setAppearance(SignalHead.FLASHRED);
+        JUnitUtil.waitFor(50);
+        Assert.assertEquals("not evaluated", 0, scheduler.getEvaluationCount(heads.get(0)));
+        Assert.assertEquals(SignalHead.FLASHRED, heads.get(0).getAppearance());
+    }
+
+    @Test
+    public void testStoppedLogicIsNotEvaluated() throws jmri.JmriException {
+        createLine(3);
+        BlockBossLogic logic = BlockBossLogic.getExisting(heads.get(0));
+        Assert.assertTrue(scheduler.isRegistered(logic));
+        logic.stop();
+        Assert.assertFalse(scheduler.isRegistered(logic));
+        Assert.assertSame("still retained", logic, BlockBossLogic.getExisting(heads.get(0)));
+
+        scheduler.resetStatistics();
+        sensor.setState(Sensor.ACTIVE);
+        JUnitUtil.waitFor(() -> SignalHead.RED == heads.get(1).getAppearance(), "occupied");
+        JUnitUtil.waitFor(50);
+        Assert.assertEquals("not evaluated", 0, scheduler.getEvaluationCount(heads.get(0)));
+        Assert.assertEquals(SignalHead.GREEN, heads.get(0).getAppearance());
+    }
+
+    @Test
+    public void testSecondLogicReplacesFirst() throws jmri.JmriException {
+        createLine(3);
+        BlockBossLogic first = BlockBossLogic.getExisting(heads.get(0));
+        BlockBossLogic second = new BlockBossLogic(heads.get(0).getSystemName());
+        second.setMode(BlockBossLogic.SINGLEBLOCK);
+        second.setSensor1(sensor.getSystemName());
+        second.start();
+        Assert.assertFalse("first stopped", first.isRunning());
+        Assert.assertFalse(scheduler.isRegistered(first));
+        Assert.assertTrue(scheduler.isRegistered(second));
+
+        second.retain();
+        Assert.assertSame("replaced", second, BlockBossLogic.getExisting(heads.get(0)));
+        Assert.assertEquals("one logic per head", 2, java.util.Collections.list(BlockBossLogic.entries()).size());
+    }
+
+    @Test
+    public void testRetainStopsReplacedLogic() throws jmri.JmriException {
+        createLine(3);
+        BlockBossLogic first = BlockBossLogic.getExisting(heads.get(0));
+        BlockBossLogic second = new BlockBossLogic(heads.get(0).getSystemName());
+        second.retain();
+        Assert.assertFalse("first stopped", first.isRunning());
+        Assert.assertFalse(scheduler.isRegistered(first));
+        Assert.assertSame("replaced", second, BlockBossLogic.getExisting(heads.get(0)));
+    }
+
+    @Test
+    public void testLoopIsStopped() throws jmri.JmriException {
+        createLine(3);
+        scheduler.resetStatistics();
+        // two logics that change their heads each time the other head changes
+        BlockBossLogic.stopAllAndClear();
+        for (int i = 0; i < 2; i++) {
+            BlockBossLogic logic = new BlockBossLogic(heads.get(i).getSystemName()) {
+                @Override
+                public void setOutput() {
+                    SignalHead head = getDrivenSignalNamedBean().getBean();
+                    head.setAppearance(head.getAppearance() == SignalHead.RED ? SignalHead.GREEN : SignalHead.RED);
+                }
+            };
+            logic.setMode(BlockBossLogic.SINGLEBLOCK);
+            logic.setWatchedSignal1(heads.get(1 - i).getSystemName(), false);
+            logic.start();
+        }
+        JUnitUtil.waitFor(() -> JUnitAppender.checkForMessageStartingWith("Stopped evaluating Simple Signal Logic for IH") != null,
+                "loop reported");
+        JUnitUtil.waitFor(50);
+        int count = scheduler.getEvaluationCount(heads.get(0));
+        JUnitUtil.waitFor(50);
+        Assert.assertEquals("loop stopped", count, scheduler.getEvaluationCount(heads.get(0)));
+        Assert.assertTrue("stopped after repeats", count <= BlockBossLogicEvaluationScheduler.MAX_REPEATS + 2);
+
+        // the logics are still registered, and run again when an input changes
+        heads.get(1).setAppearance(SignalHead.YELLOW);
+        JUnitUtil.waitFor(() -> scheduler.getEvaluationCount(heads.get(0)) > count, "evaluated again");
+        JUnitUtil.waitFor(() -> JUnitAppender.checkForMessageStartingWith("Stopped evaluating Simple Signal Logic for IH") != null,
+                "loop reported");
+    }
+
+    @Before
+    public void setUp() {
+        JUnitUtil.setUp();
+        JUnitUtil.initInternalSensorManager();
+        JUnitUtil.initInternalTurnoutManager();
+        JUnitUtil.initInternalSignalHeadManager();
+        BlockBossLogic.stopAllAndClear();
+        sensor = InstanceManager.sensorManagerInstance().provideSensor("IS1");
+        try {
+            sensor.setState(Sensor.INACTIVE);
+        } catch (jmri.JmriException e) {
+            Assert.fail(e.getMessage());
+        }
+        scheduler = InstanceManager.getDefault(BlockBossLogicEvaluationScheduler.class);
+    }
+
+    @After
+    public void tearDown() {
+        BlockBossLogic.stopAllAndClear();
+        JUnitUtil.tearDown();
+    }
+
+}
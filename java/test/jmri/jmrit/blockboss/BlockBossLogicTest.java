@@ -198,16 +198,15 @@ public class BlockBossLogicTest {
 
     // test interruption
     @Test
-    public void testInterrupt() throws jmri.JmriException {
+    public void testStopWhileEvaluating() throws jmri.JmriException {
         s1.setState(Sensor.INACTIVE);
         
-        forceInterrupt = false;
+        forceStop = false;
         p = new BlockBossLogic("IH1") {
             @Override
             public void setOutput() {
-                testThread = this.thread;
-                if (forceInterrupt) {
-                    testThread.interrupt(); // force an interrupt of the SSL thread
+                if (forceStop) {
+                    stop(); // stop the SSL while it is being evaluated
                 }
                 super.setOutput();
             }
@@ -220,12 +219,19 @@ public class BlockBossLogicTest {
 
         JUnitUtil.waitFor(()->{return p.isRunning();}, "is running");
                 
-        forceInterrupt = true;
+        forceStop = true;
         s1.setState(Sensor.ACTIVE);
         
         JUnitUtil.waitFor(()->{return !p.isRunning();}, "is stopped");
-    }
+        JUnitUtil.waitFor(()->{return SignalHead.RED == h1.getAppearance();}, "last evaluation completed");
 
+        // no longer evaluated
+        h1.setAppearance(SignalHead.GREEN);
+        s1.setState(Sensor.INACTIVE);
+        s1.setState(Sensor.ACTIVE);
+        JUnitUtil.waitFor(50);
+        Assert.assertEquals("not evaluated", SignalHead.GREEN, h1.getAppearance());
+    }
 
     // check that user names were preserved
     @Test
@@ -326,8 +332,7 @@ public class BlockBossLogicTest {
     SignalHead h1, h2, h3, h4;
     BlockBossLogic p;
 
-    Thread testThread = null;
-    boolean forceInterrupt = false;
+    boolean forceStop = false;
 
     protected void startLogic() {
         if (p != null) {
@@ -408,7 +413,6 @@ public class BlockBossLogicTest {
         t1=t2=t3=null;
         s1=s2=s3=s4=s5=s6=s7=s8=s9=s10=null;
         h1=h2=h3=h4=null;
-        testThread = null;
         stopLogic();
         // reset InstanceManager
         JUnitUtil.tearDown();
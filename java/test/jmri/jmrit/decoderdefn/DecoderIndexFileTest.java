@@ -179,6 +179,58 @@ public class DecoderIndexFileTest {
         Assert.assertEquals("Found with version 25 ", 0, l3.size());
     }
 
+    @Test
+    public void testMatchingMultipleKeys() throws org.jdom2.JDOMException, java.io.IOException {
+        DecoderIndexFile di = new DecoderIndexFile();
+        setupDoc();
+        di.readMfgSection();
+        di.readFamilySection(decoderIndexElement);
+        List<DecoderFile> l = di.matchingDecoderList("Digitrax", "FX2 family", "129", "23", null, "DN142");
+        Assert.assertEquals("Found DN142", 1, l.size());
+        Assert.assertEquals("DN142", l.get(0).getModel());
+        Assert.assertTrue("wrong family", di.matchingDecoderList("NMRA", "FX2 family", null, null, null, null).isEmpty());
+        Assert.assertTrue("unknown model", di.matchingDecoderList(null, null, null, null, null, "DX1").isEmpty());
+        Assert.assertTrue("unused version", di.matchingDecoderList(null, null, null, "200", null, null).isEmpty());
+        Assert.assertEquals("all", 6, di.matchingDecoderList(null, null, null, null, null, null).size());
+    }
+
+    @Test
+    public void testMatchingProductID() throws org.jdom2.JDOMException, java.io.IOException {
+        DecoderIndexFile di = new DecoderIndexFile();
+        setupDoc();
+        family2.getChildren("model").get(0).setAttribute("productID", "7,8");
+        di.readMfgSection();
+        di.readFamilySection(decoderIndexElement);
+        List<DecoderFile> l = di.matchingDecoderList(null, null, "129", null, "8", null);
+        // the family entry shares the first model element
+        Assert.assertEquals("Found with product 8", 2, l.size());
+        Assert.assertEquals("DH142", l.get(1).getModel());
+        Assert.assertEquals("Found with products 7,8", 2, di.matchingDecoderList(null, null, null, null, "7,8", null).size());
+        Assert.assertTrue("Product 9", di.matchingDecoderList(null, null, null, null, "9", null).isEmpty());
+    }
+
+    @Test
+    public void testIndexFollowsReading() throws org.jdom2.JDOMException, java.io.IOException {
+        DecoderIndexFile di = new DecoderIndexFile();
+        setupDoc();
+        di.readMfgSection();
+        di.readFamily(family1);
+        Assert.assertTrue(di.matchingDecoderList("Digitrax", null, null, null, null, null).isEmpty());
+        Assert.assertNull(di.fileFromTitle("DH142 (FX2 family)"));
+        // entries read after a search are found by the next one
+        di.readFamily(family2);
+        Assert.assertEquals(3, di.matchingDecoderList("Digitrax", null, null, null, null, null).size());
+        Assert.assertEquals("DH142", di.fileFromTitle("DH142 (FX2 family)").getModel());
+        Assert.assertEquals("full set", di.fileFromTitle("full set (NMRA S&RP definitions)").getModel());
+    }
+
+    @Test
+    public void testReadIndexVersion() throws java.io.IOException {
+        java.net.URL url = jmri.util.FileUtil.findURL("xml/decoderIndex.xml", jmri.util.FileUtil.Location.INSTALLED);
+        Assert.assertNotNull(url);
+        Assert.assertNotNull(DecoderIndexFile.readIndexVersion(url));
+    }
+
     // static variables for the test XML structures
     Element root = null;
     Document doc = null;
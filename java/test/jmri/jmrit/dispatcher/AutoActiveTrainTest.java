@@ -1,10 +1,19 @@
 package jmri.jmrit.dispatcher;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import jmri.DccLocoAddress;
+import jmri.DccThrottle;
+import jmri.Throttle;
+import jmri.jmrix.debugthrottle.DebugThrottle;
 import jmri.util.JUnitUtil;
 import org.junit.After;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
  *
@@ -20,9 +29,152 @@ public class AutoActiveTrainTest {
         Assert.assertNotNull("exists",t);
     }
 
+    /**
+     * A debug throttle that records the speed settings sent, and the distance
+     * run in throttle setting milliseconds, from the time it is reset.
+     */
+    private static class SimulatedTrain {
+
+        final DccThrottle throttle;
+        final AutoActiveTrain aat;
+        private long time = 0;
+        private float speed = 0.0f;
+        private double distance = 0;
+        private final List<Float> settings = new ArrayList<>();
+
+        SimulatedTrain(int address) {
+            throttle = new DebugThrottle(new DccLocoAddress(address, false), null);
+            throttle.addPropertyChangeListener(e -> {
+                if (Throttle.SPEEDSETTING.equals(e.getPropertyName())) {
+                    update((Float) e.getNewValue());
+                }
+            });
+            ActiveTrain at = new ActiveTrain(new jmri.Transit("TT" + address), "Train " + address, ActiveTrain.USER);
+            aat = new AutoActiveTrain(at);
+            aat.setRampRate(AutoActiveTrain.RAMP_FAST);
+        }
+
+        synchronized void update(float newSpeed) {
+            long now = System.nanoTime();
+            distance += speed * (now - time) / 1000000.0;
+            time = now;
+            speed = newSpeed;
+            settings.add(newSpeed);
+        }
+
+        synchronized void reset() {
+            time = System.nanoTime();
+            speed = throttle.getSpeedSetting();
+            distance = 0;
+            settings.clear();
+        }
+
+        synchronized List<Float> getSettings() {
+            return new ArrayList<>(settings);
+        }
+
+        synchronized double getDistance() {
+            return distance;
+        }
+    }
+
+    /**
+     * Run many trains against debug throttles and bring each to a stop from
+     * the same speed. Each train must step down by the ramp increment to a
+     * stop. The distance each runs while ramping down depends on when the
+     * steps run, so only the median distance is compared with the distance
+     * expected from the ramp rate and throttle interval.
+     */
+    @Test
+    public void testStopPositionAccuracy() {
+        int interval = 20;
+        int rampTime = 1000; // 0.02 per throttle interval
+        float speed = 0.5f;
+        List<SimulatedTrain> trains = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            SimulatedTrain train = new SimulatedTrain(i + 3);
+            train.aat.startAutoEngineer(train.throttle, interval, rampTime);
+            train.aat.setTargetSpeed(speed);
+            trains.add(train);
+        }
+        for (SimulatedTrain train : trains) {
+            JUnitUtil.waitFor(() -> Math.abs(train.throttle.getSpeedSetting() - speed) < 0.001f, "at speed");
+            Assert.assertTrue("at speed", train.aat.getAutoEngineer().isAtSpeed());
+        }
+        // no throttle command is sent within an interval of the last
+        JUnitUtil.waitFor(interval * 2);
+
+        for (SimulatedTrain train : trains) {
+            train.reset();
+            train.aat.setTargetSpeed(0.0f);
+        }
+        for (SimulatedTrain train : trains) {
+            train.aat.waitUntilStopped();
+            Assert.assertTrue("stopped", train.aat.getAutoEngineer().isStopped());
+        }
+
+        for (SimulatedTrain train : trains) {
+            List<Float> settings = train.getSettings();
+            Assert.assertEquals("steps", 25, settings.size());
+            float last = speed;
+            for (float s : settings) {
+                Assert.assertEquals("ramp step", last - 0.02f, s, 0.001f);
+                last = s;
+            }
+            Assert.assertEquals("stopped", 0.0f, last, 0.001f);
+        }
+
+        // the first step is at once, then a step each interval
+        double expected = 0;
+        for (float s = speed - 0.02f; s > 0.001f; s -= 0.02f) {
+            expected += s * interval;
+        }
+        List<Double> errors = new ArrayList<>();
+        for (SimulatedTrain train : trains) {
+            errors.add(Math.abs(train.getDistance() - expected) / expected);
+        }
+        Collections.sort(errors);
+        double median = errors.get(errors.size() / 2);
+        log.debug("stop position error for {} trains: median {}%, worst {}%", trains.size(),
+                String.format("%.2f", median * 100), String.format("%.2f", errors.get(errors.size() - 1) * 100));
+        Assert.assertTrue("median stop position within 10% of expected, was " + median, median < 0.10);
+
+        for (SimulatedTrain train : trains) {
+            train.aat.getAutoEngineer().abort();
+        }
+    }
+
+    @Test
+    public void testIdleWhenAtSpeed() {
+        SimulatedTrain train = new SimulatedTrain(3);
+        List<Float> settings = new ArrayList<>();
+        train.throttle.addPropertyChangeListener(e -> {
+            if (Throttle.SPEEDSETTING.equals(e.getPropertyName())) {
+                synchronized (settings) {
+                    settings.add((Float) e.getNewValue());
+                }
+            }
+        });
+        train.aat.startAutoEngineer(train.throttle, 20, 1000);
+        train.aat.setTargetSpeed(0.1f);
+        JUnitUtil.waitFor(() -> Math.abs(train.throttle.getSpeedSetting() - 0.1f) < 0.001f, "at speed");
+        int count;
+        synchronized (settings) {
+            count = settings.size();
+        }
+        JUnitUtil.waitFor(200);
+        synchronized (settings) {
+            Assert.assertEquals("no commands once at speed", count, settings.size());
+        }
+        train.aat.setForward(false);
+        JUnitUtil.waitFor(() -> !train.throttle.getIsForward(), "reversed");
+        train.aat.getAutoEngineer().abort();
+    }
+
     @Before
     public void setUp() {
         JUnitUtil.setUp();
+        JUnitUtil.initDebugThrottleManager();
     }
 
     @After
@@ -30,6 +182,6 @@ public class AutoActiveTrainTest {
         JUnitUtil.tearDown();
     }
 
-    // private final static Logger log = LoggerFactory.getLogger(AutoActiveTrainTest.class);
+    private final static Logger log = LoggerFactory.getLogger(AutoActiveTrainTest.class);
 
 }
@@ -0,0 +1,134 @@
+package jmri.jmrit.display.layoutEditor;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import jmri.Block;
+import jmri.util.JUnitUtil;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+/**
+ * Tests for LayoutBlockGraph, using mock layout blocks so that the neighbours
+ * and through paths can be set directly.
+ */
+public class LayoutBlockGraphTest {
+
+    private final Map<LayoutBlock, List<Block>> neighbours = new HashMap<>();
+    private final Map<LayoutBlock, List<Block[]>> throughPaths = new HashMap<>();
+    private final List<LayoutBlock> blocks = new ArrayList<>();
+
+    private LayoutBlock block(String name, int metric) {
+        LayoutBlock lb = Mockito.mock(LayoutBlock.class);
+        Block b = new Block("IB" + name, name);
+        Mockito.when(lb.getBlock()).thenReturn(b);
+        Mockito.when(lb.getBlockMetric()).thenReturn(metric);
+        neighbours.put(lb, new ArrayList<>());
+        throughPaths.put(lb, new ArrayList<>());
+        blocks.add(lb);
+        return lb;
+    }
+
+    private void connect(LayoutBlock a, LayoutBlock b) {
+        neighbours.get(a).add(b.getBlock());
+        neighbours.get(b).add(a.getBlock());
+    }
+
+    // a train in via can go from from to to, and back
+    private void throughPath(LayoutBlock via, LayoutBlock from, LayoutBlock to) {
+        throughPaths.get(via).add(new Block[]{from.getBlock(), to.getBlock()});
+        throughPaths.get(via).add(new Block[]{to.getBlock(), from.getBlock()});
+    }
+
+    private LayoutBlockGraph build() {
+        for (LayoutBlock lb : blocks) {
+            List<Block> n = neighbours.get(lb);
+            List<Block[]> t = throughPaths.get(lb);
+            // stubbed with doAnswer, as a graph may be built more than once
+            Mockito.doReturn(n.size()).when(lb).getNumberOfNeighbours();
+            Mockito.doAnswer(i -> n.get((int) i.getArgument(0))).when(lb).getNeighbourAtIndex(Mockito.anyInt());
+            Mockito.doReturn(t.size()).when(lb).getNumberOfThroughPaths();
+            Mockito.doAnswer(i -> t.get((int) i.getArgument(0))[0]).when(lb).getThroughPathSource(Mockito.anyInt());
+            Mockito.doAnswer(i -> t.get((int) i.getArgument(0))[1]).when(lb).getThroughPathDestination(Mockito.anyInt());
+        }
+        return new LayoutBlockGraph(blocks);
+    }
+
+    private static final LayoutBlockGraph.HopFilter ANY = (from, via, to) -> true;
+
+    @Test
+    public void testLeastMetricPath() {
+        // a - b - c - e, and a longer way b - d - e
+        LayoutBlock a = block("a", 100);
+        LayoutBlock b = block("b", 100);
+        LayoutBlock c = block("c", 100);
+        LayoutBlock d = block("d", 500);
+        LayoutBlock e = block("e", 100);
+        connect(a, b);
+        connect(b, c);
+        connect(b, d);
+        connect(c, e);
+        connect(d, e);
+        throughPath(b, a, c);
+        throughPath(b, a, d);
+        throughPath(c, b, e);
+        throughPath(d, b, e);
+        LayoutBlockGraph graph = build();
+        Assert.assertEquals(5, graph.getBlockCount());
+        Assert.assertEquals(10, graph.getHopCount());
+
+        LayoutBlockGraph.Paths paths = graph.search(a, b, ANY);
+        Assert.assertEquals(Arrays.asList(a, b, c, e), paths.pathTo(e));
+        Assert.assertEquals(Arrays.asList(a, b, d), paths.pathTo(d));
+        Assert.assertEquals(Arrays.asList(a, b), paths.pathTo(b));
+        Assert.assertNull("can not turn back", paths.pathTo(a));
+
+        // with c not usable, the longer way is taken
+        paths = graph.search(a, b, (from, via, to) -> to != c);
+        Assert.assertEquals(Arrays.asList(a, b, d, e), paths.pathTo(e));
+        Assert.assertNull(paths.pathTo(c));
+    }
+
+    @Test
+    public void testThroughPathNeeded() {
+        // b joins a and c, but has no through path between them
+        LayoutBlock a = block("a", 100);
+        LayoutBlock b = block("b", 100);
+        LayoutBlock c = block("c", 100);
+        connect(a, b);
+        connect(b, c);
+        LayoutBlockGraph graph = build();
+        Assert.assertFalse(graph.hasThroughPath(graph.indexOf(b), graph.indexOf(a), graph.indexOf(c)));
+        Assert.assertNull(graph.search(a, b, ANY).pathTo(c));
+
+        throughPath(b, a, c);
+        graph = build();
+        Assert.assertTrue(graph.hasThroughPath(graph.indexOf(b), graph.indexOf(a), graph.indexOf(c)));
+        Assert.assertEquals(Arrays.asList(a, b, c), graph.search(a, b, ANY).pathTo(c));
+    }
+
+    @Test
+    public void testUnknownBlock() {
+        LayoutBlock a = block("a", 100);
+        LayoutBlockGraph graph = build();
+        LayoutBlock other = Mockito.mock(LayoutBlock.class);
+        Assert.assertEquals(-1, graph.indexOf(other));
+        Assert.assertEquals(-1, graph.indexOf(null));
+        Assert.assertNull(graph.search(a, other, ANY));
+    }
+
+    @Before
+    public void setUp() {
+        JUnitUtil.setUp();
+    }
+
+    @After
+    public void tearDown() {
+        JUnitUtil.tearDown();
+    }
+}
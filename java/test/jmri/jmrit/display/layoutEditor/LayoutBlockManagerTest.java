@@ -1,6 +1,12 @@
 package jmri.jmrit.display.layoutEditor;
 
+import jmri.InstanceManager;
+import jmri.Memory;
+import jmri.MemoryManager;
+import jmri.Sensor;
+import jmri.SensorManager;
 import jmri.util.JUnitUtil;
+import jmri.util.ThreadingUtil;
 import org.junit.After;
 import org.junit.Assert;
 import org.junit.Before;
@@ -19,6 +25,70 @@ public class LayoutBlockManagerTest {
         Assert.assertNotNull("exists", b);
     }
 
+    @Test
+    public void testLookupByAssignedBean() {
+        LayoutBlockManager lbm = InstanceManager.getDefault(LayoutBlockManager.class);
+        SensorManager sm = InstanceManager.getDefault(SensorManager.class);
+        MemoryManager mm = InstanceManager.getDefault(MemoryManager.class);
+        int count = 20;
+        // on the GUI thread, as each LayoutBlock has a Memory combo box
+        ThreadingUtil.runOnGUI(() -> {
+            for (int i = 1; i <= count; i++) {
+                LayoutBlock lb = lbm.createNewLayoutBlock("ILB" + i, "Block " + i);
+                lb.initializeLayoutBlock();
+                lb.setOccupancySensorName(sm.provideSensor("IS" + i).getSystemName());
+                lb.setMemoryName(mm.provideMemory("IM" + i).getSystemName());
+            }
+        });
+        for (int i = 1; i <= count; i++) {
+            LayoutBlock lb = lbm.getLayoutBlock("Block " + i);
+            Assert.assertSame(lb, lbm.getLayoutBlock(lb.getBlock()));
+            Assert.assertSame(lb, lbm.getBlockWithSensorAssigned(sm.getSensor("IS" + i)));
+            Assert.assertSame(lb, lbm.getBlockWithMemoryAssigned(mm.getMemory("IM" + i)));
+        }
+
+        // lookups follow changes of assignment
+        LayoutBlock lb1 = lbm.getLayoutBlock("Block 1");
+        Sensor spare = sm.provideSensor("ISSPARE");
+        Assert.assertNull(lbm.getBlockWithSensorAssigned(spare));
+        lb1.setOccupancySensorName("ISSPARE");
+        Assert.assertSame(lb1, lbm.getBlockWithSensorAssigned(spare));
+        Assert.assertNull(lbm.getBlockWithSensorAssigned(sm.getSensor("IS1")));
+
+        lb1.setMemoryName(null);
+        Assert.assertNull(lbm.getBlockWithMemoryAssigned(mm.getMemory("IM1")));
+
+        // a memory named before it exists is found once it is created
+        LayoutBlock lb2 = lbm.getLayoutBlock("Block 2");
+        lb2.setMemoryName(null);
+        lb2.setMemoryName("IMLATER");
+        Assert.assertNull(lb2.getMemory());
+        ThreadingUtil.runOnGUI(() -> mm.provideMemory("IMLATER"));
+        Memory later = mm.getMemory("IMLATER");
+        Assert.assertSame(lb2, lbm.getBlockWithMemoryAssigned(later));
+
+        // a sensor given to the Block is picked up by its LayoutBlock
+        LayoutBlock lb3 = lbm.getLayoutBlock("Block 3");
+        lb3.setOccupancySensorName(null);
+        Sensor fromBlock = sm.provideSensor("ISFROMBLOCK");
+        lb3.getBlock().setNamedSensor(InstanceManager.getDefault(jmri.NamedBeanHandleManager.class)
+                .getNamedBeanHandle("ISFROMBLOCK", fromBlock));
+        Assert.assertSame(lb3, lbm.getBlockWithSensorAssigned(fromBlock));
+        Assert.assertSame(lb3, lbm.getBlockWithSensorAssigned(fromBlock));
+
+        // null finds the first LayoutBlock without one
+        Assert.assertSame(lb1, lbm.getBlockWithMemoryAssigned(null));
+        Assert.assertNull(lbm.getBlockWithSensorAssigned(null));
+        Assert.assertNull(lbm.getLayoutBlock((jmri.Block) null));
+
+        lb3.getBlock().setNamedSensor(null);
+        Assert.assertNull(lbm.getBlockWithSensorAssigned(fromBlock));
+
+        lbm.deregister(lb1);
+        Assert.assertNull(lbm.getBlockWithSensorAssigned(spare));
+        Assert.assertNull(lbm.getLayoutBlock(lb1.getBlock()));
+    }
+
     // from here down is testing infrastructure
     @Before
     public void setUp() throws Exception {
@@ -27,6 +97,10 @@ public class LayoutBlockManagerTest {
 
     @After
     public void tearDown() throws Exception {
+        // let the combo boxes finish updating
+        ThreadingUtil.runOnGUI(() -> {
+        });
+        JUnitUtil.deregisterBlockManagerShutdownTask();
         JUnitUtil.tearDown();
     }
     // private final static org.slf4j.Logger log = org.slf4j.LoggerFactory.getLogger(LayoutEditorActionTest.class);
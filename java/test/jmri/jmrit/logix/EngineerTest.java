@@ -1,5 +1,10 @@
 package jmri.jmrit.logix;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import jmri.InstanceManager;
 import jmri.util.JUnitAppender;
 import jmri.util.JUnitUtil;
 import org.junit.After;
@@ -26,6 +31,88 @@ public class EngineerTest {
         warrant.stopWarrant(true);
     }
 
+    private Warrant newWarrant(int i) {
+        OBlockManager obm = InstanceManager.getDefault(OBlockManager.class);
+        PortalManager pm = InstanceManager.getDefault(PortalManager.class);
+        OBlock from = obm.createNewOBlock("OBA" + i, "A" + i);
+        OBlock to = obm.createNewOBlock("OBB" + i, "B" + i);
+        Portal portal = pm.createNewPortal("P" + i);
+        portal.setFromBlock(from, false);
+        portal.setToBlock(to, false);
+        OPath fromPath = new OPath("A" + i + "Path", from, null, portal, new ArrayList<>());
+        fromPath.setLength(100);
+        from.addPath(fromPath);
+        OPath toPath = new OPath("B" + i + "Path", to, portal, null, new ArrayList<>());
+        toPath.setLength(100);
+        to.addPath(toPath);
+
+        ArrayList<BlockOrder> orders = new ArrayList<>();
+        orders.add(new BlockOrder(from, "A" + i + "Path", "", "P" + i));
+        orders.add(new BlockOrder(to, "B" + i + "Path", "P" + i, ""));
+        Warrant warrant = new Warrant("IW" + i, "Warrant " + i);
+        warrant.setThrottleCommands(new ArrayList<>());
+        warrant.addThrottleCommand(new ThrottleSetting(0, "Speed", "0.0", "A" + i));
+        warrant.addThrottleCommand(new ThrottleSetting(10, "Speed", "0.4", "A" + i));
+        warrant.addThrottleCommand(new ThrottleSetting(100, "NoOp", "Enter Block", "B" + i));
+        warrant.addThrottleCommand(new ThrottleSetting(50, "Speed", "0.3", "B" + i));
+        warrant.addThrottleCommand(new ThrottleSetting(50, "Speed", "0.0", "B" + i));
+        warrant.getSpeedUtil().setDccAddress((100 + i) + "(L)");
+        warrant.setTrainName("Train " + i);
+        Assert.assertNull("route", warrant.allocateRoute(false, orders));
+        return warrant;
+    }
+
+    private int countThreads(String prefix) {
+        int count = 0;
+        for (Thread t : Thread.getAllStackTraces().keySet()) {
+            if (t.getName().startsWith(prefix)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Test
+    public void testManyWarrants() {
+        JUnitUtil.resetProfileManager();
+        JUnitUtil.initDebugThrottleManager();
+        JUnitUtil.initRosterConfigManager();
+        WarrantPreferences.getDefault().setShutdown(WarrantPreferences.Shutdown.NO_MERGE);
+        Assert.assertTrue("shared by default", Engineer.isUseSharedScheduler());
+        List<Warrant> warrants = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            warrants.add(newWarrant(i));
+        }
+        AtomicInteger completed = new AtomicInteger();
+        AtomicInteger speedChanges = new AtomicInteger();
+        for (Warrant warrant : warrants) {
+            warrant.addPropertyChangeListener(e -> {
+                if ("runMode".equals(e.getPropertyName()) && Integer.valueOf(Warrant.MODE_NONE).equals(e.getNewValue())) {
+                    completed.incrementAndGet();
+                } else if ("SpeedChange".equals(e.getPropertyName())) {
+                    speedChanges.incrementAndGet();
+                }
+            });
+            String msg = warrant.setRunMode(Warrant.MODE_RUN, null, null, null, true);
+            Assert.assertNull("setRunMode - " + msg, msg);
+        }
+        int poolSize = Math.max(4, Runtime.getRuntime().availableProcessors());
+        int[] most = new int[1];
+        JUnitUtil.waitFor(() -> {
+            most[0] = Math.max(most[0], countThreads("Engineer"));
+            for (Warrant warrant : warrants) {
+                if (warrant.getRunMode() != Warrant.MODE_NONE) {
+                    return false;
+                }
+            }
+            return true;
+        }, "all warrants done");
+        Assert.assertTrue("at most " + poolSize + " threads, saw " + most[0], most[0] <= poolSize);
+        Assert.assertEquals("no ramp threads", 0, countThreads("Ramp("));
+        JUnitUtil.waitFor(() -> completed.get() == 100, "all warrants ran to the end");
+        Assert.assertTrue("script speeds set, saw " + speedChanges.get(), speedChanges.get() >= 400);
+    }
+
     @Before
     public void setUp() {
         JUnitUtil.setUp();
@@ -0,0 +1,136 @@
+package jmri.jmrit.logix;
+
+import java.util.List;
+import jmri.InstanceManager;
+import jmri.util.JUnitUtil;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests for RouteSearch on a small layout with two ways from A to D:
+ * <pre>
+ *        B1 - C - M1
+ *  A - B            M - D
+ *        B2 - E - F - M2
+ * </pre>
+ */
+public class RouteSearchTest {
+
+    private OBlockManager blkMgr;
+    private PortalManager portalMgr;
+    private OBlock a, b, c, e, f, m, d;
+
+    private Portal portal(String name, OBlock from, OBlock to) {
+        Portal p = portalMgr.providePortal(name);
+        p.setFromBlock(from, false);
+        p.setToBlock(to, false);
+        return p;
+    }
+
+    private void path(OBlock block, String name, String from, String to, float length) {
+        OPath path = new OPath(name, block, portalMgr.getPortal(from), to == null ? null : portalMgr.getPortal(to), null);
+        path.setLength(length);
+        Assert.assertTrue("add " + name, block.addPath(path));
+    }
+
+    private static String blocks(List<BlockOrder> route) {
+        StringBuilder sb = new StringBuilder();
+        for (BlockOrder order : route) {
+            sb.append(order.getPathName());
+            sb.append(' ');
+        }
+        return sb.toString().trim();
+    }
+
+    private RouteSearch search(BlockOrder via, BlockOrder avoid) {
+        return new RouteSearch(new BlockOrder(a, "A1", null, "pAB"), new BlockOrder(d, "D1", "pMD", null), via, avoid);
+    }
+
+    @Test
+    public void testFewestBlocks() {
+        RouteSearch search = search(null, null);
+        search.setMaxRoutes(5);
+        List<List<BlockOrder>> routes = search.findRoutes();
+        Assert.assertEquals("both routes", 2, routes.size());
+        Assert.assertEquals("A1 B1 C1 M1 D1", blocks(routes.get(0)));
+        Assert.assertEquals("A1 B2 E1 F1 M2 D1", blocks(routes.get(1)));
+        Assert.assertEquals("pBC", routes.get(0).get(1).getExitName());
+        Assert.assertEquals("pBC", routes.get(0).get(2).getEntryName());
+    }
+
+    @Test
+    public void testShortest() {
+        RouteSearch search = search(null, null);
+        search.setCost(RouteSearch.Cost.LENGTH);
+        List<List<BlockOrder>> routes = search.findRoutes();
+        Assert.assertEquals("one route wanted", 1, routes.size());
+        Assert.assertEquals("A1 B2 E1 F1 M2 D1", blocks(routes.get(0)));
+    }
+
+    @Test
+    public void testViaAndAvoid() {
+        RouteSearch search = search(new BlockOrder(f, "F1", null, null), null);
+        search.setMaxRoutes(5);
+        List<List<BlockOrder>> routes = search.findRoutes();
+        Assert.assertEquals("via F", 1, routes.size());
+        Assert.assertEquals("A1 B2 E1 F1 M2 D1", blocks(routes.get(0)));
+
+        search = search(null, new BlockOrder(c, "C1", null, null));
+        search.setMaxRoutes(5);
+        routes = search.findRoutes();
+        Assert.assertEquals("avoid C", 1, routes.size());
+        Assert.assertEquals("A1 B2 E1 F1 M2 D1", blocks(routes.get(0)));
+    }
+
+    @Test
+    public void testMaxBlocks() {
+        RouteSearch search = search(null, null);
+        search.setMaxRoutes(5);
+        search.setMaxBlocks(4);
+        List<List<BlockOrder>> routes = search.findRoutes();
+        Assert.assertEquals("only the short route", 1, routes.size());
+        Assert.assertEquals("A1 B1 C1 M1 D1", blocks(routes.get(0)));
+
+        search.setMaxBlocks(3);
+        Assert.assertTrue("no route", search.findRoutes().isEmpty());
+        Assert.assertFalse("steps tried", search.getSteps().isEmpty());
+        Assert.assertNull("first step is the origin", search.getSteps().get(0).getPrevious());
+    }
+
+    @Before
+    public void setUp() {
+        JUnitUtil.setUp();
+        blkMgr = InstanceManager.getDefault(OBlockManager.class);
+        portalMgr = InstanceManager.getDefault(PortalManager.class);
+        a = blkMgr.createNewOBlock("OB1", "A");
+        b = blkMgr.createNewOBlock("OB2", "B");
+        c = blkMgr.createNewOBlock("OB3", "C");
+        e = blkMgr.createNewOBlock("OB4", "E");
+        f = blkMgr.createNewOBlock("OB5", "F");
+        m = blkMgr.createNewOBlock("OB6", "M");
+        d = blkMgr.createNewOBlock("OB7", "D");
+        portal("pAB", a, b);
+        portal("pBC", b, c);
+        portal("pBE", b, e);
+        portal("pCM", c, m);
+        portal("pEF", e, f);
+        portal("pFM", f, m);
+        portal("pMD", m, d);
+        path(a, "A1", "pAB", null, 100);
+        path(b, "B1", "pAB", "pBC", 100);
+        path(b, "B2", "pAB", "pBE", 100);
+        path(c, "C1", "pBC", "pCM", 1000);
+        path(e, "E1", "pBE", "pEF", 100);
+        path(f, "F1", "pEF", "pFM", 100);
+        path(m, "M1", "pCM", "pMD", 100);
+        path(m, "M2", "pFM", "pMD", 100);
+        path(d, "D1", "pMD", null, 100);
+    }
+
+    @After
+    public void tearDown() {
+        JUnitUtil.tearDown();
+    }
+}
@@ -14,6 +14,7 @@ import jmri.jmrit.operations.locations.Track;
 import jmri.jmrit.operations.routes.Route;
 import jmri.jmrit.operations.routes.RouteLocation;
 import jmri.jmrit.operations.trains.Train;
+import jmri.util.JUnitAppender;
 
 /**
  * Tests for the Operations RollingStock Cars CarManager class Last manually
@@ -1060,6 +1061,57 @@ public class CarManagerTest extends OperationsTestCase {
         Assert.assertFalse("c3 not in car list on track", carList.contains(c3));
     }
 
+    @Test
+    public void testListsOrderedById() {
+        initializeTest();
+
+        CarManager manager = InstanceManager.getDefault(CarManager.class);
+        Track l1t1 = l1.getTrackByName("A", Track.SPUR);
+        for (Car car : new Car[]{c6, c3, c5, c4}) {
+            Assert.assertEquals(Track.OKAY, car.setLocation(l1, l1t1));
+        }
+        List<Car> byId = manager.getByIdList();
+        byId.removeIf(car -> car.getTrack() != l1t1);
+        Assert.assertEquals("Number of Cars on track", 5, byId.size());
+        Assert.assertEquals("track list in id order", byId, manager.getList(l1t1));
+        byId = manager.getByIdList();
+        byId.removeIf(car -> car.getLocation() != l1);
+        Assert.assertEquals("location list in id order", byId, manager.getList(l1));
+    }
+
+    @Test
+    public void testListsFollowCarChanges() {
+        initializeTest();
+
+        CarManager manager = InstanceManager.getDefault(CarManager.class);
+        Track l1t1 = l1.getTrackByName("A", Track.SPUR);
+        Track l1t2 = l1.getTrackByName("B", Track.SPUR);
+        Track l2t1 = l2.getTrackByName("B", Track.SPUR);
+
+        Assert.assertEquals(Track.OKAY, c1.setLocation(l1, l1t2));
+        Assert.assertTrue("c1 moved off track", manager.getList(l1t1).isEmpty());
+        Assert.assertTrue("c1 on new track", manager.getList(l1t2).contains(c1));
+        Assert.assertEquals(Track.OKAY, c1.setLocation(l2, l2t1));
+        Assert.assertFalse("c1 not at old location", manager.getList(l1).contains(c1));
+        Assert.assertTrue("c1 at new location", manager.getList(l2).contains(c1));
+
+        Assert.assertNull("no car of road", manager.getByTypeAndRoad("Boxcar", "XYZ"));
+        c1.setRoadName("XYZ");
+        Assert.assertEquals("car found by new road", c1, manager.getByTypeAndRoad("Boxcar", "XYZ"));
+        Assert.assertEquals("car found by new id", c1, manager.getByRoadAndNumber("XYZ", "1"));
+        c1.setTypeName("Flatcar");
+        Assert.assertNull("car has new type", manager.getByTypeAndRoad("Boxcar", "XYZ"));
+        Assert.assertEquals("car found by new type", c1, manager.getByTypeAndRoad("Flatcar", "XYZ"));
+
+        c2.setRfid("1234");
+        JUnitAppender.assertErrorMessage("Tag 1234 Not Found");
+        Assert.assertEquals("car found by RFID", c2, manager.getByRfid("1234"));
+
+        manager.deregister(c1);
+        Assert.assertFalse("c1 gone", manager.getList(l2).contains(c1));
+        Assert.assertNull("c1 gone", manager.getByTypeAndRoad("Flatcar", "XYZ"));
+    }
+
     @Test
     public void testReplaceCarLoad() {
         initializeTest();
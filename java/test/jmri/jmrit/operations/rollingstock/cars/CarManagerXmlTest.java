@@ -1,6 +1,16 @@
 package jmri.jmrit.operations.rollingstock.cars;
 
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.concurrent.CountDownLatch;
+
+import jmri.InstanceManager;
+import jmri.jmrit.XmlFile;
 import jmri.jmrit.operations.OperationsTestCase;
+import jmri.jmrit.operations.OperationsXml;
+import jmri.util.JUnitAppender;
+import org.jdom2.Document;
 import org.junit.Assert;
 import org.junit.Test;
 
@@ -16,6 +26,114 @@ public class CarManagerXmlTest extends OperationsTestCase {
         Assert.assertNotNull("exists",t);
     }
 
+    @Test
+    public void testStreamingWriteAndRead() throws Exception {
+        CarManager cm = InstanceManager.getDefault(CarManager.class);
+        Kernel kernel = cm.newKernel("K1");
+        for (int i = 0; i < 20; i++) {
+            Car car = cm.newRS("CP", Integer.toString(1000 + i));
+            car.setComment("<" + i + "> & \"quoted\"\nsecond line");
+            if (i % 2 == 0) {
+                car.setKernel(kernel);
+            }
+        }
+        CarManagerXml xml = InstanceManager.getDefault(CarManagerXml.class);
+
+        // the streamed file is the same as one written from the whole document
+        Document doc = xml.createDocument();
+        File dir = new File(OperationsXml.getFileLocation(), OperationsXml.getOperationsDirectoryName());
+        File standard = new File(dir, "standard.xml");
+        File streamed = new File(dir, "streamed.xml");
+        new XmlFile() {
+        }.writeXML(standard, doc.clone());
+        xml.writeXML(streamed, doc);
+        Assert.assertArrayEquals("same bytes", Files.readAllBytes(standard.toPath()),
+                Files.readAllBytes(streamed.toPath()));
+        Assert.assertTrue(standard.delete());
+        Assert.assertTrue(streamed.delete());
+
+        // written in the background, then read back one car at a time
+        xml.writeOperationsFile();
+        OperationsXml.waitForWrites();
+        Assert.assertFalse("not dirty", xml.isDirty());
+        cm.deleteAll();
+        cm.deleteKernel("K1");
+        Assert.assertEquals("no cars", 0, cm.getNumEntries());
+
+        xml.readFile(xml.getDefaultOperationsFilename());
+        Assert.assertEquals("cars read", 20, cm.getNumEntries());
+        Car car = cm.getByRoadAndNumber("CP", "1004");
+        Assert.assertNotNull(car);
+        Assert.assertEquals("<4> & \"quoted\"\nsecond line", car.getComment());
+        Assert.assertNotNull("kernel read before cars", car.getKernel());
+        Assert.assertEquals("K1", car.getKernelName());
+        Assert.assertNull(cm.getByRoadAndNumber("CP", "1005").getKernel());
+    }
+
+    @Test
+    public void testValidatedRead() throws Exception {
+        CarManager cm = InstanceManager.getDefault(CarManager.class);
+        Kernel kernel = cm.newKernel("K1");
+        for (int i = 0; i < 5; i++) {
+            cm.newRS("CP", Integer.toString(1000 + i)).setKernel(kernel);
+        }
+        CarManagerXml xml = InstanceManager.getDefault(CarManagerXml.class);
+        xml.writeOperationsFile();
+        cm.deleteAll();
+        cm.deleteKernel("K1");
+
+        // validation needs the whole document, so the file is not streamed
+        xml.setValidate(XmlFile.Validate.CheckDtd);
+        xml.readFile(xml.getDefaultOperationsFilename());
+        Assert.assertEquals("cars read", 5, cm.getNumEntries());
+        Assert.assertEquals("K1", cm.getByRoadAndNumber("CP", "1003").getKernelName());
+    }
+
+    @Test
+    public void testDirtyUntilWritten() throws Exception {
+        InstanceManager.getDefault(CarManager.class).newRS("CP", "1000");
+        CountDownLatch written = new CountDownLatch(1);
+        CarManagerXml xml = new CarManagerXml() {
+            @Override
+            public void writeXML(File file, Document doc) throws IOException {
+                try {
+                    written.await();
+                } catch (InterruptedException e) {
+                    throw new IOException(e);
+                }
+                super.writeXML(file, doc);
+            }
+        };
+        xml.setOperationsFileName("DirtyTestCars.xml");
+        xml.setDirty(true);
+        xml.writeOperationsFile();
+        Assert.assertTrue("dirty while written", xml.isDirty());
+        xml.setDirty(true); // changed after the snapshot was taken
+        written.countDown();
+        OperationsXml.waitForWrites();
+        Assert.assertTrue("change not written", xml.isDirty());
+
+        xml.writeOperationsFile();
+        OperationsXml.waitForWrites();
+        Assert.assertFalse("written", xml.isDirty());
+    }
+
+    @Test
+    public void testDirtyAfterFailedWrite() {
+        CarManagerXml xml = new CarManagerXml() {
+            @Override
+            public void writeXML(File file, Document doc) throws IOException {
+                throw new IOException("disk full");
+            }
+        };
+        xml.setOperationsFileName("FailedTestCars.xml");
+        xml.setDirty(true);
+        xml.writeOperationsFile();
+        OperationsXml.waitForWrites();
+        JUnitAppender.assertErrorMessage("Exception while writing operation file, may not be complete: disk full");
+        Assert.assertTrue("still dirty", xml.isDirty());
+    }
+
     // private final static Logger log = LoggerFactory.getLogger(CarManagerXmlTest.class);
 
 }
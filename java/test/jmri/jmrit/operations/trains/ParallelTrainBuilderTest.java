@@ -0,0 +1,169 @@
+package jmri.jmrit.operations.trains;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import jmri.InstanceManager;
+import jmri.jmrit.operations.OperationsTestCase;
+import jmri.jmrit.operations.locations.Location;
+import jmri.jmrit.operations.locations.LocationManager;
+import jmri.jmrit.operations.locations.Track;
+import jmri.jmrit.operations.rollingstock.cars.Car;
+import jmri.jmrit.operations.rollingstock.cars.CarManager;
+import jmri.jmrit.operations.routes.Route;
+import jmri.jmrit.operations.routes.RouteLocation;
+import jmri.jmrit.operations.routes.RouteManager;
+import jmri.jmrit.operations.setup.Setup;
+import jmri.util.JUnitOperationsUtil;
+
+/**
+ * Tests for the ParallelTrainBuilder class
+ */
+public class ParallelTrainBuilderTest extends OperationsTestCase {
+
+    private TrainManager tmanager;
+    private RouteManager rmanager;
+    private LocationManager lmanager;
+
+    private Train newTrain(String name, String... locations) {
+        Route route = rmanager.newRoute(name + " route");
+        for (String locationName : locations) {
+            Location location = lmanager.getLocationByName(locationName);
+            if (location == null) {
+                location = lmanager.newLocation(locationName);
+                location.addTrack(locationName + " yard", Track.YARD).setLength(1000);
+            }
+            route.addLocation(location);
+        }
+        Train train = tmanager.newTrain(name);
+        train.setRoute(route);
+        return train;
+    }
+
+    @Test
+    public void testGroups() {
+        Train t1 = newTrain("T1", "A", "B");
+        Train t2 = newTrain("T2", "C", "D");
+        Train t3 = newTrain("T3", "B", "E");
+        ParallelTrainBuilder ptb = new ParallelTrainBuilder(1);
+
+        List<List<Train>> groups = ptb.getGroups(Arrays.asList(t1, t2));
+        Assert.assertEquals("separate routes", 2, groups.size());
+
+        groups = ptb.getGroups(Arrays.asList(t1, t2, t3));
+        Assert.assertEquals("T1 and T3 share B", 2, groups.size());
+        Assert.assertEquals("build order kept", Arrays.asList(t1, t3), groups.get(0));
+        Assert.assertEquals(Arrays.asList(t2), groups.get(1));
+
+        Setup.setCarRoutingEnabled(true);
+        Car car = JUnitOperationsUtil.createAndPlaceCar("CP", "1", "Boxcar", "40",
+                lmanager.getLocationByName("C").getTrackByName("C yard", null), 0);
+        car.setFinalDestination(lmanager.getLocationByName("D"));
+        groups = ptb.getGroups(Arrays.asList(t1, t2, t3));
+        Assert.assertEquals("car may be routed", 1, groups.size());
+        car.setFinalDestination(null);
+
+        t2.addBuildScript("test.py");
+        groups = ptb.getGroups(Arrays.asList(t1, t2, t3));
+        Assert.assertEquals("script may use any location", 1, groups.size());
+        Assert.assertEquals(Arrays.asList(t1, t2, t3), groups.get(0));
+    }
+
+    /**
+     * Build the same trains with the same seed in parallel and serially, each
+     * from a new layout, and check that every car is given the same train and
+     * track.
+     */
+    @Test
+    public void testParallelMatchesSerial() {
+        Map<String, String> parallel = buildLayout(4);
+        JUnitOperationsUtil.checkOperationsShutDownTask();
+
+        tearDown();
+        setUp();
+        Map<String, String> serial = buildLayout(1);
+
+        Assert.assertFalse("cars moved", serial.isEmpty());
+        Assert.assertEquals("same results", serial, parallel);
+
+        JUnitOperationsUtil.checkOperationsShutDownTask();
+    }
+
+    /**
+     * Create four independent trains, each able to take a random number of
+     * eight cars to one of four tracks, and build them.
+     *
+     * @param threads the most trains to build at once
+     * @return the train and track given to each car
+     */
+    private Map<String, String> buildLayout(int threads) {
+        List<Train> trains = new java.util.ArrayList<>();
+        for (int i = 1; i <= 4; i++) {
+            Train train = newTrain("T" + i, "From" + i, "To" + i);
+            Location to = lmanager.getLocationByName("To" + i);
+            for (int j = 1; j <= 3; j++) {
+                to.addTrack("To" + i + " spur " + j, Track.SPUR).setLength(1000);
+            }
+            Track yard = lmanager.getLocationByName("From" + i).getTrackByName("From" + i + " yard", null);
+            for (int j = 1; j <= 8; j++) {
+                JUnitOperationsUtil.createAndPlaceCar("CP", i + "0" + j, "Boxcar", "40", yard, 0);
+            }
+            RouteLocation rl = train.getRoute().getDepartsRouteLocation();
+            rl.setMaxCarMoves(8);
+            rl.setRandomControl("50");
+            train.getRoute().getTerminatesRouteLocation().setMaxCarMoves(8);
+            trains.add(train);
+        }
+
+        ParallelTrainBuilder ptb = new ParallelTrainBuilder(42);
+        ptb.setThreads(threads);
+        Assert.assertEquals("independent", 4, ptb.getGroups(trains).size());
+        Assert.assertTrue("build", ptb.build(trains));
+        return getAssignments();
+    }
+
+    private Map<String, String> getAssignments() {
+        Map<String, String> assignments = new HashMap<>();
+        for (Car car : InstanceManager.getDefault(CarManager.class).getList()) {
+            if (car.getTrain() != null) {
+                assignments.put(car.getId(), car.getTrainName() + " " + car.getDestinationTrackName());
+            }
+        }
+        return assignments;
+    }
+
+    @Test
+    public void testBuild() {
+        Train t1 = newTrain("T1", "A", "B");
+        Train t2 = newTrain("T2", "C", "D");
+        Train t3 = newTrain("T3", "E", "F");
+        t3.setBuildEnabled(false);
+
+        ParallelTrainBuilder ptb = new ParallelTrainBuilder(1);
+        ptb.setThreads(2);
+        Assert.assertTrue("build", ptb.build(Arrays.asList(t1, t2, t3)));
+        Assert.assertTrue("T1 built", t1.isBuilt());
+        Assert.assertTrue("T2 built", t2.isBuilt());
+        Assert.assertFalse("T3 not selected", t3.isBuilt());
+        Assert.assertTrue("T1 timed", ptb.getBuildTime(t1) >= 0);
+        Assert.assertEquals("T3 not timed", -1, ptb.getBuildTime(t3));
+        Assert.assertTrue("total time", ptb.getTotalTime() >= ptb.getBuildTime(t2));
+
+        JUnitOperationsUtil.checkOperationsShutDownTask();
+    }
+
+    @Override
+    @Before
+    public void setUp() {
+        super.setUp();
+        tmanager = InstanceManager.getDefault(TrainManager.class);
+        rmanager = InstanceManager.getDefault(RouteManager.class);
+        lmanager = InstanceManager.getDefault(LocationManager.class);
+    }
+}
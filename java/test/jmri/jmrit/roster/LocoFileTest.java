@@ -18,6 +18,24 @@ public class LocoFileTest {
         Assert.assertNotNull("exists",t);
     }
 
+    @Test
+    public void testLoadLastAccess() {
+        org.jdom2.Element loco = new org.jdom2.Element("locomotive").setAttribute("id", "test");
+        org.jdom2.Element values = new org.jdom2.Element("values");
+        loco.addContent(values);
+        values.addContent(new org.jdom2.Element("CVvalue").setAttribute("name", "1").setAttribute("value", "3")
+                .setAttribute("lastAccess", "2020-06-01T10:15:30Z").setAttribute("programmer", "DIRECTBYTEMODE"));
+        values.addContent(new org.jdom2.Element("CVvalue").setAttribute("name", "2").setAttribute("value", "4"));
+        jmri.jmrit.symbolicprog.CvTableModel cvModel = new jmri.jmrit.symbolicprog.CvTableModel(new javax.swing.JLabel(), null);
+        LocoFile.loadCvModel(loco, cvModel, null);
+
+        jmri.jmrit.symbolicprog.CvValue cv1 = cvModel.getCvByNumber("1");
+        Assert.assertEquals(3, cv1.getValue());
+        Assert.assertEquals(java.time.Instant.parse("2020-06-01T10:15:30Z"), cv1.getLastAccess());
+        Assert.assertEquals("DIRECTBYTEMODE", cv1.getLastProgrammer());
+        Assert.assertNull(cvModel.getCvByNumber("2").getLastAccess());
+    }
+
     @Before
     public void setUp() {
         JUnitUtil.setUp();
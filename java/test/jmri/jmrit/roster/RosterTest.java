@@ -316,6 +316,78 @@ public class RosterTest {
 
     }
 
+    @Test
+    public void testIndexFollowsChanges() throws Exception {
+        Roster r = jmri.util.RosterTestUtil.createTestRoster(new File(Roster.getDefault().getRosterLocation()),"rosterTest.xml");
+        RosterEntry sp = r.getEntryForId("SP123");
+        Assert.assertNotNull("found by id", sp);
+        Assert.assertEquals("by address", 1, r.getEntriesByDccAddress("123").size());
+        Assert.assertEquals("by road number", 3, r.getEntriesMatchingCriteria(null, "123", null, null, null, null, null, null).size());
+        Assert.assertEquals("by road name and number", sp, r.getEntriesMatchingCriteria("SP", "123", null, null, null, null, null, null).get(0));
+
+        // results stay in roster order
+        List<RosterEntry> l = r.getEntriesMatchingCriteria(null, "123", null, null, null, null, null, null);
+        Assert.assertEquals("first", "ATSF123", l.get(0).getId());
+        Assert.assertEquals("last", "UP123", l.get(2).getId());
+
+        sp.setDccAddress("789");
+        Assert.assertTrue("old address", r.getEntriesByDccAddress("123").isEmpty());
+        Assert.assertEquals("new address", sp, r.getEntriesByDccAddress("789").get(0));
+
+        sp.setRoadNumber("124");
+        Assert.assertEquals("old number", 2, r.matchingList(null, "123", null, null, null, null, null).size());
+        Assert.assertEquals("new number", 1, r.matchingList(null, "124", null, null, null, null, null).size());
+
+        sp.putAttribute("key a", "value c");
+        Assert.assertEquals("old value", 1, r.getEntriesWithAttributeKeyValue("key a", "value a").size());
+        Assert.assertEquals("new value", 1, r.getEntriesWithAttributeKeyValue("key a", "value c").size());
+        Assert.assertEquals("any value", 2, r.getEntriesWithAttributeKey("key a").size());
+        sp.deleteAttribute("key a");
+        Assert.assertEquals("deleted", 1, r.getEntriesWithAttributeKey("key a").size());
+
+        sp.putAttribute(Roster.getRosterGroupProperty("group"), "yes");
+        Assert.assertEquals("in group", sp, r.getEntriesInGroup("group").get(0));
+        Assert.assertEquals("in group with road", 1, r.getEntriesMatchingCriteria("SP", null, null, null, null, null, null, "group").size());
+        Assert.assertEquals("not in group", 0, r.getEntriesMatchingCriteria("UP", null, null, null, null, null, null, "group").size());
+
+        sp.setId("AA123");
+        Assert.assertNull("old id", r.getEntryForId("SP123"));
+        Assert.assertEquals("new id", sp, r.entryFromTitle("AA123"));
+        Assert.assertEquals("reordered", sp, r.getEntriesWithAttributeKey("key b").get(0));
+
+        r.removeEntry(sp);
+        Assert.assertNull("removed", r.getEntryForId("AA123"));
+        Assert.assertTrue("removed from group", r.getEntriesInGroup("group").isEmpty());
+        Assert.assertFalse("removed attribute", r.getAllAttributeKeys().contains(Roster.getRosterGroupProperty("group")));
+    }
+
+    @Test
+    public void testReindex() throws Exception {
+        Roster r = jmri.util.RosterTestUtil.createTestRoster(new File(Roster.getDefault().getRosterLocation()),"rosterTest.xml");
+        // the test entries are stored without the suffix reindex looks for
+        for (RosterEntry re : r.getAllEntries()) {
+            File file = new File(r.getRosterFilesLocation() + re.getFileName());
+            Assert.assertTrue(file.renameTo(new File(file.getPath() + ".xml")));
+            re.setFileName(re.getFileName() + ".xml");
+        }
+        r.writeFile(r.getRosterIndexPath());
+        RosterEntry sp = r.getEntryForId("SP123");
+        // changed in memory only, so read again from the file
+        sp.setRoadName("XX");
+        // file removed, so the entry is dropped
+        Assert.assertTrue(new File(r.getRosterFilesLocation() + r.getEntryForId("UP123").getFileName()).delete());
+
+        r.reindex();
+        Assert.assertEquals("entries", 2, r.numEntries());
+        Assert.assertEquals("read from file", "SP", r.getEntryForId("SP123").getRoadName());
+        Assert.assertEquals("read from file", "ATSF", r.getEntryForId("ATSF123").getRoadName());
+        Assert.assertNull("dropped", r.getEntryForId("UP123"));
+
+        Roster t = new Roster();
+        t.readFile(r.getRosterIndexPath());
+        Assert.assertEquals("stored", 2, t.numEntries());
+    }
+
     @Test
     public void testDefaultLocation() {
         Assert.assertTrue("creates a default", Roster.getDefault() != null);
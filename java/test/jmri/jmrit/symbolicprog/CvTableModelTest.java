@@ -1,7 +1,15 @@
 package jmri.jmrit.symbolicprog;
 
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
 import javax.swing.JLabel;
+import jmri.implementation.MultiIndexProgrammerFacade;
+import jmri.progdebugger.ProgDebugger;
+import jmri.util.JUnitUtil;
+import org.junit.After;
 import org.junit.Assert;
+import org.junit.Before;
 import org.junit.Test;
 
 /**
@@ -14,6 +22,63 @@ public class CvTableModelTest {
         Assert.assertNotNull(new CvTableModel(new JLabel(), null));
     }
 
+    private CvValue addCV(CvTableModel model, String name, int state, boolean accessed) {
+        model.addCV(name, false, false, false);
+        CvValue cv = model.getCvByNumber(name);
+        cv.setState(state);
+        if (accessed) {
+            cv.setLastAccess(Instant.now(), "test");
+        }
+        return cv;
+    }
+
+    @Test
+    public void testCvsToVerify() {
+        // PI is CV16, SI CV17, index values first
+        CvTableModel model = new CvTableModel(new JLabel(),
+                new MultiIndexProgrammerFacade(new ProgDebugger(), "16", "17", false, true));
+        List<CvValue> cvs = new ArrayList<>();
+        cvs.add(addCV(model, "4.20", CvValue.UNKNOWN, false));
+        cvs.add(addCV(model, "3.11", CvValue.FROMFILE, true));
+        cvs.get(1).setStale(true);
+        cvs.add(addCV(model, "1", CvValue.READ, true));
+        cvs.add(addCV(model, "2", CvValue.FROMFILE, false));
+        // index CVs are read even if known
+        cvs.add(addCV(model, "16", CvValue.FROMFILE, true));
+        // but not if there's an edit to write
+        cvs.add(addCV(model, "17", CvValue.EDITED, false));
+        cvs.add(addCV(model, "3.12", CvValue.UNKNOWN, false));
+        cvs.add(addCV(model, "3.10", CvValue.FROMFILE, true));
+        cvs.add(cvs.get(0));
+
+        List<String> names = new ArrayList<>();
+        model.getCvsToVerify(cvs).forEach(cv -> names.add(cv.number()));
+        // direct CVs, then by index page in order of first use
+        Assert.assertEquals("[2, 16, 4.20, 3.11, 3.12]", names.toString());
+    }
+
+    @Test
+    public void testCvsToVerifyDirect() {
+        CvTableModel model = new CvTableModel(new JLabel(), new ProgDebugger());
+        List<CvValue> cvs = new ArrayList<>();
+        cvs.add(addCV(model, "3.11", CvValue.UNKNOWN, false));
+        cvs.add(addCV(model, "1", CvValue.READ, true));
+        cvs.add(addCV(model, "2", CvValue.FROMFILE, false));
+        List<String> names = new ArrayList<>();
+        model.getCvsToVerify(cvs).forEach(cv -> names.add(cv.number()));
+        Assert.assertEquals("[3.11, 2]", names.toString());
+    }
+
+    @Before
+    public void setUp() {
+        JUnitUtil.setUp();
+    }
+
+    @After
+    public void tearDown() {
+        JUnitUtil.tearDown();
+    }
+
     // private final static Logger log = LoggerFactory.getLogger(CvTableModelTest.class);
 
 }
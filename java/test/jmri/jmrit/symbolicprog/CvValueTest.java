@@ -100,6 +100,34 @@ public class CvValueTest {
         Assert.assertEquals("last value written ", 12, p.lastWrite());
     }
 
+    // check the record of decoder access
+    @Test
+    public void testLastAccess() {
+        CvValue cv = new CvValue("91", p);
+        Assert.assertNull(cv.getLastAccess());
+        cv.read(null);
+        JUnitUtil.waitFor(()->{return !cv.isBusy();}, "cv.isBusy");
+        Assert.assertNotNull("read", cv.getLastAccess());
+        Assert.assertEquals(CvValue.describe(p), cv.getLastProgrammer());
+        Assert.assertFalse(cv.isStale());
+
+        // an edit no longer matches the decoder
+        cv.setValue(12);
+        Assert.assertNull("edited", cv.getLastAccess());
+        Assert.assertNull(cv.getLastProgrammer());
+        cv.write(null);
+        JUnitUtil.waitFor(()->{return !cv.isBusy();}, "cv.isBusy");
+        Assert.assertNotNull("written", cv.getLastAccess());
+
+        // a failed compare marks the value stale
+        CvValue cv2 = new CvValue("66", p);
+        cv2.setValue(91);
+        cv2.confirm(null);
+        JUnitUtil.waitFor(()->{return !cv2.isBusy();}, "cv.isBusy");
+        Assert.assertTrue(cv2.isStale());
+        Assert.assertNull(cv2.getLastAccess());
+    }
+
     // check the state diagram
     @Test
     public void testCvValStates() {
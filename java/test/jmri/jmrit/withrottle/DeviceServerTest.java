@@ -25,6 +25,20 @@ public class DeviceServerTest {
         Assert.assertNotNull("exists", panel );
     }
 
+    @Test
+    public void testRunWithoutStreams() {
+        java.net.Socket s = new java.net.Socket();
+        FacelessServer f = new FacelessServer(){
+           @Override
+           public void listen(){
+           }
+        };
+        DeviceServer panel = new DeviceServer(s,f);
+        jmri.util.JUnitAppender.assertErrorMessage("Stream creation failed (DeviceServer)");
+        panel.run();
+        Assert.assertTrue("socket closed", s.isClosed());
+    }
+
     @Before
     public void setUp() {
         JUnitUtil.setUp();
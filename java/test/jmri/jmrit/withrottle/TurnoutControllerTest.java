@@ -1,5 +1,8 @@
 package jmri.jmrit.withrottle;
 
+import jmri.InstanceManager;
+import jmri.Turnout;
+import jmri.TurnoutManager;
 import jmri.util.JUnitUtil;
 import org.junit.*;
 
@@ -16,9 +19,38 @@ public class TurnoutControllerTest {
         Assert.assertNotNull("exists", panel );
     }
 
+    @Test
+    public void testSendListToNewDevice() {
+        Turnout turnout = InstanceManager.getDefault(TurnoutManager.class).provideTurnout("IT1");
+        TurnoutController controller = new TurnoutController();
+        ControllerInterfaceScaffold first = new ControllerInterfaceScaffold();
+        ControllerInterfaceScaffold second = new ControllerInterfaceScaffold();
+        controller.addControllerListener(first);
+        controller.sendList(first);
+        String list = first.getLastPacket();
+        Assert.assertEquals("PTL]\\[IT1}|{}|{1", list);
+
+        controller.addControllerListener(second);
+        first.reset();
+        controller.sendList(second);
+        Assert.assertNull("connected device not sent list", first.getLastPacket());
+        Assert.assertSame("cached list", list, second.getLastPacket());
+
+        turnout.setCommandedState(Turnout.THROWN);
+        Assert.assertEquals("PTA4IT1", first.getLastPacket());
+        Assert.assertEquals("PTA4IT1", second.getLastPacket());
+        controller.sendList(second);
+        Assert.assertEquals("list rebuilt", "PTL]\\[IT1}|{}|{4", second.getLastPacket());
+
+        turnout.setUserName("Yard Lead");
+        controller.sendList(second);
+        Assert.assertEquals("list rebuilt", "PTL]\\[IT1}|{Yard Lead}|{4", second.getLastPacket());
+    }
+
     @Before
     public void setUp() {
         JUnitUtil.setUp();
+        JUnitUtil.initInternalTurnoutManager();
     }
     
     @After
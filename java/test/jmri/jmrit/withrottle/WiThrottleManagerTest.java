@@ -2,6 +2,10 @@ package jmri.jmrit.withrottle;
 
 import jmri.InstanceManager;
 import jmri.NamedBeanHandleManager;
+import jmri.jmrit.roster.Roster;
+import jmri.jmrit.roster.RosterConfigManager;
+import jmri.jmrit.roster.RosterEntry;
+import jmri.profile.ProfileManager;
 import jmri.util.JUnitUtil;
 import org.junit.*;
 
@@ -18,9 +22,38 @@ public class WiThrottleManagerTest {
         Assert.assertNotNull("exists", panel );
     }
 
+    @Test
+    public void testRosterList() {
+        Roster roster = new Roster();
+        InstanceManager.getDefault(RosterConfigManager.class).setRoster(ProfileManager.getDefault().getActiveProfile(), roster);
+        RosterEntry entry = new RosterEntry();
+        entry.setId("Limited");
+        entry.setDccAddress("3");
+        roster.addEntry(entry);
+
+        WiThrottleManager manager = new WiThrottleManager();
+        String list = manager.getRosterList(null);
+        Assert.assertEquals("RL1]\\[Limited}|{3}|{S", list);
+        Assert.assertSame("cached", list, manager.getRosterList(null));
+
+        entry.setDccAddress("4");
+        Assert.assertEquals("entry changed", "RL1]\\[Limited}|{4}|{S", manager.getRosterList(null));
+
+        RosterEntry other = new RosterEntry();
+        other.setId("Freight");
+        other.setDccAddress("12");
+        roster.addEntry(other);
+        Assert.assertEquals("entry added", "RL2]\\[Freight}|{12}|{S]\\[Limited}|{4}|{S", manager.getRosterList(null));
+
+        roster.removeEntry(entry);
+        Assert.assertEquals("entry removed", "RL1]\\[Freight}|{12}|{S", manager.getRosterList(null));
+    }
+
     @Before
     public void setUp() {
         JUnitUtil.setUp();
+        JUnitUtil.resetProfileManager();
+        JUnitUtil.initRosterConfigManager();
         InstanceManager.setDefault(NamedBeanHandleManager.class, new NamedBeanHandleManager());
     }
     
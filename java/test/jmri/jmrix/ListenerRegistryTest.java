@@ -0,0 +1,98 @@
+package jmri.jmrix;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import jmri.util.JUnitUtil;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests for ListenerRegistry.
+ */
+public class ListenerRegistryTest {
+
+    private ListenerRegistry<String> registry;
+
+    @Test
+    public void testAddRemove() {
+        Assert.assertTrue(registry.isEmpty());
+        Assert.assertTrue(registry.add("a"));
+        Assert.assertFalse("duplicate", registry.add("a"));
+        Assert.assertTrue(registry.add("b"));
+        Assert.assertEquals(Arrays.asList("a", "b"), registry.getListeners());
+        Assert.assertEquals(2, registry.size());
+        Assert.assertTrue(registry.contains("a"));
+        Assert.assertTrue(registry.remove("a"));
+        Assert.assertFalse(registry.remove("a"));
+        Assert.assertEquals(Collections.singletonList("b"), registry.getListeners());
+    }
+
+    @Test
+    public void testSnapshotUnchanged() {
+        registry.add("a");
+        List<String> snapshot = registry.getListeners();
+        registry.add("b");
+        registry.remove("a");
+        Assert.assertEquals(Collections.singletonList("a"), snapshot);
+        Assert.assertSame("no change, no copy", registry.getListeners(), registry.getListeners());
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testSnapshotUnmodifiable() {
+        registry.add("a");
+        registry.getListeners().add("b");
+    }
+
+    @Test
+    public void testTypes() {
+        registry.add("all");
+        registry.add("sensor", 0xB2);
+        registry.add("turnout", 0xB0);
+        registry.add("turnout", 0xB1);
+        Assert.assertEquals(Arrays.asList("all", "sensor"), registry.getListeners(0xB2));
+        Assert.assertEquals(Arrays.asList("all", "turnout"), registry.getListeners(0xB1));
+        Assert.assertEquals(Collections.singletonList("all"), registry.getListeners(0x83));
+        Assert.assertEquals("unknown type goes to everyone", 3, registry.getListeners(ListenerRegistry.ALL_TYPES).size());
+        Assert.assertEquals("distinct listeners", 3, registry.size());
+
+        Assert.assertTrue(registry.remove("turnout", 0xB0));
+        Assert.assertEquals(Collections.singletonList("all"), registry.getListeners(0xB0));
+        Assert.assertEquals(Arrays.asList("all", "turnout"), registry.getListeners(0xB1));
+        Assert.assertTrue(registry.remove("turnout"));
+        Assert.assertEquals(Collections.singletonList("all"), registry.getListeners(0xB1));
+    }
+
+    @Test
+    public void testTypedAndAll() {
+        registry.add("x", 0x10);
+        registry.add("x");
+        Assert.assertEquals("listed once", Collections.singletonList("x"), registry.getListeners(0x10));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testTypeRange() {
+        registry.add("a", ListenerRegistry.MAX_TYPE + 1);
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testNull() {
+        registry.add(null);
+    }
+
+    @Before
+    public void setUp() {
+        JUnitUtil.setUp();
+        registry = new ListenerRegistry<>();
+    }
+
+    @After
+    public void tearDown() {
+        registry = null;
+        JUnitUtil.tearDown();
+    }
+
+}
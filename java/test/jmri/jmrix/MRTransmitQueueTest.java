@@ -0,0 +1,153 @@
+package jmri.jmrix;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import jmri.util.JUnitUtil;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests for MRTransmitQueue.
+ */
+public class MRTransmitQueueTest {
+
+    private MRTransmitQueue queue;
+    private final AbstractMRListener listener = new AbstractMRListener() {
+    };
+
+    private AbstractMRMessage message(int value) {
+        AbstractMRMessage m = new AbstractMRMessage(1) {
+        };
+        m.setElement(0, value);
+        return m;
+    }
+
+    @Test
+    public void testEmpty() {
+        Assert.assertTrue(queue.isEmpty());
+        Assert.assertNull(queue.poll());
+    }
+
+    @Test
+    public void testFifoWithinPriority() {
+        for (int i = 0; i < 10; i++) {
+            Assert.assertTrue(queue.offer(message(i), listener, MRTransmitQueue.Priority.OPS, null));
+        }
+        Assert.assertEquals(10, queue.size());
+        for (int i = 0; i < 10; i++) {
+            MRTransmitQueue.Entry e = queue.poll();
+            Assert.assertNotNull(e);
+            Assert.assertEquals(i, e.getMessage().getElement(0));
+            Assert.assertSame(listener, e.getListener());
+        }
+        Assert.assertTrue(queue.isEmpty());
+    }
+
+    @Test
+    public void testPriorityOrder() {
+        queue.offer(message(1), null, MRTransmitQueue.Priority.POLL, null);
+        queue.offer(message(2), null, MRTransmitQueue.Priority.PROGRAMMING, null);
+        queue.offer(message(3), null, MRTransmitQueue.Priority.OPS, null);
+        Assert.assertEquals(3, queue.poll().getMessage().getElement(0));
+        Assert.assertEquals(2, queue.poll().getMessage().getElement(0));
+        Assert.assertEquals(1, queue.poll().getMessage().getElement(0));
+    }
+
+    @Test
+    public void testCoalescing() {
+        queue.offer(message(1), listener, MRTransmitQueue.Priority.OPS, "node 1");
+        queue.offer(message(2), listener, MRTransmitQueue.Priority.OPS, "node 2");
+        queue.offer(message(3), listener, MRTransmitQueue.Priority.OPS, "node 1");
+        // different listener is never coalesced
+        queue.offer(message(4), null, MRTransmitQueue.Priority.OPS, "node 1");
+        Assert.assertEquals(1, queue.getCoalescedCount());
+        Assert.assertEquals(3, queue.poll().getMessage().getElement(0));
+        Assert.assertEquals(2, queue.poll().getMessage().getElement(0));
+        Assert.assertEquals(4, queue.poll().getMessage().getElement(0));
+        Assert.assertNull(queue.poll());
+        // once sent, a new message with the same key is queued again
+        queue.offer(message(5), listener, MRTransmitQueue.Priority.OPS, "node 1");
+        Assert.assertEquals(5, queue.poll().getMessage().getElement(0));
+    }
+
+    @Test
+    public void testRequeueFirst() {
+        queue.offer(message(1), null, MRTransmitQueue.Priority.OPS, null);
+        queue.offer(message(2), null, MRTransmitQueue.Priority.OPS, null);
+        MRTransmitQueue.Entry e = queue.poll();
+        queue.requeueFirst(e.getMessage(), e.getListener());
+        Assert.assertEquals(2, queue.size());
+        Assert.assertEquals(1, queue.poll().getMessage().getElement(0));
+        Assert.assertEquals(2, queue.poll().getMessage().getElement(0));
+    }
+
+    @Test
+    public void testBounded() {
+        queue = new MRTransmitQueue(3); // rounded up to 4
+        for (int i = 0; i < 4; i++) {
+            Assert.assertTrue(queue.offer(message(i), null, MRTransmitQueue.Priority.OPS, null));
+        }
+        Assert.assertFalse(queue.offer(message(4), null, MRTransmitQueue.Priority.OPS, null));
+        // other classes have their own space
+        Assert.assertTrue(queue.offer(message(5), null, MRTransmitQueue.Priority.POLL, null));
+        queue.poll();
+        Assert.assertTrue(queue.offer(message(6), null, MRTransmitQueue.Priority.OPS, null));
+    }
+
+    @Test
+    public void testConcurrentProducers() throws InterruptedException {
+        final int producers = 4;
+        final int count = 2000;
+        queue = new MRTransmitQueue(producers * count);
+        List<Thread> threads = new ArrayList<>();
+        for (int p = 0; p < producers; p++) {
+            final int base = p * count;
+            Thread t = new Thread(() -> {
+                for (int i = 0; i < count; i++) {
+                    queue.offer(message(base + i), null, MRTransmitQueue.Priority.OPS, null);
+                }
+            }, "MRTransmitQueueTest producer " + p);
+            threads.add(t);
+            t.start();
+        }
+        Set<Integer> seen = new HashSet<>();
+        int[] last = new int[producers];
+        java.util.Arrays.fill(last, -1);
+        long end = System.currentTimeMillis() + 10000;
+        while (seen.size() < producers * count && System.currentTimeMillis() < end) {
+            MRTransmitQueue.Entry e = queue.poll();
+            if (e == null) {
+                Thread.yield();
+                continue;
+            }
+            int value = e.getMessage().getElement(0);
+            Assert.assertTrue("no duplicates", seen.add(value));
+            // each producer's messages arrive in order
+            Assert.assertTrue(value % count > last[value / count]);
+            last[value / count] = value % count;
+        }
+        for (Thread t : threads) {
+            t.join();
+        }
+        Assert.assertEquals(producers * count, seen.size());
+        Assert.assertTrue(queue.isEmpty());
+    }
+
+    @Before
+    public void setUp() {
+        JUnitUtil.setUp();
+        queue = new MRTransmitQueue();
+    }
+
+    @After
+    public void tearDown() {
+        queue = null;
+        JUnitUtil.tearDown();
+    }
+
+}
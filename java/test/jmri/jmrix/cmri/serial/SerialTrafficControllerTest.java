@@ -10,6 +10,7 @@ import jmri.util.JUnitUtil;
 import org.junit.After;
 import org.junit.Assert;
 import org.junit.Before;
+import org.junit.Test;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -72,6 +73,28 @@ public class SerialTrafficControllerTest extends jmri.jmrix.AbstractMRNodeTraffi
         return i < 100;
     }
 
+    @Test
+    public void testTypeListener() {
+        SerialTrafficControlScaffold c = new SerialTrafficControlScaffold();
+        Vector<SerialMessage> polls = new Vector<>();
+        SerialListener l = new SerialListenerScaffold() {
+            @Override
+            public void message(SerialMessage m) {
+                polls.add(m);
+            }
+        };
+        c.addSerialTypeListener('P', l);
+        c.sendTestMessage(new SerialMessage("AP"), null);
+        c.sendTestMessage(new SerialMessage("AT" + (char) 0x55), null);
+        Assert.assertEquals(1, polls.size());
+        Assert.assertTrue(polls.get(0).isPoll());
+
+        c.removeSerialTypeListener('P', l);
+        c.sendTestMessage(new SerialMessage("AP"), null);
+        Assert.assertEquals(1, polls.size());
+        c.terminateThreads();
+    }
+
     // internal class to simulate a Listener
     class SerialListenerScaffold implements jmri.jmrix.cmri.serial.SerialListener {
 
@@ -1,8 +1,12 @@
 package jmri.jmrix.lenz;
 
+import java.util.ArrayList;
+import java.util.List;
 import jmri.util.JUnitUtil;
 import org.junit.After;
+import org.junit.Assert;
 import org.junit.Before;
+import org.junit.Test;
 
 /**
  * Tests for XNetTrafficController.
@@ -12,6 +16,39 @@ import org.junit.Before;
  */
 public class XNetTrafficControllerTest extends jmri.jmrix.AbstractMRTrafficControllerTest {
 
+    @Test
+    public void testHeaderListener() {
+        XNetInterfaceScaffold xnis = new XNetInterfaceScaffold(new LenzCommandStation());
+        List<XNetReply> all = new ArrayList<>();
+        List<XNetReply> feedback = new ArrayList<>();
+        XNetListener allListener = new XNetListenerScaffold() {
+            @Override
+            public void message(XNetReply m) {
+                all.add(m);
+            }
+        };
+        XNetListener feedbackListener = new XNetListenerScaffold() {
+            @Override
+            public void message(XNetReply m) {
+                feedback.add(m);
+            }
+        };
+        xnis.addXNetListener(XNetInterface.ALL, allListener);
+        xnis.addXNetHeaderListener(XNetConstants.ACC_INFO_RESPONSE, feedbackListener);
+
+        xnis.sendTestMessage(new XNetReply("42 05 48 0F"));
+        xnis.sendTestMessage(new XNetReply("61 01 60"));
+        Assert.assertEquals(2, all.size());
+        Assert.assertEquals(1, feedback.size());
+        Assert.assertEquals(XNetConstants.ACC_INFO_RESPONSE, feedback.get(0).getElement(0));
+
+        xnis.removeXNetHeaderListener(XNetConstants.ACC_INFO_RESPONSE, feedbackListener);
+        xnis.sendTestMessage(new XNetReply("42 05 48 0F"));
+        Assert.assertEquals(3, all.size());
+        Assert.assertEquals(1, feedback.size());
+        xnis.terminateThreads();
+    }
+
     @Before
     @Override
     public void setUp() {
@@ -0,0 +1,79 @@
+package jmri.jmrix.loconet;
+
+import jmri.util.JUnitUtil;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests for the LnMessagePool class.
+ */
+public class LnMessagePoolTest {
+
+    private LnMessagePool pool;
+
+    @Test
+    public void testAcquireLength() {
+        Assert.assertEquals(4, pool.acquire(4).getNumDataElements());
+        Assert.assertEquals(14, pool.acquire(14).getNumDataElements());
+        Assert.assertEquals(2, pool.getCreatedCount());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testAcquireInvalidLength() {
+        pool.acquire(1);
+    }
+
+    @Test
+    public void testReuseByLength() {
+        LocoNetMessage m = pool.acquire(4);
+        pool.release(m);
+        Assert.assertNotSame(m, pool.acquire(6));
+        Assert.assertSame(m, pool.acquire(4));
+        Assert.assertEquals(1, pool.getReusedCount());
+    }
+
+    @Test
+    public void testDoubleReleaseIgnored() {
+        LocoNetMessage m = pool.acquire(4);
+        pool.release(m);
+        pool.release(m);
+        Assert.assertSame(m, pool.acquire(4));
+        Assert.assertNotSame(m, pool.acquire(4));
+    }
+
+    @Test
+    public void testRetainCopies() {
+        LocoNetMessage m = pool.acquire(2);
+        m.setElement(0, 0x83);
+        m.setElement(1, 0x7C);
+        LocoNetMessage kept = m.retain();
+        Assert.assertNotSame(m, kept);
+        Assert.assertEquals(m, kept);
+        Assert.assertSame(kept, kept.retain());
+        pool.release(m);
+        pool.acquire(2).setElement(0, 0x82);
+        Assert.assertEquals(0x83, kept.getOpCode());
+    }
+
+    @Test
+    public void testReleaseOrdinaryMessageIgnored() {
+        pool.release(new LocoNetMessage(4));
+        pool.acquire(4);
+        Assert.assertEquals(0, pool.getReusedCount());
+    }
+
+    @Before
+    public void setUp() {
+        JUnitUtil.setUp();
+        pool = new LnMessagePool();
+    }
+
+    @After
+    public void tearDown() {
+        pool = null;
+        JUnitUtil.tearDown();
+    }
+
+}
@@ -0,0 +1,110 @@
+package jmri.jmrix.loconet;
+
+import java.nio.ByteBuffer;
+
+import jmri.util.JUnitAppender;
+import jmri.util.JUnitUtil;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests for the LnPacketFramer class.
+ */
+public class LnPacketFramerTest {
+
+    private LnMessagePool pool;
+    private LnPacketFramer framer;
+
+    private ByteBuffer buffer(int... bytes) {
+        ByteBuffer buf = ByteBuffer.allocate(LnPacketizer.RCV_BUFFER_SIZE);
+        for (int b : bytes) {
+            buf.put((byte) b);
+        }
+        buf.flip();
+        return buf;
+    }
+
+    @Test
+    public void testFixedLengthPackets() {
+        // OPC_GPON, then OPC_SW_REQ
+        ByteBuffer buf = buffer(0x83, 0x7C, 0xB0, 0x20, 0x10, 0x7F);
+        LocoNetMessage m = framer.next(buf);
+        Assert.assertEquals(new LocoNetMessage(new int[]{0x83, 0x7C}), m);
+        m = framer.next(buf);
+        Assert.assertEquals(new LocoNetMessage(new int[]{0xB0, 0x20, 0x10, 0x7F}), m);
+        Assert.assertNull(framer.next(buf));
+        Assert.assertFalse(buf.hasRemaining());
+    }
+
+    @Test
+    public void testSkipsLeadingDataBytes() {
+        ByteBuffer buf = buffer(0x12, 0x34, 0x83, 0x7C);
+        Assert.assertEquals(new LocoNetMessage(new int[]{0x83, 0x7C}), framer.next(buf));
+    }
+
+    @Test
+    public void testPartialPacket() {
+        ByteBuffer buf = buffer(0xB0, 0x20);
+        Assert.assertNull(framer.next(buf));
+        Assert.assertEquals("left at start of packet", 0, buf.position());
+        buf.compact();
+        buf.put((byte) 0x10).put((byte) 0x7F);
+        buf.flip();
+        Assert.assertEquals(new LocoNetMessage(new int[]{0xB0, 0x20, 0x10, 0x7F}), framer.next(buf));
+    }
+
+    @Test
+    public void testVariableLengthPacket() {
+        LocoNetMessage expected = new LocoNetMessage(14);
+        expected.setOpCode(0xE7);
+        expected.setElement(1, 14);
+        expected.setElement(2, 3);
+        expected.setParity();
+        int[] bytes = new int[14];
+        for (int i = 0; i < 14; i++) {
+            bytes[i] = expected.getElement(i);
+        }
+        Assert.assertEquals(expected, framer.next(buffer(bytes)));
+    }
+
+    @Test
+    public void testEarlyEnd() {
+        // OPC_SW_REQ cut short by OPC_GPON
+        ByteBuffer buf = buffer(0xB0, 0x20, 0x83, 0x7C);
+        Assert.assertEquals(new LocoNetMessage(new int[]{0x83, 0x7C}), framer.next(buf));
+        JUnitAppender.assertWarnMessageStartingWith("LocoNet message with opCode: b0 ended early.");
+    }
+
+    @Test
+    public void testBadChecksum() {
+        ByteBuffer buf = buffer(0xB0, 0x20, 0x10, 0x7E, 0x83, 0x7C);
+        Assert.assertEquals(new LocoNetMessage(new int[]{0x83, 0x7C}), framer.next(buf));
+        JUnitAppender.assertWarnMessage("Ignore LocoNet packet with bad checksum: B0 20 10 7E");
+    }
+
+    @Test
+    public void testMessagesComeFromPool() {
+        ByteBuffer buf = buffer(0x83, 0x7C, 0x83, 0x7C);
+        LocoNetMessage first = framer.next(buf);
+        pool.release(first);
+        Assert.assertSame(first, framer.next(buf));
+        Assert.assertEquals(1, pool.getReusedCount());
+    }
+
+    @Before
+    public void setUp() {
+        JUnitUtil.setUp();
+        pool = new LnMessagePool();
+        framer = new LnPacketFramer(pool);
+    }
+
+    @After
+    public void tearDown() {
+        framer = null;
+        pool = null;
+        JUnitUtil.tearDown();
+    }
+
+}
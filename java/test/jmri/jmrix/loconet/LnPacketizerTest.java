@@ -7,6 +7,10 @@ import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.DataInputStream;
 import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * JUnit tests for the LnPacketizerTest class.
@@ -29,6 +33,50 @@ public class LnPacketizerTest {
        Assert.assertFalse("not connected", lnp.status() );
     }
 
+    @Test
+    public void testPooledReceive() {
+       Assert.assertFalse("default", lnp.isPooledReceive() );
+       lnp.setPooledReceive(true);
+       Assert.assertTrue("set", lnp.isPooledReceive() );
+    }
+
+    /**
+     * Run the pooled receive handler until it has read the given bytes.
+     */
+    private void receivePooled(int... bytes) {
+        lnp.istream = new DataInputStream(new InputStream() {
+            int next = 0;
+
+            @Override
+            public int read() throws IOException {
+                if (next >= bytes.length) {
+                    throw new IOException("end of test data");
+                }
+                return bytes[next++];
+            }
+        });
+        lnp.new PooledRcvHandler(lnp).run();
+    }
+
+    @Test
+    public void testPooledReceiveRetainedMessageSurvivesReuse() {
+       List<LocoNetMessage> seen = new ArrayList<>();
+       List<LocoNetMessage> kept = new ArrayList<>();
+       lnp.addLocoNetListener(LocoNetInterface.ALL, (LocoNetMessage m) -> {
+           seen.add(m);
+           kept.add(m.retain());
+       });
+       receivePooled(0x83, 0x7C); // OPC_GPON
+       JUnitUtil.waitFor(() -> seen.size() == 1, "first delivered");
+       receivePooled(0x82, 0x7D); // OPC_GPOFF
+       JUnitUtil.waitFor(() -> seen.size() == 2, "second delivered");
+
+       Assert.assertSame("message object reused", seen.get(0), seen.get(1));
+       Assert.assertEquals("reused message changed", LnConstants.OPC_GPOFF, seen.get(0).getOpCode());
+       Assert.assertEquals("retained message kept", LnConstants.OPC_GPON, kept.get(0).getOpCode());
+       Assert.assertEquals(LnConstants.OPC_GPOFF, kept.get(1).getOpCode());
+    }
+
     @Test
     @Ignore("may be causing hang on travis and appveyor")
     public void testStartThreads() {
@@ -0,0 +1,99 @@
+package jmri.jmrix.loconet;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import jmri.util.JUnitUtil;
+import jmri.util.ThreadingUtil;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests for the LnReceiveDispatcher class.
+ */
+public class LnReceiveDispatcherTest {
+
+    private LocoNetSystemConnectionMemo memo;
+    private LnPacketizer lnp;
+    private List<LocoNetMessage> received;
+
+    private LocoNetMessage message(int n) {
+        LocoNetMessage m = new LocoNetMessage(4);
+        m.setOpCode(LnConstants.OPC_SW_REQ);
+        m.setElement(1, n & 0x7F);
+        m.setElement(2, (n >> 7) & 0x0F);
+        m.setParity();
+        return m;
+    }
+
+    @Test
+    public void testOrderAndBatching() {
+        LnReceiveDispatcher dispatcher = lnp.getReceiveDispatcher();
+        // queue a burst while the layout thread is busy
+        ThreadingUtil.runOnLayout(() -> {
+            for (int i = 0; i < 100; i++) {
+                dispatcher.dispatch(message(i));
+            }
+            Assert.assertTrue("not yet delivered", received.isEmpty());
+        });
+        JUnitUtil.waitFor(() -> received.size() == 100, "all delivered");
+        for (int i = 0; i < 100; i++) {
+            Assert.assertEquals(message(i), received.get(i));
+        }
+        Assert.assertEquals(100, dispatcher.getMessageCount());
+        Assert.assertEquals("one layout thread turn", 1, dispatcher.getBatchCount());
+        Assert.assertEquals(100, dispatcher.getMaxBatchSize());
+        Assert.assertTrue(dispatcher.getMaxQueueDelay() >= dispatcher.getAverageQueueDelay());
+
+        lnp.resetStatistics();
+        Assert.assertEquals(0, dispatcher.getMessageCount());
+        Assert.assertEquals(0, dispatcher.getMaxBatchSize());
+    }
+
+    @Test
+    public void testLongBurstIsSplit() {
+        LnReceiveDispatcher dispatcher = lnp.getReceiveDispatcher();
+        int count = LnReceiveDispatcher.MAX_BATCH + 10;
+        ThreadingUtil.runOnLayout(() -> {
+            for (int i = 0; i < count; i++) {
+                dispatcher.dispatch(message(i));
+            }
+        });
+        JUnitUtil.waitFor(() -> received.size() == count, "all delivered");
+        Assert.assertEquals(2, dispatcher.getBatchCount());
+        Assert.assertEquals(LnReceiveDispatcher.MAX_BATCH, dispatcher.getMaxBatchSize());
+        Assert.assertEquals(message(count - 1), received.get(count - 1));
+    }
+
+    @Test
+    public void testPooledMessageReleased() {
+        LnMessagePool pool = new LnMessagePool();
+        LocoNetMessage m = pool.acquire(2);
+        m.setElement(0, 0x83);
+        m.setElement(1, 0x7C);
+        lnp.getReceiveDispatcher().dispatch(m, pool);
+        JUnitUtil.waitFor(() -> received.size() == 1, "delivered");
+        Assert.assertNotSame("listener kept a copy", m, received.get(0));
+        Assert.assertSame("released after delivery", m, pool.acquire(2));
+    }
+
+    @Before
+    public void setUp() {
+        JUnitUtil.setUp();
+        memo = new LocoNetSystemConnectionMemo();
+        lnp = new LnPacketizer(memo);
+        received = new ArrayList<>();
+        lnp.addLocoNetListener(LocoNetInterface.ALL, (LocoNetMessage msg) -> received.add(msg.retain()));
+    }
+
+    @After
+    public void tearDown() {
+        memo.dispose();
+        lnp = null;
+        memo = null;
+        JUnitUtil.tearDown();
+    }
+
+}
@@ -19,6 +19,28 @@ public class LnTrafficControllerTest {
         Assert.assertNotNull("exists", memo.getLnTrafficController() );
     }
 
+    @Test
+    public void testOpCodeListener() {
+        LocoNetInterfaceScaffold lnis = (LocoNetInterfaceScaffold) memo.getLnTrafficController();
+        java.util.List<LocoNetMessage> all = new java.util.ArrayList<>();
+        java.util.List<LocoNetMessage> inputs = new java.util.ArrayList<>();
+        LocoNetListener allListener = all::add;
+        LocoNetListener inputListener = inputs::add;
+        lnis.addLocoNetListener(LocoNetInterface.ALL, allListener);
+        lnis.addLocoNetOpCodeListener(LnConstants.OPC_INPUT_REP, inputListener);
+
+        lnis.sendTestMessage(new LocoNetMessage(new int[]{0xB2, 0x15, 0x50, 0x00}));
+        lnis.sendTestMessage(new LocoNetMessage(new int[]{0xB0, 0x15, 0x30, 0x00}));
+        Assert.assertEquals(2, all.size());
+        Assert.assertEquals(1, inputs.size());
+        Assert.assertEquals(LnConstants.OPC_INPUT_REP, inputs.get(0).getOpCode());
+
+        lnis.removeLocoNetOpCodeListener(LnConstants.OPC_INPUT_REP, inputListener);
+        lnis.sendTestMessage(new LocoNetMessage(new int[]{0xB2, 0x15, 0x50, 0x00}));
+        Assert.assertEquals(3, all.size());
+        Assert.assertEquals(1, inputs.size());
+    }
+
     @Before
     public void setUp() {
         JUnitUtil.setUp();
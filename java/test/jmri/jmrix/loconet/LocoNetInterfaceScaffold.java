@@ -1,6 +1,7 @@
 package jmri.jmrix.loconet;
 
 
+import java.util.List;
 import java.util.Vector;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -74,8 +75,8 @@ public class LocoNetInterfaceScaffold extends LnTrafficController {
     /**
      * Get listeners, used for testing dispose().
      */
-    public Vector<LocoNetListener> getListeners() {
-        return listeners;
+    public List<LocoNetListener> getListeners() {
+        return listeners.getListeners();
     }
 
     private final static Logger log = LoggerFactory.getLogger(LocoNetInterfaceScaffold.class);
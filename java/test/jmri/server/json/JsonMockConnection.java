@@ -88,6 +88,21 @@ public class JsonMockConnection extends JsonConnection {
         sendMessage(message, new JsonRequest(getLocale(), getVersion(), JSON.GET, id));
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * This implementation retains the message, and if
+     * {@link #isThrowIOException()} is true throws an {@link IOException}.
+     */
+    @Override
+    public void sendMessage(@Nonnull JsonNode message, @Nonnull String text) throws IOException {
+        if (throwIOException) {
+            throwIOException = false;
+            throw new IOException();
+        }
+        messages.add(message);
+    }
+
     @CheckForNull
     public JsonNode getMessage() {
         int i = messages.size() - 1;
@@ -0,0 +1,193 @@
+package jmri.server.json;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import java.io.DataOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import jmri.InstanceManager;
+import jmri.Sensor;
+import jmri.SensorManager;
+import jmri.server.json.sensor.JsonSensor;
+import jmri.server.json.sensor.JsonSensorSocketService;
+import jmri.util.JUnitUtil;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests for the JsonNamedBeanBroadcaster, using simulated clients that
+ * watch sensors through the JSON sensor service.
+ */
+public class JsonNamedBeanBroadcasterTest {
+
+    private final Locale locale = Locale.ENGLISH;
+
+    /**
+     * A client that records the last state sent for each sensor.
+     */
+    private static class SimulatedClient extends JsonConnection {
+
+        final Map<String, Integer> states = new ConcurrentHashMap<>();
+        final List<JsonNode> messages = new ArrayList<>();
+        final AtomicInteger count = new AtomicInteger();
+        volatile CountDownLatch blocked = null;
+
+        SimulatedClient() {
+            super((DataOutputStream) null);
+        }
+
+        @Override
+        public void sendMessage(JsonNode message, JsonRequest request) {
+            // replies to the client's own requests
+        }
+
+        @Override
+        public void sendMessage(JsonNode message, String text) {
+            CountDownLatch latch = blocked;
+            if (latch != null) {
+                try {
+                    latch.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            synchronized (messages) {
+                messages.add(message);
+            }
+            states.put(message.path(JSON.DATA).path(JSON.NAME).asText(), message.path(JSON.DATA).path(JSON.STATE).asInt());
+            count.incrementAndGet();
+        }
+    }
+
+    private List<SimulatedClient> connect(int clients, List<Sensor> sensors) throws Exception {
+        List<SimulatedClient> result = new ArrayList<>();
+        for (int i = 0; i < clients; i++) {
+            SimulatedClient client = new SimulatedClient();
+            JsonSensorSocketService service = new JsonSensorSocketService(client);
+            for (Sensor sensor : sensors) {
+                JsonNode message = client.getObjectMapper().createObjectNode().put(JSON.NAME, sensor.getSystemName());
+                service.onMessage(JsonSensor.SENSOR, message, new JsonRequest(locale, JSON.V5, JSON.GET, 0));
+            }
+            result.add(client);
+        }
+        return result;
+    }
+
+    private List<Sensor> sensors(int count) {
+        List<Sensor> result = new ArrayList<>();
+        SensorManager manager = InstanceManager.getDefault(SensorManager.class);
+        for (int i = 1; i <= count; i++) {
+            result.add(manager.provideSensor("IS" + i));
+        }
+        return result;
+    }
+
+    @Test
+    public void testOneMessageForAllClients() throws Exception {
+        Sensor sensor = sensors(1).get(0);
+        int listeners = sensor.getNumPropertyChangeListeners();
+        List<SimulatedClient> clients = connect(5, sensors(1));
+        JsonNamedBeanBroadcaster broadcaster = InstanceManager.getDefault(JsonNamedBeanBroadcaster.class);
+        Assert.assertEquals("one listener", listeners + 1, sensor.getNumPropertyChangeListeners());
+        Assert.assertEquals("subscribers", 5, broadcaster.getSubscriberCount(sensor));
+
+        sensor.setKnownState(Sensor.ACTIVE);
+        JsonNode first = clients.get(0).messages.get(0);
+        for (SimulatedClient client : clients) {
+            Assert.assertEquals("one message", 1, client.count.get());
+            Assert.assertSame("same message", first, client.messages.get(0));
+            Assert.assertEquals(JSON.ACTIVE, client.states.get("IS1").intValue());
+        }
+    }
+
+    @Test
+    public void testCoalesce() throws Exception {
+        InstanceManager.getDefault(JsonServerPreferences.class).setCoalesceInterval(50);
+        Sensor sensor = sensors(1).get(0);
+        List<SimulatedClient> clients = connect(3, sensors(1));
+        for (int i = 0; i < 10; i++) {
+            sensor.setKnownState((i % 2 == 0) ? Sensor.ACTIVE : Sensor.INACTIVE);
+        }
+        for (SimulatedClient client : clients) {
+            JUnitUtil.waitFor(() -> client.count.get() > 0, "message sent");
+        }
+        JUnitUtil.waitFor(100); // no further messages
+        for (SimulatedClient client : clients) {
+            Assert.assertEquals("one message", 1, client.count.get());
+            Assert.assertEquals("last state", JSON.INACTIVE, client.states.get("IS1").intValue());
+        }
+    }
+
+    @Test
+    public void testSlowClient() throws Exception {
+        InstanceManager.getDefault(JsonServerPreferences.class).setCoalesceInterval(5);
+        List<Sensor> sensors = sensors(10);
+        List<SimulatedClient> clients = connect(2, sensors);
+        SimulatedClient slow = clients.get(0);
+        SimulatedClient fast = clients.get(1);
+        CountDownLatch latch = new CountDownLatch(1);
+        slow.blocked = latch;
+
+        for (int i = 0; i < 20; i++) {
+            for (Sensor sensor : sensors) {
+                sensor.setKnownState((i % 2 == 0) ? Sensor.ACTIVE : Sensor.INACTIVE);
+            }
+            int round = i;
+            // wait for the fast client, so each round is a separate change
+            JUnitUtil.waitFor(() -> fast.states.size() == sensors.size()
+                    && fast.states.values().stream().allMatch(s -> s == ((round % 2 == 0) ? JSON.ACTIVE : JSON.INACTIVE)),
+                    "round " + i);
+        }
+        Assert.assertTrue("fast client not held up", fast.count.get() >= 20 * sensors.size());
+        Assert.assertEquals("slow client still blocked", 0, slow.count.get());
+
+        latch.countDown();
+        JUnitUtil.waitFor(() -> slow.states.size() == sensors.size()
+                && slow.states.values().stream().allMatch(s -> s == JSON.INACTIVE), "slow client catches up");
+        // one message in progress when blocked, then only the latest per sensor
+        Assert.assertTrue("slow client skipped old states", slow.count.get() <= sensors.size() + 1);
+    }
+
+    /**
+     * Drive many simulated clients, each watching many sensors, and report
+     * the time taken to deliver every change.
+     */
+    @Test
+    public void testLoad() throws Exception {
+        List<Sensor> sensors = sensors(200);
+        List<SimulatedClient> clients = connect(30, sensors);
+        long start = System.nanoTime();
+        for (int i = 0; i < 5; i++) {
+            for (Sensor sensor : sensors) {
+                sensor.setKnownState((i % 2 == 0) ? Sensor.ACTIVE : Sensor.INACTIVE);
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+        for (SimulatedClient client : clients) {
+            Assert.assertEquals("all changes", 5 * sensors.size(), client.count.get());
+            Assert.assertEquals(JSON.ACTIVE, client.states.get("IS200").intValue());
+        }
+        log.debug("{} changes sent to {} clients in {} ms", 5 * sensors.size(), clients.size(), elapsed / 1000000);
+    }
+
+    @Before
+    public void setUp() throws Exception {
+        JUnitUtil.setUp();
+        JUnitUtil.resetProfileManager();
+        JUnitUtil.initInternalSensorManager();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        JUnitUtil.tearDown();
+    }
+
+    private final static org.slf4j.Logger log = org.slf4j.LoggerFactory.getLogger(JsonNamedBeanBroadcasterTest.class);
+}
@@ -0,0 +1,91 @@
+package jmri.web.servlet.frameimage;
+
+import java.awt.Color;
+import java.io.IOException;
+import javax.swing.JPanel;
+import jmri.util.JUnitUtil;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests for the jmri.web.servlet.frameimage.FrameImage class
+ */
+public class FrameImageTest {
+
+    private JPanel panel;
+
+    @Test
+    public void testUnchangedImageIsNotEncoded() throws IOException {
+        FrameImage image = new FrameImage();
+        Assert.assertNull(image.getPng());
+        image.update(panel);
+        byte[] png = image.getPng();
+        String eTag = image.getETag();
+        Assert.assertNotNull(png);
+        Assert.assertNotNull(eTag);
+
+        image.invalidate();
+        image.update(panel);
+        Assert.assertSame("not encoded again", png, image.getPng());
+        Assert.assertEquals(eTag, image.getETag());
+    }
+
+    @Test
+    public void testChangedImageIsEncoded() throws IOException {
+        FrameImage image = new FrameImage();
+        image.update(panel);
+        String eTag = image.getETag();
+
+        panel.setBackground(Color.RED);
+        image.invalidate();
+        image.update(panel);
+        Assert.assertNotEquals("new image", eTag, image.getETag());
+
+        panel.setBackground(Color.BLUE);
+        panel.setSize(60, 40);
+        image.update(panel);
+        Assert.assertNotEquals("resized image", eTag, image.getETag());
+    }
+
+    @Test
+    public void testRecentImageIsReused() throws IOException {
+        FrameImage image = new FrameImage();
+        image.update(panel);
+        String eTag = image.getETag();
+        panel.setBackground(Color.RED);
+        image.update(panel);
+        Assert.assertEquals("reused", eTag, image.getETag());
+        JUnitUtil.waitFor((int) FrameImage.MIN_AGE * 2);
+        image.update(panel);
+        Assert.assertNotEquals("painted again", eTag, image.getETag());
+    }
+
+    @Test
+    public void testMatches() throws IOException {
+        FrameImage image = new FrameImage();
+        Assert.assertFalse(image.matches("*"));
+        image.update(panel);
+        String eTag = image.getETag();
+        Assert.assertFalse(image.matches(null));
+        Assert.assertFalse(image.matches("\"other\""));
+        Assert.assertTrue(image.matches(eTag));
+        Assert.assertTrue(image.matches("\"other\", W/" + eTag));
+        Assert.assertTrue(image.matches("*"));
+    }
+
+    @Before
+    public void setUp() {
+        JUnitUtil.setUp();
+        panel = new JPanel();
+        panel.setBackground(Color.WHITE);
+        panel.setSize(40, 30);
+    }
+
+    @After
+    public void tearDown() {
+        JUnitUtil.tearDown();
+    }
+
+}